@@ -0,0 +1,313 @@
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * AnalyticsEventPublisher - Push-based stream of analytics events (java.util.concurrent.Flow)
+ * Each subscriber owns a bounded ring of event sequence numbers. Type and character filters run
+ * on the logging thread before anything is buffered, delivery honours the subscriber's demand on
+ * a shared executor, and a full ring drops its oldest entry instead of blocking the game thread.
+ */
+public class AnalyticsEventPublisher implements Flow.Publisher<GameAnalytics.GameEvent> {
+
+    public static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+    private final LongFunction<GameAnalytics.GameEvent> materializer; // Sequence -> event, on delivery
+    private final ExecutorService deliveryExecutor;
+    private final Object subscriptionsLock = new Object();
+    private volatile EventSubscription[] subscriptions = new EventSubscription[0];
+    private volatile boolean closed = false;
+    private final AtomicLong droppedEvents = new AtomicLong(0);
+
+    public AnalyticsEventPublisher(LongFunction<GameAnalytics.GameEvent> materializer) {
+        this.materializer = materializer;
+        AtomicInteger threadCount = new AtomicInteger(0);
+        this.deliveryExecutor = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task, "AnalyticsPublisherThread-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ===============================================
+    // PUBLISHER SIDE
+    // ===============================================
+
+    /**
+     * Subscribe to every event
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameAnalytics.GameEvent> subscriber) {
+        subscribe(subscriber, null, null, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * A publisher view that only ever buffers events matching the given types and character.
+     * Either filter may be null to accept everything
+     */
+    public Flow.Publisher<GameAnalytics.GameEvent> filtered(Set<GameAnalytics.EventType> types,
+                                                            String characterName, int bufferCapacity) {
+        EnumSet<GameAnalytics.EventType> typeFilter = types == null || types.isEmpty() ? null : EnumSet.copyOf(types);
+        return subscriber -> subscribe(subscriber, typeFilter, characterName, bufferCapacity);
+    }
+
+    private void subscribe(Flow.Subscriber<? super GameAnalytics.GameEvent> subscriber,
+                           EnumSet<GameAnalytics.EventType> types, String characterName, int bufferCapacity) {
+        EventSubscription subscription = new EventSubscription(subscriber, types, characterName,
+                                                               Math.max(1, bufferCapacity));
+        subscriber.onSubscribe(subscription);
+        synchronized (subscriptionsLock) {
+            // Checked under the lock close() snapshots with, so no subscriber slips in uncompleted
+            if (!closed) {
+                EventSubscription[] current = subscriptions;
+                EventSubscription[] grown = new EventSubscription[current.length + 1];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                grown[current.length] = subscription;
+                subscriptions = grown;
+                return;
+            }
+        }
+        subscription.complete();
+    }
+
+    private void unsubscribe(EventSubscription subscription) {
+        synchronized (subscriptionsLock) {
+            EventSubscription[] current = subscriptions;
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscription) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            EventSubscription[] shrunk = new EventSubscription[current.length - 1];
+            System.arraycopy(current, 0, shrunk, 0, index);
+            System.arraycopy(current, index + 1, shrunk, index, current.length - index - 1);
+            subscriptions = shrunk;
+        }
+    }
+
+    /**
+     * Called on the logging thread for every stored event. Never blocks on a subscriber
+     */
+    public void publish(long sequence, GameAnalytics.EventType type, String characterName) {
+        EventSubscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].matches(type, characterName)) {
+                current[i].offer(sequence);
+            }
+        }
+    }
+
+    /**
+     * Pending sequence numbers refer to the old store contents after a clear, so discard them
+     */
+    public void discardPending() {
+        for (EventSubscription subscription : subscriptions) {
+            subscription.discard();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    /**
+     * Events overwritten in some subscriber's full buffer before they could be delivered
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Complete every subscription once its buffered events are delivered, then stop the executor.
+     * Deliveries scheduled after that (a late request, a late subscriber) run on the caller's thread
+     */
+    public void close() {
+        EventSubscription[] current;
+        synchronized (subscriptionsLock) {
+            closed = true;
+            current = subscriptions;
+            subscriptions = new EventSubscription[0];
+        }
+        for (EventSubscription subscription : current) {
+            subscription.complete();
+        }
+        deliveryExecutor.shutdown();
+    }
+
+    // ===============================================
+    // SUBSCRIPTION
+    // ===============================================
+
+    /**
+     * One subscriber's filter, bounded buffer and outstanding demand
+     */
+    private final class EventSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super GameAnalytics.GameEvent> subscriber;
+        private final EnumSet<GameAnalytics.EventType> types;
+        private final String characterName;
+
+        // Ring of sequence numbers, guarded by this
+        private final long[] ring;
+        private int head;
+        private int size;
+
+        private final AtomicLong demand = new AtomicLong(0);
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile boolean cancelled = false;
+        private volatile boolean completing = false;
+        private volatile Throwable failure; // Set by an invalid request, signalled by the delivery task
+        private boolean terminated = false; // Only touched by the delivery task
+
+        EventSubscription(Flow.Subscriber<? super GameAnalytics.GameEvent> subscriber,
+                          EnumSet<GameAnalytics.EventType> types, String characterName, int capacity) {
+            this.subscriber = subscriber;
+            this.types = types;
+            this.characterName = characterName;
+            this.ring = new long[capacity];
+        }
+
+        boolean matches(GameAnalytics.EventType type, String name) {
+            return !cancelled
+                && (types == null || types.contains(type))
+                && (characterName == null || characterName.equals(name));
+        }
+
+        void offer(long sequence) {
+            synchronized (this) {
+                if (size == ring.length) {
+                    // Slow subscriber: overwrite the oldest rather than wait
+                    head = (head + 1) % ring.length;
+                    size--;
+                    droppedEvents.incrementAndGet();
+                }
+                ring[(head + size) % ring.length] = sequence;
+                size++;
+            }
+            if (demand.get() > 0) {
+                schedule();
+            }
+        }
+
+        private synchronized long poll() {
+            if (size == 0) {
+                return -1;
+            }
+            long sequence = ring[head];
+            head = (head + 1) % ring.length;
+            size--;
+            return sequence;
+        }
+
+        private synchronized boolean hasBuffered() {
+            return size > 0;
+        }
+
+        synchronized void discard() {
+            head = 0;
+            size = 0;
+        }
+
+        void complete() {
+            completing = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Signalled from the delivery task so it never overlaps an onNext (Flow §1.3)
+                if (failure == null) {
+                    failure = new IllegalArgumentException("request must be positive (Flow §3.9): " + n);
+                }
+                unsubscribe(this);
+                schedule();
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> {
+                long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum; // Saturate at "unbounded"
+            });
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            unsubscribe(this);
+        }
+
+        private void schedule() {
+            if (!cancelled && scheduled.compareAndSet(false, true)) {
+                try {
+                    deliveryExecutor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Publisher closed. Holding the scheduled flag means no delivery task is running,
+                    // so delivering here keeps signals serial and still reaches onComplete
+                    run();
+                }
+            }
+        }
+
+        /**
+         * Delivery task: push buffered events while there is demand, then complete if closing.
+         * All subscriber signals come from here, one task at a time
+         */
+        @Override
+        public void run() {
+            try {
+                if (failure != null) {
+                    fail(failure);
+                    return;
+                }
+                while (!cancelled && failure == null && demand.get() > 0) {
+                    long sequence = poll();
+                    if (sequence < 0) {
+                        break;
+                    }
+                    GameAnalytics.GameEvent event = materializer.apply(sequence);
+                    if (event == null) {
+                        continue; // Cleared in the meantime
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(event);
+                }
+                if (completing && failure == null && !cancelled && !terminated && !hasBuffered()) {
+                    terminated = true;
+                    cancelled = true;
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                // A misbehaving subscriber only loses its own subscription
+                unsubscribe(this);
+                fail(e);
+            } finally {
+                scheduled.set(false);
+            }
+
+            // Events, demand or a failure may have arrived after the loop gave up
+            if (!cancelled && (failure != null || (demand.get() > 0 && hasBuffered()) || (completing && !hasBuffered()))) {
+                schedule();
+            }
+        }
+
+        private void fail(Throwable error) {
+            cancelled = true;
+            if (!terminated) {
+                terminated = true;
+                subscriber.onError(error);
+            }
+        }
+    }
+}
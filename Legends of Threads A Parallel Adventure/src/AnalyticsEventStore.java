@@ -0,0 +1,163 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AnalyticsEventStore - Preallocated, column-oriented storage for analytics events
+ * Writers claim a sequence number with a single atomic increment and copy raw fields
+ * into fixed-size chunks, so the logging hot path never builds strings or event objects.
+ * Text is produced later, and only by readers that actually need it.
+ */
+public class AnalyticsEventStore {
+
+    // === CHUNK LAYOUT ===
+    static final int CHUNK_BITS = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS; // 4096 events per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final GameAnalytics.EventType[] TYPES = GameAnalytics.EventType.values();
+
+    /**
+     * One block of columns. All arrays are final so a chunk is safely published
+     * to reader threads as soon as its reference is visible.
+     */
+    private static final class Chunk {
+        final String[] names = new String[CHUNK_SIZE];
+        final String[] texts = new String[CHUNK_SIZE];   // Free-form description, null if deferred
+        final String[] auxA = new String[CHUNK_SIZE];    // Enemy type, item name, ...
+        final String[] auxB = new String[CHUNK_SIZE];    // Item source, ...
+        final int[] intA = new int[CHUNK_SIZE];          // X position, damage dealt, ...
+        final int[] intB = new int[CHUNK_SIZE];          // Y position, damage received, ...
+        final long[] timestamps = new long[CHUNK_SIZE];  // Epoch milliseconds
+        final AtomicIntegerArray types = new AtomicIntegerArray(CHUNK_SIZE); // Ordinal + 1 once published
+    }
+
+    private final AtomicLong nextSequence = new AtomicLong(0);
+    private final Object growLock = new Object();
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile long generation = 0; // Bumped by clear() so tailing readers can restart
+
+    /**
+     * Append one event. Allocates only when a brand new chunk is needed (once per 4096 events).
+     */
+    public long append(String name, GameAnalytics.EventType type, String text,
+                       String auxA, String auxB, int intA, int intB) {
+        return append(name, type, text, auxA, auxB, intA, intB, System.currentTimeMillis());
+    }
+
+    /**
+     * Append one event with an explicit timestamp (used when replaying a journal)
+     */
+    public long append(String name, GameAnalytics.EventType type, String text,
+                       String auxA, String auxB, int intA, int intB, long timestamp) {
+        long sequence = nextSequence.getAndIncrement();
+        Chunk chunk = chunkFor(sequence);
+        int slot = (int) (sequence & CHUNK_MASK);
+
+        chunk.names[slot] = name;
+        chunk.texts[slot] = text;
+        chunk.auxA[slot] = auxA;
+        chunk.auxB[slot] = auxB;
+        chunk.intA[slot] = intA;
+        chunk.intB[slot] = intB;
+        chunk.timestamps[slot] = timestamp;
+
+        // Volatile write publishes every column written above
+        chunk.types.set(slot, type.ordinal() + 1);
+        return sequence;
+    }
+
+    private Chunk chunkFor(long sequence) {
+        int index = (int) (sequence >>> CHUNK_BITS);
+        Chunk[] current = chunks;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+
+        synchronized (growLock) {
+            current = chunks;
+            if (index >= current.length) {
+                Chunk[] grown = new Chunk[Math.max(current.length * 2, index + 1)];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if (current[index] == null) {
+                current[index] = new Chunk();
+            }
+            chunks = current;
+            return current[index];
+        }
+    }
+
+    // === READ ACCESS (by sequence number) ===
+
+    /**
+     * Number of sequence numbers handed out so far (some may still be in flight)
+     */
+    public long size() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Incremented every time the store is cleared
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * True once every field of the event has been written
+     */
+    public boolean isPublished(long sequence) {
+        Chunk chunk = existingChunk(sequence);
+        return chunk != null && chunk.types.get((int) (sequence & CHUNK_MASK)) != 0;
+    }
+
+    public GameAnalytics.EventType type(long sequence) {
+        int raw = existingChunk(sequence).types.get((int) (sequence & CHUNK_MASK));
+        return TYPES[raw - 1];
+    }
+
+    public String name(long sequence) {
+        return existingChunk(sequence).names[(int) (sequence & CHUNK_MASK)];
+    }
+
+    public String text(long sequence) {
+        return existingChunk(sequence).texts[(int) (sequence & CHUNK_MASK)];
+    }
+
+    public String auxA(long sequence) {
+        return existingChunk(sequence).auxA[(int) (sequence & CHUNK_MASK)];
+    }
+
+    public String auxB(long sequence) {
+        return existingChunk(sequence).auxB[(int) (sequence & CHUNK_MASK)];
+    }
+
+    public int intA(long sequence) {
+        return existingChunk(sequence).intA[(int) (sequence & CHUNK_MASK)];
+    }
+
+    public int intB(long sequence) {
+        return existingChunk(sequence).intB[(int) (sequence & CHUNK_MASK)];
+    }
+
+    public long timestamp(long sequence) {
+        return existingChunk(sequence).timestamps[(int) (sequence & CHUNK_MASK)];
+    }
+
+    private Chunk existingChunk(long sequence) {
+        int index = (int) (sequence >>> CHUNK_BITS);
+        Chunk[] current = chunks;
+        return index < current.length ? current[index] : null;
+    }
+
+    /**
+     * Drop all stored events
+     */
+    public void clear() {
+        synchronized (growLock) {
+            generation++;
+            chunks = new Chunk[16];
+            nextSequence.set(0);
+        }
+    }
+}
@@ -0,0 +1,471 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AnalyticsJournal - Append-only, memory-mapped binary journal of analytics events
+ * A background thread tails the AnalyticsEventStore by sequence number, so game threads
+ * never touch the file. Records use interned string ids, varints and timestamp deltas,
+ * and the mapped region is forced to disk about once a second.
+ *
+ * File layout: 8-byte header (magic + version) followed by records
+ *   0x00 end of journal (unwritten space)
+ *   0x01 STRING - varint length, UTF-8 bytes; receives the next string id
+ *   0x02 EVENT  - type, name, text, auxA, auxB, zigzag intA/intB, zigzag timestamp delta
+ *   0x03 CLEAR  - analytics were cleared; replay starts over from here
+ * String fields are varints: 0 = null, (id << 1) = interned, (length << 1 | 1) = inline bytes.
+ * Replay validates every record before applying it; a torn or corrupt tail is cut off at the
+ * first bad record and journaling carries on from there.
+ */
+public class AnalyticsJournal {
+
+    /**
+     * Receives decoded journal contents during replay
+     */
+    public interface ReplayListener {
+        void onEvent(String name, GameAnalytics.EventType type, String text, String auxA, String auxB,
+                     int intA, int intB, long timestamp);
+        void onClear();
+    }
+
+    // === FORMAT CONSTANTS ===
+    private static final int MAGIC = 0x4C4F544A; // "LOTJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final byte RECORD_END = 0x00;
+    private static final byte RECORD_STRING = 0x01;
+    private static final byte RECORD_EVENT = 0x02;
+    private static final byte RECORD_CLEAR = 0x03;
+
+    private static final int MAX_INTERNED_STRINGS = 1 << 16; // Later strings are written inline
+    private static final int MAX_STRING_CHARS = 8 * 1024;     // Keeps every record well under one window
+    private static final long REGION_BYTES = 8L * 1024 * 1024;  // File grows in steps of this size
+    private static final long READ_WINDOW_BYTES = 256L * 1024 * 1024;
+    private static final int MAX_RECORD_BYTES = 256 * 1024;
+    private static final long FSYNC_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final GameAnalytics.EventType[] TYPES = GameAnalytics.EventType.values();
+
+    // === WRITER STATE (only touched by the journal thread after open) ===
+    private final Path path;
+    private final AnalyticsEventStore store;
+    private final FileChannel channel;
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+    private MappedByteBuffer region;
+    private long regionStart;
+    private volatile long cursor;   // Next store sequence to journal
+    private volatile long storeGeneration;
+    private long lastTimestamp;
+    private boolean dirty;
+
+    // === LIFECYCLE AND METRICS ===
+    private volatile boolean running = true;
+    private volatile long eventsWritten = 0;
+    private volatile long bytesWritten = 0;
+    private final long replayedEvents;
+    private final long replayNanos;
+    private final Thread writerThread;
+
+    private AnalyticsJournal(Path path, AnalyticsEventStore store, ReplayListener listener) throws IOException {
+        this.path = path;
+        this.store = store;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE);
+
+        try {
+            long start = System.nanoTime();
+            long end;
+            if (channel.size() >= HEADER_BYTES) {
+                Replay replay = replay(channel, listener);
+                end = replay.endPosition;
+                if (replay.corruption != null) {
+                    System.err.println("⚠️ Analytics journal " + path + " is damaged (" + replay.corruption
+                        + "); keeping the " + replay.events + " events before it");
+                    channel.truncate(end); // New records must not be followed by the damaged bytes
+                }
+                stringIds.putAll(replay.stringIds());
+                lastTimestamp = replay.lastTimestamp;
+                replayedEvents = replay.events;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                channel.write(header, 0);
+                end = HEADER_BYTES;
+                replayedEvents = 0;
+            }
+            replayNanos = System.nanoTime() - start;
+
+            // Replayed events are already on disk, so tailing starts after them
+            cursor = store.size();
+            storeGeneration = store.generation();
+            mapRegion(end);
+
+            writerThread = new Thread(this::writeLoop, "AnalyticsJournalThread");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } catch (IOException | RuntimeException e) {
+            // A damaged header or a failed mapping must not leak the open file
+            try {
+                channel.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Open (or create) a journal, replay its contents into the listener, then start journaling
+     * every event appended to the store from now on
+     */
+    public static AnalyticsJournal open(Path path, AnalyticsEventStore store, ReplayListener listener)
+            throws IOException {
+        return new AnalyticsJournal(path, store, listener);
+    }
+
+    /**
+     * Stop the writer, journal anything still pending and force it to disk
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not close analytics journal " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Block until every event currently in the store has been journaled (or the timeout passes)
+     */
+    public boolean awaitDrained(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!isDrained() && System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return isDrained();
+    }
+
+    private boolean isDrained() {
+        return storeGeneration == store.generation() && cursor >= store.size();
+    }
+
+    public Path getPath() { return path; }
+    public long getEventsWritten() { return eventsWritten; }
+    public long getBytesWritten() { return bytesWritten; }
+    public long getReplayedEvents() { return replayedEvents; }
+    public long getReplayNanos() { return replayNanos; }
+
+    // ===============================================
+    // WRITER
+    // ===============================================
+
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        try {
+            while (running) {
+                int written = drain();
+                if (dirty && System.nanoTime() - lastForce >= FSYNC_INTERVAL_NANOS) {
+                    region.force();
+                    dirty = false;
+                    lastForce = System.nanoTime();
+                }
+                if (written == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            drain();
+            region.force();
+        } catch (IOException e) {
+            System.err.println("⚠️ Analytics journal stopped: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Analytics journal stopped unexpectedly: " + e);
+        }
+    }
+
+    /**
+     * Journal every published event after the cursor. Stops at the first event still being written
+     */
+    private int drain() throws IOException {
+        long generation = store.generation();
+        if (generation != storeGeneration) {
+            storeGeneration = generation;
+            cursor = 0;
+            scratch.clear();
+            scratch.put(RECORD_CLEAR);
+            commitScratch();
+        }
+
+        int written = 0;
+        long size = store.size();
+        while (cursor < size && store.isPublished(cursor)) {
+            writeEvent(cursor);
+            cursor++;
+            written++;
+        }
+        eventsWritten += written;
+        return written;
+    }
+
+    private void writeEvent(long sequence) throws IOException {
+        // String definitions go out before the event that first uses them
+        int name = internOrInline(store.name(sequence));
+        int text = internOrInline(store.text(sequence));
+        int auxA = internOrInline(store.auxA(sequence));
+        int auxB = internOrInline(store.auxB(sequence));
+
+        long timestamp = store.timestamp(sequence);
+        scratch.clear();
+        scratch.put(RECORD_EVENT);
+        scratch.put((byte) store.type(sequence).ordinal());
+        putStringRef(name, store.name(sequence));
+        putStringRef(text, store.text(sequence));
+        putStringRef(auxA, store.auxA(sequence));
+        putStringRef(auxB, store.auxB(sequence));
+        putVarLong(zigzag(store.intA(sequence)));
+        putVarLong(zigzag(store.intB(sequence)));
+        putVarLong(zigzag(timestamp - lastTimestamp));
+        lastTimestamp = timestamp;
+        commitScratch();
+    }
+
+    /**
+     * Returns the interned id for a string (defining it first if needed), 0 for null,
+     * or -1 when the table is full and the string must be written inline
+     */
+    private int internOrInline(String value) throws IOException {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (stringIds.size() >= MAX_INTERNED_STRINGS) {
+            return -1;
+        }
+
+        byte[] bytes = encode(value);
+        scratch.clear();
+        scratch.put(RECORD_STRING);
+        putVarLong(bytes.length);
+        scratch.put(bytes);
+        commitScratch();
+
+        int newId = stringIds.size() + 1;
+        stringIds.put(value, newId);
+        return newId;
+    }
+
+    private void putStringRef(int id, String value) {
+        if (id >= 0) {
+            putVarLong((long) id << 1);
+        } else {
+            byte[] bytes = encode(value);
+            putVarLong(((long) bytes.length << 1) | 1);
+            scratch.put(bytes);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        String bounded = value.length() > MAX_STRING_CHARS ? value.substring(0, MAX_STRING_CHARS) : value;
+        return bounded.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            scratch.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        scratch.put((byte) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Copy the encoded record into the mapped region, remapping further along the file when full
+     */
+    private void commitScratch() throws IOException {
+        scratch.flip();
+        if (region.remaining() < scratch.remaining()) {
+            region.force();
+            mapRegion(regionStart + region.position());
+        }
+        bytesWritten += scratch.remaining();
+        region.put(scratch);
+        dirty = true;
+    }
+
+    private void mapRegion(long position) throws IOException {
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, REGION_BYTES);
+    }
+
+    // ===============================================
+    // REPLAY
+    // ===============================================
+
+    private static final class Replay {
+        final List<String> strings = new ArrayList<>();
+        long endPosition;
+        long lastTimestamp;
+        long events;
+        String corruption; // Why replay stopped early, or null if it reached the end
+
+        Map<String, Integer> stringIds() {
+            Map<String, Integer> ids = new HashMap<>();
+            for (int i = 0; i < strings.size(); i++) {
+                ids.put(strings.get(i), i + 1);
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Read a journal file without opening it for writing (used for offline inspection)
+     */
+    public static long replay(Path path, ReplayListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return replay(channel, listener).events;
+        }
+    }
+
+    /**
+     * Decode the journal through read-only mapped windows, stopping at the first unwritten byte
+     */
+    private static Replay replay(FileChannel channel, ReplayListener listener) throws IOException {
+        Replay replay = new Replay();
+        long fileSize = channel.size();
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("not an analytics journal (bad header)");
+        }
+
+        long windowStart = HEADER_BYTES;
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                                              Math.min(READ_WINDOW_BYTES, fileSize - windowStart));
+        while (true) {
+            // Slide the window before a record could straddle its end
+            if (window.remaining() < MAX_RECORD_BYTES && windowStart + window.limit() < fileSize) {
+                windowStart += window.position();
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                                     Math.min(READ_WINDOW_BYTES, fileSize - windowStart));
+            }
+            if (!window.hasRemaining()) {
+                break;
+            }
+
+            int recordStart = window.position();
+            try {
+                if (!replayRecord(window, replay, listener)) {
+                    window.position(recordStart);
+                    break;
+                }
+            } catch (IOException | BufferUnderflowException e) {
+                // Torn write or damaged bytes: everything from this record on is dropped
+                window.position(recordStart);
+                replay.corruption = "bad record at byte " + (windowStart + recordStart)
+                    + (e.getMessage() != null ? ": " + e.getMessage() : ", cut short");
+                break;
+            }
+        }
+
+        replay.endPosition = windowStart + window.position();
+        return replay;
+    }
+
+    /**
+     * Decode and apply one record. Every field is checked before the listener sees anything, so
+     * a bad record is rejected whole. Returns false at the end of the written journal
+     */
+    private static boolean replayRecord(ByteBuffer window, Replay replay, ReplayListener listener) throws IOException {
+        byte kind = window.get();
+        if (kind == RECORD_END) {
+            return false;
+        } else if (kind == RECORD_STRING) {
+            replay.strings.add(decode(window, getVarLong(window)));
+        } else if (kind == RECORD_EVENT) {
+            int typeIndex = window.get();
+            if (typeIndex < 0 || typeIndex >= TYPES.length) {
+                throw new IOException("unknown event type " + typeIndex);
+            }
+            String name = getStringRef(window, replay.strings);
+            String text = getStringRef(window, replay.strings);
+            String auxA = getStringRef(window, replay.strings);
+            String auxB = getStringRef(window, replay.strings);
+            int intA = (int) unzigzag(getVarLong(window));
+            int intB = (int) unzigzag(getVarLong(window));
+            long timestamp = replay.lastTimestamp + unzigzag(getVarLong(window));
+            replay.lastTimestamp = timestamp;
+            listener.onEvent(name, TYPES[typeIndex], text, auxA, auxB, intA, intB, timestamp);
+            replay.events++;
+        } else if (kind == RECORD_CLEAR) {
+            listener.onClear();
+        } else {
+            throw new IOException("unknown record kind " + kind);
+        }
+        return true;
+    }
+
+    private static String getStringRef(ByteBuffer buffer, List<String> strings) throws IOException {
+        long ref = getVarLong(buffer);
+        if (ref == 0) {
+            return null;
+        }
+        if ((ref & 1) == 0) {
+            long id = ref >>> 1;
+            if (id > strings.size()) {
+                throw new IOException("undefined string " + id);
+            }
+            return strings.get((int) id - 1);
+        }
+        return decode(buffer, ref >>> 1);
+    }
+
+    private static String decode(ByteBuffer buffer, long length) throws IOException {
+        if (length > MAX_RECORD_BYTES || length > buffer.remaining()) {
+            throw new IOException("string of " + length + " bytes runs past the record");
+        }
+        byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IOException("varint longer than 64 bits");
+            }
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,358 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * AnalyticsSketches - Constant-memory probabilistic summaries of the analytics stream
+ * Lets GameAnalytics answer "how many distinct", "most frequent" and "damage percentile"
+ * questions without keeping every event. Every sketch is thread-safe and mergeable.
+ */
+public class AnalyticsSketches {
+
+    // === SKETCHES KEPT BY GAMEANALYTICS ===
+    final HyperLogLog distinctCharacters = new HyperLogLog(12);
+    final HyperLogLog distinctItems = new HyperLogLog(12);
+    final CountMinSketch enemyFrequency = new CountMinSketch(4, 2048, 16);
+    final CountMinSketch itemFrequency = new CountMinSketch(4, 2048, 16);
+    final QuantileSketch damageDealt = new QuantileSketch(0.01);
+    final QuantileSketch damageReceived = new QuantileSketch(0.01);
+
+    void recordCharacter(String characterName) {
+        distinctCharacters.add(characterName);
+    }
+
+    void recordItem(String itemName) {
+        distinctItems.add(itemName);
+        itemFrequency.add(itemName);
+    }
+
+    void recordBattle(String enemyType, int dealt, int received) {
+        enemyFrequency.add(enemyType);
+        damageDealt.add(dealt);
+        damageReceived.add(received);
+    }
+
+    /**
+     * Fold another set of sketches (e.g. from another shard or session) into this one
+     */
+    public void merge(AnalyticsSketches other) {
+        distinctCharacters.merge(other.distinctCharacters);
+        distinctItems.merge(other.distinctItems);
+        enemyFrequency.merge(other.enemyFrequency);
+        itemFrequency.merge(other.itemFrequency);
+        damageDealt.merge(other.damageDealt);
+        damageReceived.merge(other.damageReceived);
+    }
+
+    void clear() {
+        distinctCharacters.clear();
+        distinctItems.clear();
+        enemyFrequency.clear();
+        itemFrequency.clear();
+        damageDealt.clear();
+        damageReceived.clear();
+    }
+
+    /**
+     * 64-bit hash of a string (FNV-1a over the chars, finished with a MurmurHash3 mix)
+     */
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // ===============================================
+    // HYPERLOGLOG (distinct counts)
+    // ===============================================
+
+    /**
+     * HyperLogLog cardinality estimator: 2^precision registers, ~1.04/sqrt(2^precision) error
+     */
+    public static class HyperLogLog {
+        private final int precision;
+        private final AtomicIntegerArray registers;
+
+        public HyperLogLog(int precision) {
+            this.precision = precision;
+            this.registers = new AtomicIntegerArray(1 << precision);
+        }
+
+        public void add(String value) {
+            if (value == null) {
+                return;
+            }
+            long hash = hash64(value);
+            int index = (int) (hash >>> (64 - precision));
+            int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+            int current;
+            while (rank > (current = registers.get(index))) {
+                if (registers.compareAndSet(index, current, rank)) {
+                    break;
+                }
+            }
+        }
+
+        public long estimate() {
+            int m = registers.length();
+            double sum = 0;
+            int zeros = 0;
+            for (int i = 0; i < m; i++) {
+                int value = registers.get(i);
+                sum += 1.0 / (1L << value);
+                if (value == 0) {
+                    zeros++;
+                }
+            }
+            double alpha = 0.7213 / (1 + 1.079 / m);
+            double raw = alpha * m * m / sum;
+            if (raw <= 2.5 * m && zeros > 0) {
+                return Math.round(m * Math.log((double) m / zeros)); // Linear counting for small sets
+            }
+            return Math.round(raw);
+        }
+
+        public void merge(HyperLogLog other) {
+            for (int i = 0; i < registers.length(); i++) {
+                int theirs = other.registers.get(i);
+                int current;
+                while (theirs > (current = registers.get(i))) {
+                    if (registers.compareAndSet(i, current, theirs)) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < registers.length(); i++) {
+                registers.set(i, 0);
+            }
+        }
+    }
+
+    // ===============================================
+    // COUNT-MIN SKETCH + HEAVY HITTERS (frequencies)
+    // ===============================================
+
+    /**
+     * Count-Min sketch (depth x width counters) with a bounded list of the heaviest keys seen
+     */
+    public static class CountMinSketch {
+        private final int depth;
+        private final int width;
+        private final AtomicLongArray counters;
+        private final AtomicLong total = new AtomicLong();
+        private final int heavyHitterCapacity;
+        private final ConcurrentHashMap<String, Long> heavyHitters = new ConcurrentHashMap<>();
+        private final Object evictionLock = new Object(); // Only taken to admit or evict a candidate
+        private volatile long evictionFloor;              // Lightest candidate's count, never above the true one
+
+        public CountMinSketch(int depth, int width, int heavyHitterCapacity) {
+            this.depth = depth;
+            this.width = width;
+            this.counters = new AtomicLongArray(depth * width);
+            this.heavyHitterCapacity = heavyHitterCapacity;
+        }
+
+        public void add(String key) {
+            if (key == null) {
+                return;
+            }
+            long hash = hash64(key);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counters.incrementAndGet(row * width + bucket(hash, row)));
+            }
+            total.incrementAndGet();
+            trackHeavyHitter(key, estimate);
+        }
+
+        private int bucket(long hash, int row) {
+            // Kirsch-Mitzenmacher: derive each row's hash from two halves of one 64-bit hash
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            return Math.floorMod(h1 + row * h2, width);
+        }
+
+        public long estimate(String key) {
+            long hash = hash64(key);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counters.get(row * width + bucket(hash, row)));
+            }
+            return estimate;
+        }
+
+        /**
+         * Known candidates are updated, and keys no heavier than the lightest candidate are
+         * turned away, without locking; only admitting or evicting a candidate takes the lock.
+         * Candidate counts only grow, so a stale floor can cost a lock but never a replacement
+         */
+        private void trackHeavyHitter(String key, long estimate) {
+            if (heavyHitters.replace(key, estimate) != null) {
+                return;
+            }
+            if (estimate <= evictionFloor) {
+                return;
+            }
+            synchronized (evictionLock) {
+                if (heavyHitters.containsKey(key) || heavyHitters.size() < heavyHitterCapacity) {
+                    heavyHitters.put(key, estimate);
+                    if (heavyHitters.size() >= heavyHitterCapacity) {
+                        evictionFloor = lightestCandidate().getValue();
+                    }
+                    return;
+                }
+                // Replace the lightest candidate if this key has overtaken it
+                Map.Entry<String, Long> lightest = lightestCandidate();
+                if (estimate > lightest.getValue()) {
+                    heavyHitters.remove(lightest.getKey());
+                    heavyHitters.put(key, estimate);
+                    lightest = lightestCandidate();
+                }
+                evictionFloor = lightest.getValue();
+            }
+        }
+
+        private Map.Entry<String, Long> lightestCandidate() {
+            Map.Entry<String, Long> lightest = null;
+            for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+                if (lightest == null || entry.getValue() < lightest.getValue()) {
+                    lightest = Map.entry(entry.getKey(), entry.getValue());
+                }
+            }
+            return lightest;
+        }
+
+        /**
+         * Up to k most frequent keys, heaviest first, with their estimated counts
+         */
+        public List<Map.Entry<String, Long>> topK(int k) {
+            List<String> candidates = new ArrayList<>(heavyHitters.keySet());
+            return candidates.stream()
+                .map(key -> Map.entry(key, estimate(key)))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(k)
+                .collect(Collectors.toList());
+        }
+
+        public long total() {
+            return total.get();
+        }
+
+        public void merge(CountMinSketch other) {
+            for (int i = 0; i < counters.length(); i++) {
+                counters.addAndGet(i, other.counters.get(i));
+            }
+            total.addAndGet(other.total.get());
+            List<String> theirCandidates = new ArrayList<>(other.heavyHitters.keySet());
+            theirCandidates.forEach(key -> trackHeavyHitter(key, estimate(key)));
+        }
+
+        void clear() {
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, 0);
+            }
+            total.set(0);
+            synchronized (evictionLock) {
+                heavyHitters.clear();
+                evictionFloor = 0;
+            }
+        }
+    }
+
+    // ===============================================
+    // QUANTILE SKETCH (damage distributions)
+    // ===============================================
+
+    /**
+     * Log-bucketed quantile sketch (DDSketch style): every quantile is within the given relative
+     * error, memory is a fixed array of buckets, and merging just adds bucket counts
+     */
+    public static class QuantileSketch {
+        private static final double MAX_VALUE = 1e9;
+        private final double gamma;
+        private final double logGamma;
+        private final AtomicLongArray buckets; // Index 0 holds values <= 0
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+
+        public QuantileSketch(double relativeAccuracy) {
+            this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+            this.logGamma = Math.log(gamma);
+            this.buckets = new AtomicLongArray((int) Math.ceil(Math.log(MAX_VALUE) / logGamma) + 2);
+        }
+
+        public void add(int value) {
+            buckets.incrementAndGet(indexOf(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+        }
+
+        private int indexOf(int value) {
+            if (value <= 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(Math.log(value) / logGamma) + 1;
+            return Math.min(index, buckets.length() - 1);
+        }
+
+        /**
+         * Estimated value at quantile q (0.0 - 1.0), or 0 when empty
+         */
+        public double quantile(double q) {
+            long n = count.get();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(Math.max(0, Math.min(1, q)) * n);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= Math.max(1, rank)) {
+                    return i == 0 ? 0 : 2 * Math.pow(gamma, i - 1) / (gamma + 1); // Bucket midpoint
+                }
+            }
+            return MAX_VALUE;
+        }
+
+        public long count() {
+            return count.get();
+        }
+
+        public double mean() {
+            long n = count.get();
+            return n == 0 ? 0 : (double) sum.get() / n;
+        }
+
+        public void merge(QuantileSketch other) {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.addAndGet(i, other.buckets.get(i));
+            }
+            count.addAndGet(other.count.get());
+            sum.addAndGet(other.sum.get());
+        }
+
+        void clear() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ArtifactRegistry - Lock-free registry of the realm's artifacts
+ * Claimed artifacts are bits in an atomic bitset, so picking a random unclaimed artifact is a
+ * popcount walk over a few words instead of building a list. Each artifact's owner slot is
+ * won by exactly one compare-and-set, and the found count is a single counter.
+ */
+public class ArtifactRegistry {
+
+    private final String[] names;
+    private final Map<String, Integer> indexByName = new LinkedHashMap<>(); // Built once, read-only afterwards
+    private final AtomicLongArray claimedBits;
+    private final AtomicReferenceArray<String> owners;
+    private final AtomicInteger claimedCount = new AtomicInteger(0);
+
+    public ArtifactRegistry(String... names) {
+        this.names = names.clone();
+        for (int i = 0; i < names.length; i++) {
+            indexByName.put(names[i], i);
+        }
+        this.claimedBits = new AtomicLongArray((names.length + 63) >>> 6);
+        this.owners = new AtomicReferenceArray<>(names.length);
+    }
+
+    // ===============================================
+    // CLAIMS
+    // ===============================================
+
+    /**
+     * Claim a named artifact. Returns true for exactly one caller per artifact
+     */
+    public boolean claim(String artifact, String owner) {
+        Integer index = indexByName.get(artifact);
+        return index != null && claim(index, owner);
+    }
+
+    private boolean claim(int index, String owner) {
+        if (!owners.compareAndSet(index, null, owner)) {
+            return false; // Someone else got there first
+        }
+        claimedBits.getAndAccumulate(index >>> 6, 1L << index, (word, bit) -> word | bit);
+        claimedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Claim an artifact chosen uniformly among the unclaimed ones. Returns its name, or null
+     * once every artifact has an owner
+     */
+    public String claimRandom(String owner) {
+        while (true) {
+            int unclaimed = names.length - claimedCount.get();
+            if (unclaimed <= 0) {
+                return null;
+            }
+            int index = nthUnclaimed(ThreadLocalRandom.current().nextInt(unclaimed));
+            if (index >= 0 && claim(index, owner)) {
+                return names[index];
+            }
+            // Lost a race for that artifact (or the set changed under us): pick again
+        }
+    }
+
+    /**
+     * Index of the rank-th clear bit, or -1 if there are not that many right now
+     */
+    private int nthUnclaimed(int rank) {
+        for (int word = 0; word < claimedBits.length(); word++) {
+            long free = ~claimedBits.get(word);
+            int bitsInWord = Math.min(64, names.length - (word << 6));
+            if (bitsInWord < 64) {
+                free &= (1L << bitsInWord) - 1; // Ignore padding past the last artifact
+            }
+            int count = Long.bitCount(free);
+            if (rank < count) {
+                for (int i = 0; i < rank; i++) {
+                    free &= free - 1; // Drop the lowest set bit
+                }
+                return (word << 6) + Long.numberOfTrailingZeros(free);
+            }
+            rank -= count;
+        }
+        return -1;
+    }
+
+    // ===============================================
+    // QUERIES
+    // ===============================================
+
+    public boolean isClaimed(String artifact) {
+        return getOwner(artifact) != null;
+    }
+
+    public String getOwner(String artifact) {
+        Integer index = indexByName.get(artifact);
+        return index == null ? null : owners.get(index);
+    }
+
+    /**
+     * Number of claimed artifacts, O(1)
+     */
+    public int getClaimedCount() {
+        return claimedCount.get();
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Artifact name -> claimed, in registration order
+     */
+    public Map<String, Boolean> snapshot() {
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            status.put(names[i], owners.get(i) != null);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,291 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * BalanceSimulator - Monte Carlo win rates for cave party compositions against every enemy
+ * Each matchup runs millions of headless fights under the same rules CaveExplorer uses (the
+ * player auto-attacks with their weapon, AI companions act as in handleAITurn, the enemy
+ * focuses the player). Fights are split recursively across a fork-join pool; every task gets
+ * its own SplittableRandom stream and CombatKernel, so results are reproducible for a seed
+ * no matter how many cores run them.
+ * Run with: java -cp bin BalanceSimulator [fightsPerMatchup] [seed]
+ */
+public class BalanceSimulator {
+
+    private static final String[] CLASS_NAMES = {"Knight", "Thief", "Wizard"};
+    private static final int[] CLASS_HEALTH = {Knight.BASE_HEALTH, Thief.BASE_HEALTH, Wizard.BASE_HEALTH};
+    private static final int LEAF_FIGHTS = 50_000;
+    private static final int DAMAGE_BUCKETS = 512; // Party damage taken, 1 HP per bucket (last one is open-ended)
+
+    /**
+     * Aggregated outcome of one composition against one enemy
+     */
+    public static final class MatchupResult {
+        final String party;
+        final String enemy;
+        long fights;
+        long wins;
+        long stalemates; // Hit the round limit; the cave counts these as a retreat, not a win
+        long rounds;
+        long damageDealt;
+        final long[] damageTaken = new long[DAMAGE_BUCKETS];
+        long elapsedNanos;
+
+        MatchupResult(String party, String enemy) {
+            this.party = party;
+            this.enemy = enemy;
+        }
+
+        void merge(MatchupResult other) {
+            fights += other.fights;
+            wins += other.wins;
+            stalemates += other.stalemates;
+            rounds += other.rounds;
+            damageDealt += other.damageDealt;
+            for (int i = 0; i < DAMAGE_BUCKETS; i++) {
+                damageTaken[i] += other.damageTaken[i];
+            }
+        }
+
+        public double getWinRate() {
+            return fights == 0 ? 0 : (double) wins / fights;
+        }
+
+        public double getExpectedRounds() {
+            return fights == 0 ? 0 : (double) rounds / fights;
+        }
+
+        public double getMeanDamageTaken() {
+            long total = 0;
+            for (int i = 0; i < DAMAGE_BUCKETS; i++) {
+                total += i * damageTaken[i];
+            }
+            return fights == 0 ? 0 : (double) total / fights;
+        }
+
+        public double getMeanDamageDealt() {
+            return fights == 0 ? 0 : (double) damageDealt / fights;
+        }
+
+        /**
+         * Party damage taken at the given quantile (0-1)
+         */
+        public int damageTakenQuantile(double quantile) {
+            long rank = (long) Math.ceil(quantile * fights);
+            long seen = 0;
+            for (int i = 0; i < DAMAGE_BUCKETS; i++) {
+                seen += damageTaken[i];
+                if (seen >= rank && seen > 0) {
+                    return i;
+                }
+            }
+            return DAMAGE_BUCKETS - 1;
+        }
+
+        public double getFightsPerSecond() {
+            return elapsedNanos == 0 ? 0 : fights / (elapsedNanos / 1e9);
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final long seed;
+
+    public BalanceSimulator(long seed) {
+        this(seed, ForkJoinPool.commonPool());
+    }
+
+    public BalanceSimulator(long seed, ForkJoinPool pool) {
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    // ===============================================
+    // SWEEPS
+    // ===============================================
+
+    /**
+     * The parties the cave actually fields (each class leading the other two) plus each
+     * class alone
+     */
+    public static List<int[]> defaultCompositions() {
+        List<int[]> compositions = new ArrayList<>();
+        compositions.add(new int[] {CaveExplorer.KNIGHT, CaveExplorer.THIEF, CaveExplorer.WIZARD});
+        compositions.add(new int[] {CaveExplorer.THIEF, CaveExplorer.KNIGHT, CaveExplorer.WIZARD});
+        compositions.add(new int[] {CaveExplorer.WIZARD, CaveExplorer.KNIGHT, CaveExplorer.THIEF});
+        compositions.add(new int[] {CaveExplorer.KNIGHT});
+        compositions.add(new int[] {CaveExplorer.THIEF});
+        compositions.add(new int[] {CaveExplorer.WIZARD});
+        return compositions;
+    }
+
+    /**
+     * Every composition against every cave enemy
+     */
+    public List<MatchupResult> sweep(List<int[]> compositions, String[] enemies, long fightsPerMatchup) {
+        List<MatchupResult> results = new ArrayList<>();
+        long matchup = 0;
+        for (int[] composition : compositions) {
+            for (String enemy : enemies) {
+                results.add(simulate(composition, enemy, fightsPerMatchup, seed + matchup++ * 0x9E3779B97F4A7C15L));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Run fights of one composition (slot 0 is the player) against one enemy
+     */
+    public MatchupResult simulate(int[] composition, String enemy, long fights, long matchupSeed) {
+        long start = System.nanoTime();
+        MatchupResult result = pool.invoke(new FightTask(composition, enemy, 0, fights, new SplittableRandom(matchupSeed)));
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Halves the fight range until it is small enough, splitting the random stream in the
+     * same order every time so the seed alone decides the outcome
+     */
+    private static final class FightTask extends RecursiveTask<MatchupResult> {
+        private static final long serialVersionUID = 1L;
+        private final int[] composition;
+        private final String enemy;
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        FightTask(int[] composition, String enemy, long from, long to, SplittableRandom random) {
+            this.composition = composition;
+            this.enemy = enemy;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected MatchupResult compute() {
+            if (to - from <= LEAF_FIGHTS) {
+                return runFights(composition, enemy, to - from, random.nextLong());
+            }
+            long middle = (from + to) >>> 1;
+            FightTask right = new FightTask(composition, enemy, middle, to, random.split());
+            right.fork();
+            MatchupResult result = new FightTask(composition, enemy, from, middle, random).compute();
+            result.merge(right.join());
+            return result;
+        }
+    }
+
+    private static MatchupResult runFights(int[] composition, String enemy, long fights, long streamSeed) {
+        MatchupResult tally = new MatchupResult(partyName(composition), enemy);
+        CombatKernel kernel = new CombatKernel(composition.length + 1);
+        kernel.seed(streamSeed);
+        int enemyHealth = CaveExplorer.getEnemyMaxHealth(enemy);
+        int enemyAttack = CaveExplorer.getEnemyAttack(enemy);
+        int enemyArmor = CaveExplorer.getEnemyArmor(enemy);
+        int partyHealth = 0;
+        for (int characterClass : composition) {
+            partyHealth += CLASS_HEALTH[characterClass];
+        }
+
+        for (long fight = 0; fight < fights; fight++) {
+            kernel.reset();
+            for (int characterClass : composition) {
+                kernel.add(CombatKernel.PARTY, CLASS_HEALTH[characterClass], CLASS_HEALTH[characterClass], 0);
+            }
+            int enemySlot = kernel.add(CombatKernel.ENEMIES, enemyHealth, enemyHealth, enemyArmor);
+            kernel.setAttack(enemySlot, enemyAttack - 2, CaveExplorer.ENEMY_SPREAD, 0, CombatKernel.ARMOR_FULL, 0);
+            kernel.setPreferredTarget(0, CaveExplorer.ENEMY_PLAYER_FOCUS);
+
+            int winner = fight(kernel, composition, enemySlot);
+            tally.fights++;
+            if (winner == CombatKernel.PARTY) {
+                tally.wins++;
+            } else if (winner < 0) {
+                tally.stalemates++;
+            }
+            tally.rounds += kernel.getRound();
+            tally.damageDealt += enemyHealth - kernel.getHealth(enemySlot);
+            int remaining = 0;
+            for (int slot = 0; slot < enemySlot; slot++) {
+                remaining += kernel.getHealth(slot);
+            }
+            tally.damageTaken[Math.min(DAMAGE_BUCKETS - 1, partyHealth - remaining)]++;
+        }
+        return tally;
+    }
+
+    /**
+     * One fight, turn for turn as CaveExplorer.handleCombat plays it with the player always
+     * attacking. Returns the winning side, or -1 at the round limit
+     */
+    private static int fight(CombatKernel kernel, int[] composition, int enemySlot) {
+        while (kernel.getRound() < CaveExplorer.MAX_COMBAT_ROUNDS) {
+            kernel.nextRound();
+            for (int slot = 0; slot < enemySlot; slot++) {
+                if (!kernel.isStanding(slot)) {
+                    continue;
+                }
+                if (slot == 0) {
+                    int[] weapon = CaveExplorer.PLAYER_WEAPON[composition[0]];
+                    kernel.strike(0, enemySlot, weapon[0], weapon[1], weapon[2], CombatKernel.ARMOR_FULL, 0);
+                } else {
+                    CaveExplorer.takeAITurn(kernel, composition[slot], slot, enemySlot);
+                }
+                if (!kernel.isStanding(enemySlot)) {
+                    return CombatKernel.PARTY;
+                }
+            }
+            kernel.attack(enemySlot, kernel.chooseTarget(enemySlot));
+            if (kernel.standing(CombatKernel.PARTY) == 0) {
+                return CombatKernel.ENEMIES;
+            }
+        }
+        return -1;
+    }
+
+    private static String partyName(int[] composition) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < composition.length; i++) {
+            name.append(i == 0 ? "" : "+").append(CLASS_NAMES[composition[i]]);
+        }
+        return name.toString();
+    }
+
+    // ===============================================
+    // REPORT
+    // ===============================================
+
+    public static void printReport(List<MatchupResult> results) {
+        System.out.printf("%-22s %-16s %8s %8s %7s %9s %5s %5s %5s %9s%n",
+            "Party", "Enemy", "Win %", "Stall %", "Rounds", "Dmg taken", "p50", "p90", "p99", "Dmg dealt");
+        for (MatchupResult result : results) {
+            System.out.printf("%-22s %-16s %7.2f%% %7.2f%% %7.2f %9.1f %5d %5d %5d %9.1f%n",
+                result.party, result.enemy, result.getWinRate() * 100, 100.0 * result.stalemates / result.fights,
+                result.getExpectedRounds(), result.getMeanDamageTaken(), result.damageTakenQuantile(0.5),
+                result.damageTakenQuantile(0.9), result.damageTakenQuantile(0.99), result.getMeanDamageDealt());
+        }
+    }
+
+    public static void main(String[] args) {
+        long fightsPerMatchup = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        BalanceSimulator simulator = new BalanceSimulator(seed);
+
+        System.out.println("=== CAVE BALANCE SIMULATION (" + fightsPerMatchup + " fights per matchup, "
+            + ForkJoinPool.getCommonPoolParallelism() + " fork-join workers) ===\n");
+        long start = System.nanoTime();
+        List<MatchupResult> results = simulator.sweep(defaultCompositions(), CaveExplorer.CAVE_ENEMIES, fightsPerMatchup);
+        long elapsed = System.nanoTime() - start;
+        printReport(results);
+
+        long fights = 0;
+        for (MatchupResult result : results) {
+            fights += result.fights;
+        }
+        System.out.printf("%n📊 %,d fights in %.1f s: %,.0f fights/sec%n", fights, elapsed / 1e9, fights / (elapsed / 1e9));
+    }
+}
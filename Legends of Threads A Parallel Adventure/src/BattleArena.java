@@ -0,0 +1,243 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * BattleArena - Service that resolves many headless battles at once
+ * A submitted battle is owned by exactly one executor task from start to finish. That task
+ * resolves it on its worker thread's own CombatKernel, so battles share no locks and no
+ * mutable state. Callers get a CompletableFuture of the outcome. Throughput and
+ * submit-to-outcome latency are tracked by a TrackedExecutor.
+ */
+public class BattleArena {
+
+    public static final int MAX_COMBATANTS = 16;
+    private static final int DEFAULT_MAX_ROUNDS = 20;
+
+    /**
+     * One fighter: side, health, armor and its attack profile (see CombatKernel.setAttack)
+     */
+    public static final class Combatant {
+        final int side;
+        final int health;
+        final int maxHealth;
+        final int armor;
+        final int damageBase;
+        final int damageSpread;
+        final int critPercent;
+        final int armorMode;
+
+        public Combatant(int side, int health, int maxHealth, int armor,
+                         int damageBase, int damageSpread, int critPercent, int armorMode) {
+            this.side = side;
+            this.health = health;
+            this.maxHealth = maxHealth;
+            this.armor = armor;
+            this.damageBase = damageBase;
+            this.damageSpread = damageSpread;
+            this.critPercent = critPercent;
+            this.armorMode = armorMode;
+        }
+    }
+
+    /**
+     * Everything needed to resolve a battle. Immutable once built, so it can be handed to
+     * any worker
+     */
+    public static final class Battle {
+        final Combatant[] combatants;
+        final int maxRounds;
+        final long seed;
+        final int preferredTarget;
+        final int preferPercent;
+
+        public Battle(List<Combatant> combatants, long seed) {
+            this(combatants, DEFAULT_MAX_ROUNDS, seed, -1, 0);
+        }
+
+        /**
+         * @param preferredTarget index into combatants that enemies strike preferPercent% of
+         *                        the time while it stands, or -1
+         */
+        public Battle(List<Combatant> combatants, int maxRounds, long seed, int preferredTarget, int preferPercent) {
+            if (combatants.isEmpty() || combatants.size() > MAX_COMBATANTS) {
+                throw new IllegalArgumentException("a battle needs 1-" + MAX_COMBATANTS + " combatants, got "
+                    + combatants.size());
+            }
+            this.combatants = combatants.toArray(new Combatant[0]);
+            this.maxRounds = maxRounds;
+            this.seed = seed;
+            this.preferredTarget = preferredTarget;
+            this.preferPercent = preferPercent;
+        }
+    }
+
+    /**
+     * Result of a battle. Health is per combatant, in submission order
+     */
+    public static final class Outcome {
+        final int winner;
+        final int rounds;
+        final int[] finalHealth;
+        final long latencyNanos;
+
+        Outcome(int winner, int rounds, int[] finalHealth, long latencyNanos) {
+            this.winner = winner;
+            this.rounds = rounds;
+            this.finalHealth = finalHealth;
+            this.latencyNanos = latencyNanos;
+        }
+
+        /**
+         * CombatKernel.PARTY or CombatKernel.ENEMIES, or -1 if the round limit was reached
+         */
+        public int getWinner() {
+            return winner;
+        }
+
+        public boolean isPartyVictory() {
+            return winner == CombatKernel.PARTY;
+        }
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        public int getFinalHealth(int combatant) {
+            return finalHealth[combatant];
+        }
+
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+    }
+
+    // Each worker thread resolves its battles on its own kernel, reused battle after battle
+    private static final ThreadLocal<CombatKernel> KERNEL = ThreadLocal.withInitial(() -> new CombatKernel(MAX_COMBATANTS));
+
+    private final TrackedExecutor<Outcome> tasks;
+
+    /**
+     * Arena on its own fork-join pool with one worker per core
+     */
+    public BattleArena() {
+        this.tasks = new TrackedExecutor<>(new ForkJoinPool(Runtime.getRuntime().availableProcessors()), true);
+    }
+
+    /**
+     * Arena that runs battles on a caller-managed executor
+     */
+    public BattleArena(Executor executor) {
+        this.tasks = new TrackedExecutor<>(executor, false);
+    }
+
+    // ===============================================
+    // SUBMIT / AWAIT
+    // ===============================================
+
+    /**
+     * Queue a battle. The future completes on the worker that resolved it
+     */
+    public CompletableFuture<Outcome> submit(Battle battle) {
+        long submittedAt = System.nanoTime();
+        return tasks.submit(() -> resolve(battle, submittedAt));
+    }
+
+    public List<CompletableFuture<Outcome>> submitAll(List<Battle> battles) {
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>(battles.size());
+        for (Battle battle : battles) {
+            futures.add(submit(battle));
+        }
+        return futures;
+    }
+
+    /**
+     * Submit and wait for the outcome
+     */
+    public Outcome fight(Battle battle) {
+        return submit(battle).join();
+    }
+
+    /**
+     * Wait for every future, returning outcomes in the same order
+     */
+    public static List<Outcome> awaitAll(List<CompletableFuture<Outcome>> futures) {
+        return TrackedExecutor.awaitAll(futures);
+    }
+
+    private Outcome resolve(Battle battle, long submittedAt) {
+        CombatKernel kernel = KERNEL.get();
+        kernel.reset();
+        kernel.seed(battle.seed);
+        for (Combatant combatant : battle.combatants) {
+            int slot = kernel.add(combatant.side, combatant.health, combatant.maxHealth, combatant.armor);
+            kernel.setAttack(slot, combatant.damageBase, combatant.damageSpread, combatant.critPercent,
+                combatant.armorMode, 0);
+        }
+        if (battle.preferredTarget >= 0) {
+            kernel.setPreferredTarget(battle.preferredTarget, battle.preferPercent);
+        }
+
+        int winner = kernel.resolve(battle.maxRounds);
+        int[] finalHealth = new int[battle.combatants.length];
+        for (int slot = 0; slot < finalHealth.length; slot++) {
+            finalHealth[slot] = kernel.getHealth(slot);
+        }
+
+        return new Outcome(winner, kernel.getRound(), finalHealth, System.nanoTime() - submittedAt);
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public long getSubmittedBattles() {
+        return tasks.getSubmitted();
+    }
+
+    public long getCompletedBattles() {
+        return tasks.getCompleted();
+    }
+
+    /**
+     * Battles submitted but not resolved yet
+     */
+    public long getInFlight() {
+        return tasks.getInFlight();
+    }
+
+    /**
+     * Completed battles per second since creation or the last resetMetrics()
+     */
+    public double getBattlesPerSecond() {
+        return tasks.getPerSecond();
+    }
+
+    /**
+     * Submit-to-outcome latency in milliseconds at quantile q (0.99 = p99), within 1%
+     */
+    public double getLatencyMillis(double q) {
+        return tasks.getLatencyMillis(q);
+    }
+
+    /**
+     * Start a new measurement window. Call while the arena is idle
+     */
+    public void resetMetrics() {
+        tasks.resetMetrics();
+    }
+
+    public String getMetricsSummary() {
+        return String.format("⚔️ Arena: %,d battles resolved (%,d in flight), %,.0f battles/sec, latency p50 %.2f ms, p99 %.2f ms",
+            getCompletedBattles(), getInFlight(), getBattlesPerSecond(), getLatencyMillis(0.5), getLatencyMillis(0.99));
+    }
+
+    /**
+     * Stop the arena's own pool (no-op for a caller-managed executor)
+     */
+    public void shutdown() {
+        tasks.shutdown();
+    }
+}
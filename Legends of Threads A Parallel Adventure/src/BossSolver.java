@@ -0,0 +1,306 @@
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * BossSolver - Exact optimal play for the Ancient Guardian fight
+ * The boss fight is three d20 rounds; each strategy adds a bonus that depends on the round,
+ * the party (size and classes) and the player's treasures, and a Fire Scroll can be burned
+ * for a one-off boost. That outcome space is small, so it is solved exactly by expectimax:
+ * the value of a state is the best strategy's chance to win now plus its chance to miss times
+ * the value of the next round. States are memoized by the bonuses they actually see, so
+ * loadouts that play identically are solved once. Every loadout is solved up front, in
+ * parallel, into a flat table; the game then reads its decision with one array lookup.
+ */
+public class BossSolver {
+
+    // === STRATEGIES (numbered as in the boss menu) ===
+    static final int COORDINATED_ATTACK = 1;
+    static final int DEFENSIVE_STRATEGY = 2;
+    static final int MAGIC_FOCUS = 3;
+    static final int TACTICAL_STRIKE = 4;
+    static final String[] STRATEGY_NAMES = {"", "Coordinated Attack", "Defensive Strategy", "Magic Focus", "Tactical Strike"};
+
+    // === RULES ===
+    static final int ROUNDS = 3;
+    static final int DIE = 20;
+    static final int CRITICAL_TOTAL = 20;   // Succeeding with 20+ before the last round wins outright
+    static final int FIRE_SCROLL_BONUS = 4; // Burned for one roll
+    private static final int CLASS_BONUS = 1;      // Knight: defense, Thief: tactics, Wizard: magic
+    private static final int ITEM_BONUS = 2;       // Iron Shield: defense, Cave Map: tactics
+    private static final int MAX_MAGIC_ITEMS = 2;  // Magic Crystal, Enchanted Ring: +1 magic each
+
+    // === LOADOUT KEY: party size - 1 (4 bits), class mask (3), magic items (2), shield, map, scrolls (3) ===
+    static final int MAX_PARTY_SIZE = 16; // Teamwork alone wins every roll from here, so larger parties play the same
+    static final int MAX_SCROLLS = 5;     // The inventory holds five treasures
+    private static final int CLASS_SHIFT = 4;
+    private static final int MAGIC_SHIFT = 7;
+    private static final int SHIELD_BIT = 1 << 9;
+    private static final int MAP_BIT = 1 << 10;
+    private static final int SCROLL_SHIFT = 11;
+    static final int LOADOUTS = 1 << 14;
+
+    // === DECISIONS: strategy (3 bits), scroll flag, win chance in 1/8000ths ===
+    private static final int USE_SCROLL = 1 << 3;
+    private static final int CHANCE_SHIFT = 4;
+    static final int CHANCE_DENOMINATOR = DIE * DIE * DIE; // Three d20 rolls make every chance exact
+    private static final int STATES_PER_LOADOUT = ROUNDS * (MAX_SCROLLS + 1);
+
+    private final int[] table = new int[LOADOUTS * STATES_PER_LOADOUT];
+    private final ConcurrentHashMap<Long, Integer> memo = new ConcurrentHashMap<>();
+    private final LongAdder memoHits = new LongAdder();
+    private final LongAdder memoMisses = new LongAdder();
+    private final long buildNanos;
+
+    /**
+     * Solve every loadout, in parallel when parallel is set
+     */
+    public BossSolver(boolean parallel) {
+        long start = System.nanoTime();
+        IntStream loadouts = IntStream.range(0, LOADOUTS).filter(BossSolver::isValidLoadout);
+        if (parallel) {
+            loadouts = loadouts.parallel();
+        }
+        loadouts.forEach(this::solveLoadout);
+        buildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Shared solver, built on first use
+     */
+    public static BossSolver shared() {
+        return SharedHolder.SOLVER;
+    }
+
+    private static final class SharedHolder {
+        static final BossSolver SOLVER = new BossSolver(true);
+    }
+
+    // ===============================================
+    // LOADOUTS
+    // ===============================================
+
+    /**
+     * Key for a party (CaveExplorer.classIndex of each member) and the player's inventory
+     */
+    static int loadout(int[] classes, List<String> inventory) {
+        int key = Math.min(Math.max(classes.length, 1), MAX_PARTY_SIZE) - 1;
+        for (int characterClass : classes) {
+            if (characterClass != CaveExplorer.OTHER_CLASS) {
+                key |= 1 << (CLASS_SHIFT + characterClass);
+            }
+        }
+        int magicItems = 0;
+        int scrolls = 0;
+        for (String item : inventory) {
+            switch (item) {
+                case "Magic Crystal":
+                case "Enchanted Ring":
+                    magicItems++;
+                    break;
+                case "Iron Shield":
+                    key |= SHIELD_BIT;
+                    break;
+                case "Cave Map":
+                    key |= MAP_BIT;
+                    break;
+                case "Fire Scroll":
+                    scrolls++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        key |= Math.min(magicItems, MAX_MAGIC_ITEMS) << MAGIC_SHIFT;
+        return key | Math.min(scrolls, MAX_SCROLLS) << SCROLL_SHIFT;
+    }
+
+    static int scrolls(int loadout) {
+        return loadout >>> SCROLL_SHIFT & 7;
+    }
+
+    private static boolean isValidLoadout(int loadout) {
+        return (loadout >>> MAGIC_SHIFT & 3) <= MAX_MAGIC_ITEMS && scrolls(loadout) <= MAX_SCROLLS;
+    }
+
+    private static boolean hasClass(int loadout, int characterClass) {
+        return (loadout & 1 << (CLASS_SHIFT + characterClass)) != 0;
+    }
+
+    /**
+     * Bonus a strategy adds to the d20 in a round (1-3), before any Fire Scroll
+     */
+    static int strategyBonus(int strategy, int round, int loadout) {
+        switch (strategy) {
+            case COORDINATED_ATTACK:
+                return 3 + (loadout & 15) + 1; // Teamwork: 3 + party size
+            case DEFENSIVE_STRATEGY:
+                return 2 + ((loadout & SHIELD_BIT) != 0 ? ITEM_BONUS : 0) + (hasClass(loadout, CaveExplorer.KNIGHT) ? CLASS_BONUS : 0);
+            case MAGIC_FOCUS:
+                return 4 + (loadout >>> MAGIC_SHIFT & 3) + (hasClass(loadout, CaveExplorer.WIZARD) ? CLASS_BONUS : 0);
+            case TACTICAL_STRIKE:
+                return 1 + round + ((loadout & MAP_BIT) != 0 ? ITEM_BONUS : 0) + (hasClass(loadout, CaveExplorer.THIEF) ? CLASS_BONUS : 0);
+            default:
+                throw new IllegalArgumentException("unknown boss strategy " + strategy);
+        }
+    }
+
+    /**
+     * Whether a roll total ends the fight in the party's favour: it must beat 15 - round, and
+     * before the last round it must also be a critical 20+
+     */
+    static boolean winsRound(int total, int round) {
+        return total >= 15 - round && (round == ROUNDS || total >= CRITICAL_TOTAL);
+    }
+
+    /**
+     * Faces of the d20 (out of 20) that win the round with this bonus
+     */
+    static int winningFaces(int bonus, int round) {
+        int faces = 0;
+        for (int roll = 1; roll <= DIE; roll++) {
+            if (winsRound(roll + bonus, round)) {
+                faces++;
+            }
+        }
+        return faces;
+    }
+
+    // ===============================================
+    // SOLVING
+    // ===============================================
+
+    private void solveLoadout(int loadout) {
+        int base = loadout * STATES_PER_LOADOUT;
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (int scrolls = 0; scrolls <= scrolls(loadout); scrolls++) {
+                table[base + (round - 1) * (MAX_SCROLLS + 1) + scrolls] = solve(loadout, round, scrolls);
+            }
+        }
+    }
+
+    /**
+     * Expectimax over the remaining rounds. Success without a win and failure lead to the same
+     * next state, so each chance node has two branches: win now, or go on to round + 1
+     */
+    private int solve(int loadout, int round, int scrolls) {
+        if (round > ROUNDS) {
+            return 0;
+        }
+        Long key = memoKey(loadout, round, scrolls);
+        Integer known = memo.get(key);
+        if (known != null) {
+            memoHits.increment();
+            return known;
+        }
+        memoMisses.increment();
+
+        int best = 0;
+        int bestChance = -1; // In 1/CHANCE_DENOMINATOR, like the stored decisions
+        for (int strategy = COORDINATED_ATTACK; strategy <= TACTICAL_STRIKE; strategy++) {
+            int bonus = strategyBonus(strategy, round, loadout);
+            for (int burn = 0; burn <= Math.min(scrolls, 1); burn++) {
+                int faces = winningFaces(bonus + burn * FIRE_SCROLL_BONUS, round);
+                // Later chances have at most ROUNDS - round dice behind them, so this divides exactly
+                int chance = faces * (CHANCE_DENOMINATOR / DIE) + (DIE - faces) * chance(solve(loadout, round + 1, scrolls - burn)) / DIE;
+                if (chance > bestChance) { // Ties keep the scroll for later
+                    bestChance = chance;
+                    best = strategy | (burn == 1 ? USE_SCROLL : 0);
+                }
+            }
+        }
+        int decision = best | bestChance << CHANCE_SHIFT;
+        memo.putIfAbsent(key, decision);
+        return decision;
+    }
+
+    /**
+     * Two loadouts that give every strategy the same bonuses in every round play the same
+     */
+    private static Long memoKey(int loadout, int round, int scrolls) {
+        long key = round * (MAX_SCROLLS + 1) + scrolls;
+        for (int strategy = COORDINATED_ATTACK; strategy <= TACTICAL_STRIKE; strategy++) {
+            key = key * 64 + strategyBonus(strategy, 1, loadout);
+        }
+        return key;
+    }
+
+    // ===============================================
+    // RUNTIME LOOKUPS
+    // ===============================================
+
+    /**
+     * Best decision for a loadout in a round (1-3) with scrolls Fire Scrolls left
+     */
+    public int decision(int loadout, int round, int scrolls) {
+        int clamped = Math.min(scrolls, Math.min(scrolls(loadout), MAX_SCROLLS));
+        return table[loadout * STATES_PER_LOADOUT + (round - 1) * (MAX_SCROLLS + 1) + clamped];
+    }
+
+    public static int strategy(int decision) {
+        return decision & 7;
+    }
+
+    public static boolean burnsScroll(int decision) {
+        return (decision & USE_SCROLL) != 0;
+    }
+
+    /**
+     * Chance (0-1) of beating the Guardian from this state when playing optimally
+     */
+    public static double winChance(int decision) {
+        return chance(decision) / (double) CHANCE_DENOMINATOR;
+    }
+
+    private static int chance(int decision) {
+        return decision >>> CHANCE_SHIFT;
+    }
+
+    /**
+     * The optimal line if no round wins early, e.g. "Magic Focus + Fire Scroll → Tactical Strike → ..."
+     */
+    public String describePlan(int loadout) {
+        StringBuilder plan = new StringBuilder();
+        int scrolls = scrolls(loadout);
+        for (int round = 1; round <= ROUNDS; round++) {
+            int decision = decision(loadout, round, scrolls);
+            if (round > 1) {
+                plan.append(" → ");
+            }
+            plan.append(STRATEGY_NAMES[strategy(decision)]);
+            if (burnsScroll(decision)) {
+                plan.append(" + Fire Scroll");
+                scrolls--;
+            }
+        }
+        return plan.toString();
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public double getBuildMillis() {
+        return buildNanos / 1e6;
+    }
+
+    public long getMemoHits() {
+        return memoHits.sum();
+    }
+
+    public long getMemoMisses() {
+        return memoMisses.sum();
+    }
+
+    /**
+     * Distinct states actually solved (the rest were shared through the memo)
+     */
+    public int getSolvedStates() {
+        return memo.size();
+    }
+
+    public int getTableBytes() {
+        return table.length * Integer.BYTES;
+    }
+}
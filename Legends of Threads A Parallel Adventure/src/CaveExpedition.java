@@ -0,0 +1,162 @@
+import java.io.PrintStream;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * CaveExpedition - One party's run through the Crystal Caverns as a self-contained session
+ * An expedition owns everything it changes: its CaveExplorer (and with it the combat kernel
+ * and AI planner), its input, its output channel and its random seed. The party's characters
+ * are only read. No global mode flags are switched while it runs, so the console game runs
+ * one in the foreground and ExpeditionService can run many side by side on a shared executor.
+ */
+public class CaveExpedition {
+
+    public enum Status { PENDING, RUNNING, VICTORY, DEFEAT, ABANDONED }
+
+    /**
+     * What happened and how long it took. Immutable
+     */
+    public static final class Result {
+        final String name;
+        final Status status;
+        final int roomsExplored;
+        final int combatsFought;
+        final long queueNanos;
+        final long runNanos;
+        final double roomMillisP50;
+        final double roomMillisP99;
+
+        Result(CaveExpedition expedition) {
+            this.name = expedition.name;
+            this.status = expedition.status;
+            this.roomsExplored = expedition.explorer.getRoomsExplored();
+            this.combatsFought = expedition.explorer.getCombatsFought();
+            this.queueNanos = expedition.startNanos - expedition.submittedNanos;
+            this.runNanos = expedition.endNanos - expedition.startNanos;
+            this.roomMillisP50 = expedition.explorer.getRoomLatencyMillis(0.5);
+            this.roomMillisP99 = expedition.explorer.getRoomLatencyMillis(0.99);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isVictory() {
+            return status == Status.VICTORY;
+        }
+
+        public int getRoomsExplored() {
+            return roomsExplored;
+        }
+
+        public int getCombatsFought() {
+            return combatsFought;
+        }
+
+        /**
+         * Time from submission (or creation) until the expedition started
+         */
+        public double getQueueMillis() {
+            return queueNanos / 1e6;
+        }
+
+        public double getRunMillis() {
+            return runNanos / 1e6;
+        }
+
+        public double getRoomMillis(double q) {
+            return q <= 0.5 ? roomMillisP50 : roomMillisP99;
+        }
+
+        public String summary() {
+            return String.format("🧭 %s: %s after %d rooms and %d fights in %.1f ms (queued %.1f ms), room p50 %.2f ms / p99 %.2f ms",
+                name, status, roomsExplored, combatsFought, getRunMillis(), getQueueMillis(), roomMillisP50, roomMillisP99);
+        }
+    }
+
+    private final String name;
+    private final CaveExplorer explorer;
+    private final PrintStream out;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Status status = Status.PENDING;
+    private volatile long submittedNanos = System.nanoTime();
+    private long startNanos;
+    private long endNanos;
+
+    /**
+     * Expedition with the game's default AI planning budget
+     */
+    public CaveExpedition(String name, GameCharacter player, List<GameCharacter> aiParty,
+                          Scanner input, PrintStream out, long seed) {
+        this(name, player, aiParty, input, out, seed, CaveExplorer.AI_PLAN_BUDGET_MILLIS);
+    }
+
+    /**
+     * With a planning budget of 0 the same seed and input replay a byte-identical transcript.
+     * A positive budget bounds the AI's search by wall-clock time, so its choices, and with
+     * them the transcript, depend on how far the search got on that run
+     */
+    public CaveExpedition(String name, GameCharacter player, List<GameCharacter> aiParty,
+                          Scanner input, PrintStream out, long seed, double planBudgetMillis) {
+        this.name = name;
+        this.out = out;
+        this.explorer = new CaveExplorer(player, aiParty, input, out, seed, planBudgetMillis);
+    }
+
+    /**
+     * Play the expedition to the end on the calling thread. An expedition runs once. It is
+     * abandoned if the party retreats to the entrance or its input runs out (a closed console,
+     * a finished script)
+     */
+    public Result run() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("expedition " + name + " has already run");
+        }
+        startNanos = System.nanoTime();
+        status = Status.RUNNING;
+        try {
+            boolean victory = explorer.exploreCave();
+            status = victory ? Status.VICTORY : explorer.hasRetreated() ? Status.ABANDONED : Status.DEFEAT;
+        } catch (NoSuchElementException e) {
+            out.println("\nWith no more orders, the party turns back toward the surface.");
+            status = Status.ABANDONED;
+        } finally {
+            endNanos = System.nanoTime();
+            out.flush();
+        }
+        return new Result(this);
+    }
+
+    void markSubmitted() {
+        submittedNanos = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Input for a party on autopilot: maxAnswers random menu choices and yes/no answers. Menus
+     * re-ask on answers that do not fit, so the party always makes progress
+     */
+    public static Scanner autopilot(long seed, int maxAnswers) {
+        Random random = new Random(seed);
+        StringBuilder answers = new StringBuilder(maxAnswers * 2);
+        for (int i = 0; i < maxAnswers; i++) {
+            int roll = random.nextInt(10);
+            answers.append(roll < 8 ? String.valueOf(1 + random.nextInt(9)) : roll == 8 ? "y" : "n").append('\n');
+        }
+        return new Scanner(answers.toString());
+    }
+}
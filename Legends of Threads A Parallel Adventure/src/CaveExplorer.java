@@ -1,4 +1,6 @@
+import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * CaveExplorer - Enhanced descriptive adventure system
@@ -9,16 +11,86 @@ public class CaveExplorer {
     private List<GameCharacter> party;
     private List<GameCharacter> aiParty;
     private Scanner scanner;
+    private final PrintStream out;  // This expedition's output channel
+    private final Random random;    // This expedition's dice
     private List<String> playerInventory;
     private static final int MAX_INVENTORY = 5;
     
-    private int currentRoom = 1;
-    private static final int BOSS_ROOM = 10;
-    private Map<Integer, List<String>> roomTreasures = new HashMap<>();
-    private Map<Integer, String> roomEnemies = new HashMap<>();
+    // The caverns are a seeded CaveSystem graph: room 0 is the entrance, the deepest room the
+    // Guardian's sanctum. Enemies and treasures come from the graph, routes from the pathfinder
+    static final int CAVE_ROOMS = 40;
+    private static final int STORY_CHAMBERS = 9;  // Hand-written chambers, spread over the rooms by depth
+    private static final int BOSS_CHAMBER = STORY_CHAMBERS + 1;
+    private static final int PATH_LANDMARKS = 4;
+    private final CaveSystem cave;
+    private final CavePathfinder pathfinder;
+    private final BitSet visited = new BitSet(CAVE_ROOMS);
+    private final BitSet enemyCleared = new BitSet(CAVE_ROOMS);  // Defeated or slipped past
+    private final BitSet treasureTaken = new BitSet(CAVE_ROOMS);
+    private int currentRoom;
     private boolean bossDefeated = false;
+    private boolean retreated = false;
+    
+    // Combat runs on one reusable kernel; slot 0 is always the player
+    private static final int PLAYER_SLOT = 0;
+    private static final int PLAYER_ATTACK = 0;
+    private static final int PLAYER_SPELL = 1;
+    private static final int AI_SWORD = 2;
+    private static final int AI_QUICK_STRIKE = 3;
+    private static final int AI_MAGIC_MISSILE = 4;
+    private static final int AI_ATTACK = 5;
+    private static final int ENEMY_ATTACK = 6;
+    private final CombatKernel combat;
+    private final ContentPack content = ContentPack.shared(); // Enemy and treasure text and stats
+    
+    // Class rules, indexed by classIndex(): Knight, Thief, Wizard, anyone else
+    static final int KNIGHT = 0;
+    static final int THIEF = 1;
+    static final int WIZARD = 2;
+    static final int OTHER_CLASS = 3;
+    static final int[][] PLAYER_WEAPON = {{12, 7, 0}, {8, 9, 25}, {10, 11, 0}, {8, 5, 0}}; // {base, spread, crit %}, full armor
+    static final int[][] AI_STRIKE = {{12, 9}, {10, 11}, {15, 16}, {8, 8}};               // {base, spread}, ignores armor
+    private static final int[] AI_ACTION = {AI_SWORD, AI_QUICK_STRIKE, AI_MAGIC_MISSILE, AI_ATTACK};
+    static final int SPELL_BASE = 15;
+    static final int SPELL_SPREAD = 11; // Half armor applies
+    static final int KNIGHT_GUARD_PERCENT = 30; // Chance a wounded AI knight holds back to defend
+    static final int ENEMY_SPREAD = 6;          // Enemy hits for attack - 2 + [0, 6)
+    static final int ENEMY_PLAYER_FOCUS = 60;   // % of enemy attacks aimed at the player
+    static final int MAX_COMBAT_ROUNDS = 20;
+    // AI party tactics, chosen each turn by a time-budgeted planner
+    static final int TACTIC_STRIKE = 0;
+    static final int TACTIC_GUARD = 1;
+    static final int TACTIC_MEND = 2;   // Wizards only: heal the most wounded party member
+    static final int TACTIC_COUNT = 3;
+    static final int MEND_BASE = 10;
+    static final int MEND_SPREAD = 9;
+    static final double AI_PLAN_BUDGET_MILLIS = 5.0;
+    static final String[] CAVE_ENEMIES = {
+        "Cave Rat", "Goblin Scout", "Stone Gargoyle", "Fire Salamander", "Shadow Wraith",
+        "Crystal Golem", "Cave Troll", "Dark Wizard", "Dragon Whelp"
+    };
+    private String combatEnemy;
+    private boolean criticalHit;
+    private final CombatPlanner planner;
+    private final int[] combatClasses; // classIndex() of each party slot
+    
+    // === EXPEDITION METRICS ===
+    private int roomsExplored;
+    private int combatsFought;
+    private final AnalyticsSketches.QuantileSketch roomMicros = new AnalyticsSketches.QuantileSketch(0.01);
     
     public CaveExplorer(GameCharacter player, List<GameCharacter> aiParty, Scanner scanner) {
+        this(player, aiParty, scanner, System.out, new Random().nextLong(), AI_PLAN_BUDGET_MILLIS);
+    }
+    
+    /**
+     * Explorer with its own output channel, seed and AI planning budget, so several can run at
+     * once without sharing anything but read-only content
+     */
+    public CaveExplorer(GameCharacter player, List<GameCharacter> aiParty, Scanner scanner,
+                        PrintStream out, long seed, double planBudgetMillis) {
+        this.out = out;
+        this.random = new Random(seed);
         this.player = player;
         this.aiParty = new ArrayList<>(aiParty);
         this.party = new ArrayList<>();
@@ -26,76 +98,103 @@ public class CaveExplorer {
         this.party.addAll(aiParty);
         this.scanner = scanner;
         this.playerInventory = new ArrayList<>();
-        initializeCave();
-    }
-    
-    private void initializeCave() {
-        roomTreasures.put(1, Arrays.asList("Health Potion", "Rusty Dagger"));
-        roomTreasures.put(2, Arrays.asList("Magic Crystal", "Ancient Coin"));
-        roomTreasures.put(3, Arrays.asList("Enchanted Ring", "Cave Map"));
-        roomTreasures.put(4, Arrays.asList("Fire Scroll", "Iron Shield"));
-        roomTreasures.put(5, Arrays.asList("Mana Potion", "Silver Key"));
-        roomTreasures.put(6, Arrays.asList("Lightning Bolt Spell", "Treasure Chest"));
-        roomTreasures.put(7, Arrays.asList("Dragon Scale", "Healing Herb"));
-        roomTreasures.put(8, Arrays.asList("Elven Bow", "Gemstone"));
-        roomTreasures.put(9, Arrays.asList("Master Key", "Power Crystal"));
-        roomTreasures.put(10, Arrays.asList("Legendary Sword", "Crown of Victory"));
-        
-        roomEnemies.put(1, "Cave Rat");
-        roomEnemies.put(2, "Goblin Scout");
-        roomEnemies.put(3, "Stone Gargoyle");
-        roomEnemies.put(4, "Fire Salamander");
-        roomEnemies.put(5, "Shadow Wraith");
-        roomEnemies.put(6, "Crystal Golem");
-        roomEnemies.put(7, "Cave Troll");
-        roomEnemies.put(8, "Dark Wizard");
-        roomEnemies.put(9, "Dragon Whelp");
-        roomEnemies.put(10, "Ancient Guardian (BOSS)");
+        this.combat = new CombatKernel(party.size() + 1);
+        this.combat.seed(random.nextLong());
+        this.planner = new CombatPlanner(planBudgetMillis, ForkJoinPool.getCommonPoolParallelism(),
+                                         ForkJoinPool.commonPool(), random.nextLong());
+        this.combatClasses = new int[party.size()];
+        this.combat.setListener(new CaveCombatNarrator());
+        this.cave = new CaveSystem(random.nextLong(), CAVE_ROOMS, 1);
+        this.pathfinder = new CavePathfinder(cave, PATH_LANDMARKS, 0);
+        this.pathfinder.precomputeAllPairs(); // A few KB for a cave this size; every route is then a table walk
+        this.currentRoom = cave.getEntrance();
     }
     
     public boolean exploreCave() {
-        System.out.println("\n=== ENTERING THE CRYSTAL CAVERNS ===\n");
-        System.out.println("As you step through the ancient stone archway, the warm sunlight behind you");
-        System.out.println("fades into cool, mysterious shadows. The air carries whispers of forgotten");
-        System.out.println("magic and the distant echo of dripping water. Crystalline formations on the");
-        System.out.println("walls pulse with an otherworldly blue glow, providing just enough light to");
-        System.out.println("see the path ahead.\n");
+        out.println("\n=== ENTERING THE CRYSTAL CAVERNS ===\n");
+        out.println("As you step through the ancient stone archway, the warm sunlight behind you");
+        out.println("fades into cool, mysterious shadows. The air carries whispers of forgotten");
+        out.println("magic and the distant echo of dripping water. Crystalline formations on the");
+        out.println("walls pulse with an otherworldly blue glow, providing just enough light to");
+        out.println("see the path ahead.\n");
         
-        System.out.println("Your brave party consists of:");
+        out.println("Your brave party consists of:");
         for (GameCharacter character : party) {
-            System.out.println("   " + getCharacterIcon(character) + " " + character.getName() + 
-                             " the " + character.getCharacterType() + " - " + getCharacterDescription(character));
+            out.println("   " + getCharacterIcon(character) + " " + character.getName() + 
+                      " the " + character.getCharacterType() + " - " + getCharacterDescription(character));
         }
-        System.out.println();
+        out.println();
         
-        while (currentRoom <= BOSS_ROOM && !bossDefeated) {
+        while (!bossDefeated && !retreated) {
+            long roomStart = System.nanoTime();
             exploreCurrentRoom();
+            visited.set(currentRoom);
+            roomsExplored++;
+            roomMicros.add((int) Math.min(Integer.MAX_VALUE, (System.nanoTime() - roomStart) / 1000));
             if (bossDefeated) {
                 return true;
             }
-            if (currentRoom < BOSS_ROOM) {
-                offerNavigationChoices();
-            }
+            offerNavigationChoices();
         }
         
         return bossDefeated;
     }
     
+    /**
+     * Whether the party chose to leave the caverns before facing the Guardian
+     */
+    public boolean hasRetreated() {
+        return retreated;
+    }
+    
+    // Expedition metrics
+    public int getRoomsExplored() {
+        return roomsExplored;
+    }
+    
+    public int getCombatsFought() {
+        return combatsFought;
+    }
+    
+    /**
+     * Time spent in one room (including waiting for input) at quantile q, in milliseconds
+     */
+    public double getRoomLatencyMillis(double q) {
+        return roomMicros.quantile(q) / 1000.0;
+    }
+    
     private void exploreCurrentRoom() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println(getRoomTitle(currentRoom));
-        System.out.println("=".repeat(60));
+        int chamber = storyChamber(currentRoom);
+        out.println("\n" + "=".repeat(60));
+        out.println(getRoomTitle(chamber));
+        out.println("=".repeat(60));
         
-        if (currentRoom == BOSS_ROOM) {
+        if (chamber == BOSS_CHAMBER) {
             exploreBossRoom();
         } else {
-            exploreNormalRoom();
+            exploreNormalRoom(chamber);
         }
     }
     
-    private void exploreNormalRoom() {
-        System.out.println(getDetailedRoomDescription(currentRoom));
-        System.out.println();
+    /**
+     * The hand-written chamber whose story a room tells: the entrance first, the sanctum last,
+     * the rooms between share the other chambers in order of depth
+     */
+    private int storyChamber(int room) {
+        int sanctum = cave.getDeepestRoom();
+        if (room == cave.getEntrance() || room == sanctum) {
+            return room == sanctum ? BOSS_CHAMBER : 1;
+        }
+        return 2 + (int) ((long) (room - 1) * (STORY_CHAMBERS - 1) / (sanctum - 1));
+    }
+    
+    private void exploreNormalRoom(int chamber) {
+        out.println(getDetailedRoomDescription(chamber));
+        int passages = cave.degree(currentRoom);
+        out.println("[Room " + (currentRoom + 1) + " of " + CAVE_ROOMS + ": " + cave.getKindName(currentRoom) + ", "
+            + passages + (passages == 1 ? " passage" : " passages")
+            + (visited.get(currentRoom) ? ", explored" : "") + "]");
+        out.println();
         
         // Present room exploration choices without revealing hidden elements
         presentRoomChoices();
@@ -103,15 +202,16 @@ public class CaveExplorer {
     
     private void presentRoomChoices() {
         boolean roomCompleted = false;
-        String enemy = roomEnemies.get(currentRoom);
-        List<String> treasures = roomTreasures.get(currentRoom);
+        String enemy = enemyCleared.get(currentRoom) ? null : cave.getEnemy(currentRoom);
+        String treasure = treasureTaken.get(currentRoom) ? null : cave.getTreasure(currentRoom);
+        List<String> treasures = treasure == null ? null : new ArrayList<>(List.of(treasure));
         boolean enemyDefeated = false;
         boolean treasuresLooted = false;
         boolean enemyDiscovered = false;
         boolean treasuresDiscovered = false;
         
         while (!roomCompleted) {
-            System.out.println("\nWhat would you like to do?");
+            out.println("\nWhat would you like to do?");
             List<String> options = new ArrayList<>();
             
             // Always available options
@@ -135,19 +235,15 @@ public class CaveExplorer {
             
             // Navigation options
             if ((enemy == null || enemyDefeated)) {
-                if (currentRoom < BOSS_ROOM) {
-                    options.add("Continue deeper into the caverns");
-                } else {
-                    options.add("Approach the final chamber");
-                }
+                options.add("Continue deeper into the caverns");
             }
             
             // Display options with clear numbering
             for (int i = 0; i < options.size(); i++) {
-                System.out.println("   " + (i + 1) + ". " + options.get(i));
+                out.println("   " + (i + 1) + ". " + options.get(i));
             }
             
-            System.out.print("\nChoose your action (1-" + options.size() + "): ");
+            out.print("\nChoose your action (1-" + options.size() + "): ");
             int choice = getPlayerChoice(1, options.size());
             String selectedAction = options.get(choice - 1);
             
@@ -156,68 +252,76 @@ public class CaveExplorer {
                 describeSurroundings();
             } else if (selectedAction.contains("Search for hidden dangers")) {
                 if (enemy != null && !enemyDiscovered) {
-                    System.out.println("\nAlert! You discover a " + enemy + " lurking in the shadows!");
+                    out.println("\nAlert! You discover a " + enemy + " lurking in the shadows!");
                     describeEnemy(enemy);
                     enemyDiscovered = true;
                 } else if (enemy == null) {
-                    System.out.println("\nYou search carefully but find no immediate threats in this chamber.");
+                    out.println("\nYou search carefully but find no immediate threats in this chamber.");
                 } else {
-                    System.out.println("\nYou've already spotted the " + enemy + " in this room.");
+                    out.println("\nYou've already spotted the " + enemy + " in this room.");
                 }
             } else if (selectedAction.contains("Search for valuable items")) {
                 if (treasures != null && !treasures.isEmpty() && !treasuresDiscovered) {
-                    System.out.println("\nExcellent! You discover hidden treasures:");
+                    out.println("\nExcellent! You discover hidden treasures:");
                     describeTreasureDiscovery(treasures);
                     treasuresDiscovered = true;
                 } else if (treasures == null || treasures.isEmpty()) {
-                    System.out.println("\nYou search thoroughly but find no valuable items in this chamber.");
+                    out.println("\nYou search thoroughly but find no valuable items in this chamber.");
                 } else {
-                    System.out.println("\nYou've already found all the treasures in this room.");
+                    out.println("\nYou've already found all the treasures in this room.");
                 }
             } else if (selectedAction.contains("inventory")) {
                 showPartyStatus();
             } else if (selectedAction.contains("Approach") && selectedAction.contains("combat")) {
-                System.out.println("\nYou steel yourself for battle and approach the " + enemy + "...");
-                System.out.println("The creature notices your approach and prepares to fight!");
+                out.println("\nYou steel yourself for battle and approach the " + enemy + "...");
+                out.println("The creature notices your approach and prepares to fight!");
                 enemyDefeated = handleCombat(enemy);
                 if (!enemyDefeated) {
-                    System.out.println("Your party has been defeated! The adventure ends here...");
+                    out.println("Your party has been defeated! The adventure ends here...");
                     return;
                 }
             } else if (selectedAction.contains("sneak")) {
-                System.out.println("\nYou motion to your party to move quietly...");
+                out.println("\nYou motion to your party to move quietly...");
                 if (attemptStealth(enemy)) {
-                    System.out.println("Success! You manage to slip past the " + enemy + " undetected!");
+                    out.println("Success! You manage to slip past the " + enemy + " undetected!");
                     enemyDefeated = true; // Bypassed, not defeated
                 } else {
-                    System.out.println("The " + enemy + " spots you! Combat is unavoidable!");
+                    out.println("The " + enemy + " spots you! Combat is unavoidable!");
                     enemyDefeated = handleCombat(enemy);
                     if (!enemyDefeated) {
-                        System.out.println("Your party has been defeated! The adventure ends here...");
+                        out.println("Your party has been defeated! The adventure ends here...");
                         return;
                     }
                 }
             } else if (selectedAction.contains("defenses")) {
-                System.out.println("\nYou take time to prepare your party's defenses and strategy...");
-                System.out.println("Your tactical preparation will give you an advantage in the coming fight!");
+                out.println("\nYou take time to prepare your party's defenses and strategy...");
+                out.println("Your tactical preparation will give you an advantage in the coming fight!");
                 enemyDefeated = handleCombat(enemy, true); // Combat with advantage
                 if (!enemyDefeated) {
-                    System.out.println("Despite your preparations, your party has been defeated!");
+                    out.println("Despite your preparations, your party has been defeated!");
                     return;
                 }
             } else if (selectedAction.contains("Collect the discovered")) {
-                System.out.println("\nYou begin collecting the treasures you found...");
+                out.println("\nYou begin collecting the treasures you found...");
                 handleTreasureCollection(treasures);
                 treasuresLooted = true;
             } else if (selectedAction.contains("Choose specific treasures")) {
-                System.out.println("\nYou carefully consider which treasures to take...");
+                out.println("\nYou carefully consider which treasures to take...");
                 handleSelectiveTreasureCollection(treasures);
                 treasuresLooted = true;
             } else if (selectedAction.contains("Continue") || selectedAction.contains("Approach")) {
-                System.out.println("\nYou signal to your party that it's time to move forward...");
+                out.println("\nYou signal to your party that it's time to move forward...");
                 roomCompleted = true;
             }
         }
+        
+        // The room stays as the party left it if they come back
+        if (enemy != null && enemyDefeated) {
+            enemyCleared.set(currentRoom);
+        }
+        if (treasuresLooted) {
+            treasureTaken.set(currentRoom);
+        }
     }
     
     private String getDetailedRoomDescription(int roomNum) {
@@ -313,72 +417,60 @@ public class CaveExplorer {
     }
     
     private void describeSurroundings() {
-        System.out.println("\nYou take a moment to carefully observe your surroundings...\n");
+        out.println("\nYou take a moment to carefully observe your surroundings...\n");
         
         // Describe environmental details without revealing hidden elements
-        switch (currentRoom) {
+        switch (storyChamber(currentRoom)) {
             case 1:
-                System.out.println("The entrance chamber shows signs of recent passage - footprints in");
-                System.out.println("   the dust suggest others have been here before you. The air currents");
-                System.out.println("   indicate multiple passages ahead. Some shadows seem deeper than others.");
+                out.println("The entrance chamber shows signs of recent passage - footprints in");
+                out.println("   the dust suggest others have been here before you. The air currents");
+                out.println("   indicate multiple passages ahead. Some shadows seem deeper than others.");
                 break;
             case 2:
-                System.out.println("The crystals seem to respond to your presence, glowing slightly");
-                System.out.println("   brighter. You notice some crystals have been recently harvested.");
-                System.out.println("   The play of light creates many hiding spots throughout the chamber.");
+                out.println("The crystals seem to respond to your presence, glowing slightly");
+                out.println("   brighter. You notice some crystals have been recently harvested.");
+                out.println("   The play of light creates many hiding spots throughout the chamber.");
                 break;
             case 3:
-                System.out.println("The statues' eyes seem to follow your movement. Some bear inscriptions");
-                System.out.println("   in ancient languages, possibly warnings or blessings.");
-                System.out.println("   The spaces between statues are shrouded in mystery.");
+                out.println("The statues' eyes seem to follow your movement. Some bear inscriptions");
+                out.println("   in ancient languages, possibly warnings or blessings.");
+                out.println("   The spaces between statues are shrouded in mystery.");
                 break;
             case 4:
-                System.out.println("The forge fires cast dancing shadows on the walls. Ancient tools");
-                System.out.println("   lie scattered about, and the heat distorts the air making it hard");
-                System.out.println("   to see clearly into all corners of the chamber.");
+                out.println("The forge fires cast dancing shadows on the walls. Ancient tools");
+                out.println("   lie scattered about, and the heat distorts the air making it hard");
+                out.println("   to see clearly into all corners of the chamber.");
                 break;
             case 5:
-                System.out.println("The supernatural mist swirls around you, limiting visibility.");
-                System.out.println("   Whispers echo from unseen sources, and shapes move just beyond");
-                System.out.println("   the edge of sight. Anything could be hiding in this fog.");
+                out.println("The supernatural mist swirls around you, limiting visibility.");
+                out.println("   Whispers echo from unseen sources, and shapes move just beyond");
+                out.println("   the edge of sight. Anything could be hiding in this fog.");
                 break;
             default:
-                System.out.println("You notice interesting details about the chamber's construction");
-                System.out.println("   and signs of who or what might have passed through recently.");
-                System.out.println("   Many areas remain unexplored and could hold secrets.");
+                out.println("You notice interesting details about the chamber's construction");
+                out.println("   and signs of who or what might have passed through recently.");
+                out.println("   Many areas remain unexplored and could hold secrets.");
         }
         
-        System.out.println("\nTo discover what this chamber truly holds, you'll need to search more actively.");
+        out.println("\nTo discover what this chamber truly holds, you'll need to search more actively.");
         
-        System.out.println("\nPress Enter to continue...");
+        out.println("\nPress Enter to continue...");
         scanner.nextLine();
     }
     
     private void describeEnemy(String enemy) {
-        switch (enemy) {
-            case "Cave Rat":
-                System.out.println("   A large rat with glowing red eyes and unusually sharp teeth.");
-                System.out.println("   It seems more aggressive than normal rats, possibly mutated by cave magic.");
-                break;
-            case "Goblin Scout":
-                System.out.println("   A small but cunning goblin wearing crude leather armor.");
-                System.out.println("   It carries a rusty dagger and watches you with intelligent malice.");
-                break;
-            case "Stone Gargoyle":
-                System.out.println("   A creature of living stone that blends perfectly with the cave walls.");
-                System.out.println("   Its wings are folded, but its claws look razor-sharp.");
-                break;
-            case "Fire Salamander":
-                System.out.println("   A lizard-like creature wreathed in flames, leaving scorch marks on the stone.");
-                System.out.println("   Its breath steams in the cool cave air, and embers fall from its scales.");
-                break;
-            default:
-                System.out.println("   A dangerous creature that shouldn't be underestimated.");
+        int id = content.find(ContentPack.CAVE_ENEMY, enemy);
+        int lines = content.textCount(id, ContentPack.DESCRIPTION);
+        if (lines == 0) {
+            out.println("   A dangerous creature that shouldn't be underestimated.");
+        }
+        for (int line = 0; line < lines; line++) {
+            out.println("   " + content.text(id, ContentPack.DESCRIPTION, line));
         }
     }
     
     private void showPartyStatus() {
-        System.out.println("\n=== PARTY STATUS ===\n");
+        out.println("\n=== PARTY STATUS ===\n");
         for (GameCharacter character : party) {
             String status = "Healthy";
             if (character.getHealth() < character.getMaxHealth() * 0.3) {
@@ -387,28 +479,27 @@ public class CaveExplorer {
                 status = "Injured";
             }
             
-            System.out.println(getCharacterIcon(character) + " " + character.getName() + " the " + character.getCharacterType());
-            System.out.println("   Status: " + status + " (" + character.getHealth() + "/" + character.getMaxHealth() + " HP)");
-            System.out.println("   " + getCharacterCurrentState(character));
-            System.out.println();
+            out.println(getCharacterIcon(character) + " " + character.getName() + " the " + character.getCharacterType());
+            out.println("   Status: " + status + " (" + character.getHealth() + "/" + character.getMaxHealth() + " HP)");
+            out.println("   " + getCharacterCurrentState(character));
+            out.println();
         }
         
-        System.out.println(" === YOUR INVENTORY ===");
+        out.println(" === YOUR INVENTORY ===");
         if (playerInventory.isEmpty()) {
-            System.out.println("   (Empty - " + MAX_INVENTORY + " slots available)");
+            out.println("   (Empty - " + MAX_INVENTORY + " slots available)");
         } else {
-            System.out.println("   (" + playerInventory.size() + "/" + MAX_INVENTORY + " slots used)");
+            out.println("   (" + playerInventory.size() + "/" + MAX_INVENTORY + " slots used)");
             for (String item : playerInventory) {
-                System.out.println("   • " + item);
+                out.println("   • " + item);
             }
         }
         
-        System.out.println("\nPress Enter to continue...");
+        out.println("\nPress Enter to continue...");
         scanner.nextLine();
     }
     
     private boolean attemptStealth(String enemy) {
-        Random random = new Random();
         int stealthRoll = random.nextInt(20) + 1;
         
         // Thief gets bonus to stealth
@@ -416,167 +507,243 @@ public class CaveExplorer {
             stealthRoll += 5;
         }
         
-        System.out.println("Stealth attempt: " + stealthRoll + "/20");
+        out.println("Stealth attempt: " + stealthRoll + "/20");
         
         return stealthRoll >= 12; // Base difficulty
     }
     
     private void describeTreasureDiscovery(List<String> treasures) {
-        System.out.println("After searching carefully, you discover:");
+        out.println("After searching carefully, you discover:");
         for (String treasure : treasures) {
-            System.out.println("   " + treasure + " - " + getTreasureDescription(treasure));
+            out.println("   " + treasure + " - " + getTreasureDescription(treasure));
         }
     }
     
     private void describeTreasureDetails(List<String> treasures) {
-        System.out.println("You examine each treasure carefully:");
+        out.println("You examine each treasure carefully:");
         for (String treasure : treasures) {
-            System.out.println("\n" + treasure + ":");
-            System.out.println("   " + getTreasureDescription(treasure));
-            System.out.println("   " + getTreasureUsefulness(treasure));
+            out.println("\n" + treasure + ":");
+            out.println("   " + getTreasureDescription(treasure));
+            out.println("   " + getTreasureUsefulness(treasure));
         }
     }
     
     private String getTreasureDescription(String treasure) {
-        switch (treasure) {
-            case "Health Potion": return "A red liquid in a crystal vial that glows with healing energy";
-            case "Rusty Dagger": return "An old but still sharp blade with mysterious runes on the hilt";
-            case "Magic Crystal": return "A blue crystal that pulses with arcane power";
-            case "Ancient Coin": return "A gold coin with an unknown emperor's face, might be valuable";
-            case "Enchanted Ring": return "A silver ring that feels warm to the touch";
-            case "Cave Map": return "A detailed map showing secret passages through these caverns";
-            case "Fire Scroll": return "A scroll containing a powerful fire spell";
-            case "Iron Shield": return "A sturdy shield that could protect against enemy attacks";
-            default: return "A mysterious item with unknown properties";
-        }
+        String description = content.text(content.find(ContentPack.TREASURE, treasure), ContentPack.DESCRIPTION);
+        return description != null ? description : "A mysterious item with unknown properties";
     }
     
     private String getTreasureUsefulness(String treasure) {
-        switch (treasure) {
-            case "Health Potion": return "Could save your life in a tough battle";
-            case "Magic Crystal": return "Useful for powering magical abilities";
-            case "Cave Map": return "Might reveal shortcuts or hidden areas";
-            case "Fire Scroll": return "Devastating against ice or plant enemies";
-            case "Iron Shield": return "Provides excellent protection in combat";
-            default: return "Might be useful later in your adventure";
-        }
+        String usefulness = content.text(content.find(ContentPack.TREASURE, treasure), ContentPack.USEFULNESS);
+        return usefulness != null ? usefulness : "Might be useful later in your adventure";
     }
     
     private void handleSelectiveTreasureCollection(List<String> treasures) {
         for (String treasure : treasures) {
-            System.out.println("\nWould you like to take the " + treasure + "?");
-            System.out.println("   (You have " + (MAX_INVENTORY - playerInventory.size()) + " inventory slots remaining)");
-            System.out.print("   Take it? (y/n): ");
+            out.println("\nWould you like to take the " + treasure + "?");
+            out.println("   (You have " + (MAX_INVENTORY - playerInventory.size()) + " inventory slots remaining)");
+            out.print("   Take it? (y/n): ");
             
             String response = scanner.nextLine().toLowerCase().trim();
             if (response.startsWith("y")) {
                 if (playerInventory.size() < MAX_INVENTORY) {
                     playerInventory.add(treasure);
-                    System.out.println(treasure + " added to your inventory!");
+                    out.println(treasure + " added to your inventory!");
                 } else {
-                    System.out.println("Your inventory is full! Drop something first? (y/n): ");
+                    out.println("Your inventory is full! Drop something first? (y/n): ");
                     String dropResponse = scanner.nextLine().toLowerCase().trim();
                     if (dropResponse.startsWith("y")) {
                         dropItemFromInventory();
                         if (playerInventory.size() < MAX_INVENTORY) {
                             playerInventory.add(treasure);
-                            System.out.println(treasure + " added to your inventory!");
+                            out.println(treasure + " added to your inventory!");
                         }
                     } else {
-                        System.out.println("Left " + treasure + " behind.");
+                        out.println("Left " + treasure + " behind.");
                     }
                 }
             } else {
-                System.out.println("You decide to leave the " + treasure + " behind.");
+                out.println("You decide to leave the " + treasure + " behind.");
             }
         }
     }
     
+    /**
+     * Offer routes out of the current room: toward the sanctum, to the nearest uncharted room,
+     * through each passage, or back out to the entrance. Routes come from the pathfinder, and
+     * the party walks them through explored rooms without stopping
+     */
     private void offerNavigationChoices() {
-        System.out.println("\n=== CHOOSE YOUR PATH ===\n");
-        System.out.println("You've completed this chamber. Where would you like to go next?");
-        System.out.println();
-        System.out.println("1. ⬆️  Continue forward deeper into the caverns");
-        System.out.println("2. ⬅️  Explore a side passage to the left");  
-        System.out.println("3. Investigate a passage to the right");
-        System.out.println("4. Check party status before deciding");
-        System.out.println("5. Think carefully about your options");
+        int sanctum = cave.getDeepestRoom();
+        int[] toSanctum = pathfinder.routeToDeepest(currentRoom);
+        int[] toUncharted = pathfinder.routeToNearest(currentRoom, room -> !visited.get(room), CAVE_ROOMS);
+        int[] toExit = pathfinder.routeToExit(currentRoom);
         
-        System.out.print("\nWhat is your choice? (1-5): ");
-        int choice = getPlayerChoice(1, 5);
+        out.println("\n=== CHOOSE YOUR PATH ===\n");
+        if (currentRoom == sanctum) {
+            out.println("The Ancient Guardian still bars the way. What will you do?");
+        } else {
+            out.println("You've completed this chamber. Where would you like to go next?");
+        }
+        out.println();
         
-        switch (choice) {
-            case 1:
-                currentRoom++;
-                System.out.println("\nYour party moves deeper into the mysterious caverns...");
-                break;
-            case 2:
-                System.out.println("\nYou decide to explore the left passage...");
-                // Could lead to the same next room or special areas
-                currentRoom++;
-                break;
-            case 3:
-                System.out.println("\nYou choose the right-hand passage...");
-                currentRoom++;
-                break;
-            case 4:
-                showPartyStatus();
-                offerNavigationChoices(); // Recursive call to choose again
-                return;
-            case 5:
-                System.out.println("\nYou take a moment to consider your options carefully...");
-                System.out.println("The deeper you go, the more dangerous it becomes, but also");
-                System.out.println("the greater the potential rewards. Your party seems ready to continue.");
-                offerNavigationChoices(); // Recursive call to choose again
+        List<String> options = new ArrayList<>();
+        List<int[]> routes = new ArrayList<>(); // One per travel option
+        if (currentRoom == sanctum) {
+            options.add("⬆️  Face the Ancient Guardian again");
+        } else {
+            options.add("⬆️  Press on toward the Guardian's sanctum (" + passages(toSanctum) + " away)");
+        }
+        routes.add(toSanctum);
+        if (toUncharted != null) {
+            options.add("🧭 Explore the nearest uncharted chamber (" + passages(toUncharted) + " away)");
+            routes.add(toUncharted);
+        }
+        for (int i = 0; i < cave.degree(currentRoom); i++) {
+            int next = cave.neighbor(currentRoom, i);
+            options.add("Take the passage " + (next < currentRoom ? "back up" : "down") + " to a "
+                + cave.getKindName(next).toLowerCase() + (visited.get(next) ? " (explored)" : ""));
+            routes.add(new int[] {currentRoom, next});
+        }
+        int retreatOption = -1;
+        if (currentRoom != cave.getEntrance()) {
+            retreatOption = options.size();
+            options.add("⬅️  Retreat to the entrance and leave the caverns (" + passages(toExit) + ")");
+        }
+        int statusOption = options.size();
+        options.add("Check party status before deciding");
+        options.add("Think carefully about your options");
+        
+        for (int i = 0; i < options.size(); i++) {
+            out.println((i + 1) + ". " + options.get(i));
+        }
+        out.print("\nWhat is your choice? (1-" + options.size() + "): ");
+        int choice = getPlayerChoice(1, options.size()) - 1;
+        
+        if (choice < routes.size()) {
+            travel(routes.get(choice));
+        } else if (choice == retreatOption) {
+            out.print("\nLeave the caverns and end your expedition? (y/n): ");
+            if (!scanner.nextLine().toLowerCase().trim().startsWith("y")) {
+                offerNavigationChoices();
                 return;
+            }
+            out.println("\nYour party follows the " + passages(toExit) + " back to daylight.");
+            out.println("The Ancient Guardian will wait for braver days.");
+            currentRoom = cave.getEntrance();
+            retreated = true;
+            return;
+        } else if (choice == statusOption) {
+            showPartyStatus();
+            offerNavigationChoices(); // Recursive call to choose again
+            return;
+        } else {
+            out.println("\nYou take a moment to consider your options carefully...");
+            out.println("The Guardian's sanctum lies " + passages(toSanctum) + " ahead"
+                + (currentRoom == cave.getEntrance() ? "." : "; the entrance " + passages(toExit) + " behind you."));
+            out.println("Your party has explored " + visited.cardinality() + " of " + CAVE_ROOMS + " chambers.");
+            out.println("The deeper you go, the more dangerous it becomes, but also");
+            out.println("the greater the potential rewards.");
+            offerNavigationChoices(); // Recursive call to choose again
+            return;
         }
         
-        System.out.println("The adventure continues...\n");
+        out.println("The adventure continues...\n");
+    }
+    
+    /**
+     * Walk a route, stopping at the first room the party has not explored yet (a route of
+     * one room stays put)
+     */
+    private void travel(int[] route) {
+        int step = 1;
+        while (step < route.length - 1 && visited.get(route[step])) {
+            step++;
+        }
+        if (step >= route.length) {
+            out.println("\nYou steel yourselves to face the Guardian once more...");
+            return;
+        }
+        if (step > 1) {
+            out.println("\nYou retrace your steps through " + (step - 1) + " explored "
+                + (step == 2 ? "chamber" : "chambers") + "...");
+        }
+        int next = route[step];
+        out.println(next > currentRoom ? "\nYour party moves deeper into the mysterious caverns..."
+                                       : "\nYour party climbs back toward the surface passages...");
+        currentRoom = next;
+    }
+    
+    private static String passages(int[] route) {
+        int steps = route.length - 1;
+        return steps + (steps == 1 ? " passage" : " passages");
     }
     
     // Boss room and combat methods
     private void exploreBossRoom() {
-        System.out.println("**THE GUARDIAN'S SANCTUM**\n");
-        System.out.println("You enter a massive circular chamber with a domed ceiling that disappears");
-        System.out.println("into darkness above. Ancient pillars carved with mystical symbols support");
-        System.out.println("the vast space. At the center, on a raised dais, sits an enormous creature");
-        System.out.println("made of living crystal and shadow - the Ancient Guardian of the caverns.");
-        System.out.println();
-        System.out.println("The Guardian's eyes open as you approach, glowing with power accumulated");
-        System.out.println("over millennia. This is the final test of your adventure!");
-        System.out.println();
+        out.println("**THE GUARDIAN'S SANCTUM**\n");
+        out.println("You enter a massive circular chamber with a domed ceiling that disappears");
+        out.println("into darkness above. Ancient pillars carved with mystical symbols support");
+        out.println("the vast space. At the center, on a raised dais, sits an enormous creature");
+        out.println("made of living crystal and shadow - the Ancient Guardian of the caverns.");
+        out.println();
+        out.println("The Guardian's eyes open as you approach, glowing with power accumulated");
+        out.println("over millennia. This is the final test of your adventure!");
+        out.println();
         
         bossDefeated = handleBossBattle();
     }
     
     private boolean handleBossBattle() {
-        System.out.println(" === FINAL BATTLE: THE ANCIENT GUARDIAN ===\n");
+        out.println(" === FINAL BATTLE: THE ANCIENT GUARDIAN ===\n");
+        
+        // The party's best odds come from a precomputed table (see BossSolver)
+        for (int slot = 0; slot < party.size(); slot++) {
+            combatClasses[slot] = classIndex(party.get(slot));
+        }
+        int loadout = BossSolver.loadout(combatClasses, playerInventory);
+        int scrollsLeft = BossSolver.scrolls(loadout);
         
         for (int round = 1; round <= 3; round++) {
-            System.out.println("--- ROUND " + round + " ---");
-            System.out.println("The Ancient Guardian " + getBossRoundDescription(round));
-            System.out.println();
+            out.println("--- ROUND " + round + " ---");
+            out.println("The Ancient Guardian " + getBossRoundDescription(round));
+            out.println();
             
-            System.out.println("Choose your strategy for round " + round + ":");
-            System.out.println("1. Coordinated Attack - All party members strike together");
-            System.out.println("2. Defensive Strategy - Protect while looking for weaknesses");
-            System.out.println("3. Magic Focus - Use all magical abilities and items");
-            System.out.println("4. Tactical Strike - Target specific weak points");
-            System.out.print("\nEnter your choice (1-4): ");
+            int advice = BossSolver.shared().decision(loadout, round, scrollsLeft);
+            out.printf("💡 Your party's best odds: %s%s (%.0f%% chance to prevail from here)%n%n",
+                BossSolver.STRATEGY_NAMES[BossSolver.strategy(advice)],
+                BossSolver.burnsScroll(advice) ? " with a Fire Scroll" : "", BossSolver.winChance(advice) * 100);
+            
+            out.println("Choose your strategy for round " + round + ":");
+            out.println("1. Coordinated Attack - All party members strike together");
+            out.println("2. Defensive Strategy - Protect while looking for weaknesses");
+            out.println("3. Magic Focus - Use all magical abilities and items");
+            out.println("4. Tactical Strike - Target specific weak points");
+            out.print("\nEnter your choice (1-4): ");
             
             int strategy = getPlayerChoice(1, 4);
             
-            if (executeBossStrategy(strategy, round)) {
-                System.out.println("\n=== VICTORY! ===");
-                System.out.println("The Ancient Guardian's form begins to dissolve into sparkling light!");
-                System.out.println("'You have proven yourselves worthy,' its voice echoes as it fades.");
-                System.out.println("'Take these treasures as a reward for your courage and teamwork.'");
+            boolean burnScroll = false;
+            if (scrollsLeft > 0) {
+                out.print("Burn a Fire Scroll for +" + BossSolver.FIRE_SCROLL_BONUS + " to this roll? (y/n): ");
+                burnScroll = scanner.nextLine().toLowerCase().trim().startsWith("y");
+                if (burnScroll) {
+                    playerInventory.remove("Fire Scroll");
+                    scrollsLeft--;
+                }
+            }
+            
+            if (executeBossStrategy(strategy, round, loadout, burnScroll)) {
+                out.println("\n=== VICTORY! ===");
+                out.println("The Ancient Guardian's form begins to dissolve into sparkling light!");
+                out.println("'You have proven yourselves worthy,' its voice echoes as it fades.");
+                out.println("'Take these treasures as a reward for your courage and teamwork.'");
                 return true;
             }
         }
         
-        System.out.println("\nThe Ancient Guardian's power proves overwhelming...");
-        System.out.println("Your party fought valiantly, but this challenge was too great.");
+        out.println("\nThe Ancient Guardian's power proves overwhelming...");
+        out.println("Your party fought valiantly, but this challenge was too great.");
         return false;
     }
     
@@ -589,38 +756,37 @@ public class CaveExplorer {
         }
     }
     
-    private boolean executeBossStrategy(int strategy, int round) {
-        Random random = new Random();
+    private boolean executeBossStrategy(int strategy, int round, int loadout, boolean burnScroll) {
         int baseRoll = random.nextInt(20) + 1;
-        int totalRoll = baseRoll;
+        int totalRoll = baseRoll + BossSolver.strategyBonus(strategy, round, loadout);
         
         switch (strategy) {
             case 1: // Coordinated Attack
-                totalRoll += 3 + party.size(); // Bonus for teamwork
-                System.out.println("Teamwork Roll: " + totalRoll + " (base: " + baseRoll + " + teamwork bonus)");
+                out.println("Teamwork Roll: " + totalRoll + " (base: " + baseRoll + " + teamwork bonus)");
                 break;
             case 2: // Defensive Strategy  
-                totalRoll += 2;
-                System.out.println("Defense Roll: " + totalRoll + " (base: " + baseRoll + " + defense bonus)");
+                out.println("Defense Roll: " + totalRoll + " (base: " + baseRoll + " + defense bonus)");
                 break;
             case 3: // Magic Focus
-                totalRoll += 4; // High risk, high reward
-                System.out.println("Magic Roll: " + totalRoll + " (base: " + baseRoll + " + magic bonus)");
+                out.println("Magic Roll: " + totalRoll + " (base: " + baseRoll + " + magic bonus)");
                 break;
             case 4: // Tactical Strike
-                totalRoll += 1 + round; // Gets better each round
-                System.out.println("Precision Roll: " + totalRoll + " (base: " + baseRoll + " + tactical bonus)");
+                out.println("Precision Roll: " + totalRoll + " (base: " + baseRoll + " + tactical bonus)");
                 break;
         }
+        if (burnScroll) {
+            totalRoll += BossSolver.FIRE_SCROLL_BONUS;
+            out.println("🔥 The Fire Scroll blazes! Roll is now " + totalRoll);
+        }
         
         int difficulty = 15 - round; // Gets easier each round
-        System.out.println("Needed: " + difficulty + " or higher");
+        out.println("Needed: " + difficulty + " or higher");
         
         if (totalRoll >= difficulty) {
-            System.out.println("Your strategy succeeds! The Guardian staggers!");
-            return round == 3 || totalRoll >= 20; // Win on round 3 or critical success
+            out.println("Your strategy succeeds! The Guardian staggers!");
+            return BossSolver.winsRound(totalRoll, round); // Win on round 3 or critical success
         } else {
-            System.out.println("The Guardian resists, but shows signs of wear!");
+            out.println("The Guardian resists, but shows signs of wear!");
             return false;
         }
     }
@@ -631,119 +797,98 @@ public class CaveExplorer {
     }
     
     private boolean handleCombat(String enemy, boolean prepared) {
-        System.out.println("\n === TURN-BASED COMBAT: " + enemy.toUpperCase() + " ===\n");
-        
-        // Initialize combat stats
-        Map<String, Integer> partyHealth = new HashMap<>();
-        Map<String, Integer> partyMaxHealth = new HashMap<>();
-        
-        // Store original health for all party members
-        partyHealth.put(player.getName(), player.getHealth());
-        partyMaxHealth.put(player.getName(), player.getMaxHealth());
+        out.println("\n === TURN-BASED COMBAT: " + enemy.toUpperCase() + " ===\n");
+        combatsFought++;
         
-        for (GameCharacter character : aiParty) {
-            partyHealth.put(character.getName(), character.getHealth());
-            partyMaxHealth.put(character.getName(), character.getMaxHealth());
+        // Party members take slots 0..n-1 (player first), the enemy the slot after them
+        combat.reset();
+        for (GameCharacter character : party) {
+            combat.add(CombatKernel.PARTY, character.getHealth(), character.getMaxHealth(), 0);
         }
-        
-        // Enemy stats
-        int enemyHealth = getEnemyMaxHealth(enemy);
-        int enemyMaxHealth = enemyHealth;
+        int enemySlot = combat.add(CombatKernel.ENEMIES, getEnemyMaxHealth(enemy), getEnemyMaxHealth(enemy), getEnemyArmor(enemy));
         int enemyAttack = getEnemyAttack(enemy);
-        int enemyArmor = getEnemyArmor(enemy);
+        combat.setAttack(enemySlot, enemyAttack - 2, ENEMY_SPREAD, 0, CombatKernel.ARMOR_FULL, ENEMY_ATTACK); // Attack ± 2
+        combat.setPreferredTarget(PLAYER_SLOT, ENEMY_PLAYER_FOCUS); // Prefers the player
+        combatEnemy = enemy;
+        for (int slot = 0; slot < enemySlot; slot++) {
+            combatClasses[slot] = classIndex(party.get(slot));
+        }
+        planner.reset(); // AI party members plan afresh for every fight
         
         if (prepared) {
-            System.out.println("Your party is well-prepared for this battle!\n");
+            out.println("Your party is well-prepared for this battle!\n");
         }
         
-        System.out.println(" === BATTLE STATUS ===");
-        displayCombatStatus(partyHealth, partyMaxHealth, enemy, enemyHealth, enemyMaxHealth);
-        
-        Random random = new Random();
-        int round = 1;
+        out.println(" === BATTLE STATUS ===");
+        displayCombatStatus(enemy, enemySlot);
         
         // Combat loop
-        while (enemyHealth > 0 && !isPartyDefeated(partyHealth)) {
-            System.out.println("\n === ROUND " + round + " ===");
+        while (combat.isStanding(enemySlot) && !isPartyDefeated()) {
+            int round = combat.nextRound();
+            out.println("\n === ROUND " + round + " ===");
             
             // Party turns (player first, then AI)
-            List<GameCharacter> turnOrder = new ArrayList<>();
-            turnOrder.add(player);
-            turnOrder.addAll(aiParty);
-            
-            for (GameCharacter character : turnOrder) {
-                if (partyHealth.get(character.getName()) > 0 && enemyHealth > 0) {
-                    if (character == player) {
-                        // Player's turn
-                        enemyHealth = handlePlayerTurn(character, enemy, enemyHealth, partyHealth, partyMaxHealth, enemyArmor, prepared);
-                    } else {
-                        // AI character's turn
-                        enemyHealth = handleAITurn(character, enemy, enemyHealth, partyHealth, partyMaxHealth, enemyArmor, random);
-                    }
-                    
-                    if (enemyHealth <= 0) {
-                        break;
-                    }
+            for (int slot = 0; slot < enemySlot && combat.isStanding(enemySlot); slot++) {
+                if (!combat.isStanding(slot)) {
+                    continue;
+                }
+                if (slot == PLAYER_SLOT) {
+                    handlePlayerTurn(player, enemy, enemySlot, prepared);
+                } else {
+                    handleAITurn(party.get(slot), slot, enemySlot);
                 }
             }
             
             // Enemy turn
-            if (enemyHealth > 0 && !isPartyDefeated(partyHealth)) {
-                handleEnemyTurn(enemy, enemyAttack, partyHealth, partyMaxHealth, random);
+            if (combat.isStanding(enemySlot) && !isPartyDefeated()) {
+                handleEnemyTurn(enemy, enemySlot);
             }
             
             // Display status after round
-            if (enemyHealth > 0 && !isPartyDefeated(partyHealth)) {
-                System.out.println("\n === END OF ROUND " + round + " ===");
-                displayCombatStatus(partyHealth, partyMaxHealth, enemy, enemyHealth, enemyMaxHealth);
+            if (combat.isStanding(enemySlot) && !isPartyDefeated()) {
+                out.println("\n === END OF ROUND " + round + " ===");
+                displayCombatStatus(enemy, enemySlot);
             }
             
-            round++;
-            
             // Safety check to prevent infinite combat
-            if (round > 20) {
-                System.out.println("\n⏰ The battle rages on too long! Both sides retreat to recover...");
+            if (round >= MAX_COMBAT_ROUNDS) {
+                out.println("\n⏰ The battle rages on too long! Both sides retreat to recover...");
                 return false;
             }
         }
         
         // Combat resolution
-        if (enemyHealth <= 0) {
-            System.out.println("\n=== VICTORY! ===");
-            System.out.println("You and your party have defeated the " + enemy + "!");
-            System.out.println(getVictoryDescription(enemy));
+        if (!combat.isStanding(enemySlot)) {
+            out.println("\n=== VICTORY! ===");
+            out.println("You and your party have defeated the " + enemy + "!");
+            out.println(getVictoryDescription(enemy));
             return true;
         } else {
-            System.out.println("\n=== DEFEAT ===");
-            System.out.println("Your party has been overwhelmed by the " + enemy + "...");
-            System.out.println("The adventure ends here...");
+            out.println("\n=== DEFEAT ===");
+            out.println("Your party has been overwhelmed by the " + enemy + "...");
+            out.println("The adventure ends here...");
             return false;
         }
     }
     
     private String getVictoryDescription(String enemy) {
-        switch (enemy) {
-            case "Cave Rat": return "The oversized rat squeaks once and scurries away into the darkness.";
-            case "Goblin Scout": return "The goblin drops its weapon and flees, muttering curses.";
-            case "Stone Gargoyle": return "The gargoyle crumbles back into ordinary stone.";
-            case "Fire Salamander": return "The salamander's flames dim and it retreats to the deeper caves.";
-            default: return "Your enemy is defeated and the path ahead is clear.";
-        }
+        String victory = content.text(content.find(ContentPack.CAVE_ENEMY, enemy), ContentPack.VICTORY);
+        return victory != null ? victory : "Your enemy is defeated and the path ahead is clear.";
     }
     
     // Utility methods
     private void handleTreasureCollection(List<String> treasures) {
-        System.out.println("\nTreasures found in this room:");
+        out.println("\nTreasures found in this room:");
         for (String treasure : treasures) {
-            System.out.println("   " + treasure);
+            out.println("   " + treasure);
         }
         
-        System.out.println("\nWould you like to:");
-        System.out.println("1. Take all treasures (if space allows)");
-        System.out.println("2. Choose specific treasures");
-        System.out.println("3. ⏭️ Leave all treasures behind");
+        out.println("\nWould you like to:");
+        out.println("1. Take all treasures (if space allows)");
+        out.println("2. Choose specific treasures");
+        out.println("3. ⏭️ Leave all treasures behind");
         
-        System.out.print("Your choice (1-3): ");
+        out.print("Your choice (1-3): ");
         int choice = getPlayerChoice(1, 3);
         
         switch (choice) {
@@ -751,9 +896,9 @@ public class CaveExplorer {
                 for (String treasure : treasures) {
                     if (playerInventory.size() < MAX_INVENTORY) {
                         playerInventory.add(treasure);
-                        System.out.println("Took " + treasure);
+                        out.println("Took " + treasure);
                     } else {
-                        System.out.println("No space for " + treasure);
+                        out.println("No space for " + treasure);
                     }
                 }
                 break;
@@ -761,7 +906,7 @@ public class CaveExplorer {
                 handleSelectiveTreasureCollection(treasures);
                 break;
             case 3:
-                System.out.println("⏭️ You leave all treasures behind.");
+                out.println("⏭️ You leave all treasures behind.");
                 break;
         }
     }
@@ -769,15 +914,15 @@ public class CaveExplorer {
     private void dropItemFromInventory() {
         if (playerInventory.isEmpty()) return;
         
-        System.out.println("\nWhich item would you like to drop?");
+        out.println("\nWhich item would you like to drop?");
         for (int i = 0; i < playerInventory.size(); i++) {
-            System.out.println((i + 1) + ". " + playerInventory.get(i));
+            out.println((i + 1) + ". " + playerInventory.get(i));
         }
         
-        System.out.print("Drop item (1-" + playerInventory.size() + "): ");
+        out.print("Drop item (1-" + playerInventory.size() + "): ");
         int choice = getPlayerChoice(1, playerInventory.size());
         String dropped = playerInventory.remove(choice - 1);
-        System.out.println("Dropped " + dropped + " from inventory.");
+        out.println("Dropped " + dropped + " from inventory.");
     }
     
     private int getPlayerChoice(int min, int max) {
@@ -787,10 +932,10 @@ public class CaveExplorer {
                 String input = scanner.nextLine().trim();
                 choice = Integer.parseInt(input);
                 if (choice < min || choice > max) {
-                    System.out.print("Invalid choice. Please enter " + min + "-" + max + ": ");
+                    out.print("Invalid choice. Please enter " + min + "-" + max + ": ");
                 }
             } catch (NumberFormatException e) {
-                System.out.print("Invalid input. Please enter a number " + min + "-" + max + ": ");
+                out.print("Invalid input. Please enter a number " + min + "-" + max + ": ");
             }
         }
         return choice;
@@ -820,256 +965,186 @@ public class CaveExplorer {
     // ===============================================
     // TURN-BASED COMBAT SYSTEM METHODS
     // ===============================================
-    
-    private int getEnemyMaxHealth(String enemy) {
-        switch (enemy) {
-            case "Cave Rat": return 45;        // 3-4 hits to kill
-            case "Goblin Scout": return 65;    // 4-5 hits to kill
-            case "Stone Gargoyle": return 85;  // 5-6 hits to kill (high armor)
-            case "Fire Salamander": return 70; // 4-5 hits to kill
-            case "Shadow Wraith": return 60;   // 4-5 hits to kill (evasive)
-            case "Crystal Golem": return 120;  // 7-8 hits to kill (tank)
-            case "Cave Troll": return 140;     // 8-10 hits to kill (boss-tier)
-            case "Dark Wizard": return 90;     // 6-7 hits to kill (magical defense)
-            case "Dragon Whelp": return 160;   // 10-12 hits to kill (mini-boss)
-            default: return 55;
-        }
+
+    // Enemy stats come from the content pack (cave_enemy records); unknown enemies get defaults
+    static int getEnemyMaxHealth(String enemy) {
+        ContentPack pack = ContentPack.shared();
+        return pack.stat(pack.find(ContentPack.CAVE_ENEMY, enemy), ContentPack.HEALTH, 55);
     }
     
-    private int getEnemyAttack(String enemy) {
-        switch (enemy) {
-            case "Cave Rat": return 8;
-            case "Goblin Scout": return 12;
-            case "Stone Gargoyle": return 15;
-            case "Fire Salamander": return 14;
-            case "Shadow Wraith": return 13;
-            case "Crystal Golem": return 18;
-            case "Cave Troll": return 20;
-            case "Dark Wizard": return 16;
-            case "Dragon Whelp": return 22;
-            default: return 10;
-        }
+    static int getEnemyAttack(String enemy) {
+        ContentPack pack = ContentPack.shared();
+        return pack.stat(pack.find(ContentPack.CAVE_ENEMY, enemy), ContentPack.ATTACK, 10);
     }
     
-    private int getEnemyArmor(String enemy) {
-        switch (enemy) {
-            case "Cave Rat": return 0;         // No armor, full damage
-            case "Goblin Scout": return 1;     // Light armor
-            case "Stone Gargoyle": return 4;   // Heavy stone armor
-            case "Fire Salamander": return 2;  // Scales provide protection
-            case "Shadow Wraith": return 1;    // Ethereal, some resistance
-            case "Crystal Golem": return 6;    // Very heavy crystal armor
-            case "Cave Troll": return 3;       // Thick hide
-            case "Dark Wizard": return 2;      // Magical protection
-            case "Dragon Whelp": return 5;     // Dragon scales
-            default: return 1;
-        }
+    static int getEnemyArmor(String enemy) {
+        ContentPack pack = ContentPack.shared();
+        return pack.stat(pack.find(ContentPack.CAVE_ENEMY, enemy), ContentPack.ARMOR, 1);
     }
     
-    private void displayCombatStatus(Map<String, Integer> partyHealth, Map<String, Integer> partyMaxHealth, 
-                                   String enemy, int enemyHealth, int enemyMaxHealth) {
-        System.out.println(" === PARTY STATUS ===");
-        System.out.printf(" %s: %d/%d HP%n", player.getName(), 
-                         partyHealth.get(player.getName()), partyMaxHealth.get(player.getName()));
-        
-        for (GameCharacter character : aiParty) {
-            System.out.printf(" %s: %d/%d HP%n", character.getName(), 
-                             partyHealth.get(character.getName()), partyMaxHealth.get(character.getName()));
+    private void displayCombatStatus(String enemy, int enemySlot) {
+        out.println(" === PARTY STATUS ===");
+        for (int slot = 0; slot < enemySlot; slot++) {
+            out.printf(" %s: %d/%d HP%n", party.get(slot).getName(), combat.getHealth(slot), combat.getMaxHealth(slot));
         }
         
-        System.out.printf(" %s: %d/%d HP%n", enemy, enemyHealth, enemyMaxHealth);
-        System.out.println();
+        out.printf(" %s: %d/%d HP%n", enemy, combat.getHealth(enemySlot), combat.getMaxHealth(enemySlot));
+        out.println();
     }
     
-    private boolean isPartyDefeated(Map<String, Integer> partyHealth) {
-        for (Integer health : partyHealth.values()) {
-            if (health > 0) {
-                return false;
-            }
-        }
-        return true;
+    private boolean isPartyDefeated() {
+        return combat.standing(CombatKernel.PARTY) == 0;
     }
     
-    private int handlePlayerTurn(GameCharacter character, String enemy, int enemyHealth, 
-                                Map<String, Integer> partyHealth, Map<String, Integer> partyMaxHealth, int enemyArmor, boolean prepared) {
-        System.out.println("\n" + character.getName() + "'s turn!");
-        System.out.println("What would you like to do?");
-        System.out.println("1. Attack the " + enemy);
-        System.out.println("2. Defend (reduce damage next turn)");
-        System.out.println("3. Use Health Potion (if available)");
+    private void handlePlayerTurn(GameCharacter character, String enemy, int enemySlot, boolean prepared) {
+        out.println("\n" + character.getName() + "'s turn!");
+        out.println("What would you like to do?");
+        out.println("1. Attack the " + enemy);
+        out.println("2. Defend (reduce damage next turn)");
+        out.println("3. Use Health Potion (if available)");
         
         if (character.getClass().getSimpleName().equals("Wizard")) {
-            System.out.println("4. Cast Spell (if mana available)");
+            out.println("4. Cast Spell (if mana available)");
         }
         
-        System.out.print("Choose your action (1-" + (character.getClass().getSimpleName().equals("Wizard") ? "4" : "3") + "): ");
+        out.print("Choose your action (1-" + (character.getClass().getSimpleName().equals("Wizard") ? "4" : "3") + "): ");
         int choice = getPlayerChoice(1, character.getClass().getSimpleName().equals("Wizard") ? 4 : 3);
         
-        Random random = new Random();
-        
         switch (choice) {
             case 1: // Attack
-                int rawDamage = calculateAttackDamage(character, prepared, random);
-                int damage = Math.max(1, rawDamage - enemyArmor); // Minimum 1 damage
-                enemyHealth = Math.max(0, enemyHealth - damage);
-                if (enemyArmor > 0 && rawDamage > damage) {
-                    System.out.printf("%s attacks for %d damage! (%d absorbed by armor)%n", 
-                                    character.getName(), damage, rawDamage - damage);
-                } else {
-                    System.out.printf("%s attacks for %d damage!%n", character.getName(), damage);
-                }
-                if (enemyHealth <= 0) {
-                    System.out.println("The " + enemy + " has been defeated!");
-                }
+                int rawDamage = calculateAttackDamage(character, prepared);
+                combat.applyDamage(PLAYER_SLOT, enemySlot, rawDamage, CombatKernel.ARMOR_FULL, PLAYER_ATTACK, criticalHit);
                 break;
                 
             case 2: // Defend
-                System.out.println(character.getName() + " takes a defensive stance!");
+                out.println(character.getName() + " takes a defensive stance!");
                 // Defense bonus will be applied during enemy turn
                 break;
                 
             case 3: // Heal
                 if (playerInventory.contains("Health Potion")) {
-                    int healing = 25 + random.nextInt(16); // 25-40 healing
-                    int currentHealth = partyHealth.get(character.getName());
-                    int maxHealth = partyMaxHealth.get(character.getName());
-                    int newHealth = Math.min(currentHealth + healing, maxHealth);
-                    partyHealth.put(character.getName(), newHealth);
+                    int healing = 25 + combat.nextInt(16); // 25-40 healing
                     playerInventory.remove("Health Potion");
-                    System.out.printf("%s uses a Health Potion and recovers %d HP!%n", 
-                                    character.getName(), newHealth - currentHealth);
+                    int recovered = combat.heal(PLAYER_SLOT, healing);
+                    out.printf("%s uses a Health Potion and recovers %d HP!%n", character.getName(), recovered);
                 } else {
-                    System.out.println("No Health Potions available!");
-                    return handlePlayerTurn(character, enemy, enemyHealth, partyHealth, partyMaxHealth, enemyArmor, prepared); // Retry turn
+                    out.println("No Health Potions available!");
+                    handlePlayerTurn(character, enemy, enemySlot, prepared); // Retry turn
                 }
                 break;
                 
             case 4: // Cast Spell (Wizard only)
                 if (character.getClass().getSimpleName().equals("Wizard")) {
-                    int rawSpellDamage = 15 + random.nextInt(11); // 15-25 damage (reduced from 20-40)
-                    // Magic partially ignores armor (only half armor applies)
-                    int spellDamage = Math.max(1, rawSpellDamage - (enemyArmor / 2));
-                    enemyHealth = Math.max(0, enemyHealth - spellDamage);
-                    if (enemyArmor > 0 && rawSpellDamage > spellDamage) {
-                        System.out.printf("%s casts a spell for %d damage! (%d partially resisted)%n", 
-                                        character.getName(), spellDamage, rawSpellDamage - spellDamage);
-                    } else {
-                        System.out.printf("%s casts a powerful spell for %d damage!%n", character.getName(), spellDamage);
-                    }
-                    if (enemyHealth <= 0) {
-                        System.out.println("The " + enemy + " has been defeated by magic!");
-                    }
+                    // 15-25 damage (reduced from 20-40); magic partially ignores armor (only half armor applies)
+                    combat.strike(PLAYER_SLOT, enemySlot, SPELL_BASE, SPELL_SPREAD, 0, CombatKernel.ARMOR_HALF, PLAYER_SPELL);
                 } else {
-                    System.out.println("Only wizards can cast spells!");
-                    return handlePlayerTurn(character, enemy, enemyHealth, partyHealth, partyMaxHealth, enemyArmor, prepared); // Retry turn
+                    out.println("Only wizards can cast spells!");
+                    handlePlayerTurn(character, enemy, enemySlot, prepared); // Retry turn
                 }
                 break;
         }
-        
-        return enemyHealth;
     }
     
-    private int handleAITurn(GameCharacter character, String enemy, int enemyHealth, 
-                           Map<String, Integer> partyHealth, Map<String, Integer> partyMaxHealth, int enemyArmor, Random random) {
-        System.out.println("\n" + character.getName() + "'s turn!");
-        
-        // Simple AI logic based on character type
-        String characterType = character.getClass().getSimpleName();
-        int action = random.nextInt(100);
-        
-        if (characterType.equals("Knight")) {
-            // Knights prefer attacking but will defend if low on health
-            if (partyHealth.get(character.getName()) < partyMaxHealth.get(character.getName()) / 3 && action < 30) {
-                System.out.println(character.getName() + " raises their shield defensively!");
-                return enemyHealth;
-            } else {
-                int damage = 12 + random.nextInt(9); // 12-20 damage
-                enemyHealth = Math.max(0, enemyHealth - damage);
-                System.out.printf("%s attacks with their sword for %d damage!%n", character.getName(), damage);
-            }
-        } else if (characterType.equals("Thief")) {
-            // Thieves go for quick strikes
-            int damage = 10 + random.nextInt(11); // 10-20 damage
-            enemyHealth = Math.max(0, enemyHealth - damage);
-            System.out.printf("%s strikes swiftly for %d damage!%n", character.getName(), damage);
-        } else if (characterType.equals("Wizard")) {
-            // Wizards cast spells
-            int damage = 15 + random.nextInt(16); // 15-30 damage
-            enemyHealth = Math.max(0, enemyHealth - damage);
-            System.out.printf("%s casts a magic missile for %d damage!%n", character.getName(), damage);
+    private void handleAITurn(GameCharacter character, int slot, int enemySlot) {
+        out.println("\n" + character.getName() + "'s turn!");
+        int characterClass = classIndex(character);
+        int tactic = planner.plan(combat, combatClasses, slot, enemySlot);
+        if (tactic == TACTIC_GUARD) {
+            useTactic(combat, characterClass, slot, enemySlot, tactic);
+            out.println(character.getName() + " raises their shield defensively!");
+        } else if (tactic == TACTIC_MEND) {
+            GameCharacter patient = party.get(mendTarget(combat, enemySlot));
+            int healed = useTactic(combat, characterClass, slot, enemySlot, tactic);
+            out.printf("%s channels healing magic into %s (+%d HP)!%n", character.getName(),
+                patient == character ? "themself" : patient.getName(), healed);
         } else {
-            // Generic attack
-            int damage = 8 + random.nextInt(8); // 8-15 damage
-            enemyHealth = Math.max(0, enemyHealth - damage);
-            System.out.printf("%s attacks for %d damage!%n", character.getName(), damage);
+            useTactic(combat, characterClass, slot, enemySlot, tactic);
         }
-        
-        if (enemyHealth <= 0) {
-            System.out.println("The " + enemy + " has been defeated!");
+    }
+    
+    /**
+     * Simple AI logic based on character type: knights prefer attacking but will defend if
+     * low on health, thieves go for quick strikes (10-20), wizards cast spells (15-30).
+     * Returns false when the character held back instead of attacking. The planner uses this
+     * as its default policy when playing fights out; the balance simulator uses it as is
+     */
+    static boolean takeAITurn(CombatKernel combat, int characterClass, int slot, int enemySlot) {
+        int action = combat.nextInt(100);
+        if (characterClass == KNIGHT && combat.getHealth(slot) < combat.getMaxHealth(slot) / 3
+                && action < KNIGHT_GUARD_PERCENT) {
+            return false;
         }
-        
-        return enemyHealth;
+        int[] attack = AI_STRIKE[characterClass];
+        combat.strike(slot, enemySlot, attack[0], attack[1], 0, CombatKernel.ARMOR_IGNORED, AI_ACTION[characterClass]);
+        return true;
     }
     
-    private void handleEnemyTurn(String enemy, int enemyAttack, Map<String, Integer> partyHealth, 
-                                Map<String, Integer> partyMaxHealth, Random random) {
-        System.out.println("\n" + enemy + "'s turn!");
-        
-        // Choose target (prefer player, but can target others)
-        List<String> aliveMembers = new ArrayList<>();
-        for (String name : partyHealth.keySet()) {
-            if (partyHealth.get(name) > 0) {
-                aliveMembers.add(name);
+    /**
+     * Tactics an AI party member can choose from (see CombatPlanner)
+     */
+    static boolean canUseTactic(int characterClass, int tactic) {
+        return tactic != TACTIC_MEND || characterClass == WIZARD;
+    }
+    
+    /**
+     * Play one tactic for an AI party member. Returns damage dealt, health restored, or 0 for a guard
+     */
+    static int useTactic(CombatKernel combat, int characterClass, int slot, int enemySlot, int tactic) {
+        switch (tactic) {
+            case TACTIC_GUARD:
+                combat.guard(slot);
+                return 0;
+            case TACTIC_MEND:
+                return combat.heal(mendTarget(combat, enemySlot), MEND_BASE + combat.nextInt(MEND_SPREAD));
+            default:
+                int[] attack = AI_STRIKE[characterClass];
+                return combat.strike(slot, enemySlot, attack[0], attack[1], 0, CombatKernel.ARMOR_IGNORED,
+                                     AI_ACTION[characterClass]);
+        }
+    }
+    
+    /**
+     * Standing party member with the lowest share of their health left
+     */
+    static int mendTarget(CombatKernel combat, int enemySlot) {
+        int target = -1;
+        for (int slot = 0; slot < enemySlot; slot++) {
+            if (combat.isStanding(slot) && (target < 0
+                    || (long) combat.getHealth(slot) * combat.getMaxHealth(target)
+                       < (long) combat.getHealth(target) * combat.getMaxHealth(slot))) {
+                target = slot;
             }
         }
+        return target;
+    }
+    
+    static int classIndex(GameCharacter character) {
+        if (character instanceof Knight) return KNIGHT;
+        if (character instanceof Thief) return THIEF;
+        if (character instanceof Wizard) return WIZARD;
+        return OTHER_CLASS;
+    }
+    
+    private void handleEnemyTurn(String enemy, int enemySlot) {
+        out.println("\n" + enemy + "'s turn!");
         
-        if (aliveMembers.isEmpty()) {
+        // 60% chance to target player, otherwise a random standing party member
+        int target = combat.chooseTarget(enemySlot);
+        if (target < 0) {
             return; // No valid targets
         }
-        
-        // 60% chance to target player, 40% chance to target random party member
-        String target;
-        if (random.nextInt(100) < 60 && partyHealth.get(player.getName()) > 0) {
-            target = player.getName();
-        } else {
-            target = aliveMembers.get(random.nextInt(aliveMembers.size()));
-        }
-        
-        int damage = enemyAttack + random.nextInt(6) - 2; // Attack ± 2
-        damage = Math.max(1, damage); // Minimum 1 damage
-        
-        int currentHealth = partyHealth.get(target);
-        int newHealth = Math.max(0, currentHealth - damage);
-        partyHealth.put(target, newHealth);
-        
-        System.out.printf("%s attacks %s for %d damage!%n", enemy, target, damage);
-        
-        if (newHealth <= 0) {
-            System.out.printf("%s has been knocked unconscious!%n", target);
-        }
+        combat.attack(enemySlot, target);
     }
     
-    private int calculateAttackDamage(GameCharacter character, boolean prepared, Random random) {
-        String characterType = character.getClass().getSimpleName();
-        int baseDamage;
-        
-        switch (characterType) {
-            case "Knight":
-                baseDamage = 12 + random.nextInt(7); // 12-18 damage (consistent, reliable)
-                break;
-            case "Thief":
-                baseDamage = 8 + random.nextInt(9); // 8-16 damage (variable, can crit)
-                if (random.nextInt(100) < 25) { // 25% critical hit chance
-                    baseDamage = (int)(baseDamage * 1.5);
-                    System.out.println("Critical hit!");
-                }
-                break;
-            case "Wizard":
-                baseDamage = 10 + random.nextInt(11); // 10-20 damage (magic ignores some armor)
-                break;
-            default:
-                baseDamage = 8 + random.nextInt(5); // 8-12 damage
-                break;
+    /**
+     * Raw weapon damage of a party member; criticalHit tells whether a thief landed a critical
+     */
+    private int calculateAttackDamage(GameCharacter character, boolean prepared) {
+        int[] weapon = PLAYER_WEAPON[classIndex(character)];
+        int baseDamage = weapon[0] + combat.nextInt(weapon[1]); // Knights reliable, thieves variable, wizards in between
+        criticalHit = weapon[2] > 0 && combat.nextInt(100) < weapon[2];
+        if (criticalHit) {
+            baseDamage = (int)(baseDamage * 1.5);
         }
         
         if (prepared) {
@@ -1078,4 +1153,49 @@ public class CaveExplorer {
         
         return baseDamage;
     }
+    
+    /**
+     * Combat narration: the kernel reports what happened, this decides how it reads
+     */
+    private final class CaveCombatNarrator implements CombatKernel.CombatListener {
+        @Override
+        public void onStrike(int attacker, int target, int action, int rawDamage, int dealt, boolean critical) {
+            if (critical) {
+                out.println("Critical hit!");
+            }
+            String name = action == ENEMY_ATTACK ? combatEnemy : party.get(attacker).getName();
+            switch (action) {
+                case PLAYER_ATTACK -> {
+                    if (rawDamage > dealt) {
+                        out.printf("%s attacks for %d damage! (%d absorbed by armor)%n", name, dealt, rawDamage - dealt);
+                    } else {
+                        out.printf("%s attacks for %d damage!%n", name, dealt);
+                    }
+                }
+                case PLAYER_SPELL -> {
+                    if (rawDamage > dealt) {
+                        out.printf("%s casts a spell for %d damage! (%d partially resisted)%n", name, dealt, rawDamage - dealt);
+                    } else {
+                        out.printf("%s casts a powerful spell for %d damage!%n", name, dealt);
+                    }
+                }
+                case AI_SWORD -> out.printf("%s attacks with their sword for %d damage!%n", name, dealt);
+                case AI_QUICK_STRIKE -> out.printf("%s strikes swiftly for %d damage!%n", name, dealt);
+                case AI_MAGIC_MISSILE -> out.printf("%s casts a magic missile for %d damage!%n", name, dealt);
+                case AI_ATTACK -> out.printf("%s attacks for %d damage!%n", name, dealt);
+                default -> out.printf("%s attacks %s for %d damage!%n", name, party.get(target).getName(), dealt);
+            }
+            if (action != ENEMY_ATTACK && !combat.isStanding(target)) {
+                out.println(action == PLAYER_SPELL ? "The " + combatEnemy + " has been defeated by magic!"
+                                                   : "The " + combatEnemy + " has been defeated!");
+            }
+        }
+        
+        @Override
+        public void onKnockedOut(int slot) {
+            if (slot < party.size()) {
+                out.printf("%s has been knocked unconscious!%n", party.get(slot).getName());
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,472 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * CavePathfinder - Shortest routes through a CaveSystem
+ * Every passage counts as one step. Point-to-point routes use A* guided by landmarks: the
+ * distances from a few landmark rooms to every room are found once (one BFS each, run in
+ * parallel), and by the triangle inequality |d(L, goal) - d(L, room)| can never overestimate
+ * the distance from room to goal, so the largest such bound over all landmarks steers the
+ * search along the route instead of flooding the cave. Plain BFS answers "nearest room that
+ * ..." queries. Recent routes are kept in a bounded LRU cache, and small caves can precompute
+ * every distance up front, in parallel, so distance queries become a single array read.
+ * Each thread searches with its own scratch arrays, so queries can run concurrently.
+ */
+public class CavePathfinder {
+
+    public static final int UNREACHABLE = -1;
+    static final int ALL_PAIRS_LIMIT = 4096; // Rooms; the table takes 2 bytes per pair
+    private static final int ACTIVE_LANDMARKS = 4; // Per query, the landmarks with the best bound at its start
+    private static final int OPEN_LEVELS = 3;      // A passage changes f by 0, 1 or 2
+
+    /**
+     * Per-thread search state, sized to the cave. Entries are valid only when their stamp
+     * matches the current search, so nothing is cleared between searches
+     */
+    private static final class Scratch {
+        final int[] stamp;
+        final int[] cost;
+        final int[] parent;
+        final int[] queue;
+        // Open rooms by estimate f = g + h, one stack per f - currentF (see aStar)
+        final int[][] openRoom = new int[OPEN_LEVELS][1024];
+        final int[][] openCost = new int[OPEN_LEVELS][1024];
+        final int[] openSize = new int[OPEN_LEVELS];
+        int search;
+        CaveSystem.Region region;     // Last region read, usually the next one too
+        final int[] active = new int[ACTIVE_LANDMARKS];
+        final int[] goalDistance = new int[ACTIVE_LANDMARKS];
+        int activeCount;
+
+        Scratch(int rooms) {
+            stamp = new int[rooms];
+            cost = new int[rooms];
+            parent = new int[rooms];
+            queue = new int[rooms];
+        }
+    }
+
+    private final CaveSystem cave;
+    private final int[] landmarks;
+    private final int[] landmarkDistance;   // [room * landmarks + landmark], so one room's bounds share a cache line
+    private final ThreadLocal<Scratch> scratch;
+    private volatile char[] allPairs;       // Row-major distances when precomputed
+
+    // Recent routes, keyed by (lower room, higher room) and stored from the lower room. Guarded by itself
+    private final LinkedHashMap<Long, int[]> routeCache;
+
+    // === METRICS ===
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder roomsExpanded = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private final long landmarkNanos;
+
+    /**
+     * Pathfinder with landmarkCount landmarks (the entrance, the deepest room, and rooms spread
+     * evenly between them) and room for cacheSize recent routes
+     */
+    public CavePathfinder(CaveSystem cave, int landmarkCount, int cacheSize) {
+        this.cave = cave;
+        int rooms = cave.getRoomCount();
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(rooms));
+        this.landmarks = new int[Math.max(2, Math.min(landmarkCount, rooms))];
+        for (int i = 0; i < landmarks.length; i++) {
+            landmarks[i] = (int) ((long) (rooms - 1) * i / (landmarks.length - 1)); // Rooms are numbered by depth
+        }
+        this.routeCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        long start = System.nanoTime();
+        int[][] fromLandmark = new int[landmarks.length][];
+        IntStream.range(0, landmarks.length).parallel().forEach(i -> fromLandmark[i] = distancesFrom(landmarks[i]));
+        this.landmarkDistance = new int[rooms * landmarks.length];
+        for (int room = 0; room < rooms; room++) {
+            for (int i = 0; i < landmarks.length; i++) {
+                landmarkDistance[room * landmarks.length + i] = fromLandmark[i][room];
+            }
+        }
+        this.landmarkNanos = System.nanoTime() - start;
+    }
+
+    // ===============================================
+    // QUERIES
+    // ===============================================
+
+    /**
+     * Fewest passages between two rooms
+     */
+    public int distance(int from, int to) {
+        char[] table = allPairs;
+        if (table != null) {
+            queries.increment();
+            cacheHits.increment();
+            int steps = table[from * cave.getRoomCount() + to];
+            return steps == Character.MAX_VALUE ? UNREACHABLE : steps;
+        }
+        int[] route = route(from, to);
+        return route == null ? UNREACHABLE : route.length - 1;
+    }
+
+    /**
+     * Shortest route from one room to another, both included, or null if there is none
+     */
+    public int[] route(int from, int to) {
+        long start = System.nanoTime();
+        queries.increment();
+        long key = from < to ? ((long) from << 32) | to : ((long) to << 32) | from;
+        int[] cached;
+        synchronized (routeCache) {
+            cached = routeCache.get(key);
+        }
+        int[] route;
+        if (cached != null) {
+            cacheHits.increment();
+            route = cached;
+        } else {
+            route = allPairs != null ? descend(Math.min(from, to), Math.max(from, to))
+                                     : aStar(Math.min(from, to), Math.max(from, to));
+            if (route != null) {
+                synchronized (routeCache) {
+                    routeCache.put(key, route);
+                }
+            }
+        }
+        queryNanos.add(System.nanoTime() - start);
+        if (route == null || route[0] == from) {
+            return route == null ? null : route.clone();
+        }
+        int[] reversed = new int[route.length];
+        for (int i = 0; i < route.length; i++) {
+            reversed[i] = route[route.length - 1 - i];
+        }
+        return reversed;
+    }
+
+    /**
+     * Route to the cave's deepest room, where its guardian waits
+     */
+    public int[] routeToDeepest(int from) {
+        return route(from, cave.getDeepestRoom());
+    }
+
+    /**
+     * Route back out to the entrance
+     */
+    public int[] routeToExit(int from) {
+        return route(from, cave.getEntrance());
+    }
+
+    /**
+     * Route to the closest room matching target (e.g. not yet explored), searching at most
+     * maxRooms rooms; null if none was found
+     */
+    public int[] routeToNearest(int from, IntPredicate target, int maxRooms) {
+        long start = System.nanoTime();
+        queries.increment();
+        Scratch s = scratch.get();
+        s.search++;
+        int head = 0;
+        int tail = 0;
+        s.queue[tail++] = from;
+        visit(s, from, 0, from);
+        int found = UNREACHABLE;
+        while (head < tail && head < maxRooms) {
+            int room = s.queue[head++];
+            if (target.test(room)) {
+                found = room;
+                break;
+            }
+            CaveSystem.Region region = regionFor(s, room);
+            int local = room - region.firstRoom;
+            for (int i = region.offsets[local]; i < region.offsets[local + 1]; i++) {
+                int next = region.neighbors[i];
+                if (s.stamp[next] != s.search) {
+                    visit(s, next, s.cost[room] + 1, room);
+                    s.queue[tail++] = next;
+                }
+            }
+        }
+        roomsExpanded.add(head);
+        queryNanos.add(System.nanoTime() - start);
+        return found == UNREACHABLE ? null : trace(s, from, found);
+    }
+
+    /**
+     * Fewest passages by plain breadth-first search, ignoring landmarks and caches (the
+     * baseline A* is measured against)
+     */
+    public int bfsDistance(int from, int to) {
+        int[] route = routeToNearest(from, room -> room == to, Integer.MAX_VALUE);
+        return route == null ? UNREACHABLE : route.length - 1;
+    }
+
+    // ===============================================
+    // SEARCH
+    // ===============================================
+
+    /**
+     * A* with a bucket queue. Every passage costs 1 and the landmark bound is consistent (it
+     * changes by at most 1 per passage), so a neighbour's estimate is always f, f + 1 or f + 2
+     * of the room being expanded: three stacks, indexed by f modulo 3, replace a priority heap.
+     * Stacks pop the latest room first, which breaks ties toward the deepest search
+     */
+    private int[] aStar(int from, int to) {
+        Scratch s = scratch.get();
+        s.search++;
+        Arrays.fill(s.openSize, 0);
+        int expanded = 0;
+        chooseLandmarks(s, from, to);
+        visit(s, from, 0, from);
+        int f = heuristic(s, from);
+        open(s, f % OPEN_LEVELS, from, 0);
+        int empty = 0; // Consecutive empty levels; all three empty means no route
+        while (empty < OPEN_LEVELS) {
+            int level = f % OPEN_LEVELS;
+            if (s.openSize[level] == 0) {
+                f++;
+                empty++;
+                continue;
+            }
+            empty = 0;
+            int top = --s.openSize[level];
+            int room = s.openRoom[level][top];
+            if (s.openCost[level][top] > s.cost[room]) {
+                continue; // Stale entry: the room was reached more cheaply since
+            }
+            if (room == to) {
+                roomsExpanded.add(expanded);
+                return trace(s, from, to);
+            }
+            expanded++;
+            CaveSystem.Region region = regionFor(s, room);
+            int local = room - region.firstRoom;
+            int cost = s.cost[room] + 1;
+            for (int i = region.offsets[local]; i < region.offsets[local + 1]; i++) {
+                int next = region.neighbors[i];
+                if (s.stamp[next] != s.search || cost < s.cost[next]) {
+                    visit(s, next, cost, room);
+                    open(s, (cost + heuristic(s, next)) % OPEN_LEVELS, next, cost);
+                }
+            }
+        }
+        roomsExpanded.add(expanded);
+        return null;
+    }
+
+    private static void open(Scratch s, int level, int room, int cost) {
+        int size = s.openSize[level]++;
+        if (size == s.openRoom[level].length) {
+            s.openRoom[level] = Arrays.copyOf(s.openRoom[level], size * 2);
+            s.openCost[level] = Arrays.copyOf(s.openCost[level], size * 2);
+        }
+        s.openRoom[level][size] = room;
+        s.openCost[level][size] = cost;
+    }
+
+    /**
+     * Keep the ACTIVE_LANDMARKS landmarks that bound this query's distance most tightly at its
+     * start; checking every landmark at every room costs more than it prunes
+     */
+    private void chooseLandmarks(Scratch s, int from, int goal) {
+        int count = landmarks.length;
+        s.activeCount = 0;
+        for (int i = 0; i < count; i++) {
+            int bound = Math.abs(landmarkDistance[goal * count + i] - landmarkDistance[from * count + i]);
+            int slot = Math.min(s.activeCount, ACTIVE_LANDMARKS - 1);
+            if (s.activeCount == ACTIVE_LANDMARKS && bound <= boundAt(s, from, slot)) {
+                continue;
+            }
+            while (slot > 0 && boundAt(s, from, slot - 1) < bound) { // Insertion sort, tightest first
+                s.active[slot] = s.active[slot - 1];
+                s.goalDistance[slot] = s.goalDistance[slot - 1];
+                slot--;
+            }
+            s.active[slot] = i;
+            s.goalDistance[slot] = landmarkDistance[goal * count + i];
+            s.activeCount = Math.min(s.activeCount + 1, ACTIVE_LANDMARKS);
+        }
+    }
+
+    private int boundAt(Scratch s, int from, int slot) {
+        return Math.abs(s.goalDistance[slot] - landmarkDistance[from * landmarks.length + s.active[slot]]);
+    }
+
+    /**
+     * Largest active-landmark lower bound on the distance from a room to the query's goal
+     */
+    private int heuristic(Scratch s, int room) {
+        int base = room * landmarks.length;
+        int best = 0;
+        for (int i = 0; i < s.activeCount; i++) {
+            int bound = Math.abs(s.goalDistance[i] - landmarkDistance[base + s.active[i]]);
+            if (bound > best) {
+                best = bound;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * BFS distances from one room to every room (UNREACHABLE where there is no route)
+     */
+    private int[] distancesFrom(int source) {
+        int[] distances = new int[cave.getRoomCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        Scratch s = scratch.get();
+        int head = 0;
+        int tail = 0;
+        s.queue[tail++] = source;
+        distances[source] = 0;
+        while (head < tail) {
+            int room = s.queue[head++];
+            CaveSystem.Region region = regionFor(s, room);
+            int local = room - region.firstRoom;
+            for (int i = region.offsets[local]; i < region.offsets[local + 1]; i++) {
+                int next = region.neighbors[i];
+                if (distances[next] == UNREACHABLE) {
+                    distances[next] = distances[room] + 1;
+                    s.queue[tail++] = next;
+                }
+            }
+        }
+        return distances;
+    }
+
+    private CaveSystem.Region regionFor(Scratch s, int room) {
+        CaveSystem.Region region = s.region;
+        if (region == null || room < region.firstRoom || room >= region.firstRoom + region.rooms()) {
+            region = cave.regionOf(room);
+            s.region = region;
+        }
+        return region;
+    }
+
+    private static void visit(Scratch s, int room, int cost, int parent) {
+        s.stamp[room] = s.search;
+        s.cost[room] = cost;
+        s.parent[room] = parent;
+    }
+
+    private static int[] trace(Scratch s, int from, int to) {
+        int[] route = new int[s.cost[to] + 1];
+        for (int room = to, i = route.length - 1; i >= 0; room = s.parent[room], i--) {
+            route[i] = room;
+        }
+        return route;
+    }
+
+    // ===============================================
+    // ALL-PAIRS PRECOMPUTATION (small caves)
+    // ===============================================
+
+    /**
+     * Compute every room-to-room distance, one BFS per room in parallel. Afterwards distance()
+     * is a single table read and route() walks the table. Only for caves of up to
+     * ALL_PAIRS_LIMIT rooms
+     */
+    public void precomputeAllPairs() {
+        int rooms = cave.getRoomCount();
+        if (rooms > ALL_PAIRS_LIMIT) {
+            throw new IllegalStateException("all-pairs needs a cave of at most " + ALL_PAIRS_LIMIT
+                + " rooms, this one has " + rooms);
+        }
+        char[] table = new char[rooms * rooms];
+        IntStream.range(0, rooms).parallel().forEach(source -> {
+            int[] distances = distancesFrom(source);
+            for (int room = 0; room < rooms; room++) {
+                table[source * rooms + room] = distances[room] == UNREACHABLE ? Character.MAX_VALUE : (char) distances[room];
+            }
+        });
+        allPairs = table;
+    }
+
+    public boolean hasAllPairs() {
+        return allPairs != null;
+    }
+
+    /**
+     * Route from the all-pairs table: keep stepping to a neighbour one passage closer
+     */
+    private int[] descend(int from, int to) {
+        char[] table = allPairs;
+        int rooms = cave.getRoomCount();
+        int steps = table[from * rooms + to];
+        if (steps == Character.MAX_VALUE) {
+            return null;
+        }
+        int[] route = new int[steps + 1];
+        route[0] = from;
+        for (int i = 1; i <= steps; i++) {
+            int room = route[i - 1];
+            for (int n = 0; n < cave.degree(room); n++) {
+                int next = cave.neighbor(room, n);
+                if (table[next * rooms + to] == steps - i) {
+                    route[i] = next;
+                    break;
+                }
+            }
+        }
+        return route;
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public double getCacheHitRate() {
+        long total = queries.sum();
+        return total == 0 ? 0 : (double) cacheHits.sum() / total;
+    }
+
+    /**
+     * Queries per second of time spent answering them
+     */
+    public double getQueriesPerSecond() {
+        long nanos = queryNanos.sum();
+        return nanos == 0 ? 0 : queries.sum() / (nanos / 1e9);
+    }
+
+    /**
+     * Rooms expanded per search that was not answered from a cache or table
+     */
+    public double getAverageExpanded() {
+        long searches = queries.sum() - cacheHits.sum();
+        return searches == 0 ? 0 : (double) roomsExpanded.sum() / searches;
+    }
+
+    public double getLandmarkMillis() {
+        return landmarkNanos / 1e6;
+    }
+
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * Reset query counters (landmarks, tables and cached routes are kept)
+     */
+    public void resetMetrics() {
+        queries.reset();
+        cacheHits.reset();
+        roomsExpanded.reset();
+        queryNanos.reset();
+    }
+
+    public String getMetricsSummary() {
+        return String.format("🧭 Pathfinder: %,d queries, %,.0f queries/sec, %.1f%% cached, %.0f rooms expanded per search",
+            getQueries(), getQueriesPerSecond(), getCacheHitRate() * 100, getAverageExpanded());
+    }
+}
@@ -0,0 +1,370 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CaveSystem - Procedurally generated cave graph of up to millions of rooms
+ * Rooms are numbered 0 (the entrance) to roomCount - 1 (the deepest room). Every room links
+ * back to a parent among the few rooms just before it, which makes the cave one connected,
+ * branching tree, and some rooms also get a shortcut further back, which adds loops. Each
+ * link is a pure function of the seed and its deeper room, so any stretch of the cave can be
+ * generated on its own: rooms are grouped into regions of ROOMS_PER_REGION, and a region is
+ * built the first time it is touched. A region stores its links as CSR adjacency arrays
+ * (offsets into one flat neighbour array) plus one attribute column per room property, and is
+ * kept in a bounded LRU cache; evicted regions are just regenerated, since they never change.
+ */
+public class CaveSystem {
+
+    // === ROOM KINDS ===
+    public static final byte TUNNEL = 0;
+    public static final byte CHAMBER = 1;
+    public static final byte GROTTO = 2;   // Dead end
+    public static final byte CAVERN = 3;   // Hub with four or more passages
+    private static final String[] KIND_NAMES = {"Tunnel", "Chamber", "Grotto", "Cavern"};
+
+    public static final int NONE = -1;
+
+    // === GENERATION RULES ===
+    static final int REGION_BITS = 12;
+    static final int ROOMS_PER_REGION = 1 << REGION_BITS; // 4096 rooms
+    private static final int PARENT_WINDOW = 6;   // A room hangs off one of the 6 rooms before it
+    private static final int SHORTCUT_REACH = 48; // Shortcuts lead at most this far back
+    static final int MAX_LINK_REACH = SHORTCUT_REACH + 1;
+    private static final int SHORTCUT_PERCENT = 12;
+    private static final int ENEMY_PERCENT = 35;
+    private static final int TREASURE_PERCENT = 15;
+    private static final int GROTTO_TREASURE_PERCENT = 45;  // Dead ends hide more loot
+    static final int DANGER_TIERS = CaveExplorer.CAVE_ENEMIES.length; // Deeper rooms hold tougher enemies
+
+    /**
+     * One region's rooms: CSR adjacency and attribute columns, indexed by room - firstRoom.
+     * Immutable once built, so readers need no lock
+     */
+    static final class Region {
+        final int firstRoom;
+        final int[] offsets;   // Neighbours of local room i are neighbors[offsets[i] .. offsets[i + 1])
+        final int[] neighbors; // Global room numbers
+        final byte[] kind;
+        final byte[] enemy;    // Index into CaveExplorer.CAVE_ENEMIES, or NONE
+        final byte[] treasure; // Index among the content pack's treasures, or NONE
+
+        Region(int firstRoom, int rooms, int links) {
+            this.firstRoom = firstRoom;
+            this.offsets = new int[rooms + 1];
+            this.neighbors = new int[links];
+            this.kind = new byte[rooms];
+            this.enemy = new byte[rooms];
+            this.treasure = new byte[rooms];
+        }
+
+        int rooms() {
+            return kind.length;
+        }
+
+        long byteSize() {
+            return 4L * (offsets.length + neighbors.length) + 3L * kind.length + 6 * 16; // Arrays plus headers
+        }
+    }
+
+    private final long seed;
+    private final int roomCount;
+    private final int regionCount;
+    private final int maxCachedRegions;
+    private final int treasureKinds;
+
+    // LRU cache, guarded by this. Regions are built outside the lock
+    private final LinkedHashMap<Integer, Region> cache;
+
+    // === METRICS (guarded by this) ===
+    private long regionsGenerated;
+    private long roomsGenerated;
+    private long generationNanos;
+    private long cacheHits;
+    private long cacheMisses;
+    private long cachedBytes;
+
+    public CaveSystem(long seed, int roomCount, int maxCachedRegions) {
+        if (roomCount < 2) {
+            throw new IllegalArgumentException("a cave needs at least 2 rooms, got " + roomCount);
+        }
+        this.seed = seed;
+        this.roomCount = roomCount;
+        this.regionCount = (roomCount + ROOMS_PER_REGION - 1) >>> REGION_BITS;
+        this.maxCachedRegions = Math.max(1, maxCachedRegions);
+        this.treasureKinds = Math.min(Byte.MAX_VALUE, ContentPack.shared().count(ContentPack.TREASURE));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Region> eldest) {
+                if (size() <= CaveSystem.this.maxCachedRegions) {
+                    return false;
+                }
+                cachedBytes -= eldest.getValue().byteSize();
+                return true;
+            }
+        };
+    }
+
+    // ===============================================
+    // ROOM ACCESS
+    // ===============================================
+
+    /**
+     * The region holding a room, generating it if needed. Hot loops should keep the region
+     * and read its arrays directly while they stay inside it
+     */
+    Region regionOf(int room) {
+        if (room < 0 || room >= roomCount) {
+            throw new IndexOutOfBoundsException("Room " + room + " is outside a cave of " + roomCount + " rooms");
+        }
+        int index = room >>> REGION_BITS;
+        synchronized (this) {
+            Region region = cache.get(index);
+            if (region != null) {
+                cacheHits++;
+                return region;
+            }
+            cacheMisses++;
+        }
+        long start = System.nanoTime();
+        Region region = buildRegion(index);
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            Region raced = cache.get(index); // Another thread may have built it meanwhile
+            if (raced != null) {
+                return raced;
+            }
+            regionsGenerated++;
+            roomsGenerated += region.rooms();
+            generationNanos += elapsed;
+            cachedBytes += region.byteSize();
+            cache.put(index, region);
+        }
+        return region;
+    }
+
+    public int degree(int room) {
+        Region region = regionOf(room);
+        int local = room - region.firstRoom;
+        return region.offsets[local + 1] - region.offsets[local];
+    }
+
+    public int neighbor(int room, int i) {
+        Region region = regionOf(room);
+        return region.neighbors[region.offsets[room - region.firstRoom] + i];
+    }
+
+    public byte getKind(int room) {
+        Region region = regionOf(room);
+        return region.kind[room - region.firstRoom];
+    }
+
+    /**
+     * "Tunnel", "Chamber", "Grotto" or "Cavern"
+     */
+    public String getKindName(int room) {
+        return KIND_NAMES[getKind(room)];
+    }
+
+    /**
+     * Enemy guarding a room, or null
+     */
+    public String getEnemy(int room) {
+        Region region = regionOf(room);
+        byte enemy = region.enemy[room - region.firstRoom];
+        return enemy == NONE ? null : CaveExplorer.CAVE_ENEMIES[enemy];
+    }
+
+    /**
+     * Treasure hidden in a room, or null
+     */
+    public String getTreasure(int room) {
+        Region region = regionOf(room);
+        byte treasure = region.treasure[room - region.firstRoom];
+        if (treasure == NONE) {
+            return null;
+        }
+        ContentPack content = ContentPack.shared();
+        return content.name(content.firstId(ContentPack.TREASURE) + treasure);
+    }
+
+    /**
+     * One-line summary, e.g. "Room 1234: Cavern, 4 passages, Cave Troll, Iron Shield"
+     */
+    public String describeRoom(int room) {
+        StringBuilder description = new StringBuilder("Room " + room + ": " + KIND_NAMES[getKind(room)] + ", "
+            + degree(room) + (degree(room) == 1 ? " passage" : " passages"));
+        String enemy = getEnemy(room);
+        String treasure = getTreasure(room);
+        if (enemy != null) {
+            description.append(", ").append(enemy);
+        }
+        if (treasure != null) {
+            description.append(", ").append(treasure);
+        }
+        return description.toString();
+    }
+
+    public int getEntrance() {
+        return 0;
+    }
+
+    /**
+     * The deepest room, where the cave's guardian waits
+     */
+    public int getDeepestRoom() {
+        return roomCount - 1;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // ===============================================
+    // PROCEDURAL GENERATION
+    // ===============================================
+
+    /**
+     * Build one region from the seed alone. Links belong to their deeper room, so the region
+     * replays the link rules for its own rooms and the MAX_LINK_REACH rooms after it
+     */
+    Region buildRegion(int index) {
+        int first = index << REGION_BITS;
+        int end = Math.min(roomCount, first + ROOMS_PER_REGION);
+        int scanEnd = Math.min(roomCount, end + MAX_LINK_REACH);
+        int rooms = end - first;
+
+        // Pass 1: degrees
+        int[] degree = new int[rooms + 1];
+        for (int room = Math.max(1, first); room < scanEnd; room++) {
+            int parent = parent(room);
+            int shortcut = shortcut(room, parent);
+            countLink(degree, first, end, room, parent);
+            if (shortcut != NONE) {
+                countLink(degree, first, end, room, shortcut);
+            }
+        }
+        int links = 0;
+        for (int i = 0; i < rooms; i++) {
+            links += degree[i];
+        }
+        Region region = new Region(first, rooms, links);
+        for (int i = 0; i < rooms; i++) {
+            region.offsets[i + 1] = region.offsets[i] + degree[i];
+        }
+
+        // Pass 2: fill, reusing degree as each room's next free slot
+        System.arraycopy(region.offsets, 0, degree, 0, rooms);
+        for (int room = Math.max(1, first); room < scanEnd; room++) {
+            int parent = parent(room);
+            int shortcut = shortcut(room, parent);
+            addLink(region, degree, end, room, parent);
+            if (shortcut != NONE) {
+                addLink(region, degree, end, room, shortcut);
+            }
+        }
+
+        // Attribute columns
+        for (int i = 0; i < rooms; i++) {
+            int room = first + i;
+            int passages = region.offsets[i + 1] - region.offsets[i];
+            long roll = mix(seed, room, 3);
+            region.kind[i] = passages == 1 ? GROTTO : passages >= 4 ? CAVERN : (roll & 1) == 0 ? TUNNEL : CHAMBER;
+            int tier = (int) ((long) room * DANGER_TIERS / roomCount) + (int) ((roll >>> 8) % 3) - 1; // ±1 tier
+            region.enemy[i] = room == 0 || (roll >>> 16) % 100 >= ENEMY_PERCENT
+                ? NONE : (byte) Math.max(0, Math.min(DANGER_TIERS - 1, tier));
+            int treasureChance = region.kind[i] == GROTTO ? GROTTO_TREASURE_PERCENT : TREASURE_PERCENT;
+            region.treasure[i] = treasureKinds == 0 || (roll >>> 24) % 100 >= treasureChance
+                ? NONE : (byte) ((roll >>> 32) % treasureKinds);
+        }
+        return region;
+    }
+
+    private static void countLink(int[] degree, int first, int end, int deeper, int shallower) {
+        if (deeper >= first && deeper < end) {
+            degree[deeper - first]++;
+        }
+        if (shallower >= first && shallower < end) {
+            degree[shallower - first]++;
+        }
+    }
+
+    private static void addLink(Region region, int[] next, int end, int deeper, int shallower) {
+        int first = region.firstRoom;
+        if (deeper >= first && deeper < end) {
+            region.neighbors[next[deeper - first]++] = shallower;
+        }
+        if (shallower >= first && shallower < end) {
+            region.neighbors[next[shallower - first]++] = deeper;
+        }
+    }
+
+    /**
+     * The room (one of the PARENT_WINDOW before it) that a room hangs off
+     */
+    private int parent(int room) {
+        return room - 1 - (int) Long.remainderUnsigned(mix(seed, room, 0), Math.min(PARENT_WINDOW, room));
+    }
+
+    /**
+     * A room's shortcut further back, or NONE
+     */
+    private int shortcut(int room, int parent) {
+        long roll = mix(seed, room, 1);
+        if (room < 3 || Long.remainderUnsigned(roll, 100) >= SHORTCUT_PERCENT) {
+            return NONE;
+        }
+        int target = room - 2 - (int) Long.remainderUnsigned(roll >>> 8, Math.min(SHORTCUT_REACH, room - 1));
+        return target == parent ? NONE : target;
+    }
+
+    private static long mix(long seed, int room, int salt) {
+        long h = seed ^ (room * 0x9E3779B97F4A7C15L) ^ (salt * 0xC2B2AE3D27D4EB4FL);
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public synchronized long getRegionsGenerated() {
+        return regionsGenerated;
+    }
+
+    /**
+     * Rooms generated per second of generation time
+     */
+    public synchronized double getRoomsPerSecond() {
+        return generationNanos == 0 ? 0 : roomsGenerated / (generationNanos / 1e9);
+    }
+
+    /**
+     * Average memory per cached room: adjacency plus attribute columns
+     */
+    public synchronized double getBytesPerRoom() {
+        long rooms = 0;
+        for (Region region : cache.values()) {
+            rooms += region.rooms();
+        }
+        return rooms == 0 ? 0 : (double) cachedBytes / rooms;
+    }
+
+    public synchronized int getCachedRegions() {
+        return cache.size();
+    }
+
+    public synchronized String getCacheStats() {
+        long total = cacheHits + cacheMisses;
+        return String.format("🗺️ Cave: %,d rooms in %,d regions, %d cached (%,d KB), %,d generated, %.1f%% hit rate",
+            roomCount, regionCount, cache.size(), cachedBytes / 1024, regionsGenerated,
+            total == 0 ? 0.0 : 100.0 * cacheHits / total);
+    }
+}
@@ -0,0 +1,360 @@
+/**
+ * CombatKernel - Allocation-free combat resolution shared by every fight in the game
+ * Combatants are slots in primitive arrays (health, armor, attack profile, side), damage is
+ * rolled from a per-kernel xorshift stream, and nothing is printed: callers either read the
+ * returned numbers or plug in a CombatListener. A kernel is reused fight after fight, so a
+ * resolved round costs a few array reads and writes. One kernel per thread.
+ */
+public class CombatKernel {
+
+    // === SIDES ===
+    public static final int PARTY = 0;
+    public static final int ENEMIES = 1;
+
+    // === HOW ARMOR APPLIES TO A STRIKE ===
+    public static final int ARMOR_FULL = 0;
+    public static final int ARMOR_HALF = 1;   // Magic partially ignores armor
+    public static final int ARMOR_IGNORED = 2;
+
+    /**
+     * Presentation hook. Every argument is a primitive, so reporting allocates nothing
+     */
+    public interface CombatListener {
+        /**
+         * A strike landed. action is the caller's own code for what was done (for wording)
+         */
+        default void onStrike(int attacker, int target, int action, int rawDamage, int dealt, boolean critical) {
+        }
+
+        default void onGuarded(int target, int unguardedDamage, int dealt) {
+        }
+
+        default void onHeal(int slot, int amount) {
+        }
+
+        default void onKnockedOut(int slot) {
+        }
+    }
+
+    public static final CombatListener SILENT = new CombatListener() {
+    };
+
+    // === COMBATANT STATE (indexed by slot) ===
+    private final int[] side;
+    private final int[] health;
+    private final int[] maxHealth;
+    private final int[] armor;
+    private final boolean[] guarding;
+    // Default attack profile, used by resolveRound and by callers that just want "attack"
+    private final int[] damageBase;
+    private final int[] damageSpread;
+    private final int[] critPercent;
+    private final int[] armorMode;
+    private final int[] action;
+    private int count;
+
+    // Enemy targeting: preferredTarget is hit preferPercent of the time while it stands
+    private int preferredTarget = -1;
+    private int preferPercent;
+
+    private CombatListener listener = SILENT;
+    private long rngState;
+    private int round;
+
+    public CombatKernel(int capacity) {
+        side = new int[capacity];
+        health = new int[capacity];
+        maxHealth = new int[capacity];
+        armor = new int[capacity];
+        guarding = new boolean[capacity];
+        damageBase = new int[capacity];
+        damageSpread = new int[capacity];
+        critPercent = new int[capacity];
+        armorMode = new int[capacity];
+        action = new int[capacity];
+        seed(System.nanoTime());
+    }
+
+    // ===============================================
+    // SETUP
+    // ===============================================
+
+    /**
+     * Forget every combatant (arrays are kept for the next fight)
+     */
+    public void reset() {
+        count = 0;
+        round = 0;
+        preferredTarget = -1;
+        preferPercent = 0;
+    }
+
+    /**
+     * Become a copy of another kernel's fight (combatants, round, targeting), keeping this
+     * kernel's own random stream and listener. Used to simulate ahead from a live fight
+     */
+    public void copyFrom(CombatKernel other) {
+        if (other.count > side.length) {
+            throw new IllegalArgumentException("kernel holds " + side.length + " combatants, fight has " + other.count);
+        }
+        count = other.count;
+        System.arraycopy(other.side, 0, side, 0, count);
+        System.arraycopy(other.health, 0, health, 0, count);
+        System.arraycopy(other.maxHealth, 0, maxHealth, 0, count);
+        System.arraycopy(other.armor, 0, armor, 0, count);
+        System.arraycopy(other.guarding, 0, guarding, 0, count);
+        System.arraycopy(other.damageBase, 0, damageBase, 0, count);
+        System.arraycopy(other.damageSpread, 0, damageSpread, 0, count);
+        System.arraycopy(other.critPercent, 0, critPercent, 0, count);
+        System.arraycopy(other.armorMode, 0, armorMode, 0, count);
+        System.arraycopy(other.action, 0, action, 0, count);
+        preferredTarget = other.preferredTarget;
+        preferPercent = other.preferPercent;
+        round = other.round;
+    }
+
+    public void seed(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L; // SplitMix64 finalizer, never yields a zero state
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        rngState = z == 0 ? 0x2545F4914F6CDD1DL : z;
+    }
+
+    public void setListener(CombatListener listener) {
+        this.listener = listener == null ? SILENT : listener;
+    }
+
+    /**
+     * Add a combatant and return its slot
+     */
+    public int add(int combatantSide, int currentHealth, int maximumHealth, int armorValue) {
+        int slot = count++;
+        side[slot] = combatantSide;
+        health[slot] = currentHealth;
+        maxHealth[slot] = maximumHealth;
+        armor[slot] = armorValue;
+        guarding[slot] = false;
+        setAttack(slot, 1, 1, 0, ARMOR_FULL, 0);
+        return slot;
+    }
+
+    /**
+     * Default attack of a slot: base + [0, spread) damage, critPercent chance of x1.5
+     */
+    public void setAttack(int slot, int base, int spread, int crit, int mode, int actionCode) {
+        damageBase[slot] = base;
+        damageSpread[slot] = Math.max(1, spread);
+        critPercent[slot] = crit;
+        armorMode[slot] = mode;
+        action[slot] = actionCode;
+    }
+
+    /**
+     * Enemies strike this slot percent% of the time while it is standing, otherwise a random
+     * standing opponent
+     */
+    public void setPreferredTarget(int slot, int percent) {
+        preferredTarget = slot;
+        preferPercent = percent;
+    }
+
+    // ===============================================
+    // ACTIONS
+    // ===============================================
+
+    /**
+     * Strike with an explicit roll of base + [0, spread). Returns the damage dealt
+     */
+    public int strike(int attacker, int target, int base, int spread, int crit, int mode, int actionCode) {
+        int raw = base + nextInt(Math.max(1, spread));
+        boolean critical = crit > 0 && nextInt(100) < crit;
+        if (critical) {
+            raw = raw * 3 / 2;
+        }
+        return applyDamage(attacker, target, raw, mode, actionCode, critical);
+    }
+
+    /**
+     * Strike with the attacker's default attack profile
+     */
+    public int attack(int attacker, int target) {
+        return strike(attacker, target, damageBase[attacker], damageSpread[attacker], critPercent[attacker],
+            armorMode[attacker], action[attacker]);
+    }
+
+    /**
+     * Apply an already rolled amount of damage: armor, then guard (halved, at least 1),
+     * never below 1 and never below zero health
+     */
+    public int applyDamage(int attacker, int target, int raw, int mode, int actionCode, boolean critical) {
+        int reduction = mode == ARMOR_FULL ? armor[target] : mode == ARMOR_HALF ? armor[target] / 2 : 0;
+        int dealt = Math.max(1, raw - reduction);
+        if (guarding[target]) {
+            guarding[target] = false;
+            int unguarded = dealt;
+            dealt = Math.max(1, dealt / 2);
+            listener.onGuarded(target, unguarded, dealt);
+        }
+        boolean wasStanding = health[target] > 0;
+        health[target] = Math.max(0, health[target] - dealt);
+        listener.onStrike(attacker, target, actionCode, raw, dealt, critical);
+        if (wasStanding && health[target] == 0) {
+            listener.onKnockedOut(target);
+        }
+        return dealt;
+    }
+
+    /**
+     * Halve the next hit this slot takes
+     */
+    public void guard(int slot) {
+        guarding[slot] = true;
+    }
+
+    public int heal(int slot, int amount) {
+        int before = health[slot];
+        health[slot] = Math.min(maxHealth[slot], before + amount);
+        listener.onHeal(slot, health[slot] - before);
+        return health[slot] - before;
+    }
+
+    /**
+     * Standing opponent of attacker's side for an enemy-style attack (see setPreferredTarget),
+     * or -1 if none is left
+     */
+    public int chooseTarget(int attacker) {
+        int opposing = side[attacker] == PARTY ? ENEMIES : PARTY;
+        if (preferredTarget >= 0 && side[preferredTarget] == opposing && health[preferredTarget] > 0
+                && nextInt(100) < preferPercent) {
+            return preferredTarget;
+        }
+        int standing = standing(opposing);
+        if (standing == 0) {
+            return -1;
+        }
+        int pick = nextInt(standing);
+        for (int slot = 0; slot < count; slot++) {
+            if (side[slot] == opposing && health[slot] > 0 && pick-- == 0) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One headless round: every standing combatant, in slot order, uses its default attack
+     * on a chosen target. Returns the winning side once one side is down, otherwise -1
+     */
+    public int resolveRound() {
+        round++;
+        for (int slot = 0; slot < count; slot++) {
+            if (health[slot] <= 0) {
+                continue;
+            }
+            int target = chooseTarget(slot);
+            if (target < 0) {
+                break;
+            }
+            attack(slot, target);
+        }
+        return winner();
+    }
+
+    /**
+     * Resolve rounds until one side is down or maxRounds pass. Returns the winning side,
+     * or -1 for a stalemate
+     */
+    public int resolve(int maxRounds) {
+        int winner = winner();
+        while (winner < 0 && round < maxRounds) {
+            winner = resolveRound();
+        }
+        return winner;
+    }
+
+    // ===============================================
+    // STATE
+    // ===============================================
+
+    /**
+     * PARTY or ENEMIES once the other side has no one standing, otherwise -1
+     */
+    public int winner() {
+        boolean partyStanding = standing(PARTY) > 0;
+        boolean enemiesStanding = standing(ENEMIES) > 0;
+        if (partyStanding && !enemiesStanding) {
+            return PARTY;
+        }
+        if (enemiesStanding && !partyStanding) {
+            return ENEMIES;
+        }
+        return -1;
+    }
+
+    public int standing(int whichSide) {
+        int standing = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (side[slot] == whichSide && health[slot] > 0) {
+                standing++;
+            }
+        }
+        return standing;
+    }
+
+    public boolean isGuarding(int slot) {
+        return guarding[slot];
+    }
+
+    public boolean isStanding(int slot) {
+        return health[slot] > 0;
+    }
+
+    public int getHealth(int slot) {
+        return health[slot];
+    }
+
+    public void setHealth(int slot, int value) {
+        health[slot] = Math.max(0, Math.min(maxHealth[slot], value));
+    }
+
+    public int getMaxHealth(int slot) {
+        return maxHealth[slot];
+    }
+
+    public int getArmor(int slot) {
+        return armor[slot];
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Start the next round when the caller runs rounds itself
+     */
+    public int nextRound() {
+        return ++round;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // ===============================================
+    // RANDOM STREAM
+    // ===============================================
+
+    /**
+     * Uniform in [0, bound), xorshift64* without allocation
+     */
+    public int nextInt(int bound) {
+        long x = rngState;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        rngState = x;
+        long bits = (x * 0x2545F4914F6CDD1DL) >>> 33; // 31 random bits
+        return (int) ((bits * bound) >>> 31);
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CombatPlanner - Time-budgeted Monte Carlo tree search for AI party members in cave combat
+ * Each turn the planner searches until its budget runs out, then plays the tactic it tried
+ * most. The tree is open-loop: nodes are the AI party's tactic choices, and everything random
+ * (damage rolls, enemy targeting, the player's turn) is re-rolled on every pass, so one tree
+ * averages over the dice. Searchers run in parallel (root parallelism): each worker owns a
+ * tree and a simulation kernel, so rollouts share nothing; their root statistics are summed
+ * to decide. After a decision every tree steps down into the chosen child, so the next AI
+ * turn starts with the statistics already gathered for it.
+ */
+public class CombatPlanner {
+
+    private static final double EXPLORATION = 0.7;        // UCB1 constant for rewards in [0, 1]
+    private static final int MAX_NODES_PER_SEARCHER = 200_000;
+    private static final int MAX_SLOTS = 16;
+    // Rewards: a win is always worth more than any stalemate, and more health left is better
+    private static final double WIN_REWARD = 0.6;
+    private static final double HEALTH_REWARD = 0.4;
+    private static final double STALEMATE_REWARD = 0.3;
+
+    /**
+     * A node stands for the sequence of AI tactics that led to it. Children are indexed by
+     * actor slot * TACTIC_COUNT + tactic, since who acts next can differ between passes
+     */
+    private static final class Node {
+        Node[] children;
+        int visits;
+        double totalReward;
+    }
+
+    /**
+     * One worker's tree, simulation kernel and random stream. Only one task uses it at a time
+     */
+    private static final class Searcher {
+        final CombatKernel simulation = new CombatKernel(MAX_SLOTS);
+        Node[] path = new Node[64];
+        Node root = new Node();
+        int nodes = 1;
+        long rollouts;
+
+        Searcher(long seed) {
+            simulation.seed(seed);
+        }
+
+        void search(CombatKernel live, int[] classes, int actor, int enemySlot, long deadline) {
+            do {
+                iterate(live, classes, actor, enemySlot);
+            } while (System.nanoTime() < deadline);
+        }
+
+        /**
+         * One pass: select down the tree, expand one tactic, play the rest of the fight with
+         * the default AI, and back the result up the path
+         */
+        private void iterate(CombatKernel live, int[] classes, int actor, int enemySlot) {
+            CombatKernel sim = simulation;
+            sim.copyFrom(live);
+            Node node = root;
+            int depth = 0;
+            path[depth++] = node;
+            double reward;
+            int slot = actor;
+            while (true) {
+                if (slot == enemySlot) {
+                    sim.attack(enemySlot, sim.chooseTarget(enemySlot));
+                    if (sim.standing(CombatKernel.PARTY) == 0) {
+                        reward = 0;
+                        break;
+                    }
+                    if (sim.getRound() >= CaveExplorer.MAX_COMBAT_ROUNDS) {
+                        reward = STALEMATE_REWARD * partyHealth(sim, enemySlot);
+                        break;
+                    }
+                    sim.nextRound();
+                    slot = 0;
+                    continue;
+                }
+                if (sim.isStanding(slot)) {
+                    if (slot == 0) {
+                        int[] weapon = CaveExplorer.PLAYER_WEAPON[classes[0]]; // The player is modelled as attacking
+                        sim.strike(0, enemySlot, weapon[0], weapon[1], weapon[2], CombatKernel.ARMOR_FULL, 0);
+                    } else if (node != null) {
+                        int tactic = select(node, slot, classes[slot], enemySlot);
+                        Node child = node.children == null ? null : node.children[slot * CaveExplorer.TACTIC_COUNT + tactic];
+                        if (child != null && child.visits > 0) {
+                            node = child;
+                        } else {
+                            node = null; // Just expanded (or out of room): the rest is a rollout
+                        }
+                        if (child != null) {
+                            if (depth == path.length) {
+                                path = Arrays.copyOf(path, depth * 2);
+                            }
+                            path[depth++] = child;
+                        }
+                        CaveExplorer.useTactic(sim, classes[slot], slot, enemySlot, tactic);
+                    } else {
+                        CaveExplorer.takeAITurn(sim, classes[slot], slot, enemySlot);
+                    }
+                    if (!sim.isStanding(enemySlot)) {
+                        reward = WIN_REWARD + HEALTH_REWARD * partyHealth(sim, enemySlot);
+                        break;
+                    }
+                }
+                slot++;
+            }
+            for (int i = 0; i < depth; i++) {
+                path[i].visits++;
+                path[i].totalReward += reward;
+            }
+            rollouts++;
+        }
+
+        /**
+         * Untried tactic first (creating its node while there is room), otherwise UCB1
+         */
+        private int select(Node node, int slot, int characterClass, int enemySlot) {
+            if (node.children == null) {
+                node.children = new Node[enemySlot * CaveExplorer.TACTIC_COUNT];
+            }
+            int base = slot * CaveExplorer.TACTIC_COUNT;
+            int parentVisits = 0;
+            for (int tactic = 0; tactic < CaveExplorer.TACTIC_COUNT; tactic++) {
+                if (!CaveExplorer.canUseTactic(characterClass, tactic)) {
+                    continue;
+                }
+                Node child = node.children[base + tactic];
+                if (child == null || child.visits == 0) {
+                    if (child == null && nodes < MAX_NODES_PER_SEARCHER) {
+                        node.children[base + tactic] = new Node();
+                        nodes++;
+                    }
+                    return tactic;
+                }
+                parentVisits += child.visits;
+            }
+            double logVisits = Math.log(parentVisits);
+            int best = CaveExplorer.TACTIC_STRIKE;
+            double bestScore = -1;
+            for (int tactic = 0; tactic < CaveExplorer.TACTIC_COUNT; tactic++) {
+                if (!CaveExplorer.canUseTactic(characterClass, tactic)) {
+                    continue;
+                }
+                Node child = node.children[base + tactic];
+                double score = child.totalReward / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = tactic;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Keep only the subtree under the tactic actually played
+         */
+        void advance(int actor, int tactic) {
+            Node child = root.children == null ? null : root.children[actor * CaveExplorer.TACTIC_COUNT + tactic];
+            root = child != null ? child : new Node();
+            nodes = root.visits + 1; // A pass adds at most one node, so this bounds the subtree
+        }
+    }
+
+    private final Searcher[] searchers;
+    private final Executor executor;
+    private final long budgetNanos;
+
+    // === METRICS (guarded by this) ===
+    private long decisions;
+    private long rollouts;
+    private long searchNanos;
+    private long reusedVisits;  // Visits already under the root when a turn's search began
+    private double lastValue;   // Expected reward of the last chosen tactic
+
+    /**
+     * Planner with one searcher per common-pool worker
+     */
+    public CombatPlanner(double budgetMillis) {
+        this(budgetMillis, ForkJoinPool.getCommonPoolParallelism(), ForkJoinPool.commonPool(), System.nanoTime());
+    }
+
+    public CombatPlanner(double budgetMillis, int workers, Executor executor, long seed) {
+        this.budgetNanos = (long) (budgetMillis * 1_000_000);
+        this.executor = executor;
+        this.searchers = new Searcher[Math.max(1, workers)];
+        for (int i = 0; i < searchers.length; i++) {
+            searchers[i] = new Searcher(seed + i * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    // ===============================================
+    // PLANNING
+    // ===============================================
+
+    /**
+     * Choose the tactic for the AI party member in actorSlot. The live kernel must be at that
+     * member's turn and is only read. classes[slot] is the class of each party slot; the
+     * enemy is the slot after the party
+     */
+    public synchronized int plan(CombatKernel live, int[] classes, int actorSlot, int enemySlot) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        long rolloutsBefore = 0;
+        for (Searcher searcher : searchers) {
+            reusedVisits += searcher.root.visits;
+            rolloutsBefore += searcher.rollouts;
+        }
+
+        // The calling thread searches too, so one worker needs no hand-off at all
+        CompletableFuture<?>[] helpers = new CompletableFuture<?>[searchers.length - 1];
+        for (int i = 1; i < searchers.length; i++) {
+            Searcher searcher = searchers[i];
+            helpers[i - 1] = CompletableFuture.runAsync(() -> searcher.search(live, classes, actorSlot, enemySlot, deadline), executor);
+        }
+        searchers[0].search(live, classes, actorSlot, enemySlot, deadline);
+        CompletableFuture.allOf(helpers).join();
+
+        // Most-visited tactic over every tree wins
+        int base = actorSlot * CaveExplorer.TACTIC_COUNT;
+        int best = CaveExplorer.TACTIC_STRIKE;
+        long bestVisits = -1;
+        double bestReward = 0;
+        for (int tactic = 0; tactic < CaveExplorer.TACTIC_COUNT; tactic++) {
+            long visits = 0;
+            double reward = 0;
+            for (Searcher searcher : searchers) {
+                Node[] children = searcher.root.children;
+                Node child = children == null || base + tactic >= children.length ? null : children[base + tactic];
+                if (child != null) {
+                    visits += child.visits;
+                    reward += child.totalReward;
+                }
+            }
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                bestReward = reward;
+                best = tactic;
+            }
+        }
+
+        long rolloutsAfter = 0;
+        for (Searcher searcher : searchers) {
+            rolloutsAfter += searcher.rollouts;
+            searcher.advance(actorSlot, best);
+        }
+        decisions++;
+        rollouts += rolloutsAfter - rolloutsBefore;
+        searchNanos += System.nanoTime() - start;
+        lastValue = bestVisits > 0 ? bestReward / bestVisits : 0;
+        return best;
+    }
+
+    /**
+     * Forget the trees (call at the start of every fight)
+     */
+    public synchronized void reset() {
+        for (Searcher searcher : searchers) {
+            searcher.root = new Node();
+            searcher.nodes = 1;
+        }
+    }
+
+    private static double partyHealth(CombatKernel sim, int enemySlot) {
+        int health = 0;
+        int maxHealth = 0;
+        for (int slot = 0; slot < enemySlot; slot++) {
+            health += sim.getHealth(slot);
+            maxHealth += sim.getMaxHealth(slot);
+        }
+        return maxHealth == 0 ? 0 : (double) health / maxHealth;
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public synchronized long getDecisions() {
+        return decisions;
+    }
+
+    public synchronized long getRollouts() {
+        return rollouts;
+    }
+
+    /**
+     * Rollouts per second of planning wall time, all workers together
+     */
+    public synchronized double getRolloutsPerSecond() {
+        return searchNanos == 0 ? 0 : rollouts / (searchNanos / 1e9);
+    }
+
+    /**
+     * Share of each turn's statistics inherited from earlier turns through tree reuse
+     */
+    public synchronized double getReuseRatio() {
+        return rollouts + reusedVisits == 0 ? 0 : (double) reusedVisits / (rollouts + reusedVisits);
+    }
+
+    /**
+     * Expected reward (0-1) of the last chosen tactic
+     */
+    public synchronized double getLastValue() {
+        return lastValue;
+    }
+
+    public int getWorkers() {
+        return searchers.length;
+    }
+
+    public double getBudgetMillis() {
+        return budgetNanos / 1e6;
+    }
+}
@@ -0,0 +1,329 @@
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ContentPack - Read-only game content (enemies, treasures, items) served from a binary pack
+ * Content is authored as text (see ContentPackCompiler) and compiled to a compact pack that is
+ * memory-mapped at startup, so opening it costs one header check no matter how much content
+ * ships, and nothing lives on the heap until it is asked for. Every record has an int id;
+ * stats are a single absolute read at id * RECORD_BYTES, and strings are decoded on demand.
+ * Names are resolved to ids once through a hashed index, then callers keep the id.
+ *
+ * File layout (big-endian):
+ *   header   magic "LOTC", version, record count, index slots, text count, index / text /
+ *            string offsets, then first id and count for every kind
+ *   records  RECORD_BYTES each, grouped by kind: kind, name ref, STAT_COUNT stats, first text, text count
+ *   index    open-addressed (hash, id + 1, key string ref) slots over (kind, name) and aliases
+ *   texts    (tag, string ref) pairs, grouped by record
+ *   strings  int length + UTF-8 bytes, deduplicated
+ * Absolute reads never move the buffer's position, so one pack is shared by every thread.
+ */
+public class ContentPack {
+
+    // === RECORD KINDS ===
+    public static final int ENEMY = 0;      // Overworld encounters
+    public static final int CAVE_ENEMY = 1;
+    public static final int TREASURE = 2;   // Cave treasures
+    public static final int ITEM = 3;       // Overworld inventory items, keyed by lower-case name
+    static final String[] KIND_NAMES = {"enemy", "cave_enemy", "treasure", "item"};
+
+    // === STATS (unset stats read as 0) ===
+    public static final int HEALTH = 0;
+    public static final int ATTACK = 1;
+    public static final int ARMOR = 2;
+    public static final int MANA = 3;
+    static final String[] STAT_NAMES = {"health", "attack", "armor", "mana"};
+
+    // === TEXT TAGS (a record may have several lines per tag) ===
+    public static final int DESCRIPTION = 0;
+    public static final int VICTORY = 1;
+    public static final int USEFULNESS = 2;
+    public static final int ABILITY = 3;
+    static final String[] TEXT_NAMES = {"description", "victory", "usefulness", "ability"};
+
+    public static final int MISSING = -1;
+
+    // === FORMAT CONSTANTS ===
+    static final int MAGIC = 0x4C4F5443; // "LOTC"
+    static final int VERSION = 1;
+    static final int KIND_COUNT = KIND_NAMES.length;
+    static final int STAT_COUNT = STAT_NAMES.length;
+    static final int HEADER_BYTES = 32 + KIND_COUNT * 8;
+    static final int RECORD_BYTES = 16 + STAT_COUNT * 4;
+    static final int TEXT_BYTES = 8;
+    static final int SLOT_BYTES = 12;
+
+    // === DEFAULT PACK (paths relative to the game directory, see gameDirectory) ===
+    static final Path DEFAULT_SOURCE = Paths.get("content", "core.content");
+    static final Path DEFAULT_PACK = Paths.get("content", "core.pack");
+
+    private final ByteBuffer data;
+    private final int recordCount;
+    private final int indexSlots;
+    private final int indexOffset;
+    private final int textOffset;
+    private final int stringsOffset;
+    private final int[] kindStart = new int[KIND_COUNT];
+    private final int[] kindCount = new int[KIND_COUNT];
+
+    ContentPack(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("not a content pack (bad header)");
+        }
+        recordCount = data.getInt(8);
+        indexSlots = data.getInt(12);
+        indexOffset = data.getInt(20);
+        textOffset = data.getInt(24);
+        stringsOffset = data.getInt(28);
+        for (int kind = 0; kind < KIND_COUNT; kind++) {
+            kindStart[kind] = data.getInt(32 + kind * 8);
+            kindCount[kind] = data.getInt(36 + kind * 8);
+        }
+        if ((long) HEADER_BYTES + (long) recordCount * RECORD_BYTES > indexOffset || stringsOffset > data.capacity()
+                || Integer.bitCount(indexSlots) > 1) {
+            throw new IOException("corrupt content pack (bad section offsets)");
+        }
+    }
+
+    // ===============================================
+    // LOADING
+    // ===============================================
+
+    /**
+     * Map a compiled pack read-only. The mapping outlives the channel
+     */
+    public static ContentPack open(Path pack) throws IOException {
+        try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+            return new ContentPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The game's own content: recompiles content/core.pack when the authoring file is newer,
+     * then maps it (or compiles it on the heap when the content folder is read-only). The game
+     * cannot run without its content, so a missing or unreadable pack is an error, not an
+     * empty pack
+     */
+    public static ContentPack loadDefault() {
+        Path directory = gameDirectory();
+        Path source = directory.resolve(DEFAULT_SOURCE);
+        Path pack = directory.resolve(DEFAULT_PACK);
+        try {
+            if (Files.exists(source) && (!Files.exists(pack)
+                    || Files.getLastModifiedTime(source).compareTo(Files.getLastModifiedTime(pack)) > 0)) {
+                // Syntax errors surface from compileToBuffer; only the write below may fall back
+                ByteBuffer compiled = ContentPackCompiler.compileToBuffer(source);
+                try {
+                    ContentPackCompiler.write(compiled, pack);
+                } catch (IOException e) {
+                    System.err.println("⚠️ Could not write " + pack + " (" + e.getMessage() + "), using content compiled in memory");
+                    return new ContentPack(compiled);
+                }
+            }
+            return open(pack);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load game content from " + directory.resolve("content") + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The directory holding content/: the working directory if it has one, otherwise the
+     * directory the game's classes were loaded from or its parent (bin/..), so the game and
+     * its tools can be started from anywhere
+     */
+    static Path gameDirectory() {
+        List<Path> candidates = new ArrayList<>();
+        candidates.add(Paths.get("").toAbsolutePath());
+        CodeSource code = ContentPack.class.getProtectionDomain().getCodeSource();
+        if (code != null && code.getLocation() != null) {
+            try {
+                Path classes = Paths.get(code.getLocation().toURI());
+                candidates.add(classes);
+                if (classes.getParent() != null) {
+                    candidates.add(classes.getParent());
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // Not a file location (e.g. a custom class loader); only the working directory is searched
+            }
+        }
+        for (Path directory : candidates) {
+            if (Files.exists(directory.resolve(DEFAULT_SOURCE)) || Files.exists(directory.resolve(DEFAULT_PACK))) {
+                return directory;
+            }
+        }
+        throw new IllegalStateException("Game content not found: no " + DEFAULT_SOURCE + " or " + DEFAULT_PACK
+            + " under " + candidates);
+    }
+
+    /**
+     * Shared default pack, loaded on first use
+     */
+    public static ContentPack shared() {
+        return SharedHolder.PACK;
+    }
+
+    private static final class SharedHolder {
+        static final ContentPack PACK = loadDefault();
+    }
+
+    // ===============================================
+    // LOOKUPS
+    // ===============================================
+
+    /**
+     * Id of a record (or alias) of the given kind, or MISSING. Resolve once and keep the id
+     */
+    public int find(int kind, String name) {
+        if (indexSlots == 0 || name == null) {
+            return MISSING;
+        }
+        int hash = hash(kind, name);
+        int mask = indexSlots - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int position = indexOffset + slot * SLOT_BYTES;
+            int idPlusOne = data.getInt(position + 4);
+            if (idPlusOne == 0) {
+                return MISSING;
+            }
+            int id = idPlusOne - 1;
+            if (data.getInt(position) == hash && kind(id) == kind && matches(data.getInt(position + 8), name)) {
+                return id;
+            }
+        }
+    }
+
+    public int kind(int id) {
+        return data.getInt(record(id));
+    }
+
+    public String name(int id) {
+        return string(data.getInt(record(id) + 4));
+    }
+
+    public int stat(int id, int stat) {
+        return data.getInt(record(id) + 8 + stat * 4);
+    }
+
+    /**
+     * Stat of a record, or fallback when the id is MISSING
+     */
+    public int stat(int id, int stat, int fallback) {
+        return id == MISSING ? fallback : stat(id, stat);
+    }
+
+    /**
+     * First line with the given tag, or null
+     */
+    public String text(int id, int tag) {
+        return text(id, tag, 0);
+    }
+
+    /**
+     * The n-th line with the given tag, or null
+     */
+    public String text(int id, int tag, int n) {
+        if (id == MISSING) {
+            return null;
+        }
+        int first = data.getInt(record(id) + 8 + STAT_COUNT * 4);
+        int count = data.getInt(record(id) + 12 + STAT_COUNT * 4);
+        for (int i = first; i < first + count; i++) {
+            int position = textOffset + i * TEXT_BYTES;
+            if (data.getInt(position) == tag && n-- == 0) {
+                return string(data.getInt(position + 4));
+            }
+        }
+        return null;
+    }
+
+    public int textCount(int id, int tag) {
+        if (id == MISSING) {
+            return 0;
+        }
+        int first = data.getInt(record(id) + 8 + STAT_COUNT * 4);
+        int count = data.getInt(record(id) + 12 + STAT_COUNT * 4);
+        int matching = 0;
+        for (int i = first; i < first + count; i++) {
+            if (data.getInt(textOffset + i * TEXT_BYTES) == tag) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Records of one kind have consecutive ids starting here
+     */
+    public int firstId(int kind) {
+        return kindStart[kind];
+    }
+
+    public int count(int kind) {
+        return kindCount[kind];
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    public int getByteSize() {
+        return data.capacity();
+    }
+
+    // ===============================================
+    // ENCODING HELPERS
+    // ===============================================
+
+    private int record(int id) {
+        if (id < 0 || id >= recordCount) {
+            throw new IndexOutOfBoundsException("content id " + id + " (pack has " + recordCount + ")");
+        }
+        return HEADER_BYTES + id * RECORD_BYTES;
+    }
+
+    private String string(int ref) {
+        int length = data.getInt(stringsOffset + ref);
+        byte[] bytes = new byte[length];
+        data.get(stringsOffset + ref + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare a stored key with a name without decoding it (ASCII fast path)
+     */
+    private boolean matches(int ref, String name) {
+        int position = stringsOffset + ref;
+        int length = data.getInt(position);
+        if (length != name.length()) {
+            return length > name.length() && string(ref).equals(name); // Multi-byte UTF-8 key
+        }
+        for (int i = 0; i < length; i++) {
+            byte b = data.get(position + 4 + i);
+            if (b < 0) {
+                return string(ref).equals(name);
+            }
+            if (b != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int hash(int kind, String name) {
+        int h = name.hashCode() * 31 + kind;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
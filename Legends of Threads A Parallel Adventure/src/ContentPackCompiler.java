@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ContentPackCompiler - Turns authoring files into the binary format ContentPack maps
+ * Authoring format, one record per section:
+ *   # comment
+ *   [cave_enemy Cave Rat]        kind and name (kinds: enemy, cave_enemy, treasure, item)
+ *   health = 45                  stats: health, attack, armor, mana
+ *   description = A large rat... text lines: description, victory, usefulness, ability (repeatable)
+ *   alias = giant rat            another name that resolves to this record
+ * Records are written grouped by kind, in authoring order within a kind.
+ * Run with: java -cp bin ContentPackCompiler content/core.content content/core.pack
+ */
+public class ContentPackCompiler {
+
+    static final class Entry {
+        final int kind;
+        final String name;
+        final int[] stats = new int[ContentPack.STAT_COUNT];
+        final List<int[]> texts = new ArrayList<>(); // {tag, string ref}
+        final List<String> aliases = new ArrayList<>();
+
+        Entry(int kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Integer> stringRefs = new HashMap<>();
+    private final List<byte[]> strings = new ArrayList<>();
+    private int stringBytes;
+
+    // ===============================================
+    // COMPILING
+    // ===============================================
+
+    /**
+     * Compile an authoring file into a pack. The pack is written next to its final name and
+     * moved into place, so a running game never maps a half-written file
+     */
+    public static void compile(Path source, Path pack) throws IOException {
+        write(compileToBuffer(source), pack);
+    }
+
+    /**
+     * Write an already compiled pack the same way. Only file-system errors can happen here
+     */
+    public static void write(ByteBuffer buffer, Path pack) throws IOException {
+        Path temporary = pack.resolveSibling(pack.getFileName() + ".tmp");
+        Files.write(temporary, buffer.array());
+        Files.move(temporary, pack, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Compile an authoring file into a pack on the heap, for installs that cannot write one
+     */
+    public static ByteBuffer compileToBuffer(Path source) throws IOException {
+        ContentPackCompiler compiler = new ContentPackCompiler();
+        compiler.parse(Files.readAllLines(source, StandardCharsets.UTF_8), source.toString());
+        return compiler.toBuffer();
+    }
+
+    /**
+     * Add every record of an authoring file. Errors name the file and line
+     */
+    public void parse(List<String> lines, String sourceName) throws IOException {
+        Entry current = null;
+        for (int number = 1; number <= lines.size(); number++) {
+            String line = lines.get(number - 1).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("[")) {
+                int space = line.indexOf(' ');
+                if (!line.endsWith("]") || space < 0) {
+                    throw error(sourceName, number, "expected [kind Name]");
+                }
+                int kind = indexOf(ContentPack.KIND_NAMES, line.substring(1, space));
+                if (kind < 0) {
+                    throw error(sourceName, number, "unknown kind '" + line.substring(1, space) + "'");
+                }
+                current = add(kind, line.substring(space + 1, line.length() - 1).trim());
+                continue;
+            }
+
+            int equals = line.indexOf('=');
+            if (equals < 0 || current == null) {
+                throw error(sourceName, number, current == null ? "property outside a [kind Name] section"
+                                                                  : "expected key = value");
+            }
+            String key = line.substring(0, equals).trim();
+            String value = line.substring(equals + 1).trim();
+            int stat = indexOf(ContentPack.STAT_NAMES, key);
+            int tag = indexOf(ContentPack.TEXT_NAMES, key);
+            if (stat >= 0) {
+                try {
+                    current.stats[stat] = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    throw error(sourceName, number, key + " must be a whole number");
+                }
+            } else if (tag >= 0) {
+                text(current, tag, value);
+            } else if (key.equals("alias")) {
+                current.aliases.add(value);
+            } else {
+                throw error(sourceName, number, "unknown property '" + key + "'");
+            }
+        }
+    }
+
+    /**
+     * Add a record programmatically (used by tools and benchmarks)
+     */
+    Entry add(int kind, String name) {
+        Entry entry = new Entry(kind, name);
+        entries.add(entry);
+        return entry;
+    }
+
+    void text(Entry entry, int tag, String value) {
+        entry.texts.add(new int[] {tag, intern(value)});
+    }
+
+    /**
+     * Lay out the pack in memory
+     */
+    public ByteBuffer toBuffer() throws IOException {
+        List<Entry> ordered = new ArrayList<>(entries.size());
+        int[] kindStart = new int[ContentPack.KIND_COUNT];
+        int[] kindCount = new int[ContentPack.KIND_COUNT];
+        for (int kind = 0; kind < ContentPack.KIND_COUNT; kind++) {
+            kindStart[kind] = ordered.size();
+            for (Entry entry : entries) {
+                if (entry.kind == kind) {
+                    ordered.add(entry);
+                }
+            }
+            kindCount[kind] = ordered.size() - kindStart[kind];
+        }
+        int[] nameRefs = new int[ordered.size()];
+        int keys = 0;
+        int textCount = 0;
+        for (int id = 0; id < ordered.size(); id++) {
+            nameRefs[id] = intern(ordered.get(id).name);
+            for (String alias : ordered.get(id).aliases) {
+                intern(alias);
+            }
+            keys += 1 + ordered.get(id).aliases.size();
+            textCount += ordered.get(id).texts.size();
+        }
+        int indexSlots = keys == 0 ? 0 : Integer.highestOneBit(keys * 2 - 1) << 1; // Load factor <= 1/2
+
+        long indexOffset = ContentPack.HEADER_BYTES + (long) ordered.size() * ContentPack.RECORD_BYTES;
+        long textOffset = indexOffset + (long) indexSlots * ContentPack.SLOT_BYTES;
+        long stringsOffset = textOffset + (long) textCount * ContentPack.TEXT_BYTES;
+        long total = stringsOffset + stringBytes;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("content pack would exceed 2 GB");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) total);
+        buffer.putInt(ContentPack.MAGIC).putInt(ContentPack.VERSION).putInt(ordered.size()).putInt(indexSlots)
+              .putInt(textCount).putInt((int) indexOffset).putInt((int) textOffset).putInt((int) stringsOffset);
+        for (int kind = 0; kind < ContentPack.KIND_COUNT; kind++) {
+            buffer.putInt(kindStart[kind]).putInt(kindCount[kind]);
+        }
+
+        int nextText = 0;
+        for (int id = 0; id < ordered.size(); id++) {
+            Entry entry = ordered.get(id);
+            buffer.putInt(entry.kind).putInt(nameRefs[id]);
+            for (int stat : entry.stats) {
+                buffer.putInt(stat);
+            }
+            buffer.putInt(nextText).putInt(entry.texts.size());
+            nextText += entry.texts.size();
+        }
+
+        int mask = indexSlots - 1;
+        for (int id = 0; id < ordered.size(); id++) {
+            Entry entry = ordered.get(id);
+            List<String> names = new ArrayList<>(entry.aliases);
+            names.add(0, entry.name);
+            for (String name : names) {
+                int hash = ContentPack.hash(entry.kind, name);
+                int slot = hash & mask;
+                while (true) {
+                    int position = (int) indexOffset + slot * ContentPack.SLOT_BYTES;
+                    int existing = buffer.getInt(position + 4);
+                    if (existing == 0) {
+                        buffer.putInt(position, hash).putInt(position + 4, id + 1).putInt(position + 8, intern(name));
+                        break;
+                    }
+                    if (buffer.getInt(position) == hash && ordered.get(existing - 1).kind == entry.kind
+                            && buffer.getInt(position + 8) == intern(name)) {
+                        throw new IOException("duplicate " + ContentPack.KIND_NAMES[entry.kind] + " '" + name + "'");
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+        }
+
+        buffer.position((int) textOffset);
+        for (Entry entry : ordered) {
+            for (int[] text : entry.texts) {
+                buffer.putInt(text[0]).putInt(text[1]);
+            }
+        }
+        for (byte[] bytes : strings) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        return buffer.flip();
+    }
+
+    private int intern(String value) {
+        Integer ref = stringRefs.get(value);
+        if (ref == null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ref = stringBytes;
+            stringRefs.put(value, ref);
+            strings.add(bytes);
+            stringBytes += 4 + bytes.length;
+        }
+        return ref;
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static IOException error(String sourceName, int line, String message) {
+        return new IOException(sourceName + ":" + line + ": " + message);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path source = args.length > 0 ? Paths.get(args[0]) : ContentPack.DEFAULT_SOURCE;
+        Path pack = args.length > 1 ? Paths.get(args[1]) : ContentPack.DEFAULT_PACK;
+        long start = System.nanoTime();
+        compile(source, pack);
+        ContentPack compiled = ContentPack.open(pack);
+        System.out.printf("📦 %s -> %s: %d records, %,d bytes in %.1f ms%n", source, pack, compiled.size(),
+            compiled.getByteSize(), (System.nanoTime() - start) / 1e6);
+    }
+}
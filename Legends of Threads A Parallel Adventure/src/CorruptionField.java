@@ -0,0 +1,302 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * CorruptionField - Per-region corruption that spreads across the realm
+ * Regions are laid out as square blocks of a grid of cells. Each world tick runs one explicit
+ * diffusion step over every cell (5-point stencil, zero-flux edges) from the current buffer
+ * into the next one, then swaps them. Rows are split into bands and stepped in parallel on a
+ * fork-join pool; the same pass sums each region's cells, so per-region levels are ready the
+ * moment a tick ends. Corrupted regions seep in proportion to their own level, so a cleansed
+ * region stops feeding the field. Character actions queue impulses that land on the next tick.
+ */
+public class CorruptionField {
+
+    // === DYNAMICS (per tick) ===
+    private static final float DIFFUSION = 0.2f;   // Share exchanged with each neighbour (< 0.25 for stability)
+    private static final float DECAY = 0.002f;     // Corruption slowly fades everywhere
+    private static final float MAX_LEVEL = 100f;
+    private static final int IMPULSE_SCALE = 1000; // Impulses are queued in thousandths of a level
+    private static final int LEAF_CELLS = 65_536;  // Cells per fork-join leaf task
+
+    private final int regionCount;
+    private final int columns;    // Regions per row of blocks
+    private final int blockSize;  // Cells per block side
+    private final int width;
+    private final int height;
+    private final int[] regionOfCell; // -1 for wilderness cells outside every region
+
+    // Double buffer, only touched by the stepping thread
+    private float[] current;
+    private float[] next;
+
+    private final float[] seepage;                 // Per region: share of its own mean level added per tick
+    private final AtomicLongArray pendingImpulses;  // Lock-free, drained at the start of a tick
+    private final int[] cellsPerRegion;
+    private volatile double[] regionLevels;         // Published after every tick
+    private volatile double averageLevel;
+
+    private final ForkJoinPool pool;
+    private long ticks;
+    private long cellUpdates;
+    private long stepNanos;
+
+    /**
+     * @param regionCount number of regions
+     * @param columns     regions per row of the layout
+     * @param blockSize   cells per side of each region's block
+     */
+    public CorruptionField(int regionCount, int columns, int blockSize) {
+        this(regionCount, columns, blockSize, ForkJoinPool.commonPool());
+    }
+
+    public CorruptionField(int regionCount, int columns, int blockSize, ForkJoinPool pool) {
+        this.regionCount = regionCount;
+        this.columns = Math.max(1, columns);
+        this.blockSize = Math.max(1, blockSize);
+        int rows = (regionCount + this.columns - 1) / this.columns;
+        this.width = this.columns * this.blockSize;
+        this.height = Math.max(1, rows) * this.blockSize;
+        this.current = new float[width * height];
+        this.next = new float[width * height];
+        this.regionOfCell = new int[width * height];
+        this.seepage = new float[regionCount];
+        this.pendingImpulses = new AtomicLongArray(regionCount);
+        this.cellsPerRegion = new int[regionCount];
+        this.regionLevels = new double[regionCount];
+        this.pool = pool;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int region = (y / this.blockSize) * this.columns + x / this.blockSize;
+                regionOfCell[y * width + x] = region < regionCount ? region : -1;
+                if (region < regionCount) {
+                    cellsPerRegion[region]++;
+                }
+            }
+        }
+    }
+
+    // ===============================================
+    // SETUP AND INPUT
+    // ===============================================
+
+    /**
+     * Fill a region with a starting level. Every tick each of its cells gains seepageRate times
+     * the region's mean level, so seepage dies out as the region is cleansed
+     */
+    public synchronized void setRegion(int region, float initialLevel, float seepageRate) {
+        seepage[region] = seepageRate;
+        float level = clamp(initialLevel);
+        for (int i = 0; i < current.length; i++) {
+            if (regionOfCell[i] == region) {
+                current[i] = level;
+            }
+        }
+        publishLevels();
+    }
+
+    /**
+     * Queue a change to every cell of a region for the next tick. Lock-free, callable from
+     * any character thread
+     */
+    public void applyImpulse(int region, double delta) {
+        if (region >= 0 && region < regionCount) {
+            pendingImpulses.addAndGet(region, Math.round(delta * IMPULSE_SCALE));
+        }
+    }
+
+    // ===============================================
+    // SIMULATION
+    // ===============================================
+
+    /**
+     * Advance the field by one tick on the fork-join pool (inline when the grid is a single
+     * band or the pool has one worker). Ticks are serialized; readers never block
+     */
+    public synchronized void step() {
+        advance(true);
+    }
+
+    /**
+     * Same tick on the calling thread only, for comparison
+     */
+    public synchronized void stepSequential() {
+        advance(false);
+    }
+
+    private void advance(boolean parallel) {
+        long start = System.nanoTime();
+
+        float[] sources = new float[regionCount];
+        double[] levels = regionLevels;
+        for (int region = 0; region < regionCount; region++) {
+            sources[region] = seepage[region] * (float) levels[region] + pendingImpulses.getAndSet(region, 0) / (float) IMPULSE_SCALE;
+        }
+
+        double[] sums = new double[regionCount];
+        double[] total = new double[1];
+        if (parallel && pool.getParallelism() > 1 && (long) width * height > LEAF_CELLS) {
+            pool.invoke(new StencilTask(0, height, sources, sums, total));
+        } else {
+            stepRows(0, height, sources, sums, total);
+        }
+
+        float[] swap = current;
+        current = next;
+        next = swap;
+
+        publish(sums, total[0]);
+        ticks++;
+        cellUpdates += (long) width * height;
+        stepNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Step rows [fromRow, toRow) sequentially, adding per-region sums into the given arrays
+     */
+    private void stepRows(int fromRow, int toRow, float[] sources, double[] regionSums, double[] totalSum) {
+        float[] in = current;
+        float[] out = next;
+        double total = 0;
+        for (int y = fromRow; y < toRow; y++) {
+            int row = y * width;
+            int up = y == 0 ? row : row - width;               // Zero-flux edges mirror the cell itself
+            int down = y == height - 1 ? row : row + width;
+            for (int x = 0; x < width; x++) {
+                int i = row + x;
+                float center = in[i];
+                float left = x == 0 ? center : in[i - 1];
+                float right = x == width - 1 ? center : in[i + 1];
+                float laplacian = left + right + in[up + x] + in[down + x] - 4 * center;
+                int region = regionOfCell[i];
+                float value = center + DIFFUSION * laplacian - DECAY * center + (region >= 0 ? sources[region] : 0f);
+                value = clamp(value);
+                out[i] = value;
+                total += value;
+                if (region >= 0) {
+                    regionSums[region] += value;
+                }
+            }
+        }
+        totalSum[0] += total;
+    }
+
+    /**
+     * Splits rows in half until a band is small enough, then steps it. Each leaf sums into
+     * its own arrays and merges them once, so the hot loop shares nothing
+     */
+    private final class StencilTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int fromRow;
+        private final int toRow;
+        private final float[] sources;
+        private final double[] regionSums;
+        private final double[] totalSum;
+
+        StencilTask(int fromRow, int toRow, float[] sources, double[] regionSums, double[] totalSum) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.sources = sources;
+            this.regionSums = regionSums;
+            this.totalSum = totalSum;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = toRow - fromRow;
+            if (rows <= 1 || (long) rows * width <= LEAF_CELLS) {
+                double[] localSums = new double[regionCount];
+                double[] localTotal = new double[1];
+                stepRows(fromRow, toRow, sources, localSums, localTotal);
+                synchronized (regionSums) {
+                    for (int region = 0; region < regionCount; region++) {
+                        regionSums[region] += localSums[region];
+                    }
+                    totalSum[0] += localTotal[0];
+                }
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new StencilTask(fromRow, middle, sources, regionSums, totalSum),
+                      new StencilTask(middle, toRow, sources, regionSums, totalSum));
+        }
+    }
+
+    private void publishLevels() {
+        double[] sums = new double[regionCount];
+        double total = 0;
+        for (int i = 0; i < current.length; i++) {
+            total += current[i];
+            if (regionOfCell[i] >= 0) {
+                sums[regionOfCell[i]] += current[i];
+            }
+        }
+        publish(sums, total);
+    }
+
+    private void publish(double[] sums, double total) {
+        for (int region = 0; region < regionCount; region++) {
+            sums[region] = cellsPerRegion[region] == 0 ? 0 : sums[region] / cellsPerRegion[region];
+        }
+        regionLevels = sums;
+        averageLevel = total / current.length;
+    }
+
+    private static float clamp(float value) {
+        return value < 0f ? 0f : Math.min(MAX_LEVEL, value);
+    }
+
+    // ===============================================
+    // QUERIES
+    // ===============================================
+
+    /**
+     * Mean corruption of a region after the last tick (0-100)
+     */
+    public double getRegionLevel(int region) {
+        return regionLevels[region];
+    }
+
+    public double[] getRegionLevels() {
+        return Arrays.copyOf(regionLevels, regionCount);
+    }
+
+    /**
+     * Mean corruption over the whole grid after the last tick (0-100)
+     */
+    public double getAverageLevel() {
+        return averageLevel;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return width * height;
+    }
+
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Cells updated per second of stepping time, over every tick so far
+     */
+    public synchronized double getCellsPerSecond() {
+        return stepNanos == 0 ? 0 : cellUpdates / (stepNanos / 1e9);
+    }
+
+    public synchronized void resetMetrics() {
+        ticks = 0;
+        cellUpdates = 0;
+        stepNanos = 0;
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ExpeditionService - Runs many cave expeditions at once on a shared executor
+ * Each submitted expedition runs start to finish on one worker, with its own explorer,
+ * output channel and dice (see CaveExpedition), so expeditions share no mutable state.
+ * Callers get a CompletableFuture of the result. Throughput and submit-to-finish latency
+ * are tracked by a TrackedExecutor, victories by a lock-free counter.
+ */
+public class ExpeditionService {
+
+    private final TrackedExecutor<CaveExpedition.Result> tasks;
+    private final LongAdder victories = new LongAdder();
+
+    /**
+     * Service on its own pool of daemon threads, one per core. Expeditions may wait on their
+     * input, so they get plain threads rather than fork-join workers
+     */
+    public ExpeditionService() {
+        this.tasks = new TrackedExecutor<>(newPool(Runtime.getRuntime().availableProcessors()), true);
+    }
+
+    /**
+     * Service that runs expeditions on a caller-managed executor
+     */
+    public ExpeditionService(Executor executor) {
+        this.tasks = new TrackedExecutor<>(executor, false);
+    }
+
+    private static ExecutorService newPool(int threads) {
+        AtomicInteger threadCount = new AtomicInteger(0);
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "ExpeditionThread-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ===============================================
+    // SUBMIT / AWAIT
+    // ===============================================
+
+    /**
+     * Queue an expedition. The future completes on the worker that ran it; an expedition that
+     * throws still counts as finished
+     */
+    public CompletableFuture<CaveExpedition.Result> submit(CaveExpedition expedition) {
+        expedition.markSubmitted();
+        return tasks.submit(() -> {
+            CaveExpedition.Result result = expedition.run();
+            if (result.isVictory()) {
+                victories.increment();
+            }
+            return result;
+        });
+    }
+
+    public List<CompletableFuture<CaveExpedition.Result>> submitAll(List<CaveExpedition> expeditions) {
+        List<CompletableFuture<CaveExpedition.Result>> futures = new ArrayList<>(expeditions.size());
+        for (CaveExpedition expedition : expeditions) {
+            futures.add(submit(expedition));
+        }
+        return futures;
+    }
+
+    /**
+     * Wait for every future, returning results in the same order
+     */
+    public static List<CaveExpedition.Result> awaitAll(List<CompletableFuture<CaveExpedition.Result>> futures) {
+        return TrackedExecutor.awaitAll(futures);
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public long getCompletedExpeditions() {
+        return tasks.getCompleted();
+    }
+
+    /**
+     * Expeditions that ended in an exception rather than a result
+     */
+    public long getFailedExpeditions() {
+        return tasks.getFailed();
+    }
+
+    /**
+     * Expeditions submitted but not finished yet
+     */
+    public long getInFlight() {
+        return tasks.getInFlight();
+    }
+
+    public double getVictoryRate() {
+        long done = tasks.getCompleted();
+        return done == 0 ? 0 : (double) victories.sum() / done;
+    }
+
+    /**
+     * Finished expeditions per second since creation or the last resetMetrics()
+     */
+    public double getExpeditionsPerSecond() {
+        return tasks.getPerSecond();
+    }
+
+    /**
+     * Submit-to-finish latency in milliseconds at quantile q (0.99 = p99), within 1%
+     */
+    public double getLatencyMillis(double q) {
+        return tasks.getLatencyMillis(q);
+    }
+
+    /**
+     * Start a new measurement window. Call while no expedition is running
+     */
+    public void resetMetrics() {
+        tasks.resetMetrics();
+        victories.reset();
+    }
+
+    public String getMetricsSummary() {
+        return String.format("🧭 Expeditions: %,d finished (%,d in flight, %,d failed), %.0f%% victorious, %,.1f expeditions/sec, latency p50 %.1f ms, p99 %.1f ms",
+            getCompletedExpeditions(), getInFlight(), getFailedExpeditions(), getVictoryRate() * 100,
+            getExpeditionsPerSecond(), getLatencyMillis(0.5), getLatencyMillis(0.99));
+    }
+
+    /**
+     * Stop the service's own pool (no-op for a caller-managed executor)
+     */
+    public void shutdown() {
+        tasks.shutdown();
+    }
+}
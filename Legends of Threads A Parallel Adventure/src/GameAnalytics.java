@@ -1,10 +1,18 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * GameAnalytics - Lambda expressions and stream operations for logging, filtering, and aggregating results
@@ -28,26 +36,31 @@ public class GameAnalytics {
     };
     
     // === COLLECTIONS FOR DATA TRACKING ===
-    private final ConcurrentLinkedQueue<GameEvent> eventLog = new ConcurrentLinkedQueue<>();
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private final AnalyticsEventStore eventStore = new AnalyticsEventStore();
+    private volatile boolean consoleOutput = true; // Aggregation continues when the console is off
+    private final Map<Integer, ReportAggregate> sealedChunkAggregates = new ConcurrentHashMap<>();
+    private static final long PARALLEL_REPORT_THRESHOLD = 4L * AnalyticsEventStore.CHUNK_SIZE;
+    private volatile AnalyticsJournal journal; // Optional on-disk persistence, null when disabled
+    private final AnalyticsEventPublisher eventPublisher = new AnalyticsEventPublisher(this::materializeIfPublished);
     private final List<BattleRecord> battleHistory = Collections.synchronizedList(new ArrayList<>());
     private final Map<String, List<String>> characterInventories = new HashMap<>();
     private final AtomicLong eventCounter = new AtomicLong(0);
+    private final AnalyticsSketches sketches = new AnalyticsSketches(); // Constant-memory summaries
+    private volatile boolean approximateMode = false; // Skip per-record battle/item history when on
     
     // === LAMBDA EXPRESSIONS FOR VARIOUS OPERATIONS ===
     private final Function<GameEvent, String> eventFormatter = event -> 
         String.format("[%s] %s: %s", 
-            event.timestamp.format(DateTimeFormatter.ofPattern("HH:mm:ss")),
+            event.timestamp().format(TIME_FORMAT),
             event.characterName, 
-            event.description);
+            event.description());
     
-    private final Predicate<GameEvent> isBattleEvent = event -> 
-        event.type == EventType.BATTLE_WON || event.type == EventType.BATTLE_LOST;
+    private final Predicate<GameEvent> isBattleEvent = event -> isBattleType(event.type);
     
-    private final Predicate<GameEvent> isItemEvent = event -> 
-        event.type == EventType.ITEM_FOUND || event.type == EventType.ITEM_STOLEN || event.type == EventType.ITEM_TRADED;
+    private final Predicate<GameEvent> isItemEvent = event -> isItemType(event.type);
     
-    private final Predicate<GameEvent> isMagicEvent = event -> 
-        event.type == EventType.SPELL_CAST || event.type == EventType.MANA_CONSUMED || event.type == EventType.ENCHANTMENT;
+    private final Predicate<GameEvent> isMagicEvent = event -> isMagicType(event.type);
     
     private final Consumer<String> eventLogger = message -> 
         System.out.println("📊 [ANALYTICS] " + message);
@@ -61,24 +74,78 @@ public class GameAnalytics {
         TREASURE_DEPOSITED, TREASURE_WITHDRAWN, HEALING, INTERACTION
     }
     
+    static boolean isBattleType(EventType type) {
+        return type == EventType.BATTLE_WON || type == EventType.BATTLE_LOST;
+    }
+    
+    static boolean isItemType(EventType type) {
+        return type == EventType.ITEM_FOUND || type == EventType.ITEM_STOLEN || type == EventType.ITEM_TRADED;
+    }
+    
+    static boolean isMagicType(EventType type) {
+        return type == EventType.SPELL_CAST || type == EventType.MANA_CONSUMED || type == EventType.ENCHANTMENT;
+    }
+    
     // === DATA CLASSES ===
+    /**
+     * One event. Events read back from the store keep their raw fields and render the
+     * description, timestamp and item metadata only when something asks for them
+     */
     public static class GameEvent {
         final String characterName;
         final EventType type;
-        final String description;
-        final LocalDateTime timestamp;
-        final Map<String, Object> metadata;
+        private final long epochMillis;
+        private final String auxA;
+        private final String auxB;
+        private final int intA;
+        private final int intB;
+        private String description;      // Rendered on first use for stored structured events
+        private LocalDateTime timestamp; // Likewise
+        private Map<String, Object> metadata;
         
         public GameEvent(String characterName, EventType type, String description) {
+            this(characterName, type, description, System.currentTimeMillis(), null, null, 0, 0);
+        }
+        
+        GameEvent(String characterName, EventType type, String description, long epochMillis,
+                  String auxA, String auxB, int intA, int intB) {
             this.characterName = characterName;
             this.type = type;
             this.description = description;
-            this.timestamp = LocalDateTime.now();
-            this.metadata = new HashMap<>();
+            this.epochMillis = epochMillis;
+            this.auxA = auxA;
+            this.auxB = auxB;
+            this.intA = intA;
+            this.intB = intB;
+        }
+        
+        public synchronized String description() {
+            if (description == null) {
+                description = GameAnalytics.describe(characterName, type, auxA, auxB, intA, intB);
+            }
+            return description;
+        }
+        
+        public synchronized LocalDateTime timestamp() {
+            if (timestamp == null) {
+                timestamp = toLocalTime(epochMillis);
+            }
+            return timestamp;
+        }
+        
+        public synchronized Map<String, Object> metadata() {
+            if (metadata == null) {
+                metadata = new HashMap<>();
+                if (type == EventType.ITEM_FOUND && auxA != null) {
+                    metadata.put("item", auxA);
+                    metadata.put("source", auxB);
+                }
+            }
+            return metadata;
         }
         
         public GameEvent withMetadata(String key, Object value) {
-            this.metadata.put(key, value);
+            metadata().put(key, value);
             return this;
         }
     }
@@ -129,48 +196,333 @@ public class GameAnalytics {
         }
     }
     
+    /**
+     * Partial aggregate behind the comprehensive report. Every report section is gathered in
+     * one pass over a range of events, and partials merge, so ranges can be folded in parallel
+     * and the partial for a sealed storage chunk can be cached and reused
+     */
+    static class ReportAggregate {
+        // Per-character counter slots
+        static final int BATTLE_EVENTS = 0;
+        static final int ITEM_EVENTS = 1;
+        static final int MAGIC_EVENTS = 2;
+        static final int BATTLES_WON = 3;
+        static final int SPELLS_CAST = 4;
+        static final int ITEMS_COLLECTED = 5;
+        private static final int SLOTS = 6;
+        
+        long battles;
+        long totalBattleDamage;
+        long unpublished; // Slots still being written when this range was folded
+        final Map<String, Long> enemyCounts = new HashMap<>();
+        final Map<String, long[]> characterCounts = new HashMap<>();
+        
+        void accept(AnalyticsEventStore store, long sequence) {
+            if (!store.isPublished(sequence)) {
+                unpublished++;
+                return;
+            }
+            
+            EventType type = store.type(sequence);
+            long[] counts = characterCounts.computeIfAbsent(store.name(sequence), k -> new long[SLOTS]);
+            boolean structured = store.text(sequence) == null; // Logged through logBattle / logItemCollection
+            
+            if (isBattleType(type)) {
+                counts[BATTLE_EVENTS]++;
+                if (type == EventType.BATTLE_WON) {
+                    counts[BATTLES_WON]++;
+                }
+                if (structured) {
+                    battles++;
+                    totalBattleDamage += store.intA(sequence);
+                    enemyCounts.merge(store.auxA(sequence), 1L, Long::sum);
+                }
+            } else if (isItemType(type)) {
+                counts[ITEM_EVENTS]++;
+                if (type == EventType.ITEM_FOUND && structured) {
+                    counts[ITEMS_COLLECTED]++;
+                }
+            } else if (isMagicType(type)) {
+                counts[MAGIC_EVENTS]++;
+                if (type == EventType.SPELL_CAST) {
+                    counts[SPELLS_CAST]++;
+                }
+            }
+        }
+        
+        void merge(ReportAggregate other) {
+            battles += other.battles;
+            totalBattleDamage += other.totalBattleDamage;
+            unpublished += other.unpublished;
+            other.enemyCounts.forEach((enemy, count) -> enemyCounts.merge(enemy, count, Long::sum));
+            other.characterCounts.forEach((name, counts) -> {
+                long[] mine = characterCounts.computeIfAbsent(name, k -> new long[SLOTS]);
+                for (int i = 0; i < SLOTS; i++) {
+                    mine[i] += counts[i];
+                }
+            });
+        }
+        
+        /**
+         * Character with the highest counter in the given slot, ignoring SYSTEM
+         */
+        Optional<String> leader(int slot) {
+            return characterCounts.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals("SYSTEM"))
+                .max(Comparator.comparingLong(entry -> entry.getValue()[slot]))
+                .map(Map.Entry::getKey);
+        }
+    }
+    
     // === PUBLIC METHODS FOR EVENT LOGGING ===
     
     /**
-     * Log a game event using lambda expressions
+     * Log a game event. Only raw fields are recorded; text is formatted for the console if enabled
      */
     public void logEvent(String characterName, EventType type, String description) {
-        GameEvent event = new GameEvent(characterName, type, description);
-        eventLog.offer(event);
+        long sequence = eventStore.append(characterName, type, description, null, null, 0, 0);
         eventCounter.incrementAndGet();
-        
-        // Use lambda to format and log
-        eventLogger.accept(eventFormatter.apply(event));
+        sketches.recordCharacter(characterName);
+        dispatch(sequence, type, characterName);
+    }
+    
+    /**
+     * Log a movement without building its description - "Moved to (x, y)" is rendered on demand
+     */
+    public void logMovement(String characterName, int x, int y) {
+        long sequence = eventStore.append(characterName, EventType.MOVEMENT, null, null, null, x, y);
+        eventCounter.incrementAndGet();
+        sketches.recordCharacter(characterName);
+        dispatch(sequence, EventType.MOVEMENT, characterName);
     }
     
     /**
      * Log a battle with detailed information
      */
     public void logBattle(String characterName, String enemyType, boolean won, int damageDealt, int damageReceived) {
-        BattleRecord battle = new BattleRecord(characterName, enemyType, won, damageDealt, damageReceived);
-        battleHistory.add(battle);
+        if (!approximateMode) {
+            battleHistory.add(new BattleRecord(characterName, enemyType, won, damageDealt, damageReceived));
+        }
         
         EventType eventType = won ? EventType.BATTLE_WON : EventType.BATTLE_LOST;
-        String description = String.format("%s vs %s - %s! (Dealt: %d, Received: %d)", 
-            characterName, enemyType, won ? "Victory" : "Defeat", damageDealt, damageReceived);
-        
-        logEvent(characterName, eventType, description);
+        long sequence = eventStore.append(characterName, eventType, null, enemyType, null, damageDealt, damageReceived);
+        eventCounter.incrementAndGet();
+        sketches.recordCharacter(characterName);
+        sketches.recordBattle(enemyType, damageDealt, damageReceived);
+        dispatch(sequence, eventType, characterName);
     }
     
     /**
      * Log item collection with metadata
      */
     public void logItemCollection(String characterName, String itemName, String source) {
-        characterInventories.computeIfAbsent(characterName, k -> Collections.synchronizedList(new ArrayList<>()))
-                           .add(itemName);
-        
-        GameEvent event = new GameEvent(characterName, EventType.ITEM_FOUND, 
-                                      "Collected: " + itemName + " from " + source)
-                                      .withMetadata("item", itemName)
-                                      .withMetadata("source", source);
+        if (!approximateMode) {
+            characterInventories.computeIfAbsent(characterName, k -> Collections.synchronizedList(new ArrayList<>()))
+                               .add(itemName);
+        }
         
-        eventLog.offer(event);
-        eventLogger.accept(eventFormatter.apply(event));
+        long sequence = eventStore.append(characterName, EventType.ITEM_FOUND, null, itemName, source, 0, 0);
+        sketches.recordCharacter(characterName);
+        sketches.recordItem(itemName);
+        dispatch(sequence, EventType.ITEM_FOUND, characterName);
+    }
+    
+    /**
+     * Turn analytics console output on or off. Events are still stored and aggregated when off
+     */
+    public void setConsoleOutput(boolean enabled) {
+        this.consoleOutput = enabled;
+    }
+    
+    public boolean isConsoleOutput() {
+        return consoleOutput;
+    }
+    
+    /**
+     * In approximate mode the per-record battle and inventory history (and the object graph it
+     * builds) is not kept; use the sketch queries (estimate*) for damage, enemy and item
+     * analytics, and getCharacterStats then only sees event counts. The raw event columns that
+     * feed the journal and the event stream still grow by about 36 bytes per event
+     */
+    public void setApproximateMode(boolean enabled) {
+        this.approximateMode = enabled;
+    }
+    
+    public boolean isApproximateMode() {
+        return approximateMode;
+    }
+    
+    /**
+     * Hand a freshly stored event to its sinks: the console (formatted now) and stream
+     * subscribers (formatted later, on their delivery thread)
+     */
+    private void dispatch(long sequence, EventType type, String characterName) {
+        eventPublisher.publish(sequence, type, characterName);
+        if (consoleOutput) {
+            eventLogger.accept("[" + TIME_FORMAT.format(toLocalTime(eventStore.timestamp(sequence))) + "] " +
+                eventStore.name(sequence) + ": " + describe(sequence));
+        }
+    }
+    
+    // === PUSH-BASED EVENT STREAM ===
+    
+    /**
+     * Publisher of every event logged from now on
+     */
+    public Flow.Publisher<GameEvent> getEventPublisher() {
+        return eventPublisher;
+    }
+    
+    /**
+     * Publisher that only delivers events of the given types and/or character (null = any).
+     * Filtering happens before buffering, so unrelated events never use the subscriber's buffer
+     */
+    public Flow.Publisher<GameEvent> getEventPublisher(Set<EventType> types, String characterName, int bufferCapacity) {
+        return eventPublisher.filtered(types, characterName, bufferCapacity);
+    }
+    
+    /**
+     * Events dropped because a subscriber fell more than its buffer capacity behind
+     */
+    public long getDroppedStreamEvents() {
+        return eventPublisher.getDroppedEvents();
+    }
+    
+    /**
+     * Complete all event stream subscriptions
+     */
+    public void closeEventStream() {
+        eventPublisher.close();
+    }
+    
+    private GameEvent materializeIfPublished(long sequence) {
+        return sequence < eventStore.size() && eventStore.isPublished(sequence) ? toGameEvent(sequence) : null;
+    }
+    
+    // === PERSISTENT JOURNAL ===
+    
+    /**
+     * Replay the journal at the given path (if it exists) to rebuild all analytics, then keep
+     * journaling every new event to it on a background thread. Call before logging begins
+     */
+    public boolean openJournal(Path path) {
+        if (journal != null) {
+            return true;
+        }
+        try {
+            journal = AnalyticsJournal.open(path, eventStore, new AnalyticsJournal.ReplayListener() {
+                @Override
+                public void onEvent(String name, EventType type, String text, String auxA, String auxB,
+                                    int intA, int intB, long timestamp) {
+                    restoreEvent(name, type, text, auxA, auxB, intA, intB, timestamp);
+                }
+                
+                @Override
+                public void onClear() {
+                    resetAggregates();
+                }
+            });
+            if (consoleOutput && journal.getReplayedEvents() > 0) {
+                eventLogger.accept(String.format("Restored %d events from %s in %.1f ms",
+                    journal.getReplayedEvents(), path, journal.getReplayNanos() / 1e6));
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("⚠️ Analytics journal unavailable (" + path + "): " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Flush and close the journal, if one is open
+     */
+    public void closeJournal() {
+        AnalyticsJournal current = journal;
+        journal = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+    
+    public AnalyticsJournal getJournal() {
+        return journal;
+    }
+    
+    /**
+     * Re-apply one journaled event: the same bookkeeping the logging methods do, minus the console
+     */
+    private void restoreEvent(String name, EventType type, String text, String auxA, String auxB,
+                              int intA, int intB, long timestamp) {
+        eventStore.append(name, type, text, auxA, auxB, intA, intB, timestamp);
+        sketches.recordCharacter(name);
+        
+        boolean structured = text == null;
+        if (type == EventType.ITEM_FOUND && structured) {
+            sketches.recordItem(auxA);
+            if (!approximateMode) {
+                characterInventories.computeIfAbsent(name, k -> Collections.synchronizedList(new ArrayList<>()))
+                                   .add(auxA);
+            }
+            return; // logItemCollection does not count towards eventCounter
+        }
+        if (isBattleType(type) && structured) {
+            sketches.recordBattle(auxA, intA, intB);
+            if (!approximateMode) {
+                battleHistory.add(new BattleRecord(name, auxA, type == EventType.BATTLE_WON, intA, intB));
+            }
+        }
+        eventCounter.incrementAndGet();
+    }
+    
+    // === DEFERRED FORMATTING ===
+    
+    /**
+     * Render the description of a stored event. Structured events are formatted here, not when logged
+     */
+    private String describe(long sequence) {
+        String text = eventStore.text(sequence);
+        if (text != null) {
+            return text;
+        }
+        return describe(eventStore.name(sequence), eventStore.type(sequence), eventStore.auxA(sequence),
+                        eventStore.auxB(sequence), eventStore.intA(sequence), eventStore.intB(sequence));
+    }
+    
+    private static String describe(String name, EventType type, String auxA, String auxB, int intA, int intB) {
+        return switch (type) {
+            case MOVEMENT -> "Moved to (" + intA + ", " + intB + ")";
+            case BATTLE_WON, BATTLE_LOST -> String.format("%s vs %s - %s! (Dealt: %d, Received: %d)",
+                name, auxA, type == EventType.BATTLE_WON ? "Victory" : "Defeat", intA, intB);
+            case ITEM_FOUND -> "Collected: " + auxA + " from " + auxB;
+            default -> "";
+        };
+    }
+    
+    private static LocalDateTime toLocalTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    /**
+     * Materialize a stored event for stream-based analytics. Copies the raw columns only;
+     * nothing is formatted until the event is rendered
+     */
+    private GameEvent toGameEvent(long sequence) {
+        String text = eventStore.text(sequence);
+        return new GameEvent(eventStore.name(sequence), eventStore.type(sequence), text,
+                             eventStore.timestamp(sequence),
+                             text == null ? eventStore.auxA(sequence) : null,
+                             text == null ? eventStore.auxB(sequence) : null,
+                             eventStore.intA(sequence), eventStore.intB(sequence));
+    }
+    
+    /**
+     * Stream all published events in logging order, materializing each one lazily. Queries that
+     * only count or filter by name, type or time should read the store columns instead
+     */
+    private Stream<GameEvent> eventStream() {
+        return LongStream.range(0, eventStore.size())
+            .filter(eventStore::isPublished)
+            .mapToObj(this::toGameEvent);
     }
     
     // === LAMBDA-BASED ANALYTICS METHODS ===
@@ -179,29 +531,27 @@ public class GameAnalytics {
      * Get character statistics using streams and lambda expressions
      */
     public CharacterStats getCharacterStats(String characterName) {
-        // Filter events for this character
-        List<GameEvent> characterEvents = eventLog.stream()
-            .filter(event -> event.characterName.equals(characterName))
-            .collect(Collectors.toList());
-        
-        // Count battles won/lost using streams
-        long battlesWon = characterEvents.stream()
-            .filter(event -> event.type == EventType.BATTLE_WON)
-            .count();
-        
-        long battlesLost = characterEvents.stream()
-            .filter(event -> event.type == EventType.BATTLE_LOST)
-            .count();
-        
-        // Count items collected
-        long itemsCollected = characterEvents.stream()
-            .filter(isItemEvent)
-            .count();
-        
-        // Count spells cast
-        long spellsCast = characterEvents.stream()
-            .filter(event -> event.type == EventType.SPELL_CAST)
-            .count();
+        // Count this character's events by type straight from the name and type columns
+        long battlesWon = 0;
+        long battlesLost = 0;
+        long itemsCollected = 0;
+        long spellsCast = 0;
+        for (long sequence = 0, size = eventStore.size(); sequence < size; sequence++) {
+            if (!eventStore.isPublished(sequence) || !characterName.equals(eventStore.name(sequence))) {
+                continue;
+            }
+            EventType type = eventStore.type(sequence);
+            if (type == EventType.BATTLE_WON) {
+                battlesWon++;
+            } else if (type == EventType.BATTLE_LOST) {
+                battlesLost++;
+            } else if (type == EventType.SPELL_CAST) {
+                spellsCast++;
+            }
+            if (isItemType(type)) {
+                itemsCollected++;
+            }
+        }
         
         // Calculate damage statistics from battles
         List<BattleRecord> characterBattles = battleHistory.stream()
@@ -239,53 +589,102 @@ public class GameAnalytics {
                                 totalDamageDealt, totalDamageReceived, favoriteEnemies, commonItems);
     }
     
+    // === APPROXIMATE ANALYTICS (sketch-backed, constant memory) ===
+    
+    /**
+     * Estimated number of distinct characters that have logged any event (HyperLogLog, ~1.6% error)
+     */
+    public long estimateDistinctCharacters() {
+        return sketches.distinctCharacters.estimate();
+    }
+    
+    /**
+     * Estimated number of distinct items collected (HyperLogLog, ~1.6% error)
+     */
+    public long estimateDistinctItems() {
+        return sketches.distinctItems.estimate();
+    }
+    
+    /**
+     * Estimated number of battles against an enemy type. Never underestimates (Count-Min)
+     */
+    public long estimateEnemyEncounters(String enemyType) {
+        return sketches.enemyFrequency.estimate(enemyType);
+    }
+    
+    /**
+     * Estimated number of times an item was collected. Never underestimates (Count-Min)
+     */
+    public long estimateItemCollections(String itemName) {
+        return sketches.itemFrequency.estimate(itemName);
+    }
+    
+    /**
+     * Most fought enemy types with estimated battle counts, heaviest first
+     */
+    public List<Map.Entry<String, Long>> getFrequentEnemies(int limit) {
+        return sketches.enemyFrequency.topK(limit);
+    }
+    
     /**
-     * Get top performers using stream operations
+     * Most collected items with estimated counts, heaviest first
+     */
+    public List<Map.Entry<String, Long>> getFrequentItems(int limit) {
+        return sketches.itemFrequency.topK(limit);
+    }
+    
+    /**
+     * Damage dealt per battle at quantile q (0.5 = median, 0.99 = p99), within 1% relative error
+     */
+    public double estimateDamageDealtQuantile(double q) {
+        return sketches.damageDealt.quantile(q);
+    }
+    
+    /**
+     * Damage received per battle at quantile q, within 1% relative error
+     */
+    public double estimateDamageReceivedQuantile(double q) {
+        return sketches.damageReceived.quantile(q);
+    }
+    
+    /**
+     * The live sketches, e.g. to merge with another session's analytics
+     */
+    public AnalyticsSketches getSketches() {
+        return sketches;
+    }
+    
+    /**
+     * Get top performers from a single aggregation pass
      */
     public Map<String, Object> getTopPerformers() {
-        // Get all unique character names
-        Set<String> characterNames = eventLog.stream()
-            .map(event -> event.characterName)
-            .filter(name -> !name.equals("SYSTEM"))
-            .collect(Collectors.toSet());
-        
-        // Find character with most battles won
-        Optional<String> battleChampion = characterNames.stream()
-            .max(Comparator.comparingLong(name -> 
-                eventLog.stream().filter(e -> e.characterName.equals(name) && e.type == EventType.BATTLE_WON).count()));
-        
-        // Find character with most items collected
-        Optional<String> itemCollector = characterNames.stream()
-            .max(Comparator.comparingInt(name -> 
-                characterInventories.getOrDefault(name, Collections.emptyList()).size()));
-        
-        // Find character with most spells cast
-        Optional<String> spellmaster = characterNames.stream()
-            .max(Comparator.comparingLong(name -> 
-                eventLog.stream().filter(e -> e.characterName.equals(name) && e.type == EventType.SPELL_CAST).count()));
-        
+        return topPerformers(aggregateAllEvents());
+    }
+    
+    private Map<String, Object> topPerformers(ReportAggregate totals) {
         Map<String, Object> topPerformers = new HashMap<>();
-        battleChampion.ifPresent(name -> topPerformers.put("Battle Champion", name));
-        itemCollector.ifPresent(name -> topPerformers.put("Item Collector", name));
-        spellmaster.ifPresent(name -> topPerformers.put("Spell Master", name));
-        
+        totals.leader(ReportAggregate.BATTLES_WON).ifPresent(name -> topPerformers.put("Battle Champion", name));
+        totals.leader(ReportAggregate.ITEMS_COLLECTED).ifPresent(name -> topPerformers.put("Item Collector", name));
+        totals.leader(ReportAggregate.SPELLS_CAST).ifPresent(name -> topPerformers.put("Spell Master", name));
         return topPerformers;
     }
     
     /**
-     * Get filtered event summary using predicates and streams
+     * Get filtered event summary using predicates and streams. Events reach the predicate
+     * unrendered, so name and type filters never format a description
      */
     public String getEventSummary(Predicate<GameEvent> filter, String category) {
-        List<GameEvent> filteredEvents = eventLog.stream()
+        Map<String, Long> eventsByCharacter = eventStream()
             .filter(filter)
-            .collect(Collectors.toList());
-        
-        Map<String, Long> eventsByCharacter = filteredEvents.stream()
             .collect(Collectors.groupingBy(
                 event -> event.characterName,
                 Collectors.counting()
             ));
         
+        return renderEventSummary(eventsByCharacter, category);
+    }
+    
+    private String renderEventSummary(Map<String, Long> eventsByCharacter, String category) {
         StringBuilder summary = new StringBuilder();
         summary.append("📈 ").append(category).append(" SUMMARY:\n");
         
@@ -302,9 +701,11 @@ public class GameAnalytics {
     }
     
     /**
-     * Generate comprehensive analytics report using multiple lambda expressions
+     * Generate comprehensive analytics report. All sections come from one aggregation pass
      */
     public String generateComprehensiveReport() {
+        ReportAggregate totals = aggregateAllEvents();
+        
         StringBuilder report = new StringBuilder();
         report.append("🔬 COMPREHENSIVE GAME ANALYTICS REPORT\n");
         report.append("=".repeat(50)).append("\n\n");
@@ -312,20 +713,15 @@ public class GameAnalytics {
         // Total events
         report.append("📊 OVERALL STATISTICS:\n");
         report.append("   Total Events Logged: ").append(eventCounter.get()).append("\n");
-        report.append("   Total Battles: ").append(battleHistory.size()).append("\n");
-        
-        // Battle statistics using streams
-        OptionalDouble avgDamagePerBattle = battleHistory.stream()
-            .mapToInt(battle -> battle.damageDealt)
-            .average();
+        report.append("   Total Battles: ").append(totals.battles).append("\n");
         
-        avgDamagePerBattle.ifPresent(avg -> 
-            report.append("   Average Damage Per Battle: ").append(String.format("%.1f", avg)).append("\n"));
+        if (totals.battles > 0) {
+            report.append("   Average Damage Per Battle: ")
+                  .append(String.format("%.1f", (double) totals.totalBattleDamage / totals.battles)).append("\n");
+        }
         
-        // Most common enemy using stream operations
-        battleHistory.stream()
-            .collect(Collectors.groupingBy(battle -> battle.enemyType, Collectors.counting()))
-            .entrySet().stream()
+        // Most common enemy
+        totals.enemyCounts.entrySet().stream()
             .max(Map.Entry.comparingByValue())
             .ifPresent(entry -> 
                 report.append("   Most Fought Enemy: ").append(entry.getKey())
@@ -333,16 +729,16 @@ public class GameAnalytics {
         
         report.append("\n");
         
-        // Event summaries using predefined predicates
-        report.append(getEventSummary(isBattleEvent, "BATTLE EVENTS"));
+        // Event summaries from the per-character counters
+        report.append(renderEventSummary(countsFor(totals, ReportAggregate.BATTLE_EVENTS), "BATTLE EVENTS"));
         report.append("\n");
-        report.append(getEventSummary(isItemEvent, "ITEM EVENTS"));
+        report.append(renderEventSummary(countsFor(totals, ReportAggregate.ITEM_EVENTS), "ITEM EVENTS"));
         report.append("\n");
-        report.append(getEventSummary(isMagicEvent, "MAGIC EVENTS"));
+        report.append(renderEventSummary(countsFor(totals, ReportAggregate.MAGIC_EVENTS), "MAGIC EVENTS"));
         report.append("\n");
         
         // Top performers
-        Map<String, Object> topPerformers = getTopPerformers();
+        Map<String, Object> topPerformers = topPerformers(totals);
         if (!topPerformers.isEmpty()) {
             report.append("🏆 TOP PERFORMERS:\n");
             topPerformers.forEach((category, performer) -> 
@@ -352,24 +748,75 @@ public class GameAnalytics {
         return report.toString();
     }
     
+    private Map<String, Long> countsFor(ReportAggregate totals, int slot) {
+        return totals.characterCounts.entrySet().stream()
+            .filter(entry -> entry.getValue()[slot] > 0)
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue()[slot]));
+    }
+    
+    /**
+     * Fold every stored event into one ReportAggregate. Each storage chunk is folded on its own,
+     * large logs fan the chunks out over the fork-join pool, and chunks that are full and fully
+     * published never change again, so their partials are cached for later reports
+     */
+    private ReportAggregate aggregateAllEvents() {
+        long size = eventStore.size();
+        int chunkCount = (int) ((size + AnalyticsEventStore.CHUNK_SIZE - 1) / AnalyticsEventStore.CHUNK_SIZE);
+        
+        IntStream chunks = IntStream.range(0, chunkCount);
+        if (size >= PARALLEL_REPORT_THRESHOLD) {
+            chunks = chunks.parallel();
+        }
+        
+        return chunks
+            .mapToObj(chunk -> aggregateChunk(chunk, size))
+            .collect(ReportAggregate::new, ReportAggregate::merge, ReportAggregate::merge);
+    }
+    
+    private ReportAggregate aggregateChunk(int chunk, long size) {
+        ReportAggregate cached = sealedChunkAggregates.get(chunk);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long start = (long) chunk * AnalyticsEventStore.CHUNK_SIZE;
+        long end = Math.min(size, start + AnalyticsEventStore.CHUNK_SIZE);
+        ReportAggregate partial = LongStream.range(start, end)
+            .collect(ReportAggregate::new, (aggregate, sequence) -> aggregate.accept(eventStore, sequence),
+                     ReportAggregate::merge);
+        
+        if (end - start == AnalyticsEventStore.CHUNK_SIZE && partial.unpublished == 0) {
+            sealedChunkAggregates.put(chunk, partial);
+        }
+        return partial;
+    }
+    
     /**
      * Get recent events using stream with limit
      */
     public List<String> getRecentEvents(int limit) {
-        return eventLog.stream()
-            .sorted((a, b) -> b.timestamp.compareTo(a.timestamp)) // Most recent first
-            .limit(limit)
-            .map(eventFormatter)
-            .collect(Collectors.toList());
+        // Events are stored in logging order, so walk backwards from the newest
+        List<String> recent = new ArrayList<>(Math.max(0, limit));
+        for (long sequence = eventStore.size() - 1; sequence >= 0 && recent.size() < limit; sequence--) {
+            if (eventStore.isPublished(sequence)) {
+                recent.add(eventFormatter.apply(toGameEvent(sequence)));
+            }
+        }
+        return recent;
     }
     
     /**
      * Get events by time range using stream filtering
      */
     public List<GameEvent> getEventsByTimeRange(LocalDateTime start, LocalDateTime end) {
-        return eventLog.stream()
-            .filter(event -> event.timestamp.isAfter(start) && event.timestamp.isBefore(end))
-            .sorted(Comparator.comparing(event -> event.timestamp))
+        // Compare raw epoch milliseconds; only events inside the range are materialized
+        long from = start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long to = end.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return LongStream.range(0, eventStore.size())
+            .filter(sequence -> eventStore.isPublished(sequence))
+            .filter(sequence -> eventStore.timestamp(sequence) > from && eventStore.timestamp(sequence) < to)
+            .mapToObj(this::toGameEvent)
+            .sorted(Comparator.comparingLong(event -> event.epochMillis))
             .collect(Collectors.toList());
     }
     
@@ -418,10 +865,19 @@ public class GameAnalytics {
      * Clear all analytics data
      */
     public void clearAnalytics() {
-        eventLog.clear();
+        resetAggregates();
+        if (consoleOutput) {
+            eventLogger.accept("Analytics data cleared");
+        }
+    }
+    
+    private void resetAggregates() {
+        eventStore.clear();
+        eventPublisher.discardPending();
+        sealedChunkAggregates.clear();
         battleHistory.clear();
         characterInventories.clear();
+        sketches.clear();
         eventCounter.set(0);
-        eventLogger.accept("Analytics data cleared");
     }
 }
\ No newline at end of file
@@ -21,6 +21,9 @@ public abstract class GameCharacter implements Runnable {
     protected boolean isPlayerControlled; // Whether this character is controlled by the player
     protected volatile String pendingPlayerAction; // Action waiting to be executed by player
     protected boolean caveMode; // Whether character is in cave exploration mode
+    protected SpatialIndex.Entry<GameCharacter> spatialEntry; // Position in the shared proximity index, if any
+    protected SpatialIndex<GameCharacter> spatialIndex;
+    protected WorldMap worldMap; // Bounds for movement; positions are centred on the map, (0, 0) is its middle
     
     // Constructor
     protected GameEngine gameEngine; // Reference to game engine for turn management
@@ -66,6 +69,37 @@ public abstract class GameCharacter implements Runnable {
         this.gameEngine = gameEngine;
     }
     
+    /**
+     * Register this character in a proximity index; move() keeps it up to date from then on
+     */
+    public void setSpatialIndex(SpatialIndex<GameCharacter> index) {
+        characterLock.lock();
+        try {
+            if (spatialIndex != null) {
+                spatialIndex.remove(spatialEntry);
+            }
+            spatialIndex = index;
+            spatialEntry = index == null ? null : index.insert(this, x, y);
+        } finally {
+            characterLock.unlock();
+        }
+    }
+    
+    /**
+     * Confine movement to this map from now on
+     */
+    public void setWorldMap(WorldMap worldMap) {
+        this.worldMap = worldMap;
+    }
+    
+    /**
+     * Whether a position lies on the world map (always true before a map is set)
+     */
+    public boolean isOnMap(int posX, int posY) {
+        WorldMap map = worldMap;
+        return map == null || map.contains(posX + map.getWidth() / 2, posY + map.getHeight() / 2);
+    }
+    
     public void setCaveMode(boolean caveMode) {
         this.caveMode = caveMode;
     }
@@ -95,14 +129,16 @@ public abstract class GameCharacter implements Runnable {
                 int newX = x + deltaX;
                 int newY = y + deltaY;
                 
-                // Simple boundary check (no GameWorld needed)
-                if (newX >= -10 && newX <= 10 && newY >= -10 && newY <= 10) {
+                // Stay on the world map
+                if (isOnMap(newX, newY)) {
                     x = newX;
                     y = newY;
+                    if (spatialIndex != null) {
+                        spatialIndex.move(spatialEntry, x, y);
+                    }
                     
-                    // Log movement with analytics
-                    analytics.logEvent(name, GameAnalytics.EventType.MOVEMENT, 
-                        "Moved to (" + x + ", " + y + ")");
+                    // Log movement with analytics (description is formatted lazily)
+                    analytics.logMovement(name, x, y);
                 }
             }
         } finally {
@@ -299,9 +335,17 @@ public abstract class GameCharacter implements Runnable {
     
     // Calculate distance to another character
     public double distanceTo(GameCharacter other) {
-        int dx = this.x - other.x;
-        int dy = this.y - other.y;
-        return Math.sqrt(dx * dx + dy * dy);
+        return Math.sqrt(distanceSquaredTo(other));
+    }
+    
+    // Squared distance - use for range checks, no square root needed
+    public long distanceSquaredTo(GameCharacter other) {
+        return SpatialIndex.distanceSquared(x, y, other.x, other.y);
+    }
+    
+    // True if the other character is strictly closer than range
+    public boolean isWithin(GameCharacter other, double range) {
+        return distanceSquaredTo(other) < range * range;
     }
     
     @Override
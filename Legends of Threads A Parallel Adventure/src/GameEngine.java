@@ -1,7 +1,12 @@
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -11,7 +16,8 @@ import java.util.concurrent.locks.ReentrantLock;
 public class GameEngine {
     private List<GameCharacter> characters;
     private List<Thread> characterThreads;
-    private boolean gameRunning;
+    private volatile boolean gameRunning;
+    private final CompletableFuture<Void> adventureStopped = new CompletableFuture<>(); // Completed by stopRunning()
     private Scanner scanner;
     private ReentrantLock gameLock;
     private SharedResources sharedResources;
@@ -32,11 +38,23 @@ public class GameEngine {
     private volatile boolean displayingText = false; // Prevents choice prompts during text display
     
     // Cave exploration system
-    private CaveExplorer caveExplorer;
-    private boolean caveMode = false;
+    private CaveExpedition caveExpedition;
     private boolean gameWon = false;
     private List<GameCharacter> aiCharacters;
     
+    // Proximity queries go through a spatial index that GameCharacter.move keeps current
+    private static final int SPATIAL_CELL_SIZE = 4;
+    private static final double INTERACTION_RANGE = 3.0;
+    private static final double NEARBY_RANGE = 5.0;
+    private static final int FORCED_INTERACTION_NEIGHBORS = 2;
+    private final SpatialIndex<GameCharacter> characterIndex = new SpatialIndex<>(SPATIAL_CELL_SIZE, 1024);
+    
+    // Analytics survive restarts through an on-disk journal
+    private static final String ANALYTICS_JOURNAL = "analytics.journal";
+    
+    // Enemies and items are data: content/core.content, compiled to a memory-mapped pack
+    private final ContentPack content = ContentPack.shared();
+    
     public GameEngine() {
         this.characters = new ArrayList<>();
         this.characterThreads = new ArrayList<>();
@@ -46,6 +64,7 @@ public class GameEngine {
         this.gameRounds = 0;
         this.sharedResources = new SharedResources();
         this.analytics = new GameAnalytics();
+        this.analytics.openJournal(Paths.get(ANALYTICS_JOURNAL));
         this.gameWorld = new GameWorld();
         this.playerTurn = false;
         this.gameInProgress = true;
@@ -153,6 +172,12 @@ public class GameEngine {
         thief.setGameEngine(this);
         wizard.setGameEngine(this);
         
+        // Index positions for proximity queries and keep everyone on the map
+        characters.forEach(character -> {
+            character.setSpatialIndex(characterIndex);
+            character.setWorldMap(gameWorld.getWorldMap());
+        });
+        
         System.out.println("HEROES ASSEMBLED:");
         characters.forEach(character -> {
             System.out.println("   " + character.toString());
@@ -260,28 +285,15 @@ public class GameEngine {
         }
         
         if (pathChoice == 1) {
-            // Cave exploration mode - disable background activities
-            caveMode = true;
-            gameRunning = false; // Stop background threads from printing
+            // Cave exploration runs as a foreground expedition on the console; it writes only to
+            // its own output and the background world is still silent, so no mode flags change
+            gameRunning = false;
             System.out.println("\nEntering turn-based cave exploration mode!");
             System.out.println("Background activities paused for focused exploration.");
             
-            // Disable character auto-actions and resource messages for cave mode
-            for (GameCharacter character : characters) {
-                character.setCaveMode(true);
-            }
-            sharedResources.setCaveMode(true);
-            gameWorld.setCaveMode(true);
-            
-            caveExplorer = new CaveExplorer(playerCharacter, aiCharacters, scanner);
-            gameWon = caveExplorer.exploreCave();
-            
-            // Re-enable background activities
-            for (GameCharacter character : characters) {
-                character.setCaveMode(false);
-            }
-            sharedResources.setCaveMode(false);
-            gameWorld.setCaveMode(false);
+            caveExpedition = new CaveExpedition(playerCharacter.getName() + "'s party", playerCharacter, aiCharacters,
+                                                scanner, System.out, System.nanoTime());
+            gameWon = caveExpedition.run().isVictory();
             
             if (gameWon) {
                 System.out.println("\n=== CONGRATULATIONS! YOU HAVE WON THE GAME! ===\n");
@@ -303,7 +315,6 @@ public class GameEngine {
         } else {
             // Original gameplay mode - enable background activities
             gameRunning = true;
-            caveMode = false;
             gameStartTime = System.currentTimeMillis();
             
             // Set characters to turn-based mode (similar to cave mode for AI pausing)
@@ -356,7 +367,7 @@ public class GameEngine {
                 boolean anyAlive = characters.stream().anyMatch(GameCharacter::isAlive);
                 if (!anyAlive) {
                     System.out.println("\nAll heroes have fallen! The adventure ends in tragedy...");
-                    gameRunning = false;
+                    stopRunning();
                     break;
                 }
                 
@@ -686,7 +697,7 @@ public class GameEngine {
                                 input = scanner.nextLine().trim();
                             } catch (Exception retryEx) {
                                 System.out.println("\nInput unavailable. Ending game.");
-                                gameRunning = false;
+                                stopRunning();
                                 break;
                             }
                         }
@@ -704,7 +715,7 @@ public class GameEngine {
                 } catch (Exception e) {
                     if (gameRunning) {
                         System.out.println("\nUnexpected error. Ending game gracefully.");
-                        gameRunning = false;
+                        stopRunning();
                         break;
                     }
                 }
@@ -753,7 +764,7 @@ public class GameEngine {
                     break;
                 case "quit":
                     System.out.println("User requested to end the adventure...");
-                    gameRunning = false; // This will trigger cleanup in waitForAdventureCompletion
+                    stopRunning(); // This will trigger cleanup in waitForAdventureCompletion
                     return;
                 case "":
                     // Just continue watching
@@ -778,14 +789,12 @@ public class GameEngine {
         
         // Check for nearby characters
         boolean foundInteraction = false;
-        for (GameCharacter other : characters) {
-            if (other != playerCharacter && other.isAlive() && playerCharacter.distanceTo(other) < 3.0) {
-                System.out.println(playerCharacter.getName() + " interacts with " + other.getName() + "!");
-                playerCharacter.interact(other);
-                other.interact(playerCharacter);
-                foundInteraction = true;
-                break;
-            }
+        for (GameCharacter other : nearbyCharacters(INTERACTION_RANGE)) {
+            System.out.println(playerCharacter.getName() + " interacts with " + other.getName() + "!");
+            playerCharacter.interact(other);
+            other.interact(playerCharacter);
+            foundInteraction = true;
+            break;
         }
         
         if (!foundInteraction) {
@@ -1027,28 +1036,32 @@ public class GameEngine {
      * Handle combat encounters with various enemies
      */
     private void handleCombatEncounter() {
-        String[] enemyNames = {"Goblin Raider", "Shadow Wolf", "Rogue Bandit", "Wild Troll", 
-                              "Dark Sprite", "Corrupted Bear", "Skeleton Warrior", "Ice Wraith"};
-        String enemyName = enemyNames[(int)(Math.random() * enemyNames.length)];
+        // Any enemy record in the content pack can turn up
+        int enemyCount = content.count(ContentPack.ENEMY);
+        int enemyId = enemyCount == 0 ? ContentPack.MISSING
+                                      : content.firstId(ContentPack.ENEMY) + (int)(Math.random() * enemyCount);
         
         System.out.println("\n⚔️ COMBAT ENCOUNTER!");
         textDelay();
         
-        describeCombatEnemy(enemyName);
-        
         // Create enemy with stats based on type
-        CombatEnemy enemy = createEnemy(enemyName);
+        CombatEnemy enemy = createEnemy(enemyId);
+        describeCombatEnemy(enemyId, enemy.name);
+        combat.reset();
+        combat.add(CombatKernel.PARTY, playerCharacter.getHealth(), playerCharacter.getMaxHealth(), 0);
+        combat.add(CombatKernel.ENEMIES, enemy.maxHealth, enemy.maxHealth, 0);
+        combat.setAttack(ENEMY_SLOT, enemy.attack - 2, 8, 0, CombatKernel.ARMOR_IGNORED, 0); // Vary damage
         
         System.out.println("\n⚡ Turn-based battle begins!");
         textDelay();
-        System.out.println("🎯 " + enemy.name + " - Health: " + enemy.health + "/" + enemy.maxHealth + ", Attack: " + enemy.attack);
+        System.out.println("🎯 " + enemy.name + " - Health: " + combat.getHealth(ENEMY_SLOT) + "/" + enemy.maxHealth + ", Attack: " + enemy.attack);
         textDelay();
         
         // Turn-based combat loop
         boolean playerTurn = true;
         boolean combatActive = true;
         
-        while (combatActive && playerCharacter.isAlive() && enemy.isAlive()) {
+        while (combatActive && playerCharacter.isAlive() && combat.isStanding(ENEMY_SLOT)) {
             if (playerTurn) {
                 combatActive = handlePlayerCombatTurn(enemy);
             } else {
@@ -1056,7 +1069,7 @@ public class GameEngine {
             }
             
             // Check for combat end conditions
-            if (!enemy.isAlive()) {
+            if (!combat.isStanding(ENEMY_SLOT)) {
                 handleCombatVictory(enemy);
                 combatActive = false;
             } else if (!playerCharacter.isAlive()) {
@@ -1067,7 +1080,8 @@ public class GameEngine {
             playerTurn = !playerTurn; // Switch turns
         }
         
-        gameWorld.handleCharacterAction(playerCharacter.getName(), "combat", "battled " + enemyName);
+        gameWorld.handleCharacterAction(playerCharacter.getName(), "combat", "battled " + enemy.name);
+        gameWorld.cleanseTerrain(playerCharacter.getX(), playerCharacter.getY());
     }
     
     /**
@@ -1212,53 +1226,18 @@ public class GameEngine {
     /**
      * Describe combat enemies with vivid detail
      */
-    private void describeCombatEnemy(String enemy) {
-        switch (enemy) {
-            case "Goblin Raider" -> {
-                System.out.println("🏹 A snarling goblin emerges from the shadows, wielding crude weapons!");
-                textDelay();
-                System.out.println("   Its yellow eyes gleam with malice as it circles you menacingly.");
-            }
-            case "Shadow Wolf" -> {
-                System.out.println("🐺 A massive wolf materializes from the darkness, its fur crackling with dark energy!");
-                textDelay();
-                System.out.println("   Ethereal mist swirls around its form as it bares supernatural fangs.");
-            }
-            case "Rogue Bandit" -> {
-                System.out.println("🗡️ A scarred bandit steps from behind a tree, daggers flashing in hand!");
-                textDelay();
-                System.out.println("   Their weathered face bears the cruel smile of someone who lives by violence.");
-            }
-            case "Wild Troll" -> {
-                System.out.println("👹 An enormous troll crashes through the undergrowth, club in hand!");
-                textDelay();
-                System.out.println("   Moss and lichens cover its stone-like hide as it roars a challenge.");
-            }
-            case "Dark Sprite" -> {
-                System.out.println("🧚 A malevolent fairy dances in the air, surrounded by crackling dark magic!");
-                textDelay();
-                System.out.println("   Its once-beautiful form is now twisted by shadow, eyes burning with spite.");
-            }
-            case "Corrupted Bear" -> {
-                System.out.println("🐻 A massive bear rears up on its hind legs, foam dripping from its muzzle!");
-                textDelay();
-                System.out.println("   Dark veins pulse beneath its matted fur - this beast has been tainted by evil.");
-            }
-            case "Skeleton Warrior" -> {
-                System.out.println("💀 Bones clatter as an undead warrior shambles forward, sword and shield ready!");
-                textDelay();
-                System.out.println("   Empty sockets burn with unholy fire as it raises its ancient weapons.");
-            }
-            case "Ice Wraith" -> {
-                System.out.println("❄️ A ghostly figure of living frost glides toward you, chilling the air!");
-                textDelay();
-                System.out.println("   Ice crystals form in its wake, and your breath mists in sudden cold.");
-            }
-            default -> {
-                System.out.println("⚔️ A dangerous " + enemy + " blocks your path!");
+    private void describeCombatEnemy(int enemyId, String enemy) {
+        int lines = content.textCount(enemyId, ContentPack.DESCRIPTION);
+        if (lines == 0) {
+            System.out.println("⚔️ A dangerous " + enemy + " blocks your path!");
+            textDelay();
+            System.out.println("   You must defend yourself against this hostile creature.");
+        }
+        for (int line = 0; line < lines; line++) {
+            if (line > 0) {
                 textDelay();
-                System.out.println("   You must defend yourself against this hostile creature.");
             }
+            System.out.println((line == 0 ? "" : "   ") + content.text(enemyId, ContentPack.DESCRIPTION, line));
         }
         textDelay();
     }
@@ -1545,19 +1524,19 @@ public class GameEngine {
         textDelay();
         System.out.println("   Health: " + playerCharacter.getHealth() + "/" + playerCharacter.getMaxHealth() + " | Items: " + playerCharacter.getInventory().size());
         textDelay();
+        System.out.println("   Terrain: " + gameWorld.describeTerrain(playerCharacter.getX(), playerCharacter.getY()));
+        textDelay();
         
         // Check for nearby characters with detailed descriptions
         boolean foundNearbyCharacter = false;
-        for (GameCharacter other : characters) {
-            if (other != playerCharacter && other.isAlive() && playerCharacter.distanceTo(other) < 5.0) {
-                if (!foundNearbyCharacter) {
-                    System.out.println("\n👥 Nearby Companions:");
-                    textDelay();
-                    foundNearbyCharacter = true;
-                }
-                describeNearbyCharacter(other);
+        for (GameCharacter other : nearbyCharacters(NEARBY_RANGE)) {
+            if (!foundNearbyCharacter) {
+                System.out.println("\n👥 Nearby Companions:");
                 textDelay();
+                foundNearbyCharacter = true;
             }
+            describeNearbyCharacter(other);
+            textDelay();
         }
         
         if (!foundNearbyCharacter) {
@@ -1776,8 +1755,8 @@ public class GameEngine {
      * Describe nearby characters with personality and current activity
      */
     private void describeNearbyCharacter(GameCharacter other) {
-        double distance = playerCharacter.distanceTo(other);
-        String proximity = distance < 2.0 ? "stands close by" : distance < 3.5 ? "is nearby" : "can be seen in the distance";
+        String proximity = playerCharacter.isWithin(other, 2.0) ? "stands close by"
+                         : playerCharacter.isWithin(other, 3.5) ? "is nearby" : "can be seen in the distance";
         
         System.out.println("   • " + other.getName() + " the " + other.getCharacterType() + " " + proximity + ".");
         textDelay();
@@ -1806,8 +1785,7 @@ public class GameEngine {
         textDelay();
         
         // Check what's actually available to do
-        boolean hasNearbyCharacters = characters.stream()
-            .anyMatch(c -> c != playerCharacter && c.isAlive() && playerCharacter.distanceTo(c) < 5.0);
+        boolean hasNearbyCharacters = !nearbyCharacters(NEARBY_RANGE).isEmpty();
         
         boolean hasItems = !playerCharacter.getInventory().isEmpty();
         boolean lowHealth = playerCharacter.getHealth() < playerCharacter.getMaxHealth() * 0.7;
@@ -1857,8 +1835,7 @@ public class GameEngine {
         textDelay();
         
         // Check current situation for contextual options
-        boolean hasNearbyCharacters = characters.stream()
-            .anyMatch(c -> c != playerCharacter && c.isAlive() && playerCharacter.distanceTo(c) < 5.0);
+        boolean hasNearbyCharacters = !nearbyCharacters(NEARBY_RANGE).isEmpty();
         boolean hasItems = !playerCharacter.getInventory().isEmpty();
         boolean lowHealth = playerCharacter.getHealth() < playerCharacter.getMaxHealth() * 0.7;
         
@@ -2149,7 +2126,7 @@ public class GameEngine {
                 }
                 case 10 -> {
                     System.out.println("\nEnding adventure...");
-                    gameRunning = false;
+                    stopRunning();
                 }
                 default -> {
                     System.out.println("Invalid choice. Please select a number from 1-10.");
@@ -2202,20 +2179,34 @@ public class GameEngine {
     private void forceCharacterInteractions() {
         System.out.println("\nFORCING CHARACTER INTERACTIONS...\n");
         
-        for (int i = 0; i < characters.size(); i++) {
-            for (int j = i + 1; j < characters.size(); j++) {
-                GameCharacter char1 = characters.get(i);
-                GameCharacter char2 = characters.get(j);
-                
-                if (char1.isAlive() && char2.isAlive()) {
+        // Each character meets its nearest neighbours instead of every other character
+        Set<GameCharacter> done = new HashSet<>();
+        for (GameCharacter char1 : characters) {
+            if (!char1.isAlive()) {
+                continue;
+            }
+            List<GameCharacter> neighbours = characterIndex.nearest(char1.getX(), char1.getY(),
+                                                                    FORCED_INTERACTION_NEIGHBORS + 1);
+            for (GameCharacter char2 : neighbours) {
+                if (char2 != char1 && char2.isAlive() && !done.contains(char2)) {
                     char1.interact(char2);
                     char2.interact(char1);
                 }
             }
+            done.add(char1);
         }
         System.out.println();
     }
     
+    /**
+     * Living characters other than the player strictly within range, nearest first
+     */
+    private List<GameCharacter> nearbyCharacters(double range) {
+        List<GameCharacter> nearby = characterIndex.nearby(playerCharacter.getX(), playerCharacter.getY(), range);
+        nearby.removeIf(other -> other == playerCharacter || !other.isAlive());
+        return nearby;
+    }
+    
     /**
      * Pause all character threads
      */
@@ -2281,7 +2272,7 @@ public class GameEngine {
     public void endAdventure() {
         System.out.println("\nENDING THE ADVENTURE...");
         
-        gameRunning = false;
+        stopRunning();
         
         // Stop all characters
         for (GameCharacter character : characters) {
@@ -2325,6 +2316,10 @@ public class GameEngine {
         // Stop shared resource generation
         sharedResources.stopResourceGeneration();
         
+        // Flush analytics to disk and complete event stream subscribers
+        analytics.closeJournal();
+        analytics.closeEventStream();
+        
         // Display final statistics
         displayFinalStats();
         
@@ -2371,14 +2366,17 @@ public class GameEngine {
     private void waitForAdventureCompletion() {
         System.out.println("\n🕐 Adventure will continue indefinitely - type 'quit' or 'exit' to end manually.");
         
-        // Wait for either the game to end naturally or user to quit
-        while (gameRunning) {
-            try {
-                Thread.sleep(1000); // Check every second
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+        // Announce the legend's conclusion the moment the world fires it (exactly once)
+        gameWorld.getCompletionFuture().thenAccept(winner ->
+            System.out.println("\n🏆 The legend has concluded - " + winner + " is remembered as its champion! Type 'quit' to end."));
+        
+        // Block until the game ends naturally or the user quits - no polling
+        try {
+            adventureStopped.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("⚠️ Adventure stopped unexpectedly (" + e.getCause() + ")");
         }
         
         // End the adventure and ensure all threads are properly joined
@@ -2387,6 +2385,14 @@ public class GameEngine {
         }
     }
     
+    /**
+     * Stop background activity and wake anyone waiting for the adventure to finish
+     */
+    private void stopRunning() {
+        gameRunning = false;
+        adventureStopped.complete(null);
+    }
+    
     /**
      * Graceful shutdown method - can be called from shutdown hook
      */
@@ -2395,6 +2401,8 @@ public class GameEngine {
             System.out.println("\n🛑 Shutdown requested - ending adventure gracefully...");
             endAdventure();
         }
+        gameWorld.shutdown();
+        analytics.closeJournal();
     }
     
     /**
@@ -2556,56 +2564,41 @@ public class GameEngine {
     // ===== TURN-BASED COMBAT SYSTEM =====
     
     /**
-     * Simple enemy class for turn-based combat
+     * Enemy type for turn-based combat. Live health is kept by the combat kernel
      */
     private static class CombatEnemy {
-        String name;
-        int health;
-        int maxHealth;
-        int attack;
-        String[] abilities;
+        final String name;
+        final int maxHealth;
+        final int attack;
+        final String[] abilities;
         
         CombatEnemy(String name, int health, int attack, String[] abilities) {
             this.name = name;
-            this.health = health;
             this.maxHealth = health;
             this.attack = attack;
             this.abilities = abilities;
         }
-        
-        boolean isAlive() {
-            return health > 0;
-        }
-        
-        void takeDamage(int damage) {
-            health = Math.max(0, health - damage);
-        }
     }
     
+    // Encounters are resolved by one reusable kernel: the player and a single enemy
+    private static final int PLAYER_SLOT = 0;
+    private static final int ENEMY_SLOT = 1;
+    private final CombatKernel combat = new CombatKernel(2);
+    
     /**
-     * Create enemy with stats based on enemy type
+     * Create enemy with stats and abilities from its content record
      */
-    private CombatEnemy createEnemy(String enemyName) {
-        return switch (enemyName) {
-            case "Goblin Raider" -> new CombatEnemy("Goblin Raider", 45, 12, 
-                new String[]{"Crude Slash", "Dirty Fighting", "Cowardly Retreat"});
-            case "Shadow Wolf" -> new CombatEnemy("Shadow Wolf", 60, 15, 
-                new String[]{"Shadow Bite", "Phase Strike", "Howl of Terror"});
-            case "Rogue Bandit" -> new CombatEnemy("Rogue Bandit", 55, 13, 
-                new String[]{"Quick Strike", "Thrown Dagger", "Dirty Tricks"});
-            case "Wild Troll" -> new CombatEnemy("Wild Troll", 80, 18, 
-                new String[]{"Club Smash", "Stone Throw", "Regenerate"});
-            case "Dark Sprite" -> new CombatEnemy("Dark Sprite", 35, 10, 
-                new String[]{"Dark Bolt", "Confusion", "Blink"});
-            case "Corrupted Bear" -> new CombatEnemy("Corrupted Bear", 70, 16, 
-                new String[]{"Claw Swipe", "Bear Hug", "Roar"});
-            case "Skeleton Warrior" -> new CombatEnemy("Skeleton Warrior", 50, 14, 
-                new String[]{"Bone Sword", "Shield Bash", "Undead Resilience"});
-            case "Ice Wraith" -> new CombatEnemy("Ice Wraith", 40, 11, 
-                new String[]{"Frost Touch", "Ice Shard", "Chilling Presence"});
-            default -> new CombatEnemy(enemyName, 50, 12, 
-                new String[]{"Attack", "Special Move", "Defend"});
-        };
+    private CombatEnemy createEnemy(int enemyId) {
+        if (enemyId == ContentPack.MISSING) {
+            return new CombatEnemy("Wild Beast", 50, 12, new String[]{"Attack", "Special Move", "Defend"});
+        }
+        String[] abilities = new String[Math.max(1, content.textCount(enemyId, ContentPack.ABILITY))];
+        for (int i = 0; i < abilities.length; i++) {
+            String ability = content.text(enemyId, ContentPack.ABILITY, i);
+            abilities[i] = ability != null ? ability : "Attack";
+        }
+        return new CombatEnemy(content.name(enemyId), content.stat(enemyId, ContentPack.HEALTH),
+            content.stat(enemyId, ContentPack.ATTACK), abilities);
     }
     
     /**
@@ -2615,7 +2608,7 @@ public class GameEngine {
         System.out.println("\n🗡️ YOUR TURN");
         textDelay();
         System.out.println("💗 Your Health: " + playerCharacter.getHealth() + "/" + playerCharacter.getMaxHealth());
-        System.out.println("👹 " + enemy.name + " Health: " + enemy.health + "/" + enemy.maxHealth);
+        System.out.println("👹 " + enemy.name + " Health: " + combat.getHealth(ENEMY_SLOT) + "/" + enemy.maxHealth);
         textDelay();
         
         System.out.println("\nChoose your combat action:");
@@ -2647,14 +2640,13 @@ public class GameEngine {
             
             switch (choice) {
                 case 1 -> {
-                    int damage = calculatePlayerAttackDamage();
+                    int damage = combat.strike(PLAYER_SLOT, ENEMY_SLOT, playerAttackBase(), 10, 0, CombatKernel.ARMOR_IGNORED, 0);
                     System.out.println("\n⚔️ You attack the " + enemy.name + " for " + damage + " damage!");
-                    enemy.takeDamage(damage);
                     return true;
                 }
                 case 2 -> {
                     System.out.println("\n🛡️ You raise your guard, ready to defend!");
-                    playerDefending = true;
+                    combat.guard(PLAYER_SLOT);
                     return true;
                 }
                 case 3 -> {
@@ -2671,14 +2663,13 @@ public class GameEngine {
                         textDelay();
                     }
                     
-                    int damage = calculatePlayerSpecialAttackDamage();
+                    int damage = combat.strike(PLAYER_SLOT, ENEMY_SLOT, playerSpecialAttackBase(), 12, 0, CombatKernel.ARMOR_IGNORED, 0);
                     String abilityName = getPlayerSpecialAbilityName();
                     System.out.println("✨ You unleash " + abilityName + " for " + damage + " damage!");
-                    enemy.takeDamage(damage);
                     return true;
                 }
                 case 4 -> {
-                    if (Math.random() < 0.6) {
+                    if (combat.nextInt(100) < 60) {
                         System.out.println("\n🏃 You successfully escape from combat!");
                         return false; // End combat
                     } else {
@@ -2705,20 +2696,19 @@ public class GameEngine {
         System.out.println("\n👹 " + enemy.name.toUpperCase() + "'S TURN");
         textDelay();
         
-        // Enemy chooses random ability
-        String ability = enemy.abilities[(int)(Math.random() * enemy.abilities.length)];
-        int damage = enemy.attack + (int)(Math.random() * 8) - 2; // Vary damage
+        // Enemy chooses random ability; a raised guard halves the hit
+        String ability = enemy.abilities[combat.nextInt(enemy.abilities.length)];
+        boolean defending = combat.isGuarding(PLAYER_SLOT);
+        int damage = combat.attack(ENEMY_SLOT, PLAYER_SLOT);
         
-        // Apply defending bonus if player is defending
-        if (playerDefending) {
-            damage = Math.max(1, damage / 2);
-            playerDefending = false;
+        if (defending) {
             System.out.println("🛡️ Your defense reduces the incoming damage!");
             textDelay();
         }
         
         System.out.println("💥 " + enemy.name + " uses " + ability + " for " + damage + " damage!");
         playerCharacter.takeDamage(damage);
+        combat.setHealth(PLAYER_SLOT, playerCharacter.getHealth()); // The character stays the source of truth
         textDelay();
         System.out.println("💗 Your health: " + playerCharacter.getHealth() + "/" + playerCharacter.getMaxHealth());
         textDelay();
@@ -2781,10 +2771,10 @@ public class GameEngine {
     }
     
     /**
-     * Calculate player attack damage
+     * Lowest player attack damage; rolls add 0-9
      */
-    private int calculatePlayerAttackDamage() {
-        int baseDamage = 15 + (int)(Math.random() * 10);
+    private int playerAttackBase() {
+        int baseDamage = 15;
         
         // Character-specific bonuses
         if (playerCharacter instanceof Knight) {
@@ -2799,10 +2789,10 @@ public class GameEngine {
     }
     
     /**
-     * Calculate player special attack damage
+     * Lowest player special attack damage; rolls add 0-11
      */
-    private int calculatePlayerSpecialAttackDamage() {
-        int specialDamage = 20 + (int)(Math.random() * 12);
+    private int playerSpecialAttackBase() {
+        int specialDamage = 20;
         
         // Character-specific special bonuses
         if (playerCharacter instanceof Knight) {
@@ -2830,9 +2820,6 @@ public class GameEngine {
         return "Special Attack";
     }
     
-    // Combat state tracking
-    private boolean playerDefending = false;
-    
     // ===== ITEM AND MOVEMENT DESCRIPTION SYSTEM =====
     
     /**
@@ -2865,70 +2852,15 @@ public class GameEngine {
      * Get mana restoration amount for magical items (wizards only)
      */
     private int getMagicItemManaRestore(String item) {
-        return switch (item.toLowerCase()) {
-            case "magic potion" -> 15;
-            case "crystal shard", "magic crystals" -> 8;
-            case "ancient rune stone" -> 12;
-            case "mysterious crystal" -> 10;
-            case "enchanted trinket" -> 5;
-            case "mysterious artifact", "ancient artifact" -> 7;
-            case "wisdom scroll" -> 3;
-            default -> 0;
-        };
+        return content.stat(content.find(ContentPack.ITEM, item.toLowerCase()), ContentPack.MANA, 0);
     }
     
     /**
      * Get detailed description of what an item does
      */
     private String getItemDescription(String item) {
-        return switch (item.toLowerCase()) {
-            // Healing and consumable items
-            case "healing herb", "healing potion" -> "Restores health when used in dire situations.";
-            case "magic potion" -> "Contains mysterious energies that restore magical power and enhance abilities.";
-            case "travel rations", "traveler's ration" -> "Nutritious food that sustains you during long journeys.";
-            
-            // Valuable items and currency
-            case "gold coins", "ancient gold coin", "silver coins", "silver ingots" -> "Valuable currency accepted by merchants throughout the realm.";
-            case "precious gems", "rare gem" -> "Sparkling jewels worth a small fortune to collectors.";
-            case "ancient jewelry" -> "Ornate accessories from a bygone era, highly prized by antiquarians.";
-            
-            // Magical items
-            case "crystal shard", "magic crystals" -> "Pulsing with arcane energy, useful for magical rituals.";
-            case "ancient rune stone" -> "Carved with powerful symbols that enhance magical abilities.";
-            case "lucky charm", "lucky token" -> "Brings good fortune and improves your chances of success.";
-            case "enchanted trinket" -> "A small magical item that provides subtle but useful benefits.";
-            case "mysterious crystal" -> "Glows with inner light and seems to respond to your thoughts.";
-            
-            // Information and tools
-            case "ancient map", "road map", "old map fragment" -> "Reveals hidden paths and secret locations in the world.";
-            case "wisdom scroll" -> "Contains ancient knowledge that expands your understanding.";
-            case "cryptic riddle" -> "A puzzle that may lead to greater treasures when solved.";
-            case "ancient key" -> "Opens locked doors and chests throughout your adventures.";
-            case "treasure hunter's note" -> "Contains clues about hidden caches and valuable finds.";
-            
-            // Combat and equipment
-            case "enemy weapon", "ornate weapons" -> "Well-crafted arms that give you an edge in battle.";
-            case "battle trophy" -> "A symbol of your prowess that intimidates enemies.";
-            case "traveler's cloak" -> "Provides protection from the elements during your journeys.";
-            
-            // Special artifacts
-            case "mysterious artifact", "rare artifacts", "ancient artifact" -> "An item of unknown power that scholars would pay handsomely to study.";
-            case "blessed leaf" -> "Touched by natural magic, it brings peace and wards off dark forces.";
-            case "valuable art" -> "Beautiful creations that demonstrate the skill of master artisans.";
-            case "valuable trinket" -> "A small but precious item that catches the eye of discerning buyers.";
-            
-            // Quest and special items
-            case "royal crown" -> "The crown of ancient kings, symbolizing rightful authority and power.";
-            case "dragon's treasure" -> "Hoarded wealth from a dragon's lair, immensely valuable and magical.";
-            case "stolen spellbook" -> "Contains powerful magical formulas coveted by wizards everywhere.";
-            
-            // Common finds
-            case "old coins", "shiny pebble" -> "Small treasures that accumulate into something meaningful over time.";
-            case "useful herbs" -> "Natural remedies that can be brewed into helpful concoctions.";
-            case "worn map fragment" -> "A piece of a larger map that hints at greater discoveries.";
-            
-            default -> ""; // No description for unknown items
-        };
+        String description = content.text(content.find(ContentPack.ITEM, item.toLowerCase()), ContentPack.DESCRIPTION);
+        return description != null ? description : ""; // No description for unknown items
     }
     
     /**
@@ -2997,8 +2929,9 @@ public class GameEngine {
     
     // ===== QUEST SYSTEM =====
     
-    // Active quests tracking
+    // Active quests tracking; progress lives in the trigger registry, indexed by action
     private List<Quest> activeQuests = new ArrayList<>();
+    private final QuestRegistry<Quest> questRegistry = new QuestRegistry<>();
     
     /**
      * Quest class to represent player quests with objectives and tracking
@@ -3008,47 +2941,23 @@ public class GameEngine {
         String description;
         String objective;
         String reward;
-        boolean completed;
-        int progress; // Tracks quest progress (combat wins, items found, etc.)
-        int targetProgress; // How much progress needed to complete
+        final QuestRegistry.Goal goal; // Objective compiled into typed triggers and a target count
+        QuestRegistry.Entry<Quest> entry; // Set once the quest is accepted
         
         Quest(String title, String description, String objective, String reward) {
             this.title = title;
             this.description = description;
             this.objective = objective;
             this.reward = reward;
-            this.completed = false;
-            this.progress = 0;
-            this.targetProgress = extractTargetFromObjective(objective);
-        }
-        
-        // Extract target number from objective string (e.g., "Defeat 3 enemies" -> 3)
-        private int extractTargetFromObjective(String obj) {
-            String[] words = obj.split(" ");
-            for (String word : words) {
-                try {
-                    int num = Integer.parseInt(word);
-                    return num;
-                } catch (NumberFormatException e) {
-                    // Continue looking
-                }
-            }
-            return 1; // Default target
-        }
-        
-        void addProgress(int amount) {
-            progress += amount;
-            if (progress >= targetProgress) {
-                completed = true;
-            }
+            this.goal = QuestRegistry.compile(objective);
         }
         
         boolean isCompleted() {
-            return completed;
+            return entry != null && entry.isCompleted();
         }
         
         String getProgressText() {
-            return "(" + progress + "/" + targetProgress + ")";
+            return entry != null ? entry.getProgressText() : "(0/" + goal.getRequired() + ")";
         }
         
         boolean isAccepted() {
@@ -3065,6 +2974,7 @@ public class GameEngine {
      */
     private void acceptQuest(Quest quest) {
         activeQuests.add(quest);
+        quest.entry = questRegistry.register(playerCharacter.getName(), quest, quest.goal);
         System.out.println("\n✅ Quest Accepted: " + quest.title);
         textDelay();
         System.out.println("📝 The quest has been added to your journal.");
@@ -3079,37 +2989,17 @@ public class GameEngine {
     }
     
     /**
-     * Update quest progress based on player actions
+     * Update quest progress based on player actions. Only quests whose objectives listen for
+     * this action (and, for targeted ones, name something in the details) are visited
      */
     private void updateQuestProgress(String actionType, String details) {
-        for (Quest quest : activeQuests) {
-            if (quest.isCompleted()) continue;
+        for (QuestRegistry.Advance<Quest> advance : questRegistry.record(playerCharacter.getName(), actionType, details)) {
+            Quest quest = advance.getQuest();
+            System.out.println("\n📋 Quest Progress: " + quest.title + " " + advance.getProgressText());
+            textDelay();
             
-            // Check if this action progresses any active quest
-            if (actionType.equals("combat") && quest.objective.toLowerCase().contains("defeat")) {
-                quest.addProgress(1);
-                System.out.println("\n📋 Quest Progress: " + quest.title + " " + quest.getProgressText());
-                textDelay();
-                
-                if (quest.isCompleted()) {
-                    completeQuest(quest);
-                }
-            } else if (actionType.equals("exploration") && quest.objective.toLowerCase().contains("explore")) {
-                quest.addProgress(1);
-                System.out.println("\n📋 Quest Progress: " + quest.title + " " + quest.getProgressText());
-                textDelay();
-                
-                if (quest.isCompleted()) {
-                    completeQuest(quest);
-                }
-            } else if (actionType.equals("discovery") && quest.objective.toLowerCase().contains("find")) {
-                quest.addProgress(1);
-                System.out.println("\n📋 Quest Progress: " + quest.title + " " + quest.getProgressText());
-                textDelay();
-                
-                if (quest.isCompleted()) {
-                    completeQuest(quest);
-                }
+            if (advance.isCompleting()) {
+                completeQuest(quest);
             }
         }
     }
@@ -1,5 +1,9 @@
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
@@ -11,16 +15,53 @@ import java.util.stream.Collectors;
 public class GameWorld {
     
     // === WORLD STATE ===
-    private final ReentrantReadWriteLock worldLock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock worldLock = new ReentrantReadWriteLock(); // Guards phase + crisis changes only
+    private final WorldStateShards shards; // Per-region stability, hero contributions, artifact claims
     private final AtomicInteger worldStability = new AtomicInteger(50); // 0-100 scale
     private final AtomicInteger ancientMagicFragments = new AtomicInteger(0);
     private final AtomicInteger corruptionLevel = new AtomicInteger(30);
     
     // === NARRATIVE ELEMENTS ===
-    private String currentCrisis = "The Shadow Plague spreads across the eastern villages";
-    private final List<String> worldEvents = Collections.synchronizedList(new ArrayList<>());
-    private final Map<String, Integer> regionStability = new HashMap<>();
+    private volatile String currentCrisis = "The Shadow Plague spreads across the eastern villages";
+    private final WorldEventHistory worldEvents = new WorldEventHistory(WorldEventHistory.DEFAULT_CAPACITY);
     private final Random random = new Random();
+    private final NarrativeTemplates narrative = new NarrativeTemplates(); // Compiled once per world
+    private static final ThreadLocal<StringBuilder> NARRATIVE_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    
+    // === WORLD MAP ===
+    // 10^5 x 10^5 tiles generated on demand; game coordinates are centred on the middle of the map
+    private static final long WORLD_SEED = 0x5EA1ED5EEDL;
+    private static final int WORLD_MAP_SIZE = 100_000;
+    private static final int WORLD_MAP_CACHED_CHUNKS = 256; // 256 x 12 KB of tile data
+    private final WorldMap worldMap = new WorldMap(WORLD_SEED, WORLD_MAP_SIZE, WORLD_MAP_SIZE, WORLD_MAP_CACHED_CHUNKS);
+    
+    // === CORRUPTION FIELD ===
+    // Every region is a 32x32 block of a diffusion grid; the global corruption level follows its mean
+    private static final int CORRUPTION_BLOCK_SIZE = 32;
+    private static final int CORRUPTION_COLUMNS = 6;
+    private static final long CORRUPTION_TICK_MILLIS = 2000;
+    private static final float CORRUPTED_SEEPAGE = 0.0028f; // Share of a corrupted region's level it leaks per tick
+    private static final double COMBAT_CLEANSING = 0.85;    // Share of a region's corruption one fight removes
+    private final CorruptionField corruptionField;
+    private final Map<String, Integer> regionIndex = new HashMap<>();
+    private final String[] regionNames; // Region index -> name (neutral, corrupted, then ancient sites)
+    private final int firstAncientSite;
+    private volatile long shownCorruption = -1; // Worst region and its rounded level, as last rendered
+    
+    // === REGIONAL WORLD EVENTS ===
+    // About one event per round across the realm at the start, more where corruption and heroes are
+    private static final long WORLD_EVENT_ROUND_MILLIS = 20000;
+    private static final double REGION_EVENT_RATE = 0.04; // Expected events per region per round, before modifiers
+    private static final String[] WORLD_EVENT_TYPES = {
+        "MYSTICAL_PHENOMENON", "POLITICAL_SHIFT", "NATURAL_DISASTER",
+        "MERCHANT_NEWS", "PROPHECY_FULFILLMENT", "ANCIENT_AWAKENING" // Last: ancient sites only
+    };
+    private final RegionalEvents regionalEvents; // Seeded per world; the map seed stays fixed
+    private final long[] lastRegionActions;
+    
+    // === BATTLE ARENA ===
+    // Headless skirmishes of every character thread are resolved here, off the character threads
+    private final BattleArena battleArena = new BattleArena();
     
     // === CAVE MODE SUPPORT ===
     private volatile boolean caveMode = true; // Start silent until explicitly allowed
@@ -43,35 +84,94 @@ public class GameWorld {
     };
     
     // === MAGICAL ARTIFACTS (Win Conditions) ===
-    private final Map<String, Boolean> artifacts = new HashMap<>();
     private final String[] artifactNames = {
         "Shard of Eternal Dawn", "Crown of the Void Walker", "Heart of the Ancient Dragon",
         "Codex of Forbidden Spells", "Blade of Realm-Cleaving", "Orb of Temporal Mastery"
     };
     
     // === GAME PROGRESSION TRACKING ===
-    private int gamePhase = 1; // 1: Discovery, 2: Conflict, 3: Resolution
+    private final AtomicInteger gamePhase = new AtomicInteger(1); // 1: Discovery, 2: Conflict, 3: Resolution
+    private static final int PHASE_2_CONTRIBUTIONS = 15;
+    private static final int PHASE_3_CONTRIBUTIONS = 35;
+    private static final int STABILITY_SHIFT_EVERY = 10; // Contributions between world stability shifts
+    private final AtomicBoolean victoryTriggered = new AtomicBoolean(false);
+    private final CompletableFuture<String> completion = new CompletableFuture<>(); // Completes with the winner
     private final Set<String> completedQuests = Collections.synchronizedSet(new HashSet<>());
-    private final Map<String, Integer> characterContributions = new HashMap<>();
+    
+    // === STATUS RENDERING ===
+    // Every change to displayed state bumps the version; rendered text is reused until it moves
+    private final AtomicLong stateVersion = new AtomicLong(0);
+    private volatile RenderedText statusCache = RenderedText.NONE;
+    private volatile RenderedText displayCache = RenderedText.NONE;
+    
+    /**
+     * Text rendered from the state at one version (and event count, for views that list events)
+     */
+    private static final class RenderedText {
+        static final RenderedText NONE = new RenderedText(-1, -1, null);
+        final long version;
+        final long events;
+        final String text;
+        
+        RenderedText(long version, long events, String text) {
+            this.version = version;
+            this.events = events;
+            this.text = text;
+        }
+        
+        boolean isCurrent(long version, long events) {
+            return this.version == version && this.events == events;
+        }
+    }
     
     public GameWorld() {
+        this(System.nanoTime());
+    }
+    
+    /**
+     * @param eventSeed seed for regional world events; pass the same value to replay a run's events
+     */
+    public GameWorld(long eventSeed) {
+        this.regionalEvents = new RegionalEvents(eventSeed, this::createRegionalEvent);
+        this.shards = new WorldStateShards(initialRegionStability(), artifactNames);
+        this.regionNames = shards.regions().keySet().toArray(new String[0]);
+        this.firstAncientSite = neutral_territories.length + corrupted_regions.length;
+        this.lastRegionActions = new long[regionNames.length];
+        this.corruptionField = new CorruptionField(shards.regions().size(), CORRUPTION_COLUMNS, CORRUPTION_BLOCK_SIZE);
+        initializeCorruption();
         initializeWorld();
         startWorldEvents();
+        startCorruptionTicks();
+    }
+    
+    private void initializeCorruption() {
+        for (String region : shards.regions().keySet()) {
+            int index = regionIndex.size();
+            regionIndex.put(region, index);
+            if (Arrays.asList(corrupted_regions).contains(region)) {
+                corruptionField.setRegion(index, 60, CORRUPTED_SEEPAGE);
+            } else if (Arrays.asList(ancientSites).contains(region)) {
+                corruptionField.setRegion(index, 25, 0);
+            } else {
+                corruptionField.setRegion(index, 5, 0);
+            }
+        }
+        corruptionLevel.set((int) Math.round(corruptionField.getAverageLevel()));
+    }
+    
+    private Map<String, Integer> initialRegionStability() {
+        Map<String, Integer> stability = new LinkedHashMap<>();
+        Arrays.stream(neutral_territories).forEach(region -> stability.put(region, 75));
+        Arrays.stream(corrupted_regions).forEach(region -> stability.put(region, 20));
+        Arrays.stream(ancientSites).forEach(region -> stability.put(region, 40));
+        return stability;
     }
     
     private void initializeWorld() {
-        // Initialize region stability
-        Arrays.stream(neutral_territories).forEach(region -> regionStability.put(region, 75));
-        Arrays.stream(corrupted_regions).forEach(region -> regionStability.put(region, 20));
-        Arrays.stream(ancientSites).forEach(region -> regionStability.put(region, 40));
-        
-        // Initialize artifacts as unfound
-        Arrays.stream(artifactNames).forEach(artifact -> artifacts.put(artifact, false));
-        
-        // Set initial character contributions
-        characterContributions.put("Sir Galahad", 0);
-        characterContributions.put("Shadowstep", 0);
-        characterContributions.put("Arcanum", 0);
+        // Set initial character contributions (artifacts start unclaimed)
+        shards.registerHero("Sir Galahad");
+        shards.registerHero("Shadowstep");
+        shards.registerHero("Arcanum");
         
         logWorldEvent("🌍 THE SHATTERED REALM AWAKENS", 
             "Long ago, the Great Sundering tore apart the magical essence of our world. " +
@@ -95,13 +195,9 @@ public class GameWorld {
      * Enhanced narrative logging with rich storytelling
      */
     public void logWorldEvent(String title, String description) {
-        String timestamp = java.time.LocalDateTime.now().format(
-            java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss"));
-        String formattedEvent = String.format("[%s] %s\n    %s\n", timestamp, title, description);
-        
-        worldEvents.add(formattedEvent);
+        WorldEventHistory.WorldEvent event = worldEvents.record(title, description);
         if (!caveMode) {
-            System.out.println("🌟 " + formattedEvent);
+            System.out.println("🌟 " + event.format()); // Only formatted when someone will read it
         }
     }
     
@@ -110,93 +206,29 @@ public class GameWorld {
      */
     public void logCharacterAction(String characterName, String characterType, String action, String outcome) {
         String location = getCurrentLocation(characterName);
-        String narrativeText = generateNarrativeText(characterName, characterType, action, location);
+        String narrativeText = generateNarrativeText(characterName, characterType, action, location, outcome);
         
-        logWorldEvent("📖 " + characterName + " - " + action.toUpperCase(), narrativeText + " " + outcome);
+        logWorldEvent(narrative.title(characterName, action), narrativeText);
         
-        // Update character contributions
-        characterContributions.merge(characterName, 1, Integer::sum);
+        // Update character contributions (striped counters, no lock)
+        onContributionAdded(shards.addContribution(characterName, location, 1), 1);
     }
     
     /**
-     * Generate rich narrative text based on character actions
+     * Generate rich narrative text based on character actions (precompiled templates,
+     * rendered into a per-thread builder)
      */
-    private String generateNarrativeText(String characterName, String characterType, String action, String location) {
-        Map<String, List<String>> narrativeTemplates = new HashMap<>();
-        
-        // Knight narratives
-        narrativeTemplates.put("Knight-combat", Arrays.asList(
-            "With righteous fury, %s draws their blade in %s, standing against the encroaching darkness.",
-            "The stalwart %s charges into battle at %s, their armor gleaming with divine light.",
-            "Honor guides %s's hand as they face evil forces threatening %s."
-        ));
-        
-        narrativeTemplates.put("Knight-quest", Arrays.asList(
-            "Following ancient oaths, %s embarks on a sacred mission from %s.",
-            "%s, champion of the light, seeks to fulfill a noble quest that began in %s.",
-            "The noble %s heeds the call of duty, departing from %s on a righteous path."
-        ));
-        
-        // Thief narratives
-        narrativeTemplates.put("Thief-stealth", Arrays.asList(
-            "Like a shadow dancing between moonbeams, %s moves unseen through %s.",
-            "The infamous %s melts into the darkness of %s, leaving no trace of their passage.",
-            "Silent as the grave, %s navigates the treacherous paths of %s."
-        ));
-        
-        narrativeTemplates.put("Thief-heist", Arrays.asList(
-            "With nimble fingers and sharper wit, %s orchestrates their grandest scheme in %s.",
-            "%s, master of the shadows, executes a daring heist that will be whispered about in %s for generations.",
-            "The legendary %s weaves through %s like smoke, pursuing treasures beyond imagination."
-        ));
-        
-        // Wizard narratives
-        narrativeTemplates.put("Wizard-magic", Arrays.asList(
-            "Ancient words of power flow from %s's lips, causing the very air in %s to shimmer with magical energy.",
-            "Mystic energies swirl around %s as they channel the raw forces of creation in %s.",
-            "The arcane scholar %s weaves spells of incredible complexity, transforming the essence of %s itself."
-        ));
-        
-        narrativeTemplates.put("Wizard-research", Arrays.asList(
-            "Surrounded by ancient tomes and glowing crystals, %s delves deep into forbidden knowledge at %s.",
-            "The wise %s uncovers secrets lost to time, their studies in %s revealing truths that shake the foundations of reality.",
-            "%s's relentless pursuit of arcane wisdom leads to a breakthrough that echoes through the halls of %s."
-        ));
-        
-        // Select appropriate template
-        String key = characterType + "-" + categorizeAction(action);
-        List<String> templates = narrativeTemplates.getOrDefault(key, Arrays.asList(
-            "The %s takes decisive action in %s, their deeds adding to the growing legend.",
-            "With determination burning bright, %s forges ahead in %s, shaping the destiny of the realm."
-        ));
-        
-        String template = templates.get(random.nextInt(templates.size()));
-        return String.format(template, characterName, location);
-    }
-    
-    private String categorizeAction(String action) {
-        if (action.toLowerCase().contains("battle") || action.toLowerCase().contains("combat") || 
-            action.toLowerCase().contains("fight")) {
-            return "combat";
-        } else if (action.toLowerCase().contains("quest") || action.toLowerCase().contains("mission")) {
-            return "quest";
-        } else if (action.toLowerCase().contains("steal") || action.toLowerCase().contains("sneak") ||
-                   action.toLowerCase().contains("hide")) {
-            return "stealth";
-        } else if (action.toLowerCase().contains("heist") || action.toLowerCase().contains("theft")) {
-            return "heist";
-        } else if (action.toLowerCase().contains("spell") || action.toLowerCase().contains("magic") ||
-                   action.toLowerCase().contains("enchant")) {
-            return "magic";
-        } else if (action.toLowerCase().contains("research") || action.toLowerCase().contains("study")) {
-            return "research";
-        }
-        return "general";
+    private String generateNarrativeText(String characterName, String characterType, String action,
+                                         String location, String outcome) {
+        StringBuilder text = NARRATIVE_BUFFER.get();
+        text.setLength(0);
+        narrative.renderInto(text, characterName, characterType, action, location);
+        return text.append(' ').append(outcome).toString();
     }
     
     private String getCurrentLocation(String characterName) {
         // Simple location assignment based on character progression
-        int contribution = characterContributions.getOrDefault(characterName, 0);
+        int contribution = shards.getContribution(characterName);
         
         if (contribution < 5) {
             return neutral_territories[contribution % neutral_territories.length];
@@ -210,34 +242,62 @@ public class GameWorld {
     // === GAME PROGRESSION SYSTEM ===
     
     /**
-     * Check and update game progression based on character actions
+     * Progression trigger, fired by every contribution with the exact new total. Thresholds are
+     * compared against that running counter, so nothing is rescanned and each crossing is seen
+     * by exactly one caller
+     */
+    private void onContributionAdded(long totalContributions, int amount) {
+        stateChanged();
+        long previousTotal = totalContributions - amount;
+        
+        // World stability shifts each time the total crosses a multiple of STABILITY_SHIFT_EVERY
+        if (previousTotal / STABILITY_SHIFT_EVERY != totalContributions / STABILITY_SHIFT_EVERY) {
+            updateWorldStability();
+        }
+        
+        // Phase progression
+        if (totalContributions >= PHASE_2_CONTRIBUTIONS && gamePhase.get() == 1) {
+            advancePhase(1);
+        }
+        if (totalContributions >= PHASE_3_CONTRIBUTIONS && gamePhase.get() == 2) {
+            advancePhase(2);
+        }
+    }
+    
+    /**
+     * Victory trigger, fired whenever an input of the victory conditions changes (artifact
+     * claimed, stability or corruption moved, final phase reached). O(1), and the ending
+     * fires exactly once
      */
-    public void updateGameProgression() {
+    private void checkVictoryTrigger() {
+        if (gamePhase.get() == 3 && checkVictoryConditions() && victoryTriggered.compareAndSet(false, true)) {
+            triggerGameEnding();
+        }
+    }
+    
+    /**
+     * Move from the given phase to the next one. Concurrent callers race on the CAS, so
+     * each transition (and its narrative) happens exactly once
+     */
+    private void advancePhase(int fromPhase) {
         worldLock.writeLock().lock();
         try {
-            int totalContributions = characterContributions.values().stream().mapToInt(Integer::intValue).sum();
-            
-            // Phase progression
-            if (gamePhase == 1 && totalContributions >= 15) {
+            if (!gamePhase.compareAndSet(fromPhase, fromPhase + 1)) {
+                return;
+            }
+            if (fromPhase == 1) {
                 advanceToPhase2();
-            } else if (gamePhase == 2 && totalContributions >= 35) {
+            } else {
                 advanceToPhase3();
-            } else if (gamePhase == 3 && checkVictoryConditions()) {
-                triggerGameEnding();
             }
-            
-            // World stability changes
-            if (totalContributions % 10 == 0 && totalContributions > 0) {
-                updateWorldStability();
-            }
-            
+            stateChanged(); // Crisis text changed too
         } finally {
             worldLock.writeLock().unlock();
         }
+        checkVictoryTrigger(); // Conditions may already hold on entering the final phase
     }
     
     private void advanceToPhase2() {
-        gamePhase = 2;
         currentCrisis = "The Ancient Seals begin to crack, releasing primordial chaos";
         
         logWorldEvent("🔥 PHASE 2: THE AWAKENING", 
@@ -258,7 +318,6 @@ public class GameWorld {
     }
     
     private void advanceToPhase3() {
-        gamePhase = 3;
         currentCrisis = "The Final Convergence approaches - reality itself hangs in the balance";
         
         logWorldEvent("⚔️ PHASE 3: THE CONVERGENCE", 
@@ -273,8 +332,7 @@ public class GameWorld {
     }
     
     private boolean checkVictoryConditions() {
-        long foundArtifacts = artifacts.values().stream().filter(found -> found).count();
-        return foundArtifacts >= 4 || worldStability.get() >= 90 || corruptionLevel.get() <= 5;
+        return shards.getClaimedArtifactCount() >= 4 || worldStability.get() >= 90 || corruptionLevel.get() <= 5;
     }
     
     private void triggerGameEnding() {
@@ -282,10 +340,11 @@ public class GameWorld {
         String endingNarrative = generateEndingNarrative(winner);
         
         logWorldEvent("🏁 THE LEGEND CONCLUDES", endingNarrative);
+        completion.complete(winner);
     }
     
     private String determineWinner() {
-        return characterContributions.entrySet().stream()
+        return shards.contributionSnapshot().entrySet().stream()
             .max(Map.Entry.comparingByValue())
             .map(Map.Entry::getKey)
             .orElse("The Realm itself");
@@ -303,8 +362,8 @@ public class GameWorld {
     
     private void updateWorldStability() {
         int change = random.nextInt(11) - 5; // -5 to +5
-        int newStability = Math.max(0, Math.min(100, worldStability.get() + change));
-        worldStability.set(newStability);
+        int newStability = worldStability.updateAndGet(current -> Math.max(0, Math.min(100, current + change)));
+        stateChanged();
         
         String stabilityDesc = newStability > 70 ? "flourishing" : 
                               newStability > 40 ? "balanced" : 
@@ -313,6 +372,7 @@ public class GameWorld {
         logWorldEvent("🌍 WORLD STATE UPDATE", 
             "The realm's stability shifts to " + newStability + "/100 (" + stabilityDesc + "). " +
             "The heroes' actions continue to reshape the world's destiny.");
+        checkVictoryTrigger();
     }
     
     // === WORLD EVENTS SYSTEM ===
@@ -324,8 +384,8 @@ public class GameWorld {
         Thread worldEventThread = new Thread(() -> {
             while (true) {
                 try {
-                    Thread.sleep(20000); // World event every 20 seconds
-                    generateRandomWorldEvent();
+                    Thread.sleep(WORLD_EVENT_ROUND_MILLIS);
+                    generateWorldEventRound();
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -336,69 +396,110 @@ public class GameWorld {
         worldEventThread.start();
     }
     
-    private void generateRandomWorldEvent() {
-        String[] eventTypes = {
-            "MYSTICAL_PHENOMENON", "POLITICAL_SHIFT", "NATURAL_DISASTER", 
-            "ANCIENT_AWAKENING", "MERCHANT_NEWS", "PROPHECY_FULFILLMENT"
-        };
-        
-        String eventType = eventTypes[random.nextInt(eventTypes.length)];
-        generateSpecificWorldEvent(eventType);
-        updateGameProgression();
-    }
-    
-    private void generateSpecificWorldEvent(String eventType) {
-        switch (eventType) {
-            case "MYSTICAL_PHENOMENON":
-                logWorldEvent("✨ MYSTICAL PHENOMENON", 
-                    "Strange lights dance across the sky above " + getRandomLocation() + 
-                    ". Scholars debate whether this portends great fortune or terrible doom.");
-                break;
-                
-            case "POLITICAL_SHIFT":
-                logWorldEvent("👑 REALM POLITICS", 
-                    "Word spreads that the Council of " + getRandomLocation() + 
-                    " has issued new decrees regarding magical artifacts. The political landscape shifts.");
-                break;
-                
-            case "NATURAL_DISASTER":
-                String location = getRandomLocation();
-                logWorldEvent("🌪️ NATURAL UPHEAVAL", 
-                    "A great storm ravages " + location + ", but survivors speak of strange magical energies " +
-                    "that seemed to protect certain areas. The land itself responds to the heroes' deeds.");
-                regionStability.put(location, Math.max(10, regionStability.getOrDefault(location, 50) - 15));
-                break;
-                
-            case "ANCIENT_AWAKENING":
-                logWorldEvent("🗿 ANCIENT AWAKENING", 
-                    "Deep beneath " + getRandomAncientSite() + ", something stirs. " +
-                    "The old magics recognize the changing times and respond to the heroes' presence.");
-                break;
-                
-            case "MERCHANT_NEWS":
-                logWorldEvent("💰 MERCHANT TALES", 
-                    "Traveling merchants bring news from across the realm. They speak of heroes whose " +
-                    "legends grow with each passing day, inspiring hope in these troubled times.");
-                break;
-                
-            case "PROPHECY_FULFILLMENT":
-                logWorldEvent("📜 PROPHECY UNFOLDS", 
-                    "Ancient prophecies written in the stars begin to manifest. The Shattered Realm's " +
-                    "destiny becomes clearer as the heroes' paths converge toward their ultimate fate.");
-                break;
+    /**
+     * World tick for the corruption field: one parallel diffusion step, then the global
+     * corruption level is re-read from the field
+     */
+    private void startCorruptionTicks() {
+        Thread corruptionThread = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(CORRUPTION_TICK_MILLIS);
+                    tickCorruption();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }, "CorruptionTickThread");
+        corruptionThread.setDaemon(true);
+        corruptionThread.start();
+    }
+    
+    private void tickCorruption() {
+        corruptionField.step();
+        int level = (int) Math.round(corruptionField.getAverageLevel());
+        boolean globalMoved = corruptionLevel.getAndSet(level) != level;
+        long shown = worstRegionKey();
+        if (globalMoved || shown != shownCorruption) {
+            shownCorruption = shown;
+            stateChanged(); // Only when the rendered numbers move, so cached status text survives quiet ticks
+        }
+        checkVictoryTrigger();
+    }
+    
+    /**
+     * Most corrupted region and its rounded level, packed as rendered in the world display
+     */
+    private long worstRegionKey() {
+        int worst = worstRegion();
+        return (long) worst << 32 | Math.round(corruptionField.getRegionLevel(worst));
+    }
+    
+    private int worstRegion() {
+        double[] levels = corruptionField.getRegionLevels();
+        int worst = 0;
+        for (int region = 1; region < levels.length; region++) {
+            if (levels[region] > levels[worst]) {
+                worst = region;
+            }
         }
+        return worst;
     }
     
-    private String getRandomLocation() {
-        List<String> allLocations = new ArrayList<>();
-        allLocations.addAll(Arrays.asList(ancientSites));
-        allLocations.addAll(Arrays.asList(corrupted_regions));
-        allLocations.addAll(Arrays.asList(neutral_territories));
-        return allLocations.get(random.nextInt(allLocations.size()));
+    /**
+     * One round of world events: per-region rates from local corruption and recent activity,
+     * generation in parallel on the shared executor, then the time-ordered merge is applied
+     * and logged on this thread
+     */
+    private void generateWorldEventRound() {
+        double[] rates = new double[regionNames.length];
+        for (int region = 0; region < regionNames.length; region++) {
+            long actions = shards.region(regionNames[region]).getActions();
+            long recentActions = actions - lastRegionActions[region];
+            lastRegionActions[region] = actions;
+            double corruptionFactor = 0.5 + corruptionField.getRegionLevel(region) / 50.0;  // 0.5x - 2.5x
+            double activityFactor = 1.0 + Math.min(2.0, recentActions / 5.0);              // 1x - 3x
+            rates[region] = REGION_EVENT_RATE * corruptionFactor * activityFactor;
+        }
+        
+        for (RegionalEvents.RegionEvent event : regionalEvents.generateRound(rates)) {
+            logWorldEvent(event.getTitle(), event.getDescription());
+            if (event.getType().equals("NATURAL_DISASTER")) {
+                shards.region(regionNames[event.getRegion()]).adjustStability(-15, 10);
+            }
+        }
     }
     
-    private String getRandomAncientSite() {
-        return ancientSites[random.nextInt(ancientSites.length)];
+    /**
+     * Build one event for a region. Runs on executor threads, so it only reads immutable
+     * world data and the supplied random stream
+     */
+    private RegionalEvents.RegionEvent createRegionalEvent(int region, SplittableRandom random) {
+        String location = regionNames[region];
+        boolean ancientSite = region >= firstAncientSite; // Only ancient sites can awaken
+        String eventType = WORLD_EVENT_TYPES[random.nextInt(ancientSite ? WORLD_EVENT_TYPES.length : WORLD_EVENT_TYPES.length - 1)];
+        
+        return switch (eventType) {
+            case "MYSTICAL_PHENOMENON" -> new RegionalEvents.RegionEvent(region, eventType, "✨ MYSTICAL PHENOMENON",
+                "Strange lights dance across the sky above " + location +
+                ". Scholars debate whether this portends great fortune or terrible doom.");
+            case "POLITICAL_SHIFT" -> new RegionalEvents.RegionEvent(region, eventType, "👑 REALM POLITICS",
+                "Word spreads that the Council of " + location +
+                " has issued new decrees regarding magical artifacts. The political landscape shifts.");
+            case "NATURAL_DISASTER" -> new RegionalEvents.RegionEvent(region, eventType, "🌪️ NATURAL UPHEAVAL",
+                "A great storm ravages " + location + ", but survivors speak of strange magical energies " +
+                "that seemed to protect certain areas. The land itself responds to the heroes' deeds.");
+            case "MERCHANT_NEWS" -> new RegionalEvents.RegionEvent(region, eventType, "💰 MERCHANT TALES",
+                "Traveling merchants arriving from " + location + " speak of heroes whose " +
+                "legends grow with each passing day, inspiring hope in these troubled times.");
+            case "PROPHECY_FULFILLMENT" -> new RegionalEvents.RegionEvent(region, eventType, "📜 PROPHECY UNFOLDS",
+                "Ancient prophecies written in the stars begin to manifest. The Shattered Realm's " +
+                "destiny becomes clearer as the heroes' paths converge toward their ultimate fate.");
+            default -> new RegionalEvents.RegionEvent(region, eventType, "🗿 ANCIENT AWAKENING",
+                "Deep beneath " + location + ", something stirs. " +
+                "The old magics recognize the changing times and respond to the heroes' presence.");
+        };
     }
     
     // === PUBLIC INTERFACE METHODS ===
@@ -407,7 +508,7 @@ public class GameWorld {
      * Report a major character achievement
      */
     public void reportAchievement(String characterName, String achievementType, String description) {
-        characterContributions.merge(characterName, 5, Integer::sum); // Major achievements worth more
+        long total = shards.addContribution(characterName, getCurrentLocation(characterName), 5); // Major achievements worth more
         
         logWorldEvent("🏆 LEGENDARY DEED", 
             characterName + " has achieved something remarkable! " + description + 
@@ -415,32 +516,34 @@ public class GameWorld {
         
         // Check if this triggers an artifact discovery
         if (random.nextInt(3) == 0) { // 33% chance
-            String artifact = findRandomArtifact();
+            String artifact = shards.claimRandomArtifact(characterName); // Exactly one hero per artifact
             if (artifact != null) {
-                artifacts.put(artifact, true);
                 logWorldEvent("🔮 ARTIFACT CLAIMED", 
                     "The " + artifact + " resonates with " + characterName + "'s heroic deed! " +
                     "Ancient power flows to those who prove themselves worthy.");
             }
         }
         
-        updateGameProgression();
-    }
-    
-    private String findRandomArtifact() {
-        List<String> unclaimedArtifacts = artifacts.entrySet().stream()
-            .filter(entry -> !entry.getValue())
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
-        
-        return unclaimedArtifacts.isEmpty() ? null : 
-               unclaimedArtifacts.get(random.nextInt(unclaimedArtifacts.size()));
+        onContributionAdded(total, 5);
+        checkVictoryTrigger();
     }
     
     /**
-     * Get current game status for display
+     * Get current game status for display. Rendered once per state version, without locks
      */
     public String getWorldStatus() {
+        long version = stateVersion.get();
+        RenderedText cached = statusCache;
+        if (cached.isCurrent(version, 0)) {
+            return cached.text;
+        }
+        // Tagged with the version read before rendering: any change made meanwhile bumps it again
+        String text = renderWorldStatus();
+        statusCache = new RenderedText(version, 0, text);
+        return text;
+    }
+    
+    private String renderWorldStatus() {
         return String.format(
             "🌍 SHATTERED REALM STATUS:\n" +
             "   Phase: %d/3 (%s)\n" +
@@ -449,13 +552,13 @@ public class GameWorld {
             "   Current Crisis: %s\n" +
             "   Artifacts Found: %d/%d\n" +
             "   Hero Contributions: %s",
-            gamePhase, getPhaseName(),
+            gamePhase.get(), getPhaseName(),
             worldStability.get(),
             corruptionLevel.get(),
             currentCrisis,
-            artifacts.values().stream().mapToInt(found -> found ? 1 : 0).sum(),
+            shards.getClaimedArtifactCount(),
             artifactNames.length,
-            characterContributions.entrySet().stream()
+            shards.contributionSnapshot().entrySet().stream()
                 .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
                 .map(e -> e.getKey() + "(" + e.getValue() + ")")
                 .collect(Collectors.joining(", "))
@@ -463,7 +566,7 @@ public class GameWorld {
     }
     
     private String getPhaseName() {
-        return switch (gamePhase) {
+        return switch (gamePhase.get()) {
             case 1 -> "Discovery";
             case 2 -> "Awakening";
             case 3 -> "Convergence";
@@ -475,80 +578,212 @@ public class GameWorld {
      * Check if the game has ended
      */
     public boolean isGameComplete() {
-        return gamePhase > 3 || checkVictoryConditions();
+        return completion.isDone();
+    }
+    
+    /**
+     * Completes with the winner's name once the legend concludes (exactly once)
+     */
+    public CompletableFuture<String> getCompletionFuture() {
+        return completion.copy(); // Callers can wait on it but not complete it
     }
     
     /**
      * Get the list of recent world events for display
      */
     public List<String> getRecentWorldEvents(int count) {
-        return worldEvents.stream()
-            .skip(Math.max(0, worldEvents.size() - count))
-            .collect(Collectors.toList());
+        return worldEvents.recent(count);
+    }
+    
+    /**
+     * Archive world events to a file once they fall out of the in-memory history
+     */
+    public boolean archiveWorldEvents(Path path) {
+        return worldEvents.startArchive(path);
+    }
+    
+    /**
+     * Stop archiving and flush anything still queued
+     */
+    public void closeWorldEventArchive() {
+        worldEvents.stopArchive();
     }
     
     /**
      * Get all discovered artifacts
      */
     public Map<String, Boolean> getArtifactStatus() {
-        return new HashMap<>(artifacts);
+        return shards.artifactSnapshot();
+    }
+    
+    /**
+     * The tile map of the realm
+     */
+    public WorldMap getWorldMap() {
+        return worldMap;
+    }
+    
+    /**
+     * Shared service for headless battles
+     */
+    public BattleArena getBattleArena() {
+        return battleArena;
+    }
+    
+    /**
+     * Release the world's worker pools once the adventure is over
+     */
+    public void shutdown() {
+        battleArena.shutdown();
+    }
+    
+    /**
+     * Describe the terrain at a game position, e.g. "Forest (Neutral Territory, corruption 12)"
+     */
+    public String describeTerrain(int x, int y) {
+        return worldMap.describeTile(toMapCoordinate(x), toMapCoordinate(y));
+    }
+    
+    /**
+     * A fight clears the same share of corruption from the tile it was fought on as from the
+     * region; the touched chunk is spilled to disk rather than regenerated when it is evicted
+     */
+    public void cleanseTerrain(int x, int y) {
+        int mapX = toMapCoordinate(x);
+        int mapY = toMapCoordinate(y);
+        synchronized (worldMap) {
+            int corruption = worldMap.getCorruption(mapX, mapY);
+            worldMap.setCorruption(mapX, mapY, (int) Math.round(corruption * (1 - COMBAT_CLEANSING)));
+        }
+    }
+    
+    /**
+     * Game positions are centred on the map: (0, 0) is its middle tile
+     */
+    private static int toMapCoordinate(int position) {
+        return Math.floorMod(position + WORLD_MAP_SIZE / 2, WORLD_MAP_SIZE);
+    }
+    
+    /**
+     * Current stability of one region, or -1 for an unknown region
+     */
+    public int getRegionStability(String region) {
+        WorldStateShards.RegionShard shard = shards.region(region);
+        return shard == null ? -1 : shard.getStability();
+    }
+    
+    /**
+     * Mean corruption of one region after the last world tick, or -1 for an unknown region
+     */
+    public int getRegionCorruption(String region) {
+        Integer index = regionIndex.get(region);
+        return index == null ? -1 : (int) Math.round(corruptionField.getRegionLevel(index));
     }
     
     /**
-     * Handle character actions in the world
+     * Name of the region whose corruption is currently highest
+     */
+    public String getMostCorruptedRegion() {
+        return regionNames[worstRegion()];
+    }
+    
+    /**
+     * Handle character actions in the world. Lock-free: the action lands in the acting
+     * character's region shard and global levels are adjusted with clamped atomic updates
      */
     public void handleCharacterAction(String characterName, String action, String description) {
-        worldLock.writeLock().lock();
-        try {
-            String actionText = characterName + " " + description;
-            logWorldEvent("CHARACTER ACTION", actionText);
-            
-            // Actions can affect world stability
-            switch (action.toLowerCase()) {
-                case "explore" -> {
-                    worldStability.addAndGet(1); // Exploration slightly improves stability
-                }
-                case "discover" -> {
-                    ancientMagicFragments.incrementAndGet(); // Discoveries help restore magic
-                    worldStability.addAndGet(2);
-                }
-                case "combat" -> {
-                    corruptionLevel.addAndGet(-1); // Combat reduces corruption
+        String actionText = characterName + " " + description;
+        logWorldEvent("CHARACTER ACTION", actionText);
+        
+        String location = getCurrentLocation(characterName);
+        WorldStateShards.RegionShard region = shards.region(location);
+        region.recordAction();
+        
+        // Actions can affect world and regional stability; cached text is invalidated only when
+        // a displayed number moves (stability already at 100, rests and chats leave it valid)
+        switch (action.toLowerCase()) {
+            case "explore" -> {
+                if (adjustLevel(worldStability, 1)) { // Exploration slightly improves stability
+                    stateChanged();
                 }
+                region.adjustStability(1, 0);
+            }
+            case "discover" -> {
+                ancientMagicFragments.incrementAndGet(); // Discoveries help restore magic
+                adjustLevel(worldStability, 2);
+                region.adjustStability(2, 0);
+                stateChanged();
+            }
+            case "combat" -> {
+                // Combat cleanses a share of the region's corruption; the global level follows on the next tick
+                int index = regionIndex.get(location);
+                corruptionField.applyImpulse(index, -COMBAT_CLEANSING * corruptionField.getRegionLevel(index));
             }
-            
-            // Ensure bounds
-            worldStability.set(Math.max(0, Math.min(100, worldStability.get())));
-            corruptionLevel.set(Math.max(0, Math.min(100, corruptionLevel.get())));
-            
-        } finally {
-            worldLock.writeLock().unlock();
         }
+        checkVictoryTrigger();
     }
     
     /**
-     * Display current world state for players
+     * Add delta to a 0-100 level in one atomic step (no separate bounds fix-up that could race).
+     * Returns whether the level moved
+     */
+    private static boolean adjustLevel(AtomicInteger level, int delta) {
+        int before = level.getAndUpdate(current -> clampLevel(current + delta));
+        return clampLevel(before + delta) != before;
+    }
+    
+    private static int clampLevel(int value) {
+        return Math.max(0, Math.min(100, value));
+    }
+    
+    /**
+     * Display current world state for players. Re-rendered only when the state or the event
+     * history has moved since the last display; never takes worldLock
      */
     public void displayCurrentWorldState() {
-        worldLock.readLock().lock();
-        try {
-            System.out.println("=== THE SHATTERED REALM ===");
-            System.out.println("World Stability: " + worldStability.get() + "/100");
-            System.out.println("Ancient Magic Fragments: " + ancientMagicFragments.get());
-            System.out.println("Corruption Level: " + corruptionLevel.get() + "/100");
-            System.out.println("Current Crisis: " + currentCrisis);
-            System.out.println("Game Phase: " + getPhaseName() + " (" + gamePhase + "/3)");
-            
-            // Show recent events
-            List<String> recentEvents = getRecentWorldEvents(3);
-            if (!recentEvents.isEmpty()) {
-                System.out.println("Recent Events:");
-                recentEvents.forEach(event -> System.out.println("  - " + event));
-            }
-            System.out.println("===========================");
-            
-        } finally {
-            worldLock.readLock().unlock();
+        long version = stateVersion.get();
+        long events = worldEvents.size();
+        RenderedText cached = displayCache;
+        if (!cached.isCurrent(version, events)) {
+            cached = new RenderedText(version, events, renderWorldState());
+            displayCache = cached;
         }
+        System.out.print(cached.text);
+    }
+    
+    private String renderWorldState() {
+        StringBuilder text = new StringBuilder(512);
+        text.append("=== THE SHATTERED REALM ===\n");
+        text.append("World Stability: ").append(worldStability.get()).append("/100\n");
+        text.append("Ancient Magic Fragments: ").append(ancientMagicFragments.get()).append('\n');
+        text.append("Corruption Level: ").append(corruptionLevel.get()).append("/100\n");
+        String worstRegion = getMostCorruptedRegion();
+        text.append("Most Corrupted Region: ").append(worstRegion)
+            .append(" (").append(getRegionCorruption(worstRegion)).append("/100)\n");
+        text.append("Current Crisis: ").append(currentCrisis).append('\n');
+        text.append("Game Phase: ").append(getPhaseName()).append(" (").append(gamePhase.get()).append("/3)\n");
+        
+        // Show recent events
+        List<String> recentEvents = getRecentWorldEvents(3);
+        if (!recentEvents.isEmpty()) {
+            text.append("Recent Events:\n");
+            recentEvents.forEach(event -> text.append("  - ").append(event).append('\n'));
+        }
+        text.append("===========================\n");
+        return text.toString();
+    }
+    
+    /**
+     * Record that displayed state changed, invalidating cached status text
+     */
+    private void stateChanged() {
+        stateVersion.incrementAndGet();
+    }
+    
+    /**
+     * Version of the displayed world state; changes whenever any of it does
+     */
+    public long getStateVersion() {
+        return stateVersion.get();
     }
 }
\ No newline at end of file
@@ -1,3 +1,4 @@
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -15,8 +16,14 @@ public class Knight extends GameCharacter {
     private int villagersSaved;
     private final GameWorld gameWorld;
     
+    static final int BASE_HEALTH = 120;
+    private static final int SKIRMISH_ROUNDS = 3;      // Skirmishes break off after 3-4 rounds, so about half are won
+    private static final int MAX_SKIRMISH_DAMAGE = 19; // A lost skirmish hurts, but never more than this
+    private static final int DEFAULT_ENEMY_HEALTH = 50; // For enemies without a content record
+    private static final int DEFAULT_ENEMY_ATTACK = 12;
+    
     public Knight(String name, int startX, int startY, SharedResources sharedResources, GameAnalytics analytics, GameWorld gameWorld) {
-        super(name, 120, startX, startY, sharedResources, analytics); // High health
+        super(name, BASE_HEALTH, startX, startY, sharedResources, analytics); // High health
         this.gameWorld = gameWorld;
         this.armor = 15;
         this.strength = 20;
@@ -156,39 +163,49 @@ public class Knight extends GameCharacter {
         String enemyType = analytics.getRandomEnemyType();
         printMessage("⚡ " + name + " " + challenge + " featuring " + enemyType + "!");
         
-        // Create a challenge resolution thread using lambda
-        Thread challengeThread = new Thread(() -> {
-            try {
-                inCombat = true;
-                printMessage("⚔️ " + name + " prepares for battle against " + enemyType + "...");
-                Thread.sleep(2000); // Battle duration
-                
-                int damageDealt = 15 + random.nextInt(20);
-                int damageReceived = random.nextInt(20);
-                boolean victory = random.nextBoolean();
-                
-                // Log battle using analytics
-                analytics.logBattle(name, enemyType, victory, damageDealt, damageReceived);
+        // The battle itself is resolved by the world's arena; the outcome is applied when it lands
+        inCombat = true;
+        printMessage("⚔️ " + name + " prepares for battle against " + enemyType + "...");
+        int startHealth = health;
+        ContentPack content = ContentPack.shared();
+        int enemyId = content.find(ContentPack.ENEMY, enemyType);
+        int enemyHealth = content.stat(enemyId, ContentPack.HEALTH, DEFAULT_ENEMY_HEALTH);
+        int enemyAttack = content.stat(enemyId, ContentPack.ATTACK, DEFAULT_ENEMY_ATTACK);
+        int[] weapon = CaveExplorer.PLAYER_WEAPON[CaveExplorer.KNIGHT];
+        BattleArena.Battle battle = new BattleArena.Battle(List.of(
+            new BattleArena.Combatant(CombatKernel.PARTY, startHealth, maxHealth, armor / 3,
+                                      weapon[0], weapon[1], weapon[2], CombatKernel.ARMOR_FULL),
+            new BattleArena.Combatant(CombatKernel.ENEMIES, enemyHealth, enemyHealth, 0,
+                                      enemyAttack - 2, 8, 0, CombatKernel.ARMOR_FULL)),
+            SKIRMISH_ROUNDS + random.nextInt(2), random.nextLong(), -1, 0);
+        
+        gameWorld.getBattleArena().submit(battle).thenAccept(outcome -> {
+            boolean victory = outcome.isPartyVictory();
+            int damageDealt = enemyHealth - outcome.getFinalHealth(1);
+            // Only a lost skirmish costs health; a won one is rewarded below
+            int damageReceived = victory ? 0 : Math.min(startHealth - outcome.getFinalHealth(0), MAX_SKIRMISH_DAMAGE);
+            
+            // Log battle using analytics
+            analytics.logBattle(name, enemyType, victory, damageDealt, damageReceived);
+            
+            if (victory) {
+                printMessage("✅ " + name + " emerges victorious against " + enemyType + "!");
+                honor += 3;
+                heal(10);
                 
-                if (victory) {
-                    printMessage("✅ " + name + " emerges victorious against " + enemyType + "!");
-                    honor += 3;
-                    heal(10);
-                    
-                    // Log item found as battle reward
-                    String loot = "Battle Trophy (" + enemyType + ")";
-                    addToInventory(loot);
-                    analytics.logItemCollection(name, loot, "Battle Victory");
-                } else {
-                    printMessage("💥 " + name + " takes heavy damage but fights on!");
-                    takeDamage(damageReceived);
-                }
-                inCombat = false;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                // Log item found as battle reward
+                String loot = "Battle Trophy (" + enemyType + ")";
+                addToInventory(loot);
+                analytics.logItemCollection(name, loot, "Battle Victory");
+            } else {
+                printMessage("💥 " + name + " takes heavy damage but fights on!");
+                takeDamage(damageReceived);
             }
+            inCombat = false;
+        }).exceptionally(error -> {
+            inCombat = false; // Arena shut down mid-game: the skirmish simply never happens
+            return null;
         });
-        challengeThread.start();
     }
     
     private void rest() {
@@ -270,7 +287,7 @@ public class Knight extends GameCharacter {
     
     // Knight-specific methods
     public void challenge(GameCharacter opponent) {
-        if (opponent.isAlive() && distanceTo(opponent) <= 1) {
+        if (opponent.isAlive() && distanceSquaredTo(opponent) <= 1) {
             System.out.println(name + " challenges " + opponent.getName() + " to honorable combat!");
             opponent.takeDamage(strength);
         }
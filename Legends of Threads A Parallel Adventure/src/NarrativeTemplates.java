@@ -0,0 +1,307 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * NarrativeTemplates - Precompiled narrative text for character actions
+ * Templates are split into literal and slot segments once, action keywords are matched in a
+ * single case-insensitive pass (Aho-Corasick automaton), and text is rendered straight into a
+ * caller-supplied StringBuilder, so producing a narrative line allocates nothing but the result.
+ * Characters repeat the same few actions, so each action's category and display label are
+ * resolved once and looked up by the action string afterwards.
+ */
+public class NarrativeTemplates {
+
+    // === ACTION CATEGORIES (in matching priority order) ===
+    static final int COMBAT = 0;
+    static final int QUEST = 1;
+    static final int STEALTH = 2;
+    static final int HEIST = 3;
+    static final int MAGIC = 4;
+    static final int RESEARCH = 5;
+    static final int GENERAL = 6;
+    private static final String[] CATEGORY_NAMES = {
+        "combat", "quest", "stealth", "heist", "magic", "research", "general"
+    };
+
+    private static final String[][] CATEGORY_KEYWORDS = {
+        {"battle", "combat", "fight"},
+        {"quest", "mission"},
+        {"steal", "sneak", "hide"},
+        {"heist", "theft"},
+        {"spell", "magic", "enchant"},
+        {"research", "study"}
+    };
+
+    // === CHARACTER TYPES ===
+    private static final String[] CHARACTER_TYPES = {"Knight", "Thief", "Wizard"};
+
+    private static final String[] GENERAL_TEMPLATES = {
+        "The %s takes decisive action in %s, their deeds adding to the growing legend.",
+        "With determination burning bright, %s forges ahead in %s, shaping the destiny of the realm."
+    };
+
+    /**
+     * One template, split at its %s markers. Slot 0 is the character, slot 1 the location
+     */
+    static final class CompiledTemplate {
+        private final String[] literals; // literals.length == slots.length + 1
+        private final int[] slots;
+
+        CompiledTemplate(String source) {
+            List<String> parts = new ArrayList<>();
+            int from = 0;
+            int marker;
+            while ((marker = source.indexOf("%s", from)) >= 0) {
+                parts.add(source.substring(from, marker));
+                from = marker + 2;
+            }
+            parts.add(source.substring(from));
+            this.literals = parts.toArray(new String[0]);
+            this.slots = new int[literals.length - 1];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = Math.min(i, 1); // Same argument order String.format used
+            }
+        }
+
+        void renderInto(StringBuilder out, String characterName, String location) {
+            out.append(literals[0]);
+            for (int i = 0; i < slots.length; i++) {
+                out.append(slots[i] == 0 ? characterName : location);
+                out.append(literals[i + 1]);
+            }
+        }
+    }
+
+    // [character type][category] -> candidate templates
+    private final CompiledTemplate[][][] table = new CompiledTemplate[CHARACTER_TYPES.length][GENERAL + 1][];
+    private final CompiledTemplate[] generalTemplates;
+
+    // Keyword automaton over 'a'..'z'
+    private int[][] transitions;
+    private int[] matchedCategory; // Best (lowest) category matched on reaching each state
+
+    // Actions seen so far; bounded so free-form action text cannot grow it forever
+    private static final int MAX_CACHED_ACTIONS = 1024;
+    private static final int MAX_CACHED_TITLES = 256; // Per action, one per character
+    private final ConcurrentHashMap<String, CompiledAction> actions = new ConcurrentHashMap<>();
+
+    /**
+     * An action string resolved once: its category, its upper-case label and the event titles
+     * built from it so far
+     */
+    static final class CompiledAction {
+        final int category;
+        final String label;
+        final ConcurrentHashMap<String, String> titles = new ConcurrentHashMap<>();
+
+        CompiledAction(int category, String label) {
+            this.category = category;
+            this.label = label;
+        }
+    }
+
+    public NarrativeTemplates() {
+        generalTemplates = compileAll(GENERAL_TEMPLATES);
+        for (CompiledTemplate[][] byCategory : table) {
+            Arrays.fill(byCategory, generalTemplates);
+        }
+
+        // Knight narratives
+        register("Knight", COMBAT,
+            "With righteous fury, %s draws their blade in %s, standing against the encroaching darkness.",
+            "The stalwart %s charges into battle at %s, their armor gleaming with divine light.",
+            "Honor guides %s's hand as they face evil forces threatening %s.");
+        register("Knight", QUEST,
+            "Following ancient oaths, %s embarks on a sacred mission from %s.",
+            "%s, champion of the light, seeks to fulfill a noble quest that began in %s.",
+            "The noble %s heeds the call of duty, departing from %s on a righteous path.");
+
+        // Thief narratives
+        register("Thief", STEALTH,
+            "Like a shadow dancing between moonbeams, %s moves unseen through %s.",
+            "The infamous %s melts into the darkness of %s, leaving no trace of their passage.",
+            "Silent as the grave, %s navigates the treacherous paths of %s.");
+        register("Thief", HEIST,
+            "With nimble fingers and sharper wit, %s orchestrates their grandest scheme in %s.",
+            "%s, master of the shadows, executes a daring heist that will be whispered about in %s for generations.",
+            "The legendary %s weaves through %s like smoke, pursuing treasures beyond imagination.");
+
+        // Wizard narratives
+        register("Wizard", MAGIC,
+            "Ancient words of power flow from %s's lips, causing the very air in %s to shimmer with magical energy.",
+            "Mystic energies swirl around %s as they channel the raw forces of creation in %s.",
+            "The arcane scholar %s weaves spells of incredible complexity, transforming the essence of %s itself.");
+        register("Wizard", RESEARCH,
+            "Surrounded by ancient tomes and glowing crystals, %s delves deep into forbidden knowledge at %s.",
+            "The wise %s uncovers secrets lost to time, their studies in %s revealing truths that shake the foundations of reality.",
+            "%s's relentless pursuit of arcane wisdom leads to a breakthrough that echoes through the halls of %s.");
+
+        buildKeywordAutomaton();
+    }
+
+    private void register(String characterType, int category, String... templates) {
+        table[typeIndex(characterType)][category] = compileAll(templates);
+    }
+
+    private static CompiledTemplate[] compileAll(String[] sources) {
+        CompiledTemplate[] compiled = new CompiledTemplate[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            compiled[i] = new CompiledTemplate(sources[i]);
+        }
+        return compiled;
+    }
+
+    private static int typeIndex(String characterType) {
+        for (int i = 0; i < CHARACTER_TYPES.length; i++) {
+            if (CHARACTER_TYPES[i].equals(characterType)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ===============================================
+    // KEYWORD MATCHING
+    // ===============================================
+
+    private void buildKeywordAutomaton() {
+        // Trie of all keywords
+        List<int[]> next = new ArrayList<>();
+        List<Integer> category = new ArrayList<>();
+        next.add(newRow());
+        category.add(GENERAL);
+        for (int c = 0; c < CATEGORY_KEYWORDS.length; c++) {
+            for (String keyword : CATEGORY_KEYWORDS[c]) {
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int letter = keyword.charAt(i) - 'a';
+                    if (next.get(state)[letter] < 0) {
+                        next.get(state)[letter] = next.size();
+                        next.add(newRow());
+                        category.add(GENERAL);
+                    }
+                    state = next.get(state)[letter];
+                }
+                category.set(state, Math.min(category.get(state), c));
+            }
+        }
+
+        // Breadth-first failure links, folded into a full transition table
+        int states = next.size();
+        transitions = next.toArray(new int[0][]);
+        matchedCategory = new int[states];
+        int[] failure = new int[states];
+        for (int s = 0; s < states; s++) {
+            matchedCategory[s] = category.get(s);
+        }
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int letter = 0; letter < 26; letter++) {
+            int child = transitions[0][letter];
+            if (child < 0) {
+                transitions[0][letter] = 0;
+            } else {
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matchedCategory[state] = Math.min(matchedCategory[state], matchedCategory[failure[state]]);
+            for (int letter = 0; letter < 26; letter++) {
+                int child = transitions[state][letter];
+                if (child < 0) {
+                    transitions[state][letter] = transitions[failure[state]][letter];
+                } else {
+                    failure[child] = transitions[failure[state]][letter];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[26];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * Category of an action in one pass over its characters, ignoring case. When keywords of
+     * several categories appear, the earliest category in priority order wins
+     */
+    public int categorize(String action) {
+        int state = 0;
+        int best = GENERAL;
+        for (int i = 0; i < action.length(); i++) {
+            char c = action.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c < 'a' || c > 'z') {
+                state = 0; // Keywords are letters only
+                continue;
+            }
+            state = transitions[state][c - 'a'];
+            if (matchedCategory[state] < best) {
+                best = matchedCategory[state];
+                if (best == COMBAT) {
+                    break; // Highest priority, nothing can beat it
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Category and label of an action, matched on first sight and cached after that
+     */
+    CompiledAction compile(String action) {
+        CompiledAction compiled = actions.get(action);
+        if (compiled == null) {
+            compiled = new CompiledAction(categorize(action), action.toUpperCase());
+            if (actions.size() < MAX_CACHED_ACTIONS) {
+                actions.putIfAbsent(action, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * World event title for a character's action, e.g. "📖 Sir Galahad - EPIC BATTLE". Built
+     * once per character and action
+     */
+    public String title(String characterName, String action) {
+        CompiledAction compiled = compile(action);
+        String title = compiled.titles.get(characterName);
+        if (title == null) {
+            title = "📖 " + characterName + " - " + compiled.label;
+            if (compiled.titles.size() < MAX_CACHED_TITLES) {
+                compiled.titles.putIfAbsent(characterName, title);
+            }
+        }
+        return title;
+    }
+
+    public static String categoryName(int category) {
+        return CATEGORY_NAMES[category];
+    }
+
+    // ===============================================
+    // RENDERING
+    // ===============================================
+
+    /**
+     * Append a randomly chosen narrative line for this character and action to out
+     */
+    public void renderInto(StringBuilder out, String characterName, String characterType,
+                           String action, String location) {
+        int type = typeIndex(characterType);
+        CompiledTemplate[] candidates = type < 0 ? generalTemplates : table[type][compile(action).category];
+        candidates[ThreadLocalRandom.current().nextInt(candidates.length)].renderInto(out, characterName, location);
+    }
+}
@@ -0,0 +1,1375 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * PerformanceBenchmarks - Standalone measurements for the game's hot paths
+ * Run with: java -cp bin PerformanceBenchmarks [section]
+ * With no argument every section runs in order.
+ */
+public class PerformanceBenchmarks {
+
+    public static void main(String[] args) {
+        String section = args.length > 0 ? args[0].toLowerCase() : "all";
+        System.out.println("=== LEGENDS OF THREADS - PERFORMANCE BENCHMARKS ===\n");
+
+        if (section.equals("all") || section.equals("analytics")) {
+            benchmarkAnalyticsLogging();
+        }
+        if (section.equals("all") || section.equals("report")) {
+            benchmarkComprehensiveReport();
+        }
+        if (section.equals("all") || section.equals("journal")) {
+            benchmarkAnalyticsJournal();
+        }
+        if (section.equals("all") || section.equals("stream")) {
+            benchmarkEventStream();
+        }
+        if (section.equals("all") || section.equals("sketches")) {
+            benchmarkSketches();
+        }
+        if (section.equals("all") || section.equals("world")) {
+            benchmarkWorldActions();
+        }
+        if (section.equals("all") || section.equals("narrative")) {
+            benchmarkNarrative();
+        }
+        if (section.equals("all") || section.equals("history")) {
+            benchmarkWorldEventHistory();
+        }
+        if (section.equals("all") || section.equals("spatial")) {
+            benchmarkSpatialIndex();
+        }
+        if (section.equals("all") || section.equals("map")) {
+            benchmarkWorldMap();
+        }
+        if (section.equals("all") || section.equals("corruption")) {
+            benchmarkCorruptionField();
+        }
+        if (section.equals("all") || section.equals("status")) {
+            benchmarkWorldStatus();
+        }
+        if (section.equals("all") || section.equals("events")) {
+            benchmarkRegionalEvents();
+        }
+        if (section.equals("all") || section.equals("combat")) {
+            benchmarkCombatKernel();
+        }
+        if (section.equals("all") || section.equals("balance")) {
+            benchmarkBalanceSimulator();
+        }
+        if (section.equals("all") || section.equals("content")) {
+            benchmarkContentPack();
+        }
+        if (section.equals("all") || section.equals("arena")) {
+            benchmarkBattleArena();
+        }
+        if (section.equals("all") || section.equals("planner")) {
+            benchmarkCombatPlanner();
+        }
+        if (section.equals("all") || section.equals("boss")) {
+            benchmarkBossSolver();
+        }
+        if (section.equals("all") || section.equals("caves")) {
+            benchmarkCaveGeneration();
+        }
+        if (section.equals("all") || section.equals("paths")) {
+            benchmarkCavePathfinding();
+        }
+        if (section.equals("all") || section.equals("expeditions")) {
+            benchmarkExpeditions();
+        }
+        if (section.equals("all") || section.equals("quests")) {
+            benchmarkQuestTriggers();
+        }
+    }
+
+    // ===============================================
+    // ANALYTICS LOGGING
+    // ===============================================
+
+    /**
+     * Measure throughput and bytes allocated per logged movement with console output off
+     */
+    private static void benchmarkAnalyticsLogging() {
+        final int events = 2_000_000;
+        GameAnalytics analytics = new GameAnalytics();
+        analytics.setConsoleOutput(false);
+
+        // Warm up so the JIT has compiled the logging path
+        for (int i = 0; i < events; i++) {
+            analytics.logMovement("Sir Galahad", i & 15, i & 7);
+        }
+        analytics.clearAnalytics();
+
+        long allocatedBefore = threadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            analytics.logMovement("Sir Galahad", i & 15, i & 7);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadAllocatedBytes() - allocatedBefore;
+
+        System.out.println("ANALYTICS LOGGING (" + events + " movement events, console off):");
+        System.out.printf("   Throughput: %,.0f events/sec%n", events / (elapsed / 1e9));
+        if (allocatedBefore >= 0) {
+            // Chunk storage itself is included, so this is the amortized per-event cost
+            System.out.printf("   Allocation: %.2f bytes/event%n", (double) allocated / events);
+        } else {
+            System.out.println("   Allocation: not measurable on this JVM");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Time the comprehensive report over 10^7 events, cold and then with cached chunk partials
+     */
+    private static void benchmarkComprehensiveReport() {
+        final int events = 10_000_000;
+        String[] heroes = {"Sir Galahad", "Shadowstep", "Arcanum"};
+        GameAnalytics analytics = new GameAnalytics();
+        analytics.setConsoleOutput(false);
+
+        for (int i = 0; i < events; i++) {
+            String hero = heroes[i % heroes.length];
+            switch (i & 63) {
+                case 0 -> analytics.logBattle(hero, analytics.getRandomEnemyType(), (i & 64) == 0, 20, 5);
+                case 1 -> analytics.logItemCollection(hero, "Mana Crystal", "Benchmark");
+                case 2, 3 -> analytics.logEvent(hero, GameAnalytics.EventType.SPELL_CAST, "Cast a spell");
+                default -> analytics.logMovement(hero, i & 15, i & 7);
+            }
+        }
+
+        long start = System.nanoTime();
+        analytics.generateComprehensiveReport();
+        long cold = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        analytics.generateComprehensiveReport();
+        long warm = System.nanoTime() - start;
+
+        System.out.println("COMPREHENSIVE REPORT (" + events + " events, "
+            + Runtime.getRuntime().availableProcessors() + " cores):");
+        System.out.printf("   First report:    %,d ms (%,.0f events/sec)%n", cold / 1_000_000, events / (cold / 1e9));
+        System.out.printf("   Repeated report: %,d ms (sealed chunks served from cache)%n", warm / 1_000_000);
+        System.out.println();
+    }
+
+    /**
+     * Measure journal write throughput (background thread) and startup replay speed
+     */
+    private static void benchmarkAnalyticsJournal() {
+        final int events = 2_000_000;
+        String[] heroes = {"Sir Galahad", "Shadowstep", "Arcanum"};
+        Path file = null;
+        try {
+            file = Files.createTempFile("analytics-benchmark", ".journal");
+            Files.delete(file);
+
+            GameAnalytics writer = new GameAnalytics();
+            writer.setConsoleOutput(false);
+            writer.openJournal(file);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                String hero = heroes[i % heroes.length];
+                if ((i & 31) == 0) {
+                    writer.logBattle(hero, writer.getRandomEnemyType(), (i & 32) == 0, 18, 6);
+                } else {
+                    writer.logMovement(hero, i & 15, i & 7);
+                }
+            }
+            writer.getJournal().awaitDrained(60_000);
+            long writeNanos = System.nanoTime() - start;
+            long bytes = writer.getJournal().getBytesWritten();
+            writer.closeJournal();
+
+            GameAnalytics reader = new GameAnalytics();
+            reader.setConsoleOutput(false);
+            reader.openJournal(file);
+            AnalyticsJournal replayed = reader.getJournal();
+
+            System.out.println("ANALYTICS JOURNAL (" + events + " events):");
+            System.out.printf("   Write: %,.0f events/sec, %.1f bytes/event, %.1f MB/s%n",
+                events / (writeNanos / 1e9), (double) bytes / events, bytes / (writeNanos / 1e9) / 1e6);
+            System.out.printf("   Replay: %,d events in %,d ms (%,.0f events/sec, %.1f MB/s)%n",
+                replayed.getReplayedEvents(), replayed.getReplayNanos() / 1_000_000,
+                replayed.getReplayedEvents() / (replayed.getReplayNanos() / 1e9),
+                bytes / (replayed.getReplayNanos() / 1e9) / 1e6);
+            reader.closeJournal();
+        } catch (IOException e) {
+            System.out.println("ANALYTICS JOURNAL: skipped (" + e.getMessage() + ")");
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Temporary file, nothing else to do
+                }
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Log with a deliberately slow stream subscriber attached and compare against no subscriber.
+     * logEvent must not slow down; the slow subscriber just drops its oldest buffered events
+     */
+    private static void benchmarkEventStream() {
+        final int events = 1_000_000;
+        GameAnalytics analytics = new GameAnalytics();
+        analytics.setConsoleOutput(false);
+
+        long baseline = timeMovements(analytics, events);
+
+        AtomicLong slowReceived = new AtomicLong();
+        AtomicLong battleReceived = new AtomicLong();
+        CountDownLatch completed = new CountDownLatch(2);
+        analytics.getEventPublisher().subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+            public void onNext(GameAnalytics.GameEvent event) {
+                slowReceived.incrementAndGet();
+                try {
+                    Thread.sleep(1); // A dashboard that cannot keep up
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                subscription.request(1);
+            }
+            public void onError(Throwable error) { completed.countDown(); }
+            public void onComplete() { completed.countDown(); }
+        });
+        analytics.getEventPublisher(EnumSet.of(GameAnalytics.EventType.BATTLE_WON), null, 128)
+            .subscribe(new Flow.Subscriber<>() {
+                public void onSubscribe(Flow.Subscription subscription) { subscription.request(Long.MAX_VALUE); }
+                public void onNext(GameAnalytics.GameEvent event) { battleReceived.incrementAndGet(); }
+                public void onError(Throwable error) { completed.countDown(); }
+                public void onComplete() { completed.countDown(); }
+            });
+
+        long withSubscribers = timeMovements(analytics, events);
+        for (int i = 0; i < 100; i++) {
+            analytics.logBattle("Sir Galahad", "Shadow Wolf", true, 20, 4);
+        }
+        analytics.closeEventStream();
+        try {
+            completed.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.println("ANALYTICS EVENT STREAM (" + events + " movement events):");
+        System.out.printf("   No subscribers:        %,.0f events/sec%n", events / (baseline / 1e9));
+        System.out.printf("   Slow + filtered subs:  %,.0f events/sec%n", events / (withSubscribers / 1e9));
+        System.out.printf("   Slow subscriber received %,d, dropped %,d (buffer %d)%n",
+            slowReceived.get(), analytics.getDroppedStreamEvents(), AnalyticsEventPublisher.DEFAULT_BUFFER_CAPACITY);
+        System.out.printf("   Battle-only subscriber received %,d of 100 battles, 0 movements buffered%n",
+            battleReceived.get());
+        System.out.println();
+    }
+
+    /**
+     * Log a long approximate-mode session and compare sketch answers with exact values
+     */
+    private static void benchmarkSketches() {
+        final int battles = 2_000_000;
+        final int characters = 50_000;
+        GameAnalytics analytics = new GameAnalytics();
+        analytics.setConsoleOutput(false);
+        analytics.setApproximateMode(true);
+
+        Random random = new Random(42);
+        int[] dealt = new int[battles];
+        long[] exactEnemyCounts = new long[analytics.getAllEnemyTypes().size()];
+        List<String> enemies = analytics.getAllEnemyTypes();
+        String[] heroes = new String[characters];
+        for (int i = 0; i < characters; i++) {
+            heroes[i] = "Hero-" + i;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < battles; i++) {
+            // Skewed enemy mix so there are real heavy hitters
+            int enemy = Math.min(enemies.size() - 1, (int) (-Math.log(1 - random.nextDouble()) * 2));
+            dealt[i] = 1 + (int) (-Math.log(1 - random.nextDouble()) * 20);
+            exactEnemyCounts[enemy]++;
+            analytics.logBattle(heroes[i % characters], enemies.get(enemy), true, dealt[i], 5);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(dealt);
+        int topEnemy = 0;
+        for (int i = 1; i < exactEnemyCounts.length; i++) {
+            if (exactEnemyCounts[i] > exactEnemyCounts[topEnemy]) {
+                topEnemy = i;
+            }
+        }
+        Map.Entry<String, Long> frequent = analytics.getFrequentEnemies(1).get(0);
+
+        System.out.println("APPROXIMATE ANALYTICS (" + battles + " battles, " + characters + " characters):");
+        System.out.printf("   Logging with sketches: %,.0f battles/sec%n", battles / (elapsed / 1e9));
+        System.out.printf("   Distinct characters: %,d estimated vs %,d exact%n",
+            analytics.estimateDistinctCharacters(), characters);
+        System.out.printf("   Top enemy: %s ~%,d vs %s %,d exact%n", frequent.getKey(), frequent.getValue(),
+            enemies.get(topEnemy), exactEnemyCounts[topEnemy]);
+        for (double q : new double[] {0.5, 0.9, 0.99}) {
+            System.out.printf("   Damage dealt p%.0f: %.1f estimated vs %d exact%n",
+                q * 100, analytics.estimateDamageDealtQuantile(q), dealt[(int) Math.ceil(q * battles) - 1]);
+        }
+        System.out.println();
+    }
+
+    // ===============================================
+    // WORLD STATE
+    // ===============================================
+
+    /**
+     * Character action throughput against one GameWorld as the number of acting threads grows
+     */
+    private static void benchmarkWorldActions() {
+        final int actionsPerThread = 200_000;
+        String[] heroes = {"Sir Galahad", "Shadowstep", "Arcanum"};
+        String[] actions = {"explore", "discover", "combat"};
+
+        System.out.println("WORLD ACTIONS (" + actionsPerThread + " actions per thread, "
+            + Runtime.getRuntime().availableProcessors() + " cores):");
+        for (int threads : new int[] {1, 2, 4, 8}) {
+            GameWorld world = new GameWorld();
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch go = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int id = t;
+                workers[t] = new Thread(() -> {
+                    ready.countDown();
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < actionsPerThread; i++) {
+                        world.handleCharacterAction(heroes[(id + i) % heroes.length], actions[i % actions.length], "acts");
+                    }
+                });
+                workers[t].start();
+            }
+            try {
+                ready.await();
+                long start = System.nanoTime();
+                go.countDown();
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("   %d thread(s): %,.0f actions/sec%n",
+                    threads, (double) threads * actionsPerThread / (elapsed / 1e9));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Precompiled narrative rendering against the former approach: a template map rebuilt per
+     * call, repeated toLowerCase() keyword checks and String.format
+     */
+    private static void benchmarkNarrative() {
+        final int calls = 2_000_000;
+        String[] actions = {"Epic Battle", "Sacred Quest", "Sneak past guards", "Grand Heist",
+                            "Cast Spell", "Research tomes", "Rest at camp"};
+        String[] types = {"Knight", "Thief", "Wizard"};
+        NarrativeTemplates templates = new NarrativeTemplates();
+        StringBuilder out = new StringBuilder(256);
+        long sink = 0;
+
+        for (int round = 0; round < 2; round++) { // First round warms up the JIT
+            long legacyStart = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                String action = actions[i % actions.length];
+                Map<String, List<String>> rebuilt = new HashMap<>(); // Rebuilt on every call before
+                for (String[] keyed : LEGACY_TEMPLATES) {
+                    rebuilt.put(keyed[0], Arrays.asList(Arrays.copyOfRange(keyed, 1, keyed.length)));
+                }
+                List<String> candidates = rebuilt.getOrDefault(types[i % types.length] + "-" + legacyCategory(action),
+                    Arrays.asList("The %s takes decisive action in %s, their deeds adding to the growing legend."));
+                sink += String.format(candidates.get(0), "Sir Galahad", "Haven's Rest Village").length();
+            }
+            long legacy = System.nanoTime() - legacyStart;
+
+            long allocatedBefore = threadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                out.setLength(0);
+                templates.renderInto(out, "Sir Galahad", types[i % types.length], actions[i % actions.length],
+                                     "Haven's Rest Village");
+                sink += out.length();
+            }
+            long compiled = System.nanoTime() - start;
+            long allocated = threadAllocatedBytes() - allocatedBefore;
+
+            if (round == 1) {
+                System.out.println("NARRATIVE TEMPLATES (" + calls + " renders):");
+                System.out.printf("   Legacy format:   %,.0f renders/sec%n", calls / (legacy / 1e9));
+                System.out.printf("   Precompiled:     %,.0f renders/sec (%.1fx)%n",
+                    calls / (compiled / 1e9), (double) legacy / compiled);
+                if (allocatedBefore >= 0) {
+                    System.out.printf("   Allocation:      %.2f bytes/render%n", (double) allocated / calls);
+                }
+            }
+        }
+        if (sink == 42) {
+            System.out.println(); // Keeps the rendered text observable to the JIT
+        }
+        System.out.println();
+    }
+
+    private static final String[][] LEGACY_TEMPLATES = {
+        {"Knight-combat", "With righteous fury, %s draws their blade in %s.", "The stalwart %s charges into battle at %s.", "Honor guides %s's hand in %s."},
+        {"Knight-quest", "Following ancient oaths, %s embarks from %s.", "%s seeks a noble quest begun in %s.", "The noble %s departs from %s."},
+        {"Thief-stealth", "Like a shadow, %s moves unseen through %s.", "The infamous %s melts into %s.", "Silent as the grave, %s crosses %s."},
+        {"Thief-heist", "%s orchestrates a scheme in %s.", "%s executes a heist in %s.", "The legendary %s weaves through %s."},
+        {"Wizard-magic", "Words of power flow from %s in %s.", "Energies swirl around %s in %s.", "The scholar %s transforms %s."},
+        {"Wizard-research", "%s delves into knowledge at %s.", "The wise %s studies in %s.", "%s makes a breakthrough in %s."}
+    };
+
+    /**
+     * Record far more world events than the ring holds, with eviction archived to disk,
+     * then time recent-N reads
+     */
+    private static void benchmarkWorldEventHistory() {
+        final int events = 2_000_000;
+        WorldEventHistory history = new WorldEventHistory(WorldEventHistory.DEFAULT_CAPACITY);
+        Path archive = null;
+        try {
+            archive = Files.createTempFile("world-events", ".log");
+            history.startArchive(archive);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                history.record("CHARACTER ACTION", "Sir Galahad explores");
+            }
+            long recordNanos = System.nanoTime() - start;
+
+            final int reads = 100_000;
+            long sink = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < reads; i++) {
+                sink += history.recentEvents(10).size();
+            }
+            long readNanos = System.nanoTime() - start;
+            history.stopArchive();
+
+            System.out.println("WORLD EVENT HISTORY (" + events + " events, ring of " + history.capacity() + "):");
+            System.out.printf("   Record: %,.0f events/sec%n", events / (recordNanos / 1e9));
+            System.out.printf("   Recent-10 read: %,.0f ns (%d events returned)%n", (double) readNanos / reads, sink / reads);
+            System.out.printf("   Archived to disk: %,d events (%,d KB), %,d dropped by a full archive queue%n",
+                history.getArchivedEvents(), Files.size(archive) / 1024, history.getDroppedArchiveEvents());
+        } catch (IOException e) {
+            System.out.println("WORLD EVENT HISTORY: skipped (" + e.getMessage() + ")");
+        } finally {
+            if (archive != null) {
+                try {
+                    Files.deleteIfExists(archive);
+                } catch (IOException e) {
+                    // Temporary file, nothing else to do
+                }
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * 100k entities: concurrent moves, radius and k-nearest queries, against a linear scan
+     */
+    private static void benchmarkSpatialIndex() {
+        final int entities = 100_000;
+        final int span = 10_000;
+        final int threads = 4;
+        final int movesPerThread = 1_000_000;
+        SpatialIndex<Integer> index = new SpatialIndex<>(32, 1 << 16);
+        Random random = new Random(7);
+        int[] xs = new int[entities];
+        int[] ys = new int[entities];
+        List<SpatialIndex.Entry<Integer>> handles = new ArrayList<>(entities);
+        for (int i = 0; i < entities; i++) {
+            xs[i] = random.nextInt(span);
+            ys[i] = random.nextInt(span);
+            handles.add(index.insert(i, xs[i], ys[i]));
+        }
+
+        // Concurrent random walks, each thread owning a slice of the entities
+        Thread[] movers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            final int first = t * (entities / threads);
+            movers[t] = new Thread(() -> {
+                Random local = new Random(first);
+                for (int i = 0; i < movesPerThread; i++) {
+                    SpatialIndex.Entry<Integer> handle = handles.get(first + local.nextInt(entities / threads));
+                    index.move(handle, Math.floorMod(handle.getX() + local.nextInt(7) - 3, span),
+                               Math.floorMod(handle.getY() + local.nextInt(7) - 3, span));
+                }
+            });
+            movers[t].start();
+        }
+        try {
+            for (Thread mover : movers) {
+                mover.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long moveNanos = System.nanoTime() - start;
+        for (int i = 0; i < entities; i++) {
+            xs[i] = handles.get(i).getX();
+            ys[i] = handles.get(i).getY();
+        }
+
+        final int queries = 200_000;
+        long sink = 0;
+        start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            sink += index.nearby(random.nextInt(span), random.nextInt(span), 50).size();
+        }
+        long radiusNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            sink += index.nearest(random.nextInt(span), random.nextInt(span), 8).size();
+        }
+        long nearestNanos = System.nanoTime() - start;
+
+        final int scans = 500;
+        start = System.nanoTime();
+        for (int q = 0; q < scans; q++) {
+            int qx = random.nextInt(span);
+            int qy = random.nextInt(span);
+            for (int i = 0; i < entities; i++) {
+                if (SpatialIndex.distanceSquared(xs[i], ys[i], qx, qy) < 2500) {
+                    sink++;
+                }
+            }
+        }
+        long scanNanos = System.nanoTime() - start;
+
+        System.out.println("SPATIAL INDEX (" + entities + " entities, " + threads + " moving threads):");
+        System.out.printf("   Concurrent moves:     %,.0f moves/sec%n", threads * (double) movesPerThread / (moveNanos / 1e9));
+        System.out.printf("   Radius-50 queries:    %,.0f queries/sec%n", queries / (radiusNanos / 1e9));
+        System.out.printf("   8-nearest queries:    %,.0f queries/sec%n", queries / (nearestNanos / 1e9));
+        System.out.printf("   Linear scan (before): %,.0f queries/sec%n", scans / (scanNanos / 1e9));
+        if (sink == 42) {
+            System.out.println();
+        }
+        System.out.println();
+    }
+
+    /**
+     * Random walks across a 10^5 x 10^5 tile map with a fixed chunk cache, corrupting tiles
+     * as they go so evicted chunks must round-trip through the spill file
+     */
+    private static void benchmarkWorldMap() {
+        final int size = 100_000;
+        final int walkers = 64;
+        final int steps = 200_000;
+        WorldMap map = new WorldMap(42, size, size, 512);
+        Random random = new Random(11);
+        int[] wx = new int[walkers];
+        int[] wy = new int[walkers];
+        for (int w = 0; w < walkers; w++) {
+            wx[w] = random.nextInt(size);
+            wy[w] = random.nextInt(size);
+        }
+
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            int w = step % walkers;
+            wx[w] = Math.floorMod(wx[w] + random.nextInt(129) - 64, size); // Long strides touch new chunks
+            wy[w] = Math.floorMod(wy[w] + random.nextInt(129) - 64, size);
+            sink += map.getTerrain(wx[w], wy[w]) + map.getCorruption(wx[w], wy[w]);
+            if ((step & 7) == 0) {
+                map.setCorruption(wx[w], wy[w], map.getCorruption(wx[w], wy[w]) + 10);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("WORLD MAP (" + size + "x" + size + " tiles, " + steps + " walk steps, cache of "
+            + map.getMaxCachedChunks() + " chunks):");
+        System.out.printf("   Steps: %,.0f/sec, cache hit rate %.1f%%%n", steps / (elapsed / 1e9), map.getCacheHitRate() * 100);
+        System.out.printf("   Chunks generated: %,d (%,.0f chunks/sec incl. everything else)%n",
+            map.getChunksGenerated(), map.getChunksGenerated() / (elapsed / 1e9));
+        System.out.printf("   Spilled %,d / reloaded %,d modified chunks, spill file %,d KB%n",
+            map.getChunksSpilled(), map.getChunksReloaded(), map.getSpillFileBytes() / 1024);
+        System.out.printf("   Tile data in memory: %,d KB (fixed by cache size)%n", map.getCachedBytes() / 1024);
+        map.close();
+        if (sink == 42) {
+            System.out.println();
+        }
+        System.out.println();
+    }
+
+    /**
+     * Diffusion ticks over a 2048 x 2048 corruption grid, on one thread and on the fork-join
+     * pool, plus the 24-region grid the game actually runs
+     */
+    private static void benchmarkCorruptionField() {
+        final int ticks = 20;
+        CorruptionField field = new CorruptionField(64, 8, 256);
+        for (int region = 0; region < 64; region++) {
+            field.setRegion(region, region % 3 == 0 ? 70 : 10, region % 3 == 0 ? 0.003f : 0f);
+        }
+        for (int tick = 0; tick < 5; tick++) {
+            field.step(); // Warm-up
+            field.stepSequential();
+        }
+
+        field.resetMetrics();
+        for (int tick = 0; tick < ticks; tick++) {
+            field.applyImpulse(tick % 64, -2.0);
+            field.stepSequential();
+        }
+        double sequential = field.getCellsPerSecond();
+
+        field.resetMetrics();
+        for (int tick = 0; tick < ticks; tick++) {
+            field.applyImpulse(tick % 64, -2.0);
+            field.step();
+        }
+        double parallel = field.getCellsPerSecond();
+
+        CorruptionField gameField = new CorruptionField(24, 6, 32);
+        gameField.setRegion(0, 60, 0.003f);
+        long start = System.nanoTime();
+        for (int tick = 0; tick < 10_000; tick++) {
+            gameField.step();
+        }
+        long gameNanos = System.nanoTime() - start;
+
+        System.out.println("CORRUPTION FIELD (" + field.getWidth() + "x" + field.getHeight() + " cells, " + ticks
+            + " ticks, " + ForkJoinPool.getCommonPoolParallelism() + " fork-join workers):");
+        System.out.printf("   Sequential: %,.0f cells/sec%n", sequential);
+        System.out.printf("   Fork-join:  %,.0f cells/sec (%.2fx)%n", parallel, parallel / sequential);
+        System.out.printf("   Game grid (%dx%d): %,.0f ticks/sec, mean corruption %.1f%n",
+            gameField.getWidth(), gameField.getHeight(), 10_000 / (gameNanos / 1e9), gameField.getAverageLevel());
+        System.out.println();
+    }
+
+    /**
+     * Repeated status reads with the state unchanged (served from the cache) versus reads
+     * interleaved with character actions (re-rendered every time)
+     */
+    private static void benchmarkWorldStatus() {
+        final int reads = 200_000;
+        GameWorld world = new GameWorld();
+        long sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += world.getWorldStatus().length(); // Warm-up
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            sink += world.getWorldStatus().length();
+        }
+        long cachedNanos = System.nanoTime() - start;
+
+        final int changes = 20_000;
+        start = System.nanoTime();
+        for (int i = 0; i < changes; i++) {
+            world.handleCharacterAction("Arcanum", "discover", "found a rune");
+            sink += world.getWorldStatus().length();
+        }
+        long changedNanos = System.nanoTime() - start;
+
+        System.out.println("WORLD STATUS (" + reads + " unchanged reads, " + changes + " reads after a change):");
+        System.out.printf("   Unchanged state: %,.0f reads/sec%n", reads / (cachedNanos / 1e9));
+        System.out.printf("   After a change:  %,.0f action+read/sec%n", changes / (changedNanos / 1e9));
+        if (sink == 42) {
+            System.out.println();
+        }
+        System.out.println();
+    }
+
+    /**
+     * Event rounds over 100,000 regions, generated on the calling thread and on the common
+     * fork-join pool
+     */
+    private static void benchmarkRegionalEvents() {
+        final int regions = 100_000;
+        final int rounds = 20;
+        double[] rates = new double[regions];
+        for (int region = 0; region < regions; region++) {
+            rates[region] = 0.5 + (region % 7) * 0.25; // Uneven regions
+        }
+        RegionalEvents.EventFactory factory = (region, random) -> new RegionalEvents.RegionEvent(region,
+            "MYSTICAL_PHENOMENON", "✨ MYSTICAL PHENOMENON", "Strange lights above region " + region + " #" + random.nextInt(100));
+
+        RegionalEvents sequential = new RegionalEvents(7, factory, Runnable::run, 1);
+        RegionalEvents parallel = new RegionalEvents(7, factory);
+        for (int round = 0; round < 3; round++) {
+            sequential.generateRound(rates); // Warm-up
+            parallel.generateRound(rates);
+        }
+
+        long events = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            events += sequential.generateRound(rates).size();
+        }
+        long sequentialNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            parallel.generateRound(rates);
+        }
+        long parallelNanos = System.nanoTime() - start;
+
+        System.out.println("REGIONAL EVENTS (" + regions + " regions, " + rounds + " rounds, "
+            + ForkJoinPool.getCommonPoolParallelism() + " fork-join workers):");
+        System.out.printf("   Calling thread: %,.0f events/sec%n", events / (sequentialNanos / 1e9));
+        System.out.printf("   Shared pool:    %,.0f events/sec (%.2fx)%n", events / (parallelNanos / 1e9),
+            (double) sequentialNanos / parallelNanos);
+        System.out.println();
+    }
+
+    /**
+     * Headless cave fights (knight, thief and wizard against a Crystal Golem) on one reused
+     * kernel, counting resolved rounds and bytes allocated
+     */
+    private static void benchmarkCombatKernel() {
+        final int fights = 2_000_000;
+        CombatKernel kernel = new CombatKernel(4);
+        kernel.seed(99);
+        long rounds = 0;
+        int partyWins = 0;
+        for (int fight = 0; fight < fights / 10; fight++) {
+            runGolemFight(kernel); // Warm-up
+        }
+
+        long allocatedBefore = threadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int fight = 0; fight < fights; fight++) {
+            if (runGolemFight(kernel) == CombatKernel.PARTY) {
+                partyWins++;
+            }
+            rounds += kernel.getRound();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadAllocatedBytes() - allocatedBefore;
+
+        System.out.println("COMBAT KERNEL (" + fights + " headless fights, party of 3 vs Crystal Golem):");
+        System.out.printf("   Rounds: %,.0f/sec (%.1f per fight)%n", rounds / (elapsed / 1e9), (double) rounds / fights);
+        System.out.printf("   Fights: %,.0f/sec, party wins %.1f%%%n", fights / (elapsed / 1e9), 100.0 * partyWins / fights);
+        System.out.printf("   Allocated: %,d bytes in total%n", allocated);
+        System.out.println();
+    }
+
+    /**
+     * Fork-join Monte Carlo sweep: the three real cave parties against every cave enemy
+     */
+    private static void benchmarkBalanceSimulator() {
+        final long fightsPerMatchup = 200_000;
+        BalanceSimulator simulator = new BalanceSimulator(42);
+        List<int[]> parties = BalanceSimulator.defaultCompositions().subList(0, 3);
+        simulator.sweep(parties, CaveExplorer.CAVE_ENEMIES, fightsPerMatchup / 10); // Warm-up
+
+        long start = System.nanoTime();
+        List<BalanceSimulator.MatchupResult> results = simulator.sweep(parties, CaveExplorer.CAVE_ENEMIES, fightsPerMatchup);
+        long elapsed = System.nanoTime() - start;
+        double worstWinRate = 1.0;
+        for (BalanceSimulator.MatchupResult result : results) {
+            worstWinRate = Math.min(worstWinRate, result.getWinRate());
+        }
+
+        long fights = fightsPerMatchup * results.size();
+        System.out.println("BALANCE SIMULATOR (" + results.size() + " matchups x " + fightsPerMatchup + " fights, "
+            + ForkJoinPool.getCommonPoolParallelism() + " fork-join workers):");
+        System.out.printf("   Fights: %,.0f/sec%n", fights / (elapsed / 1e9));
+        System.out.printf("   Lowest party win rate: %.2f%%%n", worstWinRate * 100);
+        System.out.println();
+    }
+
+    /**
+     * Measure opening a large content pack (mapping cost and heap allocated) and id / name
+     * lookups against it
+     */
+    private static void benchmarkContentPack() {
+        final int records = 500_000;
+        final int lookups = 5_000_000;
+        Path file = null;
+        try {
+            ContentPackCompiler compiler = new ContentPackCompiler();
+            for (int i = 0; i < records; i++) {
+                ContentPackCompiler.Entry entry = compiler.add(ContentPack.ENEMY, "Enemy " + i);
+                entry.stats[ContentPack.HEALTH] = 30 + i % 120;
+                entry.stats[ContentPack.ATTACK] = 8 + i % 15;
+                compiler.text(entry, ContentPack.DESCRIPTION, "A creature of the deep realm, number " + i + ".");
+                compiler.text(entry, ContentPack.ABILITY, "Strike");
+            }
+            long compileStart = System.nanoTime();
+            byte[] bytes = compiler.toBuffer().array();
+            long compileNanos = System.nanoTime() - compileStart;
+            file = Files.createTempFile("content-benchmark", ".pack");
+            Files.write(file, bytes);
+
+            long allocatedBefore = threadAllocatedBytes();
+            long openStart = System.nanoTime();
+            ContentPack pack = ContentPack.open(file);
+            long openNanos = System.nanoTime() - openStart;
+            long openAllocated = threadAllocatedBytes() - allocatedBefore;
+
+            Random random = new Random(42);
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                checksum += pack.stat(random.nextInt(records), ContentPack.HEALTH);
+            }
+            long statNanos = System.nanoTime() - start;
+
+            String[] names = new String[1 << 12];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = "Enemy " + random.nextInt(records);
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                checksum += pack.find(ContentPack.ENEMY, names[i & (names.length - 1)]);
+            }
+            long findNanos = System.nanoTime() - start;
+
+            System.out.println("CONTENT PACK (" + records + " records, " + bytes.length / 1024 + " KB):");
+            System.out.printf("   Compile (offline): %,d ms%n", compileNanos / 1_000_000);
+            System.out.printf("   Open (mmap): %.2f ms, %,d bytes allocated%n", openNanos / 1e6, openAllocated);
+            System.out.printf("   Stat by id: %,.0f lookups/sec%n", lookups / (statNanos / 1e9));
+            System.out.printf("   Find by name: %,.0f lookups/sec (checksum %d)%n", lookups / (findNanos / 1e9), checksum);
+        } catch (IOException e) {
+            System.out.println("CONTENT PACK: skipped (" + e.getMessage() + ")");
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Temporary file, nothing else to do
+                }
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Measure arena throughput and submit-to-outcome latency with thousands of battles queued
+     * at once (a party of three against a crystal golem each)
+     */
+    private static void benchmarkBattleArena() {
+        final int battles = 500_000;
+        final int wave = 5_000; // Battles in flight at a time
+        List<BattleArena.Battle> golemFights = new ArrayList<>(wave);
+        for (int i = 0; i < wave; i++) {
+            golemFights.add(new BattleArena.Battle(List.of(
+                new BattleArena.Combatant(CombatKernel.PARTY, 120, 120, 0, 12, 7, 0, CombatKernel.ARMOR_FULL),
+                new BattleArena.Combatant(CombatKernel.PARTY, 90, 90, 0, 10, 11, 0, CombatKernel.ARMOR_IGNORED),
+                new BattleArena.Combatant(CombatKernel.PARTY, 80, 80, 0, 15, 16, 0, CombatKernel.ARMOR_IGNORED),
+                new BattleArena.Combatant(CombatKernel.ENEMIES, 120, 120, 6, 16, 6, 0, CombatKernel.ARMOR_FULL)),
+                20, i, 0, 60));
+        }
+
+        BattleArena arena = new BattleArena();
+        BattleArena.awaitAll(arena.submitAll(golemFights)); // Warm-up
+        arena.resetMetrics();
+
+        long wins = 0;
+        long start = System.nanoTime();
+        for (int submitted = 0; submitted < battles; submitted += wave) {
+            for (BattleArena.Outcome outcome : BattleArena.awaitAll(arena.submitAll(golemFights))) {
+                wins += outcome.isPartyVictory() ? 1 : 0;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("BATTLE ARENA (" + battles + " battles, " + wave + " in flight per wave, "
+            + Runtime.getRuntime().availableProcessors() + " cores):");
+        System.out.printf("   Battles: %,.0f/sec (party won %.1f%%)%n", battles / (elapsed / 1e9), 100.0 * wins / battles);
+        System.out.printf("   Latency: p50 %.2f ms, p99 %.2f ms (submit to outcome, includes queueing)%n",
+            arena.getLatencyMillis(0.5), arena.getLatencyMillis(0.99));
+        arena.shutdown();
+        System.out.println();
+    }
+
+    /**
+     * Measure planner rollouts/sec and fight quality (win rate, party health left) against the
+     * default AI for a wounded party facing a dragon whelp, at several per-turn budgets
+     */
+    private static void benchmarkCombatPlanner() {
+        final int fights = 100;
+        final double[] budgets = {1.0, 2.0, 5.0};
+        int[] classes = {CaveExplorer.KNIGHT, CaveExplorer.THIEF, CaveExplorer.WIZARD};
+        CombatKernel kernel = new CombatKernel(classes.length + 1);
+
+        double[] baseline = new double[2];
+        for (int i = 0; i < 20_000; i++) {
+            accumulate(baseline, runWoundedPartyFight(kernel, classes, null, i), 20_000);
+        }
+        System.out.println("COMBAT PLANNER (wounded Knight+Thief+Wizard vs Dragon Whelp, " + fights + " fights per budget, "
+            + ForkJoinPool.getCommonPoolParallelism() + " workers):");
+        System.out.printf("   Default AI:  win %5.1f%%, reward %.3f%n", baseline[0] * 100, baseline[1]);
+
+        for (double budget : budgets) {
+            CombatPlanner planner = new CombatPlanner(budget, ForkJoinPool.getCommonPoolParallelism(),
+                                                      ForkJoinPool.commonPool(), 42);
+            double[] planned = new double[2];
+            for (int i = 0; i < fights; i++) {
+                accumulate(planned, runWoundedPartyFight(kernel, classes, planner, i), fights);
+            }
+            System.out.printf("   %.0f ms/turn: win %5.1f%%, reward %.3f, %+.4f reward/ms, %,.0f rollouts/sec, %.0f%% of stats reused%n",
+                budget, planned[0] * 100, planned[1], (planned[1] - baseline[1]) / budget,
+                planner.getRolloutsPerSecond(), planner.getReuseRatio() * 100);
+        }
+        System.out.println();
+    }
+
+    /**
+     * One cave fight with the party at half health, AI turns from the planner (or the default
+     * AI when planner is null). Returns the planner's reward: 0 for a loss, 0.6-1.0 for a win
+     */
+    private static double runWoundedPartyFight(CombatKernel kernel, int[] classes, CombatPlanner planner, long seed) {
+        int[] health = {Knight.BASE_HEALTH, Thief.BASE_HEALTH, Wizard.BASE_HEALTH};
+        kernel.reset();
+        kernel.seed(seed);
+        for (int slot = 0; slot < classes.length; slot++) {
+            kernel.add(CombatKernel.PARTY, health[slot] / 2, health[slot], 0);
+        }
+        int enemySlot = kernel.add(CombatKernel.ENEMIES, CaveExplorer.getEnemyMaxHealth("Dragon Whelp"),
+            CaveExplorer.getEnemyMaxHealth("Dragon Whelp"), CaveExplorer.getEnemyArmor("Dragon Whelp"));
+        kernel.setAttack(enemySlot, CaveExplorer.getEnemyAttack("Dragon Whelp") - 2, CaveExplorer.ENEMY_SPREAD, 0,
+            CombatKernel.ARMOR_FULL, 0);
+        kernel.setPreferredTarget(0, CaveExplorer.ENEMY_PLAYER_FOCUS);
+        if (planner != null) {
+            planner.reset();
+        }
+
+        while (kernel.getRound() < CaveExplorer.MAX_COMBAT_ROUNDS) {
+            kernel.nextRound();
+            for (int slot = 0; slot < enemySlot; slot++) {
+                if (!kernel.isStanding(slot)) {
+                    continue;
+                }
+                if (slot == 0) {
+                    int[] weapon = CaveExplorer.PLAYER_WEAPON[classes[0]];
+                    kernel.strike(0, enemySlot, weapon[0], weapon[1], weapon[2], CombatKernel.ARMOR_FULL, 0);
+                } else if (planner != null) {
+                    CaveExplorer.useTactic(kernel, classes[slot], slot, enemySlot, planner.plan(kernel, classes, slot, enemySlot));
+                } else {
+                    CaveExplorer.takeAITurn(kernel, classes[slot], slot, enemySlot);
+                }
+                if (!kernel.isStanding(enemySlot)) {
+                    int left = 0;
+                    int max = 0;
+                    for (int member = 0; member < enemySlot; member++) {
+                        left += kernel.getHealth(member);
+                        max += kernel.getMaxHealth(member);
+                    }
+                    return 0.6 + 0.4 * left / max;
+                }
+            }
+            kernel.attack(enemySlot, kernel.chooseTarget(enemySlot));
+            if (kernel.standing(CombatKernel.PARTY) == 0) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Measure building the boss decision table (sequential vs parallel, memo sharing), table
+     * lookups, and check the solved odds against simulated boss fights that follow the table
+     */
+    private static void benchmarkBossSolver() {
+        BossSolver sequential = new BossSolver(false);
+        BossSolver solver = new BossSolver(true);
+        System.out.println("BOSS SOLVER (" + BossSolver.LOADOUTS + " loadout keys x 3 rounds x scrolls left):");
+        System.out.printf("   Build:   %.1f ms sequential, %.1f ms parallel, %,d KB table%n",
+            sequential.getBuildMillis(), solver.getBuildMillis(), solver.getTableBytes() / 1024);
+        System.out.printf("   Memo:    %,d distinct states solved, %,d hits / %,d lookups (%.1f%%)%n",
+            solver.getSolvedStates(), solver.getMemoHits(), solver.getMemoHits() + solver.getMemoMisses(),
+            100.0 * solver.getMemoHits() / (solver.getMemoHits() + solver.getMemoMisses()));
+
+        final int lookups = 10_000_000;
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            checksum += solver.decision(i & (BossSolver.LOADOUTS / 2 - 1), 1 + i % 3, i & 3); // Keys with 0-3 scrolls
+        }
+        long lookupNanos = System.nanoTime() - start;
+        System.out.printf("   Lookup:  %.1f ns/decision (checksum %d)%n", (double) lookupNanos / lookups, checksum & 0xFF);
+
+        String[][] inventories = {{}, {"Fire Scroll"}, {"Magic Crystal", "Enchanted Ring", "Fire Scroll", "Fire Scroll"},
+                                  {"Cave Map", "Iron Shield"}};
+        int[][] parties = {{CaveExplorer.KNIGHT}, {CaveExplorer.THIEF, CaveExplorer.WIZARD},
+                           {CaveExplorer.WIZARD, CaveExplorer.KNIGHT, CaveExplorer.THIEF}};
+        final int fights = 200_000;
+        SplittableRandom random = new SplittableRandom(7);
+        for (int[] party : parties) {
+            for (String[] inventory : inventories) {
+                int loadout = BossSolver.loadout(party, Arrays.asList(inventory));
+                int wins = 0;
+                for (int fight = 0; fight < fights; fight++) {
+                    int scrolls = BossSolver.scrolls(loadout);
+                    for (int round = 1; round <= BossSolver.ROUNDS; round++) {
+                        int decision = solver.decision(loadout, round, scrolls);
+                        int total = random.nextInt(BossSolver.DIE) + 1
+                            + BossSolver.strategyBonus(BossSolver.strategy(decision), round, loadout);
+                        if (BossSolver.burnsScroll(decision)) {
+                            total += BossSolver.FIRE_SCROLL_BONUS;
+                            scrolls--;
+                        }
+                        if (BossSolver.winsRound(total, round)) {
+                            wins++;
+                            break;
+                        }
+                    }
+                }
+                System.out.printf("   Party of %d, %d items: exact %5.1f%%, simulated %5.1f%% — %s%n", party.length,
+                    inventory.length, BossSolver.winChance(solver.decision(loadout, 1, BossSolver.scrolls(loadout))) * 100,
+                    100.0 * wins / fights, solver.describePlan(loadout));
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Measure procedural cave generation at 10^4-10^6 rooms: rooms/sec generating every region
+     * lazily and in parallel, memory per room, and how little a short walk actually generates
+     */
+    private static void benchmarkCaveGeneration() {
+        System.out.println("PROCEDURAL CAVES (" + CaveSystem.ROOMS_PER_REGION + " rooms per region, "
+            + ForkJoinPool.getCommonPoolParallelism() + " workers):");
+        new CaveSystem(1, 100_000, 64).regionOf(99_999); // Warm up generation
+        for (int rooms : new int[] {10_000, 100_000, 1_000_000}) {
+            CaveSystem cave = new CaveSystem(42, rooms, Integer.MAX_VALUE);
+            long start = System.nanoTime();
+            long links = 0;
+            for (int first = 0; first < rooms; first += CaveSystem.ROOMS_PER_REGION) {
+                links += cave.regionOf(first).neighbors.length;
+            }
+            double lazyMillis = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            long parallelRooms = IntStream.range(0, cave.getRegionCount()).parallel()
+                .mapToLong(region -> cave.buildRegion(region).rooms()).sum();
+            double parallelMillis = (System.nanoTime() - start) / 1e6;
+
+            System.out.printf("   %,9d rooms: %7.1f ms (%,.0f rooms/sec), parallel %7.1f ms (%,.0f rooms/sec), %.1f bytes/room, %.2f passages/room%n",
+                rooms, lazyMillis, rooms / (lazyMillis / 1000), parallelMillis, parallelRooms / (parallelMillis / 1000),
+                cave.getBytesPerRoom(), (double) links / rooms);
+        }
+
+        // Lazy: a walk from the entrance only generates the regions it passes through
+        CaveSystem cave = new CaveSystem(42, 1_000_000, 8);
+        Random random = new Random(7);
+        int room = cave.getEntrance();
+        for (int step = 0; step < 100_000; step++) {
+            int passages = cave.degree(room);
+            int next = cave.neighbor(room, random.nextInt(passages));
+            room = next > room || random.nextInt(4) == 0 ? next : cave.neighbor(room, random.nextInt(passages)); // Tends deeper
+        }
+        System.out.printf("   Lazy walk: 100,000 steps reached room %,d; %d of %d regions generated%n",
+            room, cave.getRegionsGenerated(), cave.getRegionCount());
+        System.out.println("   " + cave.getCacheStats());
+        System.out.println();
+    }
+
+    /**
+     * Measure cave route queries at 10^5 rooms (BFS vs landmark A*, cached hot routes, parallel
+     * queries) and all-pairs precomputation for a small cave
+     */
+    private static void benchmarkCavePathfinding() {
+        final int rooms = 100_000;
+        final int pairs = 1_000;
+        CaveSystem cave = new CaveSystem(42, rooms, Integer.MAX_VALUE);
+        CavePathfinder pathfinder = new CavePathfinder(cave, 16, 4_096);
+        System.out.println("CAVE PATHFINDING (" + String.format("%,d", rooms) + " rooms, "
+            + pathfinder.getLandmarkCount() + " landmarks, " + ForkJoinPool.getCommonPoolParallelism() + " workers):");
+        System.out.printf("   Landmarks: %.1f ms (includes generating the cave)%n", pathfinder.getLandmarkMillis());
+
+        Random random = new Random(11);
+        int[] from = new int[pairs];
+        int[] to = new int[pairs];
+        for (int i = 0; i < pairs; i++) {
+            from[i] = random.nextInt(rooms);
+            to[i] = random.nextInt(rooms);
+        }
+        long checksum = 0;
+        for (int i = 0; i < pairs; i++) {
+            checksum += pathfinder.bfsDistance(from[i], to[i]);
+        }
+        System.out.printf("   BFS:       %,8.0f queries/sec, %,7.0f rooms expanded per query (mean route %,d passages)%n",
+            pathfinder.getQueriesPerSecond(), pathfinder.getAverageExpanded(), checksum / pairs);
+
+        pathfinder.resetMetrics();
+        for (int i = 0; i < pairs; i++) {
+            pathfinder.route(from[i], to[i]);
+        }
+        System.out.printf("   A*:        %,8.0f queries/sec, %,7.0f rooms expanded per query%n",
+            pathfinder.getQueriesPerSecond(), pathfinder.getAverageExpanded());
+
+        // Hot routes: many parties asking for the way down from the same few junctions
+        pathfinder.resetMetrics();
+        for (int i = 0; i < 100_000; i++) {
+            pathfinder.routeToDeepest(from[random.nextInt(200)]);
+        }
+        System.out.printf("   Hot:       %,8.0f queries/sec, %.1f%% from the route cache%n",
+            pathfinder.getQueriesPerSecond(), pathfinder.getCacheHitRate() * 100);
+
+        pathfinder.resetMetrics();
+        long start = System.nanoTime();
+        IntStream.range(0, pairs).parallel().forEach(i -> pathfinder.route(to[i], (from[i] + 1) % rooms));
+        System.out.printf("   Parallel:  %,8.0f queries/sec wall clock (uncached A*)%n", pairs / ((System.nanoTime() - start) / 1e9));
+
+        CaveSystem small = new CaveSystem(42, 2_048, 1);
+        CavePathfinder table = new CavePathfinder(small, 4, 0);
+        start = System.nanoTime();
+        table.precomputeAllPairs();
+        double precomputeMillis = (System.nanoTime() - start) / 1e6;
+        table.resetMetrics();
+        start = System.nanoTime();
+        for (int i = 0; i < 1_000_000; i++) {
+            checksum += table.distance(i & 2047, (i * 31) & 2047);
+        }
+        System.out.printf("   All-pairs: %,d rooms precomputed in %.1f ms (%,d KB), then %,.0f distance queries/sec%n",
+            small.getRoomCount(), precomputeMillis, small.getRoomCount() * small.getRoomCount() * 2 / 1024,
+            1_000_000 / ((System.nanoTime() - start) / 1e9));
+        System.out.println("   " + pathfinder.getMetricsSummary());
+        System.out.println();
+    }
+
+    /**
+     * Measure autopilot cave expeditions on the expedition service: throughput, submit-to-finish
+     * latency, per-expedition room latency, and that a seed always replays the same transcript
+     */
+    private static void benchmarkExpeditions() {
+        // Building characters prints their starting kit, so do it before the section header
+        GameAnalytics analytics = new GameAnalytics();
+        GameWorld world = new GameWorld();
+        SharedResources resources = new SharedResources();
+        Knight knight = new Knight("Sir Bench", 0, 0, resources, analytics, world);
+        Thief thief = new Thief("Quickstep", 1, 1, resources, analytics, world);
+        Wizard wizard = new Wizard("Benchmarkus", 2, 2, resources, analytics, world);
+        final int expeditions = 200;
+        final double planBudgetMillis = 0.2;
+
+        ExpeditionService service = new ExpeditionService();
+        System.out.println("\nCAVE EXPEDITIONS (" + expeditions + " autopilot parties, " + planBudgetMillis
+            + " ms AI planning, " + Runtime.getRuntime().availableProcessors() + " threads):");
+        List<CaveExpedition> batch = new ArrayList<>();
+        for (int i = 0; i < expeditions; i++) {
+            GameCharacter leader = i % 3 == 0 ? knight : i % 3 == 1 ? thief : wizard;
+            List<GameCharacter> companions = leader == knight ? List.of(thief, wizard)
+                                           : leader == thief ? List.of(knight, wizard) : List.of(knight, thief);
+            batch.add(new CaveExpedition("Party " + i, leader, companions, CaveExpedition.autopilot(i, 5_000),
+                new PrintStream(OutputStream.nullOutputStream()), i, planBudgetMillis));
+        }
+        List<CaveExpedition.Result> results = ExpeditionService.awaitAll(service.submitAll(batch));
+        double runMillis = 0;
+        double roomP99 = 0;
+        int rooms = 0;
+        int fights = 0;
+        for (CaveExpedition.Result result : results) {
+            runMillis += result.getRunMillis();
+            roomP99 = Math.max(roomP99, result.getRoomMillis(0.99));
+            rooms += result.getRoomsExplored();
+            fights += result.getCombatsFought();
+        }
+        System.out.println("   " + service.getMetricsSummary());
+        System.out.printf("   Per expedition: %.1f ms running, %.1f rooms, %.1f fights; worst room p99 %.1f ms%n",
+            runMillis / expeditions, (double) rooms / expeditions, (double) fights / expeditions, roomP99);
+
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        new CaveExpedition("Replay", knight, List.of(thief, wizard), CaveExpedition.autopilot(7, 5_000),
+            new PrintStream(first), 7, 0).run();
+        new CaveExpedition("Replay", knight, List.of(thief, wizard), CaveExpedition.autopilot(7, 5_000),
+            new PrintStream(second), 7, 0).run();
+        System.out.printf("   Replay: seed 7 twice at 0 ms planning -> %s transcripts (%,d chars)%n",
+            first.toString().equals(second.toString()) ? "identical" : "DIFFERENT", first.size());
+        service.shutdown();
+        resources.stopResourceGeneration();
+        System.out.println();
+    }
+
+    /**
+     * Measure quest progress updates with tens of thousands of live quests across many players:
+     * scanning every quest's objective text against the indexed trigger registry
+     */
+    private static void benchmarkQuestTriggers() {
+        final int players = 500;
+        final int questsPerPlayer = 100;
+        final int actions = 200_000;
+        String[] objectives = {
+            "Defeat 3 enemies in combat and find the Crown item",
+            "Win 2 combat encounters against goblin-type enemies",
+            "Explore 5 different locations and find Caravan Remains",
+            "Discover the Ancient Relic through exploration",
+            "Collect 3 Healing Herb items through exploration",
+            "Defeat bandits and recover the Stolen Spellbook",
+            "Clear the bandit camp by winning 4 combat encounters"
+        };
+        String[][] actionPool = {
+            {"combat", "defeated Goblin Raider"}, {"combat", "defeated Rogue Bandit"}, {"combat", "defeated Shadow Wolf"},
+            {"exploration", "explored area"}, {"discovery", "found Hidden Treasure"}, {"quest", "accepted Lost Crown"}
+        };
+        System.out.println("QUEST TRIGGERS (" + String.format("%,d", players * questsPerPlayer) + " live quests, "
+            + players + " players, " + String.format("%,d", actions) + " actions):");
+
+        Random random = new Random(5);
+        String[] playerOf = new String[actions];
+        String[][] actionOf = new String[actions][];
+        for (int i = 0; i < actions; i++) {
+            playerOf[i] = "Hero " + random.nextInt(players);
+            actionOf[i] = actionPool[random.nextInt(actionPool.length)];
+        }
+
+        // Before: every action scans every live quest's objective text
+        List<String[]> allQuests = new ArrayList<>(players * questsPerPlayer);
+        for (int p = 0; p < players; p++) {
+            for (int q = 0; q < questsPerPlayer; q++) {
+                allQuests.add(new String[]{"Hero " + p, objectives[(p + q) % objectives.length]});
+            }
+        }
+        long matches = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < actions / 100; i++) {
+            String actionType = actionOf[i][0];
+            for (String[] quest : allQuests) {
+                if (!quest[0].equals(playerOf[i])) continue;
+                String objective = quest[1].toLowerCase();
+                if ((actionType.equals("combat") && objective.contains("defeat"))
+                    || (actionType.equals("exploration") && objective.contains("explore"))
+                    || (actionType.equals("discovery") && objective.contains("find"))) {
+                    matches++;
+                }
+            }
+        }
+        double scanPerSecond = actions / 100 / ((System.nanoTime() - start) / 1e9);
+        System.out.printf("   Scan:     %,10.0f actions/sec, %,d quests checked per action%n", scanPerSecond, allQuests.size());
+
+        // After: compiled objectives in the per-player action/target index. Finished quests are
+        // replaced with fresh ones so the live count stays put
+        QuestRegistry<Integer> registry = new QuestRegistry<>();
+        start = System.nanoTime();
+        for (int p = 0; p < players; p++) {
+            for (int q = 0; q < questsPerPlayer; q++) {
+                registry.register("Hero " + p, q, QuestRegistry.compile(objectives[(p + q) % objectives.length]));
+            }
+        }
+        double registerMillis = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        for (int i = 0; i < actions; i++) {
+            matches += replaceFinished(registry, registry.record(playerOf[i], actionOf[i][0], actionOf[i][1]));
+        }
+        double indexedPerSecond = actions / ((System.nanoTime() - start) / 1e9);
+        System.out.printf("   Indexed:  %,10.0f actions/sec, %.1f quests touched per action (%.0fx faster; registered in %.1f ms)%n",
+            indexedPerSecond, registry.getTouchedPerAction(), indexedPerSecond / scanPerSecond, registerMillis);
+
+        registry.resetMetrics();
+        start = System.nanoTime();
+        matches += IntStream.range(0, actions).parallel()
+            .map(i -> replaceFinished(registry, registry.record(playerOf[i], actionOf[i][0], actionOf[i][1])))
+            .sum();
+        System.out.printf("   Parallel: %,10.0f actions/sec wall clock (%d workers)%n",
+            actions / ((System.nanoTime() - start) / 1e9), ForkJoinPool.getCommonPoolParallelism());
+        System.out.println("   " + registry.getMetricsSummary() + " (checksum " + matches % 1000 + ")");
+        System.out.println();
+    }
+
+    private static int replaceFinished(QuestRegistry<Integer> registry, List<QuestRegistry.Advance<Integer>> advanced) {
+        for (QuestRegistry.Advance<Integer> advance : advanced) {
+            if (advance.isCompleting()) {
+                QuestRegistry.Entry<Integer> entry = advance.getEntry();
+                registry.register(entry.getPlayer(), entry.getQuest(), entry.getGoal());
+            }
+        }
+        return advanced.size();
+    }
+
+    private static void accumulate(double[] totals, double reward, int fights) {
+        totals[0] += reward > 0 ? 1.0 / fights : 0;
+        totals[1] += reward / fights;
+    }
+
+    private static int runGolemFight(CombatKernel kernel) {
+        kernel.reset();
+        int knight = kernel.add(CombatKernel.PARTY, 120, 120, 0);
+        kernel.setAttack(knight, 12, 7, 0, CombatKernel.ARMOR_FULL, 0);
+        int thief = kernel.add(CombatKernel.PARTY, 90, 90, 0);
+        kernel.setAttack(thief, 10, 11, 0, CombatKernel.ARMOR_IGNORED, 0);
+        int wizard = kernel.add(CombatKernel.PARTY, 80, 80, 0);
+        kernel.setAttack(wizard, 15, 16, 0, CombatKernel.ARMOR_IGNORED, 0);
+        int golem = kernel.add(CombatKernel.ENEMIES, 120, 120, 6);
+        kernel.setAttack(golem, 16, 6, 0, CombatKernel.ARMOR_FULL, 0);
+        kernel.setPreferredTarget(knight, 60);
+        return kernel.resolve(20);
+    }
+
+    private static String legacyCategory(String action) {
+        if (action.toLowerCase().contains("battle") || action.toLowerCase().contains("combat") ||
+            action.toLowerCase().contains("fight")) {
+            return "combat";
+        } else if (action.toLowerCase().contains("quest") || action.toLowerCase().contains("mission")) {
+            return "quest";
+        } else if (action.toLowerCase().contains("steal") || action.toLowerCase().contains("sneak") ||
+                   action.toLowerCase().contains("hide")) {
+            return "stealth";
+        } else if (action.toLowerCase().contains("heist") || action.toLowerCase().contains("theft")) {
+            return "heist";
+        } else if (action.toLowerCase().contains("spell") || action.toLowerCase().contains("magic") ||
+                   action.toLowerCase().contains("enchant")) {
+            return "magic";
+        } else if (action.toLowerCase().contains("research") || action.toLowerCase().contains("study")) {
+            return "research";
+        }
+        return "general";
+    }
+
+    private static long timeMovements(GameAnalytics analytics, int events) {
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            analytics.logMovement("Arcanum", i & 15, i & 7);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // ===============================================
+    // HELPERS
+    // ===============================================
+
+    private static long threadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,453 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * QuestRegistry - Routes game actions to the quests that care about them
+ * A quest's objective text is compiled once into a Goal: typed triggers (an action, optionally
+ * narrowed to a target such as "goblin") and the number of actions it needs. Accepted quests
+ * are indexed by player, then action, then target, so an action only visits the quests
+ * listening for it - the catch-all bucket plus one bucket per word of the action's details -
+ * however many other quests are active. Progress is lock-free and finished quests leave the
+ * index straight away, so it stays sized to the live quests across many players and threads.
+ */
+public class QuestRegistry<Q> {
+
+    /**
+     * Kinds of action a quest can wait for, named as GameEngine reports them
+     */
+    public enum Action {
+        COMBAT("combat"), EXPLORATION("exploration"), DISCOVERY("discovery");
+
+        private final String actionType;
+
+        Action(String actionType) {
+            this.actionType = actionType;
+        }
+
+        /**
+         * The action for an actionType string, or null when no quest can wait for it
+         */
+        public static Action of(String actionType) {
+            for (Action action : values()) {
+                if (action.actionType.equals(actionType)) {
+                    return action;
+                }
+            }
+            return null;
+        }
+    }
+
+    // === OBJECTIVE GRAMMAR ===
+    private static final String ANY_TARGET = ""; // Bucket for triggers without a target; never a word
+    private static final Map<String, Action> VERBS = Map.ofEntries(
+        Map.entry("defeat", Action.COMBAT), Map.entry("win", Action.COMBAT),
+        Map.entry("winning", Action.COMBAT), Map.entry("survive", Action.COMBAT),
+        Map.entry("explore", Action.EXPLORATION), Map.entry("visit", Action.EXPLORATION),
+        Map.entry("find", Action.DISCOVERY), Map.entry("discover", Action.DISCOVERY),
+        Map.entry("collect", Action.DISCOVERY), Map.entry("recover", Action.DISCOVERY),
+        Map.entry("claim", Action.DISCOVERY));
+    private static final Set<String> FILLER_WORDS = Set.of("a", "an", "the", "all", "some");
+    private static final Set<String> GENERIC_FOES = Set.of("enemy", "foe", "combat", "encounter", "monster");
+    private static final String TYPE_SUFFIX = "-type"; // "goblin-type enemies" targets goblins
+
+    private static final ConcurrentHashMap<String, Goal> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * One thing a quest listens for. A null target accepts any action of that kind
+     */
+    public static final class Trigger {
+        final Action action;
+        final String target;
+
+        Trigger(Action action, String target) {
+            this.action = action;
+            this.target = target;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        @Override
+        public String toString() {
+            return target == null ? action.name() : action.name() + ":" + target;
+        }
+    }
+
+    /**
+     * A compiled objective: at most one trigger per action, and the actions needed. Immutable
+     * and shared by every quest with the same objective text
+     */
+    public static final class Goal {
+        final List<Trigger> triggers;
+        final int required;
+
+        Goal(List<Trigger> triggers, int required) {
+            this.triggers = List.copyOf(triggers);
+            this.required = required;
+        }
+
+        public List<Trigger> getTriggers() {
+            return triggers;
+        }
+
+        public int getRequired() {
+            return required;
+        }
+
+        @Override
+        public String toString() {
+            return triggers + " x" + required;
+        }
+    }
+
+    /**
+     * A player's accepted quest and its progress
+     */
+    public static final class Entry<Q> {
+        final String player;
+        final Q quest;
+        final Goal goal;
+        private final AtomicInteger progress = new AtomicInteger();
+
+        Entry(String player, Q quest, Goal goal) {
+            this.player = player;
+            this.quest = quest;
+            this.goal = goal;
+        }
+
+        /**
+         * Count one action. Returns the new progress, or -1 if the quest was already done
+         */
+        int advance() {
+            while (true) {
+                int current = progress.get();
+                if (current >= goal.required) {
+                    return -1;
+                }
+                if (progress.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        public String getPlayer() {
+            return player;
+        }
+
+        public Q getQuest() {
+            return quest;
+        }
+
+        public Goal getGoal() {
+            return goal;
+        }
+
+        public int getProgress() {
+            return progress.get();
+        }
+
+        public boolean isCompleted() {
+            return progress.get() >= goal.required;
+        }
+
+        public String getProgressText() {
+            return "(" + getProgress() + "/" + goal.required + ")";
+        }
+    }
+
+    /**
+     * What one action did to one quest. A snapshot, so under concurrent actions exactly one
+     * caller sees the action that finished a quest
+     */
+    public static final class Advance<Q> {
+        final Entry<Q> entry;
+        final int progress;
+
+        Advance(Entry<Q> entry, int progress) {
+            this.entry = entry;
+            this.progress = progress;
+        }
+
+        public Entry<Q> getEntry() {
+            return entry;
+        }
+
+        public Q getQuest() {
+            return entry.quest;
+        }
+
+        public int getProgress() {
+            return progress;
+        }
+
+        /**
+         * Whether this action was the one that finished the quest
+         */
+        public boolean isCompleting() {
+            return progress == entry.goal.required;
+        }
+
+        public String getProgressText() {
+            return "(" + progress + "/" + entry.goal.required + ")";
+        }
+    }
+
+    /**
+     * One player's live quests: action -> target -> entries. The maps are filled in up front, so
+     * only the concurrent buckets ever change
+     */
+    private static final class PlayerIndex<Q> {
+        final EnumMap<Action, ConcurrentHashMap<String, Set<Entry<Q>>>> byAction = new EnumMap<>(Action.class);
+
+        PlayerIndex() {
+            for (Action action : Action.values()) {
+                byAction.put(action, new ConcurrentHashMap<>());
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<String, PlayerIndex<Q>> players = new ConcurrentHashMap<>();
+
+    // === METRICS ===
+    private final LongAdder liveQuests = new LongAdder();
+    private final LongAdder actions = new LongAdder();
+    private final LongAdder questsTouched = new LongAdder();
+    private final LongAdder questsAdvanced = new LongAdder();
+
+    // ===============================================
+    // COMPILING OBJECTIVES
+    // ===============================================
+
+    /**
+     * Compile objective text such as "Win 2 combat encounters against goblin-type enemies".
+     * Verbs pick the actions, the first number is the count (1 if none), and a "-type" word or
+     * the foe named right after a combat verb narrows the combat trigger. Results are cached
+     */
+    public static Goal compile(String objective) {
+        return compiled.computeIfAbsent(objective, QuestRegistry::parse);
+    }
+
+    private static Goal parse(String objective) {
+        String[] words = words(objective);
+        EnumMap<Action, String> targets = new EnumMap<>(Action.class);
+        String combatTarget = null;
+        int required = 0;
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            if (required == 0 && isNumber(word)) {
+                required = Integer.parseInt(word);
+            }
+            if (word.endsWith(TYPE_SUFFIX) && word.length() > TYPE_SUFFIX.length()) {
+                combatTarget = singular(word.substring(0, word.length() - TYPE_SUFFIX.length()));
+            }
+            Action action = VERBS.get(word);
+            if (action == null) {
+                continue;
+            }
+            targets.putIfAbsent(action, ANY_TARGET);
+            if (action == Action.COMBAT && combatTarget == null) {
+                combatTarget = namedFoe(words, i + 1);
+            }
+        }
+        if (combatTarget != null && targets.containsKey(Action.COMBAT)) {
+            targets.put(Action.COMBAT, combatTarget);
+        }
+        List<Trigger> triggers = new ArrayList<>(targets.size());
+        targets.forEach((action, target) -> triggers.add(new Trigger(action, target.isEmpty() ? null : target)));
+        return new Goal(triggers, Math.max(required, 1));
+    }
+
+    /**
+     * The foe a combat verb names ("Defeat bandits" -> bandit), or null for any foe
+     */
+    private static String namedFoe(String[] words, int from) {
+        for (int i = from; i < words.length; i++) {
+            String word = words[i];
+            if (isNumber(word) || FILLER_WORDS.contains(word)) {
+                continue;
+            }
+            String foe = singular(word);
+            return GENERIC_FOES.contains(foe) || VERBS.containsKey(word) ? null : foe;
+        }
+        return null;
+    }
+
+    private static String[] words(String text) {
+        String lower = text.toLowerCase();
+        return lower.isBlank() ? new String[0] : lower.trim().split("[^a-z0-9-]+");
+    }
+
+    private static boolean isNumber(String word) {
+        if (word.isEmpty() || word.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plural-insensitive key: "bandits" and "bandit" share a bucket
+     */
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        return word.length() > 3 && word.endsWith("s") && !word.endsWith("ss") ? word.substring(0, word.length() - 1) : word;
+    }
+
+    // ===============================================
+    // REGISTRATION
+    // ===============================================
+
+    /**
+     * Start tracking an accepted quest for a player
+     */
+    public Entry<Q> register(String player, Q quest, Goal goal) {
+        Entry<Q> entry = new Entry<>(player, quest, goal);
+        PlayerIndex<Q> index = players.computeIfAbsent(player, name -> new PlayerIndex<>());
+        for (Trigger trigger : goal.triggers) {
+            String target = trigger.target == null ? ANY_TARGET : trigger.target;
+            index.byAction.get(trigger.action).computeIfAbsent(target, key -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+        liveQuests.increment();
+        return entry;
+    }
+
+    /**
+     * Stop tracking a quest (abandoned or finished). Safe to call more than once
+     */
+    public void unregister(Entry<Q> entry) {
+        PlayerIndex<Q> index = players.get(entry.player);
+        if (index == null) {
+            return;
+        }
+        boolean removed = false;
+        for (Trigger trigger : entry.goal.triggers) {
+            Set<Entry<Q>> bucket = index.byAction.get(trigger.action).get(trigger.target == null ? ANY_TARGET : trigger.target);
+            if (bucket != null && bucket.remove(entry)) {
+                removed = true;
+            }
+        }
+        if (removed) {
+            liveQuests.decrement();
+        }
+    }
+
+    /**
+     * Drop every quest a player still has open (e.g. when they leave)
+     */
+    public void removePlayer(String player) {
+        PlayerIndex<Q> index = players.remove(player);
+        if (index == null) {
+            return;
+        }
+        Set<Entry<Q>> open = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ConcurrentHashMap<String, Set<Entry<Q>>> buckets : index.byAction.values()) {
+            buckets.values().forEach(open::addAll);
+        }
+        liveQuests.add(-open.size());
+    }
+
+    // ===============================================
+    // ACTIONS
+    // ===============================================
+
+    /**
+     * Count a player's action (e.g. "combat", "defeated Goblin Raider") towards every quest
+     * listening for it, and return how each moved. Each advances at most once per action;
+     * quests that finish are unregistered before this returns
+     */
+    public List<Advance<Q>> record(String player, String actionType, String details) {
+        actions.increment();
+        Action action = Action.of(actionType);
+        PlayerIndex<Q> index = action == null ? null : players.get(player);
+        if (index == null) {
+            return List.of();
+        }
+        ConcurrentHashMap<String, Set<Entry<Q>>> buckets = index.byAction.get(action);
+        List<Advance<Q>> advanced = new ArrayList<>();
+        touch(buckets.get(ANY_TARGET), advanced);
+        if (buckets.size() > (buckets.containsKey(ANY_TARGET) ? 1 : 0)) {
+            // An entry sits in one bucket per action, so visiting distinct words never counts it twice
+            List<String> seen = new ArrayList<>();
+            for (String word : words(details)) {
+                String key = singular(word);
+                if (!key.isEmpty() && !seen.contains(key)) {
+                    seen.add(key);
+                    touch(buckets.get(key), advanced);
+                }
+            }
+        }
+        questsAdvanced.add(advanced.size());
+        return advanced;
+    }
+
+    private void touch(Set<Entry<Q>> bucket, List<Advance<Q>> advanced) {
+        if (bucket == null) {
+            return;
+        }
+        for (Entry<Q> entry : bucket) {
+            questsTouched.increment();
+            int progress = entry.advance();
+            if (progress < 0) {
+                continue; // Finished by another thread, which unregisters it
+            }
+            advanced.add(new Advance<>(entry, progress));
+            if (progress == entry.goal.required) {
+                unregister(entry);
+            }
+        }
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public long getLiveQuests() {
+        return liveQuests.sum();
+    }
+
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Quests visited per recorded action; a linear scan would visit every live quest
+     */
+    public double getTouchedPerAction() {
+        long recorded = actions.sum();
+        return recorded == 0 ? 0 : (double) questsTouched.sum() / recorded;
+    }
+
+    public long getQuestsAdvanced() {
+        return questsAdvanced.sum();
+    }
+
+    public void resetMetrics() {
+        actions.reset();
+        questsTouched.reset();
+        questsAdvanced.reset();
+    }
+
+    public String getMetricsSummary() {
+        return String.format("📜 Quest triggers: %,d live quests for %,d players, %,d actions, %.2f quests touched per action, %,d advanced",
+            getLiveQuests(), getPlayerCount(), actions.sum(), getTouchedPerAction(), getQuestsAdvanced());
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * RegionalEvents - Generates world events region by region on a shared executor
+ * Each round, every region draws a Poisson number of events at its own rate and places them
+ * at random moments inside the round. Regions are generated in parallel batches, each with
+ * a random stream derived from (seed, round, region), and the per-region lists are merged by
+ * time, so the merged order does not depend on which thread ran which region.
+ */
+public class RegionalEvents {
+
+    /**
+     * Builds one event for a region, using only the supplied random stream
+     */
+    @FunctionalInterface
+    public interface EventFactory {
+        RegionEvent create(int region, SplittableRandom random);
+    }
+
+    /**
+     * One generated event. Offset is its moment inside the round, in [0, 1)
+     */
+    public static final class RegionEvent {
+        final int region;
+        final String type;
+        final String title;
+        final String description;
+        double offset;
+
+        public RegionEvent(int region, String type, String title, String description) {
+            this.region = region;
+            this.type = type;
+            this.title = title;
+            this.description = description;
+        }
+
+        public int getRegion() {
+            return region;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public double getOffset() {
+            return offset;
+        }
+    }
+
+    private static final int BATCHES_PER_WORKER = 4; // Slack so uneven regions still balance
+    private static final int MIN_REGIONS_PER_BATCH = 16;
+
+    private final long seed;
+    private final EventFactory factory;
+    private final Executor executor;
+    private final int parallelism;
+    private long round;
+
+    public RegionalEvents(long seed, EventFactory factory) {
+        this(seed, factory, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public RegionalEvents(long seed, EventFactory factory, Executor executor, int parallelism) {
+        this.seed = seed;
+        this.factory = factory;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Generate one round. rates[r] is the expected number of events in region r this round.
+     * Returns every event of the round ordered by offset (ties by region)
+     */
+    public synchronized List<RegionEvent> generateRound(double[] rates) {
+        long thisRound = round++;
+        int regions = rates.length;
+        int batchSize = Math.max(MIN_REGIONS_PER_BATCH, (regions + parallelism * BATCHES_PER_WORKER - 1)
+            / (parallelism * BATCHES_PER_WORKER));
+
+        List<List<RegionEvent>> perRegion = new ArrayList<>(regions);
+        if (regions <= batchSize) {
+            for (int region = 0; region < regions; region++) {
+                perRegion.add(generateRegion(thisRound, region, rates[region]));
+            }
+        } else {
+            List<CompletableFuture<List<List<RegionEvent>>>> batches = new ArrayList<>();
+            for (int from = 0; from < regions; from += batchSize) {
+                int start = from;
+                int end = Math.min(regions, from + batchSize);
+                batches.add(CompletableFuture.supplyAsync(() -> {
+                    List<List<RegionEvent>> lists = new ArrayList<>(end - start);
+                    for (int region = start; region < end; region++) {
+                        lists.add(generateRegion(thisRound, region, rates[region]));
+                    }
+                    return lists;
+                }, executor));
+            }
+            for (CompletableFuture<List<List<RegionEvent>>> batch : batches) {
+                perRegion.addAll(batch.join()); // Batches are in region order
+            }
+        }
+        return merge(perRegion);
+    }
+
+    /**
+     * One region's events for a round, sorted by offset
+     */
+    private List<RegionEvent> generateRegion(long thisRound, int region, double rate) {
+        SplittableRandom random = new SplittableRandom(mix(seed, thisRound, region));
+        int count = poisson(rate, random);
+        if (count == 0) {
+            return List.of();
+        }
+        double[] offsets = new double[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = random.nextDouble();
+        }
+        Arrays.sort(offsets);
+        List<RegionEvent> events = new ArrayList<>(count);
+        for (double offset : offsets) {
+            RegionEvent event = factory.create(region, random);
+            event.offset = offset;
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * K-way merge of per-region lists that are each already in offset order
+     */
+    private static List<RegionEvent> merge(List<List<RegionEvent>> perRegion) {
+        int total = 0;
+        for (List<RegionEvent> events : perRegion) {
+            total += events.size();
+        }
+        List<RegionEvent> merged = new ArrayList<>(total);
+        // Heap entries are {region, position in that region's list}
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> {
+            int byOffset = Double.compare(perRegion.get(a[0]).get(a[1]).offset, perRegion.get(b[0]).get(b[1]).offset);
+            return byOffset != 0 ? byOffset : Integer.compare(a[0], b[0]);
+        });
+        for (int region = 0; region < perRegion.size(); region++) {
+            if (!perRegion.get(region).isEmpty()) {
+                heads.add(new int[] {region, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<RegionEvent> events = perRegion.get(head[0]);
+            merged.add(events.get(head[1]));
+            if (++head[1] < events.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static int poisson(double rate, SplittableRandom random) {
+        if (rate <= 0) {
+            return 0;
+        }
+        if (rate > 30) {
+            // Normal approximation keeps large rates O(1)
+            double sample = rate + Math.sqrt(rate) * gaussian(random);
+            return (int) Math.max(0, Math.round(sample));
+        }
+        double limit = Math.exp(-rate);
+        int count = 0;
+        double product = random.nextDouble();
+        while (product > limit) {
+            count++;
+            product *= random.nextDouble();
+        }
+        return count;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble(); // (0, 1]
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    private static long mix(long seed, long round, int region) {
+        long z = seed + round * 0x9E3779B97F4A7C15L + region * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    public synchronized long getRounds() {
+        return round;
+    }
+}
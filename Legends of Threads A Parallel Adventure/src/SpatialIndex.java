@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * SpatialIndex - Uniform-grid spatial hash for proximity queries on integer positions
+ * Cells of cellSize x cellSize map onto a fixed table of buckets, each guarded by its own
+ * monitor, so movers in different parts of the world never contend. Radius and k-nearest
+ * queries visit only the cells they overlap and compare squared distances (no Math.sqrt).
+ */
+public class SpatialIndex<T> {
+
+    /**
+     * Handle for one indexed value. Keep it to move or remove the value later
+     */
+    public static final class Entry<T> {
+        final T value;
+        volatile int x;
+        volatile int y;
+        volatile int bucket = -1; // Changed only under the bucket's monitor; -1 once removed
+
+        Entry(T value, int x, int y) {
+            this.value = value;
+            this.x = x;
+            this.y = y;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+    }
+
+    /**
+     * Unordered array of entries hashed to one bucket
+     */
+    private static final class Bucket<T> {
+        @SuppressWarnings("unchecked")
+        Entry<T>[] entries = (Entry<T>[]) new Entry<?>[4];
+        int size;
+
+        void add(Entry<T> entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+
+        void remove(Entry<T> entry) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] == entry) {
+                    entries[i] = entries[--size]; // Swap-remove, order does not matter
+                    entries[size] = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    private final int cellSize;
+    private final Bucket<T>[] buckets;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    @SuppressWarnings("unchecked")
+    public SpatialIndex(int cellSize, int bucketCount) {
+        this.cellSize = Math.max(1, cellSize);
+        int tableSize = Integer.highestOneBit(Math.max(2, bucketCount - 1)) << 1; // Power of two
+        this.buckets = (Bucket<T>[]) new Bucket<?>[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        this.mask = tableSize - 1;
+    }
+
+    // ===============================================
+    // UPDATES
+    // ===============================================
+
+    public Entry<T> insert(T value, int x, int y) {
+        Entry<T> entry = new Entry<>(value, x, y);
+        int bucket = bucketFor(x, y);
+        synchronized (buckets[bucket]) {
+            buckets[bucket].add(entry);
+            entry.bucket = bucket;
+        }
+        size.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Move an entry. Staying inside the same bucket only updates the coordinates; crossing
+     * buckets locks both (in index order, so concurrent movers cannot deadlock) and the entry
+     * is never missing from the index in between
+     */
+    public void move(Entry<T> entry, int x, int y) {
+        while (true) {
+            int from = entry.bucket;
+            if (from < 0) {
+                return; // Removed
+            }
+            int to = bucketFor(x, y);
+            if (from == to) {
+                synchronized (buckets[from]) {
+                    if (entry.bucket == from) {
+                        entry.x = x;
+                        entry.y = y;
+                        return;
+                    }
+                }
+                continue; // Moved by someone else meanwhile, retry
+            }
+            Bucket<T> first = buckets[Math.min(from, to)];
+            Bucket<T> second = buckets[Math.max(from, to)];
+            synchronized (first) {
+                synchronized (second) {
+                    if (entry.bucket != from) {
+                        continue;
+                    }
+                    buckets[from].remove(entry);
+                    entry.x = x;
+                    entry.y = y;
+                    buckets[to].add(entry);
+                    entry.bucket = to;
+                    return;
+                }
+            }
+        }
+    }
+
+    public void remove(Entry<T> entry) {
+        while (true) {
+            int from = entry.bucket;
+            if (from < 0) {
+                return;
+            }
+            synchronized (buckets[from]) {
+                if (entry.bucket == from) {
+                    buckets[from].remove(entry);
+                    entry.bucket = -1;
+                    size.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // ===============================================
+    // QUERIES
+    // ===============================================
+
+    /**
+     * Visit every value strictly closer than radius to (x, y)
+     */
+    public void forEachNearby(int x, int y, double radius, Consumer<? super T> action) {
+        scan(x, y, radius, entry -> action.accept(entry.value));
+    }
+
+    /**
+     * Every value strictly closer than radius to (x, y), nearest first
+     */
+    public List<T> nearby(int x, int y, double radius) {
+        List<Entry<T>> found = new ArrayList<>();
+        scan(x, y, radius, found::add);
+        found.sort(Comparator.comparingLong(entry -> distanceSquared(entry, x, y)));
+        List<T> values = new ArrayList<>(found.size());
+        found.forEach(entry -> values.add(entry.value));
+        return values;
+    }
+
+    /**
+     * The k values nearest to (x, y), nearest first. Searches outward ring by ring and falls
+     * back to one pass over the table once the search area outgrows it
+     */
+    public List<T> nearest(int x, int y, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        double radius = cellSize;
+        while (true) {
+            List<Entry<T>> found = new ArrayList<>();
+            scan(x, y, radius, found::add);
+            long cellsCovered = (long) Math.ceil(2 * radius / cellSize + 1) * (long) Math.ceil(2 * radius / cellSize + 1);
+            if (found.size() >= k || found.size() >= size.get() || cellsCovered >= buckets.length) {
+                if (found.size() < k && found.size() < size.get()) {
+                    return nearestByFullScan(x, y, k);
+                }
+                // Everything outside the radius is farther than everything found inside it
+                found.sort(Comparator.comparingLong(entry -> distanceSquared(entry, x, y)));
+                List<T> values = new ArrayList<>(k);
+                for (int i = 0; i < Math.min(k, found.size()); i++) {
+                    values.add(found.get(i).value);
+                }
+                return values;
+            }
+            radius *= 2;
+        }
+    }
+
+    private List<T> nearestByFullScan(int x, int y, int k) {
+        // Max-heap of the best k seen so far
+        PriorityQueue<Entry<T>> best = new PriorityQueue<>(k,
+            Comparator.comparingLong((Entry<T> entry) -> distanceSquared(entry, x, y)).reversed());
+        for (Bucket<T> bucket : buckets) {
+            synchronized (bucket) {
+                for (int i = 0; i < bucket.size; i++) {
+                    best.add(bucket.entries[i]);
+                    if (best.size() > k) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        List<Entry<T>> sorted = new ArrayList<>(best);
+        sorted.sort(Comparator.comparingLong(entry -> distanceSquared(entry, x, y)));
+        List<T> values = new ArrayList<>(sorted.size());
+        sorted.forEach(entry -> values.add(entry.value));
+        return values;
+    }
+
+    /**
+     * Hand every entry strictly closer than radius to sink, visiting only the overlapped cells
+     */
+    private void scan(int x, int y, double radius, Consumer<Entry<T>> sink) {
+        long limit = squaredLimit(radius);
+        int reach = (int) Math.ceil(radius);
+        int minCellX = Math.floorDiv(x - reach, cellSize);
+        int maxCellX = Math.floorDiv(x + reach, cellSize);
+        int minCellY = Math.floorDiv(y - reach, cellSize);
+        int maxCellY = Math.floorDiv(y + reach, cellSize);
+
+        if ((long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) >= buckets.length) {
+            // Query area covers more cells than there are buckets: visit each bucket once
+            for (Bucket<T> bucket : buckets) {
+                synchronized (bucket) {
+                    for (int i = 0; i < bucket.size; i++) {
+                        if (distanceSquared(bucket.entries[i], x, y) < limit) {
+                            sink.accept(bucket.entries[i]);
+                        }
+                    }
+                }
+            }
+            return;
+        }
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                Bucket<T> bucket = buckets[bucketForCell(cellX, cellY)];
+                synchronized (bucket) {
+                    for (int i = 0; i < bucket.size; i++) {
+                        Entry<T> entry = bucket.entries[i];
+                        // Different cells can share a bucket: only report entries of this cell
+                        if (Math.floorDiv(entry.x, cellSize) == cellX && Math.floorDiv(entry.y, cellSize) == cellY
+                                && distanceSquared(entry, x, y) < limit) {
+                            sink.accept(entry);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // ===============================================
+    // HELPERS
+    // ===============================================
+
+    /**
+     * Squared distance between two points, for comparisons that never need the root
+     */
+    public static long distanceSquared(int x1, int y1, int x2, int y2) {
+        long dx = (long) x1 - x2;
+        long dy = (long) y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    private static long distanceSquared(Entry<?> entry, int x, int y) {
+        return distanceSquared(entry.x, entry.y, x, y);
+    }
+
+    /**
+     * Smallest squared distance that is NOT closer than radius (integer coordinates)
+     */
+    private static long squaredLimit(double radius) {
+        return (long) Math.ceil(radius * radius);
+    }
+
+    private int bucketFor(int x, int y) {
+        return bucketForCell(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize));
+    }
+
+    private int bucketForCell(int cellX, int cellY) {
+        int hash = cellX * 0x9E3779B1 ^ cellY * 0x85EBCA77;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
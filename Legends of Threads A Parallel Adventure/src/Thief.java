@@ -17,8 +17,10 @@ public class Thief extends GameCharacter {
     private int guardsEluded;
     private final GameWorld gameWorld;
     
+    static final int BASE_HEALTH = 80;
+    
     public Thief(String name, int startX, int startY, SharedResources sharedResources, GameAnalytics analytics, GameWorld gameWorld) {
-        super(name, 80, startX, startY, sharedResources, analytics); // Medium health
+        super(name, BASE_HEALTH, startX, startY, sharedResources, analytics); // Medium health
         this.gameWorld = gameWorld;
         this.stealth = 25;
         this.agility = 30;
@@ -283,7 +285,7 @@ public class Thief extends GameCharacter {
     
     // Thief-specific methods
     public void pickpocket(GameCharacter target) {
-        if (target.isAlive() && distanceTo(target) <= 1 && !target.getInventory().isEmpty()) {
+        if (target.isAlive() && distanceSquaredTo(target) <= 1 && !target.getInventory().isEmpty()) {
             System.out.println(name + " attempts to pickpocket " + target.getName() + "!");
             if (random.nextInt(2) == 0) { // 50% success rate
                 System.out.println("Success! " + name + " steals an item.");
@@ -0,0 +1,143 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * TrackedExecutor - Runs tasks on an executor and keeps service metrics for them
+ * Shared by the services that hand out CompletableFutures (BattleArena, ExpeditionService).
+ * Every task is counted when submitted and again when it finishes - normally or not - so the
+ * in-flight count never leaks. Submit-to-finish latency goes into a quantile sketch. All
+ * counters are lock-free.
+ */
+final class TrackedExecutor<R> {
+
+    private final Executor executor;
+    private final ExecutorService ownedPool; // Shut down by shutdown() when the service created it
+
+    // === METRICS ===
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AnalyticsSketches.QuantileSketch latencyMicros = new AnalyticsSketches.QuantileSketch(0.01);
+    private final AtomicLong metricsStart = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param owned whether shutdown() should stop the executor (it must then be an ExecutorService)
+     */
+    TrackedExecutor(Executor executor, boolean owned) {
+        this.executor = executor;
+        this.ownedPool = owned ? (ExecutorService) executor : null;
+    }
+
+    // ===============================================
+    // SUBMIT / AWAIT
+    // ===============================================
+
+    /**
+     * Queue a task. The future completes on the worker that ran it, after it has been counted.
+     * A task the executor rejects (e.g. after shutdown) is counted as failed and comes back as
+     * an already-failed future instead of throwing
+     */
+    CompletableFuture<R> submit(Supplier<R> task) {
+        long submittedAt = System.nanoTime();
+        submitted.increment();
+        try {
+            return CompletableFuture.supplyAsync(task, executor)
+                .whenComplete((result, error) -> finish(submittedAt, error != null));
+        } catch (RejectedExecutionException e) {
+            finish(submittedAt, true);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    private void finish(long submittedAt, boolean error) {
+        long latency = System.nanoTime() - submittedAt;
+        latencyMicros.add((int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(latency)));
+        if (error) {
+            failed.increment();
+        }
+        completed.increment();
+    }
+
+    /**
+     * Wait for every future, returning results in the same order
+     */
+    static <R> List<R> awaitAll(List<CompletableFuture<R>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Finished tasks, including ones that threw
+     */
+    long getCompleted() {
+        return completed.sum();
+    }
+
+    long getFailed() {
+        return failed.sum();
+    }
+
+    long getInFlight() {
+        return submitted.sum() - completed.sum();
+    }
+
+    /**
+     * Finished tasks per second since creation or the last resetMetrics()
+     */
+    double getPerSecond() {
+        long elapsed = System.nanoTime() - metricsStart.get();
+        return elapsed <= 0 ? 0 : completed.sum() / (elapsed / 1e9);
+    }
+
+    /**
+     * Submit-to-finish latency in milliseconds at quantile q (0.99 = p99), within 1%
+     */
+    double getLatencyMillis(double q) {
+        return latencyMicros.quantile(q) / 1000.0;
+    }
+
+    /**
+     * Start a new measurement window. Call while no task is running
+     */
+    void resetMetrics() {
+        submitted.reset();
+        completed.reset();
+        failed.reset();
+        latencyMicros.clear();
+        metricsStart.set(System.nanoTime());
+    }
+
+    /**
+     * Stop the owned executor (no-op for a caller-managed one)
+     */
+    void shutdown() {
+        if (ownedPool != null) {
+            ownedPool.shutdown();
+            try {
+                ownedPool.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -19,8 +19,10 @@ public class Wizard extends GameCharacter {
     private int apprenticesHelped;
     private final GameWorld gameWorld;
     
+    static final int BASE_HEALTH = 70;
+    
     public Wizard(String name, int startX, int startY, SharedResources sharedResources, GameAnalytics analytics, GameWorld gameWorld) {
-        super(name, 70, startX, startY, sharedResources, analytics); // Lower health but has magic
+        super(name, BASE_HEALTH, startX, startY, sharedResources, analytics); // Lower health but has magic
         this.gameWorld = gameWorld;
         this.mana = 100;
         this.maxMana = 100;
@@ -366,7 +368,7 @@ public class Wizard extends GameCharacter {
     
     // Wizard-specific methods
     public void enchant(GameCharacter target) {
-        if (target.isAlive() && mana >= 30 && distanceTo(target) <= 2) {
+        if (target.isAlive() && mana >= 30 && distanceSquaredTo(target) <= 4) {
             mana -= 30;
             target.heal(20);
             System.out.println(name + " enchants " + target.getName() + " with beneficial magic!");
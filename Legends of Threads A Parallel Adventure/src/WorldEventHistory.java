@@ -0,0 +1,234 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * WorldEventHistory - Bounded, lock-free history of world events
+ * Events are kept as structured records in a power-of-two ring indexed by sequence number, so
+ * writers never block each other and "last N" is a direct O(N) read. Text is only formatted
+ * when somebody displays it. Events pushed out of the ring can be archived to a file by a
+ * background thread instead of being kept in memory forever.
+ */
+public class WorldEventHistory {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    /**
+     * One world event, formatted on demand
+     */
+    public static final class WorldEvent {
+        final long sequence;
+        final long timestamp; // Epoch milliseconds
+        final String title;
+        final String description;
+
+        WorldEvent(long sequence, long timestamp, String title, String description) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.title = title;
+            this.description = description;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * "[HH:mm:ss] Title\n    Description\n" - the layout GameWorld has always printed
+         */
+        public String format() {
+            return "[" + TIME_FORMAT.format(Instant.ofEpochMilli(timestamp)) + "] " + title + "\n    "
+                + description + "\n";
+        }
+    }
+
+    private final AtomicReferenceArray<WorldEvent> ring;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong(0);
+
+    // Optional archive of events evicted from the ring
+    private volatile BlockingQueue<WorldEvent> archiveQueue;
+    private volatile Thread archiveThread;
+    private final AtomicLong archivedEvents = new AtomicLong(0);
+    private final AtomicLong droppedArchiveEvents = new AtomicLong(0); // Archive queue was full
+    private static final int ARCHIVE_QUEUE_CAPACITY = 65_536;
+
+    public WorldEventHistory(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // Round up to a power of two
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Record an event. Lock-free: one atomic increment plus one slot update
+     */
+    public WorldEvent record(String title, String description) {
+        long sequence = nextSequence.getAndIncrement();
+        WorldEvent event = new WorldEvent(sequence, System.currentTimeMillis(), title, description);
+        int slot = (int) (sequence & mask);
+
+        WorldEvent previous;
+        do {
+            previous = ring.get(slot);
+            if (previous != null && previous.sequence > sequence) {
+                archive(event); // A later lap already took the slot; this one is already history
+                return event;
+            }
+        } while (!ring.compareAndSet(slot, previous, event));
+
+        if (previous != null) {
+            archive(previous);
+        }
+        return event;
+    }
+
+    private void archive(WorldEvent evicted) {
+        BlockingQueue<WorldEvent> queue = archiveQueue;
+        if (queue != null && !queue.offer(evicted)) {
+            droppedArchiveEvents.incrementAndGet(); // Never block a game thread on the disk
+        }
+    }
+
+    /**
+     * The most recent events, oldest first, already formatted. Reads only the slots it returns
+     */
+    public List<String> recent(int count) {
+        List<String> formatted = new ArrayList<>();
+        for (WorldEvent event : recentEvents(count)) {
+            formatted.add(event.format());
+        }
+        return formatted;
+    }
+
+    /**
+     * The most recent structured events, oldest first. A count of zero or less returns nothing
+     */
+    public List<WorldEvent> recentEvents(int count) {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - Math.min(Math.max(0, count), ring.length()));
+        List<WorldEvent> events = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            WorldEvent event = ring.get((int) (sequence & mask));
+            if (event != null && event.sequence == sequence) { // Skip slots still being written or lapped
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Total events ever recorded (including ones no longer in memory)
+     */
+    public long size() {
+        return nextSequence.get();
+    }
+
+    public int capacity() {
+        return ring.length();
+    }
+
+    public long getArchivedEvents() {
+        return archivedEvents.get();
+    }
+
+    public long getDroppedArchiveEvents() {
+        return droppedArchiveEvents.get();
+    }
+
+    // ===============================================
+    // DISK ARCHIVE
+    // ===============================================
+
+    /**
+     * Append every event that falls out of the ring to the given file from now on
+     */
+    public synchronized boolean startArchive(Path path) {
+        if (archiveThread != null) {
+            return true;
+        }
+        BufferedWriter writer;
+        try {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("⚠️ World event archive unavailable (" + e.getMessage() + ")");
+            return false;
+        }
+
+        BlockingQueue<WorldEvent> queue = new LinkedBlockingQueue<>(ARCHIVE_QUEUE_CAPACITY);
+        Thread thread = new Thread(() -> drainArchive(queue, writer), "WorldEventArchiver");
+        thread.setDaemon(true);
+        archiveQueue = queue;
+        archiveThread = thread;
+        thread.start();
+        return true;
+    }
+
+    private void drainArchive(BlockingQueue<WorldEvent> queue, BufferedWriter writer) {
+        try (writer) {
+            try {
+                while (true) {
+                    WorldEvent event = queue.poll(1, TimeUnit.SECONDS);
+                    if (event == null) {
+                        writer.flush();
+                    } else {
+                        writeArchived(writer, event);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Closing: write out whatever is still queued
+                for (WorldEvent event; (event = queue.poll()) != null; ) {
+                    writeArchived(writer, event);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ World event archive write failed (" + e.getMessage() + ")");
+        }
+    }
+
+    private void writeArchived(BufferedWriter writer, WorldEvent event) throws IOException {
+        writer.write(event.format());
+        archivedEvents.incrementAndGet();
+    }
+
+    /**
+     * Stop archiving, flushing queued events to disk first
+     */
+    public synchronized void stopArchive() {
+        Thread thread = archiveThread;
+        if (thread == null) {
+            return;
+        }
+        archiveQueue = null;
+        archiveThread = null;
+        thread.interrupt();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,440 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * WorldMap - Chunked, procedurally generated tile map of the Shattered Realm
+ * Every tile has a terrain, a region type and a corruption level. Chunks are generated from
+ * the world seed the first time they are touched, kept in a bounded LRU cache, and simply
+ * dropped on eviction unless they were modified - then they are deflated into a spill file
+ * and read back later. Memory use is fixed by the cache size, not by the world size.
+ */
+public class WorldMap {
+
+    // === TILE VALUES ===
+    public static final byte WATER = 0;
+    public static final byte PLAINS = 1;
+    public static final byte FOREST = 2;
+    public static final byte SWAMP = 3;
+    public static final byte DESERT = 4;
+    public static final byte HILLS = 5;
+    public static final byte MOUNTAINS = 6;
+    private static final String[] TERRAIN_NAMES = {
+        "Water", "Plains", "Forest", "Swamp", "Desert", "Hills", "Mountains"
+    };
+
+    public static final byte NEUTRAL = 0;
+    public static final byte ANCIENT = 1;
+    public static final byte CORRUPTED = 2;
+    private static final String[] REGION_NAMES = {"Neutral Territory", "Ancient Site", "Corrupted Region"};
+    private static final int CORRUPTED_THRESHOLD = 60;
+    private static final int DISTRICT_BITS = 8; // 256 x 256 tile districts, a multiple of the chunk size
+
+    // === CHUNK LAYOUT ===
+    static final int CHUNK_BITS = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS; // 64 x 64 tiles
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int TILES_PER_CHUNK = CHUNK_SIZE * CHUNK_SIZE;
+
+    /**
+     * One 64x64 block of tiles, stored as three byte columns
+     */
+    static final class Chunk {
+        final byte[] terrain = new byte[TILES_PER_CHUNK];
+        final byte[] region = new byte[TILES_PER_CHUNK];
+        final byte[] corruption = new byte[TILES_PER_CHUNK]; // 0-100
+        boolean dirty; // Modified since it was generated or last spilled
+
+        byte[] pack() {
+            byte[] packed = new byte[3 * TILES_PER_CHUNK];
+            System.arraycopy(terrain, 0, packed, 0, TILES_PER_CHUNK);
+            System.arraycopy(region, 0, packed, TILES_PER_CHUNK, TILES_PER_CHUNK);
+            System.arraycopy(corruption, 0, packed, 2 * TILES_PER_CHUNK, TILES_PER_CHUNK);
+            return packed;
+        }
+
+        static Chunk unpack(byte[] packed) {
+            Chunk chunk = new Chunk();
+            System.arraycopy(packed, 0, chunk.terrain, 0, TILES_PER_CHUNK);
+            System.arraycopy(packed, TILES_PER_CHUNK, chunk.region, 0, TILES_PER_CHUNK);
+            System.arraycopy(packed, 2 * TILES_PER_CHUNK, chunk.corruption, 0, TILES_PER_CHUNK);
+            return chunk; // Clean: the spill file already holds exactly this
+        }
+    }
+
+    private final long seed;
+    private final int width;
+    private final int height;
+    private final int maxCachedChunks;
+
+    // LRU cache, guarded by this
+    private final LinkedHashMap<Long, Chunk> cache;
+
+    // Spill file for modified chunks: chunk key -> {offset, capacity, length}, guarded by this
+    private final Map<Long, long[]> spillIndex = new HashMap<>();
+    private RandomAccessFile spillFile;
+    private Path spillPath;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+
+    // === METRICS ===
+    private long chunksGenerated;
+    private long chunksSpilled;
+    private long chunksReloaded;
+    private long cacheHits;
+    private long cacheMisses;
+
+    public WorldMap(long seed, int width, int height, int maxCachedChunks) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.maxCachedChunks = Math.max(1, maxCachedChunks);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= WorldMap.this.maxCachedChunks) {
+                    return false;
+                }
+                if (eldest.getValue().dirty) {
+                    spill(eldest.getKey(), eldest.getValue());
+                }
+                return true;
+            }
+        };
+    }
+
+    // ===============================================
+    // TILE ACCESS
+    // ===============================================
+
+    public synchronized byte getTerrain(int x, int y) {
+        return chunkAt(x, y).terrain[tileIndex(x, y)];
+    }
+
+    public synchronized byte getRegionType(int x, int y) {
+        return chunkAt(x, y).region[tileIndex(x, y)];
+    }
+
+    public synchronized int getCorruption(int x, int y) {
+        return chunkAt(x, y).corruption[tileIndex(x, y)];
+    }
+
+    /**
+     * Change a tile's corruption (clamped to 0-100). The chunk now survives eviction on disk
+     */
+    public synchronized void setCorruption(int x, int y, int corruption) {
+        Chunk chunk = chunkAt(x, y);
+        chunk.corruption[tileIndex(x, y)] = (byte) Math.max(0, Math.min(100, corruption));
+        chunk.region[tileIndex(x, y)] = regionFor(chunk.corruption[tileIndex(x, y)], x, y);
+        chunk.dirty = true;
+    }
+
+    /**
+     * Human-readable summary of a tile, e.g. "Forest (Corrupted Region, corruption 72)"
+     */
+    public String describeTile(int x, int y) {
+        byte terrain;
+        byte region;
+        int corruption;
+        synchronized (this) {
+            Chunk chunk = chunkAt(x, y);
+            int index = tileIndex(x, y);
+            terrain = chunk.terrain[index];
+            region = chunk.region[index];
+            corruption = chunk.corruption[index];
+        }
+        return TERRAIN_NAMES[terrain] + " (" + REGION_NAMES[region] + ", corruption " + corruption + ")";
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        if (!contains(x, y)) {
+            throw new IndexOutOfBoundsException("Tile (" + x + ", " + y + ") is outside the " + width + "x" + height + " map");
+        }
+        int chunkX = x >>> CHUNK_BITS;
+        int chunkY = y >>> CHUNK_BITS;
+        long key = ((long) chunkX << 32) | chunkY;
+        Chunk chunk = cache.get(key);
+        if (chunk != null) {
+            cacheHits++;
+            return chunk;
+        }
+        cacheMisses++;
+        chunk = reload(key);
+        if (chunk == null) {
+            chunk = generate(chunkX, chunkY);
+            chunksGenerated++;
+        }
+        cache.put(key, chunk);
+        return chunk;
+    }
+
+    private static int tileIndex(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+    }
+
+    // ===============================================
+    // PROCEDURAL GENERATION
+    // ===============================================
+
+    private Chunk generate(int chunkX, int chunkY) {
+        Chunk chunk = new Chunk();
+        int baseX = chunkX << CHUNK_BITS;
+        int baseY = chunkY << CHUNK_BITS;
+        double[] elevation = fractalField(baseX, baseY, 256, 3, 0);
+        double[] moisture = fractalField(baseX, baseY, 512, 2, 1);
+        double[] corruptionField = fractalField(baseX, baseY, 1024, 2, 2);
+        byte uncorruptedRegion = regionFor(0, baseX, baseY); // A chunk never straddles two districts
+        for (int index = 0; index < TILES_PER_CHUNK; index++) {
+            int corruption = (int) Math.round(Math.max(0, corruptionField[index] - 0.35) / 0.65 * 100);
+            chunk.terrain[index] = terrainFor(elevation[index], moisture[index]);
+            chunk.corruption[index] = (byte) Math.min(100, corruption);
+            chunk.region[index] = corruption >= CORRUPTED_THRESHOLD ? CORRUPTED : uncorruptedRegion;
+        }
+        return chunk;
+    }
+
+    /**
+     * Fractal value noise in [0, 1) for every tile of one chunk. Octaves whose lattice is
+     * coarser than a chunk interpolate between four corners hashed once per chunk
+     */
+    private double[] fractalField(int baseX, int baseY, int scale, int octaves, int channel) {
+        double[] field = new double[TILES_PER_CHUNK];
+        double[] weightX = new double[CHUNK_SIZE];
+        double[] weightY = new double[CHUNK_SIZE];
+        double amplitude = 1;
+        double norm = 0;
+        for (int octave = 0; octave < octaves; octave++) {
+            int octaveScale = Math.max(1, scale >> octave);
+            int noiseChannel = channel * 8 + octave;
+            if (octaveScale % CHUNK_SIZE == 0) {
+                int cellX = Math.floorDiv(baseX, octaveScale);
+                int cellY = Math.floorDiv(baseY, octaveScale);
+                double c00 = hashToUnit(cellX, cellY, noiseChannel);
+                double c10 = hashToUnit(cellX + 1, cellY, noiseChannel);
+                double c01 = hashToUnit(cellX, cellY + 1, noiseChannel);
+                double c11 = hashToUnit(cellX + 1, cellY + 1, noiseChannel);
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    weightX[i] = smooth((double) Math.floorMod(baseX + i, octaveScale) / octaveScale);
+                    weightY[i] = smooth((double) Math.floorMod(baseY + i, octaveScale) / octaveScale);
+                }
+                for (int ty = 0; ty < CHUNK_SIZE; ty++) {
+                    double left = lerp(c00, c01, weightY[ty]);
+                    double right = lerp(c10, c11, weightY[ty]);
+                    int row = ty << CHUNK_BITS;
+                    for (int tx = 0; tx < CHUNK_SIZE; tx++) {
+                        field[row + tx] += amplitude * lerp(left, right, weightX[tx]);
+                    }
+                }
+            } else {
+                for (int index = 0; index < TILES_PER_CHUNK; index++) {
+                    field[index] += amplitude * valueNoise(baseX + (index & CHUNK_MASK),
+                                                           baseY + (index >>> CHUNK_BITS), octaveScale, noiseChannel);
+                }
+            }
+            norm += amplitude;
+            amplitude *= 0.5;
+        }
+        for (int index = 0; index < TILES_PER_CHUNK; index++) {
+            field[index] /= norm;
+        }
+        return field;
+    }
+
+    private static byte terrainFor(double elevation, double moisture) {
+        if (elevation < 0.30) {
+            return WATER;
+        } else if (elevation > 0.78) {
+            return MOUNTAINS;
+        } else if (elevation > 0.66) {
+            return HILLS;
+        } else if (moisture > 0.68) {
+            return SWAMP;
+        } else if (moisture > 0.48) {
+            return FOREST;
+        } else if (moisture < 0.25) {
+            return DESERT;
+        }
+        return PLAINS;
+    }
+
+    private byte regionFor(int corruption, int x, int y) {
+        if (corruption >= CORRUPTED_THRESHOLD) {
+            return CORRUPTED;
+        }
+        // Ancient sites are scattered districts chosen by the seed
+        return hashToUnit(x >> DISTRICT_BITS, y >> DISTRICT_BITS, 3) < 0.06 ? ANCIENT : NEUTRAL;
+    }
+
+    /**
+     * Bilinearly interpolated lattice noise in [0, 1) for a single tile
+     */
+    private double valueNoise(int x, int y, int scale, int channel) {
+        int cellX = Math.floorDiv(x, scale);
+        int cellY = Math.floorDiv(y, scale);
+        double fx = smooth((double) Math.floorMod(x, scale) / scale);
+        double fy = smooth((double) Math.floorMod(y, scale) / scale);
+        double top = lerp(hashToUnit(cellX, cellY, channel), hashToUnit(cellX + 1, cellY, channel), fx);
+        double bottom = lerp(hashToUnit(cellX, cellY + 1, channel), hashToUnit(cellX + 1, cellY + 1, channel), fx);
+        return lerp(top, bottom, fy);
+    }
+
+    private double hashToUnit(int x, int y, int channel) {
+        long hash = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (y * 0xC2B2AE3D27D4EB4FL) ^ (channel * 0x165667B19E3779F9L);
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        hash ^= hash >>> 31;
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    // ===============================================
+    // SPILL FILE (modified chunks only)
+    // ===============================================
+
+    private void spill(long key, Chunk chunk) {
+        try {
+            if (spillFile == null) {
+                spillPath = Files.createTempFile("shattered-realm-", ".chunks");
+                spillPath.toFile().deleteOnExit();
+                spillFile = new RandomAccessFile(spillPath.toFile(), "rw");
+            }
+            deflater.reset();
+            deflater.setInput(chunk.pack());
+            deflater.finish();
+            byte[] buffer = new byte[3 * TILES_PER_CHUNK + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            // Overwrite the chunk's previous record if the new one fits, otherwise append
+            long[] slot = spillIndex.get(key);
+            boolean fits = slot != null && slot[1] >= length;
+            long offset = fits ? slot[0] : spillFile.length();
+            long capacity = fits ? slot[1] : length;
+            spillFile.seek(offset);
+            spillFile.write(buffer, 0, length);
+            spillIndex.put(key, new long[] {offset, capacity, length});
+            chunk.dirty = false;
+            chunksSpilled++;
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not spill world chunk, changes to it are lost (" + e.getMessage() + ")");
+        }
+    }
+
+    private Chunk reload(long key) {
+        long[] slot = spillIndex.get(key);
+        if (slot == null) {
+            return null;
+        }
+        try {
+            byte[] compressed = new byte[(int) slot[2]];
+            spillFile.seek(slot[0]);
+            spillFile.readFully(compressed);
+            inflater.reset();
+            inflater.setInput(compressed);
+            byte[] packed = new byte[3 * TILES_PER_CHUNK];
+            int read = 0;
+            while (read < packed.length && !inflater.finished()) {
+                read += inflater.inflate(packed, read, packed.length - read);
+            }
+            chunksReloaded++;
+            return Chunk.unpack(packed);
+        } catch (IOException | DataFormatException e) {
+            System.err.println("⚠️ Could not reload world chunk, regenerating it (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Close and delete the spill file. Modified chunks not in the cache are forgotten
+     */
+    public synchronized void close() {
+        try {
+            if (spillFile != null) {
+                spillFile.close();
+                Files.deleteIfExists(spillPath);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not remove world spill file (" + e.getMessage() + ")");
+        }
+        spillFile = null;
+        spillIndex.clear();
+        deflater.end();
+        inflater.end();
+    }
+
+    // ===============================================
+    // METRICS
+    // ===============================================
+
+    public synchronized int getCachedChunks() {
+        return cache.size();
+    }
+
+    public int getMaxCachedChunks() {
+        return maxCachedChunks;
+    }
+
+    /**
+     * Heap held by cached tile data (the budget the LRU enforces)
+     */
+    public synchronized long getCachedBytes() {
+        return (long) cache.size() * 3 * TILES_PER_CHUNK;
+    }
+
+    public synchronized long getChunksGenerated() {
+        return chunksGenerated;
+    }
+
+    public synchronized long getChunksSpilled() {
+        return chunksSpilled;
+    }
+
+    public synchronized long getChunksReloaded() {
+        return chunksReloaded;
+    }
+
+    public synchronized double getCacheHitRate() {
+        long total = cacheHits + cacheMisses;
+        return total == 0 ? 0 : (double) cacheHits / total;
+    }
+
+    public synchronized long getSpillFileBytes() {
+        try {
+            return spillFile == null ? 0 : spillFile.length();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WorldStateShards - Region-sharded, lock-free world state for GameWorld
+ * Each region owns its own stability and activity counters, hero contributions are striped
+ * LongAdders, and artifacts can be claimed exactly once. Aggregates are summed on read (the
+ * realm-wide contribution total is one running counter that drives progression triggers),
+ * so no character action ever waits on another region.
+ */
+public class WorldStateShards {
+
+    /**
+     * All mutable state belonging to one region of the realm
+     */
+    public static final class RegionShard {
+        final String name;
+        private final AtomicInteger stability;       // 0-100
+        private final LongAdder actions = new LongAdder();
+        private final LongAdder contributions = new LongAdder();
+
+        RegionShard(String name, int initialStability) {
+            this.name = name;
+            this.stability = new AtomicInteger(initialStability);
+        }
+
+        public int getStability() {
+            return stability.get();
+        }
+
+        /**
+         * Shift stability by delta, clamped to [min, 100], without locking
+         */
+        public int adjustStability(int delta, int min) {
+            return stability.updateAndGet(current -> Math.max(min, Math.min(100, current + delta)));
+        }
+
+        public void recordAction() {
+            actions.increment();
+        }
+
+        public long getActions() {
+            return actions.sum();
+        }
+
+        public long getContributions() {
+            return contributions.sum();
+        }
+    }
+
+    // Region table is built once and never resized, so lookups need no synchronization
+    private final Map<String, RegionShard> regions;
+    private final ConcurrentHashMap<String, LongAdder> heroContributions = new ConcurrentHashMap<>();
+    private final AtomicLong totalContributions = new AtomicLong(); // Exact running total, for threshold triggers
+    private final ArtifactRegistry artifacts;
+
+    public WorldStateShards(Map<String, Integer> initialRegionStability, String... artifactNames) {
+        this.artifacts = new ArtifactRegistry(artifactNames);
+        Map<String, RegionShard> table = new LinkedHashMap<>();
+        initialRegionStability.forEach((name, stability) -> table.put(name, new RegionShard(name, stability)));
+        this.regions = Collections.unmodifiableMap(table);
+    }
+
+    // === REGIONS ===
+
+    public RegionShard region(String name) {
+        return regions.get(name);
+    }
+
+    public Map<String, RegionShard> regions() {
+        return regions;
+    }
+
+    /**
+     * Average stability across all regions (read without stopping writers)
+     */
+    public int averageRegionStability() {
+        if (regions.isEmpty()) {
+            return 0;
+        }
+        long sum = 0;
+        for (RegionShard shard : regions.values()) {
+            sum += shard.getStability();
+        }
+        return (int) (sum / regions.size());
+    }
+
+    // === HERO CONTRIBUTIONS ===
+
+    public void registerHero(String characterName) {
+        heroContributions.computeIfAbsent(characterName, k -> new LongAdder());
+    }
+
+    /**
+     * Credit a hero (and optionally the region they acted in) and return the new realm-wide
+     * total. Per-hero and per-region counters are striped; the total is a single atomic add
+     */
+    public long addContribution(String characterName, String regionName, int amount) {
+        heroContributions.computeIfAbsent(characterName, k -> new LongAdder()).add(amount);
+        RegionShard shard = regionName == null ? null : regions.get(regionName);
+        if (shard != null) {
+            shard.contributions.add(amount);
+        }
+        return totalContributions.addAndGet(amount);
+    }
+
+    public int getContribution(String characterName) {
+        LongAdder adder = heroContributions.get(characterName);
+        return adder == null ? 0 : (int) adder.sum();
+    }
+
+    public long getTotalContributions() {
+        return totalContributions.get();
+    }
+
+    /**
+     * Point-in-time copy of every hero's contribution
+     */
+    public Map<String, Integer> contributionSnapshot() {
+        Map<String, Integer> snapshot = new LinkedHashMap<>();
+        heroContributions.forEach((name, adder) -> snapshot.put(name, (int) adder.sum()));
+        return snapshot;
+    }
+
+    // === ARTIFACTS ===
+
+    /**
+     * Claim an artifact for a hero. Returns true for exactly one caller per artifact
+     */
+    public boolean claimArtifact(String artifact, String characterName) {
+        return artifacts.claim(artifact, characterName);
+    }
+
+    /**
+     * Claim a random unclaimed artifact for a hero. Returns its name, or null if none are left
+     */
+    public String claimRandomArtifact(String characterName) {
+        return artifacts.claimRandom(characterName);
+    }
+
+    public boolean isArtifactClaimed(String artifact) {
+        return artifacts.isClaimed(artifact);
+    }
+
+    public String getArtifactOwner(String artifact) {
+        return artifacts.getOwner(artifact);
+    }
+
+    public int getClaimedArtifactCount() {
+        return artifacts.getClaimedCount();
+    }
+
+    public Map<String, Boolean> artifactSnapshot() {
+        return artifacts.snapshot();
+    }
+}